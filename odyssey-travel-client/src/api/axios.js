@@ -4,4 +4,14 @@ const api = axios.create({
   baseURL: import.meta.env.VITE_API_URL,
 });
 
+// Attach the session token issued at login, if any
+api.interceptors.request.use((config) => {
+  const savedUser = localStorage.getItem("user");
+  const token = savedUser ? JSON.parse(savedUser).token : null;
+  if (token) {
+    config.headers.Authorization = `Bearer ${token}`;
+  }
+  return config;
+});
+
 export default api;
@@ -12,9 +12,13 @@ import {
   faUserTag,
   faChevronDown,
   faSearch,
-  faBolt
+  faBolt,
+  faChevronLeft,
+  faChevronRight
 } from "@fortawesome/free-solid-svg-icons";
 
+const PAGE_SIZE = 20;
+
 const SupportTickets = () => {
   const [tickets, setTickets] = useState([]);
   const [loading, setLoading] = useState(false);
@@ -23,12 +27,30 @@ const SupportTickets = () => {
   const [updatingId, setUpdatingId] = useState(null);
   const [searchTerm, setSearchTerm] = useState("");
   const [filterStatus, setFilterStatus] = useState("ALL");
+  const [page, setPage] = useState(0);
+  const [totalPages, setTotalPages] = useState(0);
+  const [totalTickets, setTotalTickets] = useState(0);
 
   const fetchTickets = async () => {
     try {
       setLoading(true);
-      const res = await api.get("/api/support/all");
-      setTickets(res.data || []);
+      const status = filterStatus !== "ALL" ? filterStatus : undefined;
+      if (searchTerm.trim()) {
+        // ranked server-side search, best matches first
+        const res = await api.get("/api/support/search", {
+          params: { q: searchTerm.trim(), status, limit: PAGE_SIZE },
+        });
+        setTickets(res.data || []);
+        setTotalPages(0);
+        setTotalTickets(res.data?.length || 0);
+      } else {
+        const res = await api.get("/api/support/tickets", {
+          params: { page, size: PAGE_SIZE, sort: "lastUpdatedAt,desc", status },
+        });
+        setTickets(res.data?.content || []);
+        setTotalPages(res.data?.page?.totalPages || 0);
+        setTotalTickets(res.data?.page?.totalElements || 0);
+      }
       setErrorMessage("");
     } catch (err) {
       console.error("Admin fetch tickets error:", err);
@@ -56,8 +78,9 @@ const SupportTickets = () => {
   };
 
   useEffect(() => {
-    fetchTickets();
-  }, []);
+    const timer = setTimeout(fetchTickets, searchTerm ? 300 : 0);
+    return () => clearTimeout(timer);
+  }, [page, filterStatus, searchTerm]);
 
   const getStatusStyles = (status) => {
     switch (status) {
@@ -78,14 +101,6 @@ const SupportTickets = () => {
     }
   };
 
-  const filteredTickets = tickets.filter(t => {
-    const matchesSearch = t.subject.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      t.description.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      String(t.ticketId).includes(searchTerm);
-    const matchesFilter = filterStatus === "ALL" || t.status === filterStatus;
-    return matchesSearch && matchesFilter;
-  });
-
   return (
     <div className="min-h-screen bg-gray-50/50 p-4 md:p-8 font-sans">
       <div className="max-w-7xl mx-auto">
@@ -105,8 +120,8 @@ const SupportTickets = () => {
           <div className="flex items-center gap-3">
             <div className="bg-white px-5 py-3 rounded-2xl border border-gray-200 shadow-sm flex items-center gap-4">
               <div className="text-right border-r border-gray-100 pr-4">
-                <p className="text-[10px] font-bold text-gray-400 uppercase tracking-widest">Active Tickets</p>
-                <p className="text-xl font-black text-gray-900">{tickets.filter(t => t.status !== 'CLOSED' && t.status !== 'RESOLVED').length}</p>
+                <p className="text-[10px] font-bold text-gray-400 uppercase tracking-widest">Matching Tickets</p>
+                <p className="text-xl font-black text-gray-900">{totalTickets}</p>
               </div>
               <div className="w-10 h-10 bg-blue-600 text-white rounded-xl flex items-center justify-center">
                 <FontAwesomeIcon icon={faBolt} />
@@ -123,7 +138,10 @@ const SupportTickets = () => {
               type="text"
               placeholder="Search by ID, Subject or Description..."
               value={searchTerm}
-              onChange={(e) => setSearchTerm(e.target.value)}
+              onChange={(e) => {
+                setSearchTerm(e.target.value);
+                setPage(0);
+              }}
               className="w-full pl-14 pr-6 py-4 bg-white border border-gray-200 rounded-2xl shadow-sm outline-none focus:ring-4 focus:ring-blue-500/10 focus:border-blue-500 transition-all font-medium text-gray-700"
             />
           </div>
@@ -132,7 +150,10 @@ const SupportTickets = () => {
             <FontAwesomeIcon icon={faFilter} className="absolute left-5 top-1/2 -translate-y-1/2 text-gray-400" />
             <select
               value={filterStatus}
-              onChange={(e) => setFilterStatus(e.target.value)}
+              onChange={(e) => {
+                setFilterStatus(e.target.value);
+                setPage(0);
+              }}
               className="w-full pl-14 pr-10 py-4 bg-white border border-gray-200 rounded-2xl shadow-sm outline-none appearance-none cursor-pointer font-medium text-gray-700"
             >
               <option value="ALL">All Statuses</option>
@@ -167,7 +188,7 @@ const SupportTickets = () => {
             <div className="w-12 h-12 border-4 border-blue-600 border-t-transparent rounded-full animate-spin"></div>
             <p className="text-gray-400 font-bold uppercase tracking-widest text-[10px]">Syncing Stream...</p>
           </div>
-        ) : filteredTickets.length === 0 ? (
+        ) : tickets.length === 0 ? (
           <div className="bg-white border-2 border-dashed border-gray-200 rounded-[2.5rem] py-24 flex flex-col items-center text-center px-6">
             <div className="w-24 h-24 bg-gray-50 rounded-full flex items-center justify-center text-gray-200 mb-6 text-4xl">
               <FontAwesomeIcon icon={faTicketAlt} />
@@ -177,7 +198,7 @@ const SupportTickets = () => {
           </div>
         ) : (
           <div className="space-y-4">
-            {filteredTickets.map((ticket) => (
+            {tickets.map((ticket) => (
               <div key={ticket.ticketId} className="group bg-white border border-gray-200 rounded-[2.5rem] p-6 pr-8 transition-all hover:shadow-xl hover:shadow-blue-500/5 hover:-translate-y-1 flex flex-col md:flex-row items-start md:items-center gap-6">
 
                 {/* ID & Priority */}
@@ -199,7 +220,12 @@ const SupportTickets = () => {
                       <FontAwesomeIcon icon={faCalendarAlt} className="text-gray-300" /> {new Date(ticket.createdAt).toLocaleDateString()}
                     </span>
                   </div>
-                  <h4 className="text-lg font-bold text-gray-800 group-hover:text-blue-600 transition-colors uppercase tracking-tight">{ticket.subject}</h4>
+                  <h4 className="text-lg font-bold text-gray-800 group-hover:text-blue-600 transition-colors uppercase tracking-tight">
+                    {/* highlights come back HTML-escaped, only <mark> tags are markup */}
+                    {ticket.subjectHighlight
+                      ? <span dangerouslySetInnerHTML={{ __html: ticket.subjectHighlight }} />
+                      : ticket.subject}
+                  </h4>
                   {ticket.packageTitle && (
                     <div className="flex items-center gap-2 mt-1 mb-2">
                       <span className="px-2 py-0.5 bg-gray-100 text-gray-600 text-[9px] font-black rounded uppercase border border-gray-200">
@@ -210,7 +236,11 @@ const SupportTickets = () => {
                       </span>
                     </div>
                   )}
-                  <p className="text-gray-500 text-sm mt-1 line-clamp-2 italic">"{ticket.description}"</p>
+                  <p className="text-gray-500 text-sm mt-1 line-clamp-2 italic">
+                    "{ticket.descriptionHighlight
+                      ? <span dangerouslySetInnerHTML={{ __html: ticket.descriptionHighlight }} />
+                      : ticket.description}"
+                  </p>
                 </div>
 
                 {/* Controls */}
@@ -236,6 +266,28 @@ const SupportTickets = () => {
           </div>
         )}
 
+        {totalPages > 1 && (
+          <div className="flex items-center justify-center gap-4 mt-8">
+            <button
+              onClick={() => setPage((p) => Math.max(p - 1, 0))}
+              disabled={page === 0 || loading}
+              className="px-4 py-2 bg-white border border-gray-200 rounded-xl text-xs font-bold text-gray-600 hover:bg-gray-50 disabled:opacity-40 flex items-center gap-2"
+            >
+              <FontAwesomeIcon icon={faChevronLeft} /> Prev
+            </button>
+            <span className="text-xs font-bold text-gray-400 uppercase tracking-widest">
+              Page {page + 1} of {totalPages}
+            </span>
+            <button
+              onClick={() => setPage((p) => Math.min(p + 1, totalPages - 1))}
+              disabled={page >= totalPages - 1 || loading}
+              className="px-4 py-2 bg-white border border-gray-200 rounded-xl text-xs font-bold text-gray-600 hover:bg-gray-50 disabled:opacity-40 flex items-center gap-2"
+            >
+              Next <FontAwesomeIcon icon={faChevronRight} />
+            </button>
+          </div>
+        )}
+
       </div>
     </div>
   );
@@ -9,6 +9,8 @@ export default function UserManagement() {
     setSearchTerm,
     loading,
     fetchUsers,
+    page,
+    totalPages,
     handleToggleBlock,
     filteredUsers,
   } = useUserManagement();
@@ -21,13 +23,13 @@ export default function UserManagement() {
       <div className="flex justify-between items-center mb-6 bg-gray-50 dark:bg-gray-900 p-4 border dark:border-gray-700 rounded shadow-sm">
         <input
           type="text"
-          placeholder="Search by name or email..."
+          placeholder="Search by name or email prefix..."
           className="p-2 border dark:border-gray-600 rounded w-80 shadow-sm focus:ring-2 focus:ring-blue-400 focus:outline-none dark:bg-gray-900 dark:text-white"
           value={searchTerm}
           onChange={(e) => setSearchTerm(e.target.value)}
         />
         <button
-          onClick={fetchUsers}
+          onClick={() => fetchUsers()}
           className="bg-blue-600 text-white px-6 py-2 rounded font-semibold hover:bg-blue-700 transition shadow-md"
         >
           Refresh List
@@ -84,6 +86,27 @@ export default function UserManagement() {
           </tbody>
         </table>
       </div>
+
+      {/* Pagination */}
+      <div className="flex justify-center items-center gap-4 mt-6">
+        <button
+          onClick={() => fetchUsers(page - 1)}
+          disabled={page === 0 || loading}
+          className="px-4 py-2 rounded border dark:border-gray-600 disabled:opacity-50"
+        >
+          Previous
+        </button>
+        <span className="text-gray-600 dark:text-gray-300">
+          Page {totalPages === 0 ? 0 : page + 1} of {totalPages}
+        </span>
+        <button
+          onClick={() => fetchUsers(page + 1)}
+          disabled={page + 1 >= totalPages || loading}
+          className="px-4 py-2 rounded border dark:border-gray-600 disabled:opacity-50"
+        >
+          Next
+        </button>
+      </div>
     </div>
   );
 }
@@ -4,19 +4,27 @@ import api from "../../../api/axios";
 // Removed hardcoded URL const
 // const API_URL = "http://localhost:8080/api/v1/users";
 
+const PAGE_SIZE = 20;
+
 export default function useUserManagement() {
     const [users, setUsers] = useState([]);
     const [searchTerm, setSearchTerm] = useState("");
     const [loading, setLoading] = useState(false);
+    const [page, setPage] = useState(0);
+    const [totalPages, setTotalPages] = useState(0);
 
-    // Function to load users from backend
-    const fetchUsers = async () => {
+    // Function to load one page of users from backend (search runs server-side)
+    const fetchUsers = async (pageToLoad = page) => {
         setLoading(true);
         try {
             // Fetch only CLIENT role users
-            const response = await api.get("/api/v1/users/role/CLIENT");
+            const response = await api.get("/api/v1/users/search", {
+                params: { role: "CLIENT", q: searchTerm || undefined, page: pageToLoad, size: PAGE_SIZE },
+            });
+            setTotalPages(response.data.page.totalPages);
+            setPage(pageToLoad);
             // Map backend data to frontend format
-            const mappedUsers = response.data.map(user => ({
+            const mappedUsers = response.data.content.map(user => ({
                 id: user.id,
                 name: `${user.firstName || ""} ${user.lastName || ""}`.trim() || user.email,
                 email: user.email,
@@ -29,10 +37,11 @@ export default function useUserManagement() {
         setLoading(false);
     };
 
-    // Load users when page opens
+    // Load users when page opens and whenever the search changes
     useEffect(() => {
-        fetchUsers();
-    }, []);
+        const timeout = setTimeout(() => fetchUsers(0), 300);
+        return () => clearTimeout(timeout);
+    }, [searchTerm]);
 
     // Function to block or unblock a user
     const handleToggleBlock = async (id, currentBlockedStatus) => {
@@ -45,13 +54,8 @@ export default function useUserManagement() {
         }
     };
 
-    // Filter users based on search input
-    const filteredUsers = users.filter((u) => {
-        return (
-            u.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-            u.email.toLowerCase().includes(searchTerm.toLowerCase())
-        );
-    });
+    // Search is done by the backend, the current page is already filtered
+    const filteredUsers = users;
 
     return {
         users,
@@ -59,6 +63,8 @@ export default function useUserManagement() {
         setSearchTerm,
         loading,
         fetchUsers,
+        page,
+        totalPages,
         handleToggleBlock,
         filteredUsers,
     };
@@ -86,7 +86,9 @@ function Admin_DashBoard() {
     };
     fetchStats();
 
-
+    // Live updates pushed by the server when bookings, packages or users change
+    const stream = new EventSource(`${import.meta.env.VITE_API_URL}/api/stats/admin/stream`, { withCredentials: true });
+    stream.addEventListener("admin-stats", (event) => setLiveStats(JSON.parse(event.data)));
 
     const timer = setInterval(() => {
       const now = new Date();
@@ -103,7 +105,10 @@ function Admin_DashBoard() {
       setDateTime(formatted);
     }, 1000);
 
-    return () => clearInterval(timer);
+    return () => {
+      clearInterval(timer);
+      stream.close();
+    };
   }, []);
 
 
@@ -44,6 +44,11 @@ export default function Agent_DashBoard() {
       const fullName = userObj.firstName ? `${userObj.firstName} ${userObj.lastName || ""}`.trim() : "Agent";
       setUser({ ...userObj, fullName });
       fetchDashboardData(userObj.id);
+
+      // Live stat updates for this agent's packages and bookings
+      const stream = new EventSource(`${import.meta.env.VITE_API_URL}/api/stats/agent/${userObj.id}/stream`, { withCredentials: true });
+      stream.addEventListener("agent-stats", (event) => setLiveStats(JSON.parse(event.data)));
+      return () => stream.close();
     }
   }, []);
 
@@ -31,11 +31,31 @@ const SupportTicket = () => {
       const userObj = JSON.parse(savedUser);
       setAgentId(userObj.id);
       fetchTickets(userObj.id);
+
+      const stream = new EventSource(`${import.meta.env.VITE_API_URL}/api/support/agent/${userObj.id}/stream`, { withCredentials: true });
+      stream.addEventListener("ticket-created", applyTicketEvent);
+      stream.addEventListener("ticket-updated", applyTicketEvent);
+      return () => stream.close();
     } else {
       navigate("/login");
     }
   }, [navigate]);
 
+  // replaces the stale copy in place, new tickets go on top; safe to apply twice
+  const upsertTicket = (ticket) => {
+    setTickets((current) => {
+      const index = current.findIndex((t) => t.ticketId === ticket.ticketId);
+      if (index === -1) {
+        return [ticket, ...current];
+      }
+      const next = [...current];
+      next[index] = ticket;
+      return next;
+    });
+  };
+
+  const applyTicketEvent = (event) => upsertTicket(JSON.parse(event.data));
+
   const fetchTickets = async (userId) => {
     try {
       setLoading(true);
@@ -55,13 +75,13 @@ const SupportTicket = () => {
   const updateStatus = async (ticketId, newStatus) => {
     try {
       setUpdatingId(ticketId);
-      await api.put(
+      const res = await api.put(
         `/api/support/${ticketId}/status/${newStatus}`
       );
 
       setSuccessMessage(`Ticket #${ticketId} updated to ${newStatus} ✅`);
       setErrorMessage("");
-      fetchTickets(agentId);
+      upsertTicket(res.data);
       setTimeout(() => setSuccessMessage(""), 3000);
     } catch (err) {
       console.error("Update status error:", err);
@@ -98,8 +98,10 @@ export default function useBookTravelPackage() {
 
     // Dynamic Price Calculations
     const pricePerPerson = packageData ? packageData.price : 0;
-    const taxesFees = 150;
-    const discounts = 50;
+    // the server charges exactly price x travelers and rejects any other total,
+    // so there are no fees or discounts to add here until it prices them
+    const taxesFees = 0;
+    const discounts = 0;
     const totalTravelers = familyMembers.length; // Count only added members
 
     const totalBasePrice = pricePerPerson * totalTravelers;
@@ -35,8 +35,8 @@ function Payment() {
         travelDates: `${dateStr} (Flexible)`,
         travelers: `${travelerCount} Traveler${travelerCount !== 1 ? 's' : ''}`,
         baseFare: prices.basePrice,
-        serviceFee: prices.taxesFees || 150,
-        taxes: 50,
+        serviceFee: prices.taxesFees ?? 0,
+        taxes: 0,
         discount: prices.discounts,
         total: totalAmount
       });
@@ -55,7 +55,10 @@ export default function usePayment() {
 
     try {
       const response = await api.post("/api/bookings", payload);
-      alert(response.data); // Status message from backend
+      // 201 = paid, 202 = still being charged (the booking shows as PENDING until it settles)
+      alert(response.status === 201
+        ? "Booking and payment successful"
+        : "Booking received, your payment is being processed");
 
       // Clear session
       sessionStorage.removeItem("primaryTraveler");
@@ -72,7 +75,11 @@ export default function usePayment() {
       navigate("/user/my-bookings");
     } catch (error) {
       console.error("Booking error:", error);
-      alert("Something went wrong. Please check your data.");
+      if (error.response?.status === 402) {
+        alert(`Payment declined: ${error.response.data.failureReason || "please try another method"}`);
+      } else {
+        alert("Something went wrong. Please check your data.");
+      }
     }
   };
 
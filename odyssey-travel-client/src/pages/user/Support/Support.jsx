@@ -45,6 +45,21 @@ const Support = () => {
     }
   };
 
+  // replaces the stale copy in place, new tickets go on top; safe to apply twice
+  const upsertTicket = (ticket) => {
+    setTickets((current) => {
+      const index = current.findIndex((t) => t.ticketId === ticket.ticketId);
+      if (index === -1) {
+        return [ticket, ...current];
+      }
+      const next = [...current];
+      next[index] = ticket;
+      return next;
+    });
+  };
+
+  const applyTicketEvent = (event) => upsertTicket(JSON.parse(event.data));
+
   const raiseTicket = async () => {
     if (!subject || !description) {
       setErrorMessage("Please complete both fields.");
@@ -53,7 +68,7 @@ const Support = () => {
 
     try {
       setLoading(true);
-      await api.post(`/api/support`, {
+      const res = await api.post(`/api/support`, {
         userId,
         subject,
         description,
@@ -66,7 +81,7 @@ const Support = () => {
       setSubject("");
       setDescription("");
       setPriority("LOW");
-      fetchTickets(userId);
+      upsertTicket(res.data);
     } catch (err) {
       console.error("Raise ticket error:", err);
       setErrorMessage("Submission failed.");
@@ -81,6 +96,11 @@ const Support = () => {
       const userObj = JSON.parse(savedUser);
       setUserId(userObj.id);
       fetchTickets(userObj.id);
+
+      const stream = new EventSource(`${import.meta.env.VITE_API_URL}/api/support/user/${userObj.id}/stream`, { withCredentials: true });
+      stream.addEventListener("ticket-created", applyTicketEvent);
+      stream.addEventListener("ticket-updated", applyTicketEvent);
+      return () => stream.close();
     } else {
       setInitLoading(false);
     }
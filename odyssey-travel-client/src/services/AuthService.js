@@ -19,7 +19,8 @@ export async function login({ email, password, role }) {
   try {
     console.log(email + " " + password + " " + role);
     const body = { email, password, role }
-    const response = await api.post('/api/v1/auth/login', body)
+    // withCredentials so the browser keeps the HttpOnly session cookie that EventSource streams sign in with
+    const response = await api.post('/api/v1/auth/login', body, { withCredentials: true })
     return response.data
   } catch (ex) {
     if (ex.response && ex.response.data) {
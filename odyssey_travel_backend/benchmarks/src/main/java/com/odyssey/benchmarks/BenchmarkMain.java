@@ -0,0 +1,29 @@
+package com.odyssey.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+// Entry point of target/benchmarks.jar. Takes JMH's usual command line and always adds the GC
+// profiler, so every score comes with its allocation rate (gc.alloc.rate.norm is bytes per op).
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(List.of(args));
+        boolean gcProfiler = false;
+        for (int i = 0; i + 1 < jmhArgs.size(); i++) {
+            if (jmhArgs.get(i).equals("-prof") && jmhArgs.get(i + 1).startsWith("gc")) {
+                gcProfiler = true;
+            }
+        }
+        if (!gcProfiler) {
+            jmhArgs.add("-prof");
+            jmhArgs.add("gc");
+        }
+        Main.main(jmhArgs.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,72 @@
+package com.odyssey.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeMap;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.odyssey.dto.BookingResponseDto;
+import com.odyssey.entity.Booking;
+import com.odyssey.utils.BookingMapper;
+
+// The booking list endpoints (client "my bookings", agent bookings): entity graph -> response DTOs,
+// BookingMapper as shipped against the same mapping declared on ModelMapper.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BookingMappingBenchmark {
+
+    // a customer's history vs a busy agent's list
+    @Param({ "20", "1000" })
+    private int bookings;
+
+    private List<Booking> source;
+    private TypeMap<Booking, BookingResponseDto> typeMap;
+
+    @Setup
+    public void setUp() {
+        source = new SyntheticData().bookings(bookings);
+
+        // strict matching plus explicit paths; the loose default guesses ambiguously on this graph
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        typeMap = modelMapper.createTypeMap(Booking.class, BookingResponseDto.class).addMappings(m -> {
+            m.map(src -> src.getTravelPackage().getTitle(), BookingResponseDto::setPackageTitle);
+            m.map(Booking::getBookingStatus, BookingResponseDto::setStatus);
+            m.map(src -> src.getPayment().getAmount(), BookingResponseDto::setTotalAmount);
+            m.map(src -> src.getPayment().getPaymentMethod(), BookingResponseDto::setPaymentMethod);
+            m.map(Booking::getCompanionDetails, BookingResponseDto::setCompanions);
+        });
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> bookingMapper() {
+        return BookingMapper.toResponseDtos(source);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> modelMapper() {
+        List<BookingResponseDto> dtos = new ArrayList<>(source.size());
+        for (Booking booking : source) {
+            dtos.add(typeMap.map(booking));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,99 @@
+package com.odyssey.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.odyssey.utils.Money;
+
+// Summing N payment amounts in each representation the code base has used: boxed Doubles (the old
+// entity field), primitive doubles, Money values and their long minor units. Only the long sums
+// are exact; the double ones drift by paise once totals reach crores.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MoneySumBenchmark {
+
+    @Param({ "1000", "1000000" })
+    private int amounts;
+
+    private List<Double> boxedDoubles;
+    private double[] doubles;
+    private List<Money> money;
+    private long[] minorUnits;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SyntheticData.SEED);
+        boxedDoubles = new ArrayList<>(amounts);
+        doubles = new double[amounts];
+        money = new ArrayList<>(amounts);
+        minorUnits = new long[amounts];
+        for (int i = 0; i < amounts; i++) {
+            // ₹500.00 - ₹12,00,000.00 with paise
+            long paise = 50_000 + random.nextLong(120_000_000);
+            boxedDoubles.add(paise / 100d);
+            doubles[i] = paise / 100d;
+            money.add(Money.ofMinor(paise));
+            minorUnits[i] = paise;
+        }
+    }
+
+    @Benchmark
+    public double boxedDoubleStream() {
+        return boxedDoubles.stream().mapToDouble(Double::doubleValue).sum();
+    }
+
+    @Benchmark
+    public double primitiveDoubles() {
+        double sum = 0;
+        for (double amount : doubles) {
+            sum += amount;
+        }
+        return sum;
+    }
+
+    // allocates a Money per addition
+    @Benchmark
+    public Money moneyPlus() {
+        Money sum = Money.ZERO;
+        for (Money amount : money) {
+            sum = sum.plus(amount);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long moneyMinorUnits() {
+        long sum = 0;
+        for (Money amount : money) {
+            sum += amount.getMinorUnits();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long primitiveLongs() {
+        long sum = 0;
+        for (long amount : minorUnits) {
+            sum += amount;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,57 @@
+package com.odyssey.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Logins (and registrations) per second on one core at each BCrypt cost the startup calibration can
+// pick (auth.password.min-strength..max-strength). One thread, so the score is per core: multiply by
+// auth.password.threads (default: the core count) for an instance's ceiling. Run with -t <cores> to
+// check it scales.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "Goa-Trip-2026!";
+
+    @Param({ "10", "11", "12", "13" })
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        storedHash = encoder.encode(PASSWORD);
+    }
+
+    // one login: the check AuthServiceImpl runs for every attempt, known email or not
+    @Benchmark
+    public boolean login() {
+        return encoder.matches(PASSWORD, storedHash);
+    }
+
+    // one registration or password change
+    @Benchmark
+    public String register() {
+        return encoder.encode(PASSWORD);
+    }
+}
@@ -0,0 +1,122 @@
+package com.odyssey.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.config.RateLimitFilter;
+import com.odyssey.config.RateLimitProperties;
+import com.odyssey.utils.TokenBucket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+// What the login rate limiter adds to a request: one TokenBucket on its own (granted, rejected,
+// contended by 4 threads) and the whole RateLimitFilter for an IP-only route and for a route that
+// also parses the body for the email. Limits are set high enough that the filter always lets the
+// request through, the common case. clients is the number of distinct IPs / emails sending.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    @Param({ "1", "10000" })
+    private int clients;
+
+    private TokenBucket open;
+    private TokenBucket drained;
+    private RateLimitFilter filter;
+    private String[] ips;
+    private byte[][] bodies;
+
+    @Setup
+    public void setUp() {
+        open = new TokenBucket(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        drained = new TokenBucket(1, 1);
+        drained.tryConsume(System.nanoTime());
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("ip", route("/ip", 0));
+        properties.getRoutes().put("login", route("/login", Integer.MAX_VALUE));
+        filter = new RateLimitFilter(properties, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(filter, "init");
+
+        ips = new String[clients];
+        bodies = new byte[clients][];
+        for (int i = 0; i < clients; i++) {
+            ips[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+            bodies[i] = ("{\"email\":\"customer" + i + "@example.com\",\"password\":\"Goa-Trip-2026!\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public long bucketGranted() {
+        return open.tryConsume(System.nanoTime());
+    }
+
+    @Benchmark
+    public long bucketRejected() {
+        return drained.tryConsume(System.nanoTime());
+    }
+
+    // one hot bucket, e.g. a popular account, hit from several request threads
+    @Benchmark
+    @Threads(4)
+    public long bucketContended() {
+        return open.tryConsume(System.nanoTime());
+    }
+
+    @Benchmark
+    public int filterIpOnly() throws IOException, ServletException {
+        return filter("/ip");
+    }
+
+    @Benchmark
+    public int filterIpAndEmail() throws IOException, ServletException {
+        return filter("/login");
+    }
+
+    private int filter(String path) throws IOException, ServletException {
+        int client = ThreadLocalRandom.current().nextInt(clients);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(ips[client]);
+        request.setContentType("application/json");
+        request.setContent(bodies[client]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static RateLimitProperties.Route route(String path, int emailLimit) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath(path);
+        route.setIpCapacity(Integer.MAX_VALUE);
+        route.setIpPerMinute(Integer.MAX_VALUE);
+        route.setEmailCapacity(emailLimit);
+        route.setEmailPerMinute(emailLimit);
+        return route;
+    }
+}
@@ -0,0 +1,114 @@
+package com.odyssey.benchmarks;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.odyssey.entity.Booking;
+import com.odyssey.entity.PaymentStatus;
+
+// Admin dashboard totals over N loaded bookings. StatsServiceImpl now pushes this into one grouped
+// SQL query; these measure what it costs when done in the JVM after findAll(): the old shape
+// (a stream pass per month and metric, amounts as doubles) and a single pass over minor units.
+// Loading N entities is not included, so the real gap is wider.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RevenueAggregationBenchmark {
+
+    private static final int MONTHS = 6;
+
+    @Param({ "1000", "100000" })
+    private int bookings;
+
+    private List<Booking> source;
+    private LocalDate firstMonth;
+
+    @Setup
+    public void setUp() {
+        source = new SyntheticData().bookings(bookings);
+        firstMonth = SyntheticData.TODAY.withDayOfMonth(1).minusMonths(MONTHS - 1);
+    }
+
+    // revenue, then bookings / distinct customers / revenue for each month, one stream each
+    @Benchmark
+    public double[] perMonthStreams() {
+        double[] result = new double[1 + MONTHS * 3];
+        result[0] = source.stream()
+                .filter(b -> b.getPayment() != null && b.getPayment().getPaymentStatus() == PaymentStatus.SUCCEEDED)
+                .mapToDouble(b -> b.getPayment().getAmount().getMinorUnits() / 100d)
+                .sum();
+        for (int i = 0; i < MONTHS; i++) {
+            LocalDate month = firstMonth.plusMonths(i);
+            result[1 + i * 3] = source.stream()
+                    .filter(b -> inMonth(b, month))
+                    .count();
+            result[2 + i * 3] = source.stream()
+                    .filter(b -> inMonth(b, month))
+                    .map(b -> b.getUser().getId())
+                    .distinct()
+                    .count();
+            result[3 + i * 3] = source.stream()
+                    .filter(b -> inMonth(b, month))
+                    .filter(b -> b.getPayment() != null && b.getPayment().getPaymentStatus() == PaymentStatus.SUCCEEDED)
+                    .mapToDouble(b -> b.getPayment().getAmount().getMinorUnits() / 100d)
+                    .sum();
+        }
+        return result;
+    }
+
+    // the same figures from one pass, exact long sums bucketed by month index
+    @Benchmark
+    public long[] singlePassMinorUnits() {
+        long[] result = new long[1 + MONTHS * 3];
+        @SuppressWarnings("unchecked")
+        Set<Long>[] customers = new Set[MONTHS];
+        for (int i = 0; i < MONTHS; i++) {
+            customers[i] = new HashSet<>();
+        }
+        for (Booking booking : source) {
+            boolean paid = booking.getPayment() != null
+                    && booking.getPayment().getPaymentStatus() == PaymentStatus.SUCCEEDED;
+            long amount = paid ? booking.getPayment().getAmount().getMinorUnits() : 0;
+            result[0] += amount;
+
+            LocalDate date = booking.getTravelDate();
+            if (date == null) {
+                continue;
+            }
+            int i = (date.getYear() - firstMonth.getYear()) * 12 + date.getMonthValue() - firstMonth.getMonthValue();
+            if (i < 0 || i >= MONTHS) {
+                continue;
+            }
+            result[1 + i * 3]++;
+            customers[i].add(booking.getUser().getId());
+            result[3 + i * 3] += amount;
+        }
+        for (int i = 0; i < MONTHS; i++) {
+            result[2 + i * 3] = customers[i].size();
+        }
+        return result;
+    }
+
+    private static boolean inMonth(Booking booking, LocalDate month) {
+        LocalDate date = booking.getTravelDate();
+        return date != null && date.getYear() == month.getYear() && date.getMonth() == month.getMonth();
+    }
+}
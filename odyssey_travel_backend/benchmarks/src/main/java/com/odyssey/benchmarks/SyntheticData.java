@@ -0,0 +1,140 @@
+package com.odyssey.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.odyssey.entity.Booking;
+import com.odyssey.entity.BookingStatus;
+import com.odyssey.entity.Payment;
+import com.odyssey.entity.PaymentStatus;
+import com.odyssey.entity.Provider;
+import com.odyssey.entity.Role;
+import com.odyssey.entity.Status;
+import com.odyssey.entity.TravelPackage;
+import com.odyssey.entity.TravellersDetails;
+import com.odyssey.entity.User;
+import com.odyssey.utils.Money;
+
+// Seeded entity graphs shaped like production rows: INR prices, 1-6 travellers per booking with
+// companions, travel dates spread over the last year, ~90% of payments succeeded. The same seed
+// always builds the same data, so runs are comparable.
+final class SyntheticData {
+
+    static final long SEED = 20_240_601L;
+
+    private static final String[] DESTINATIONS = { "Goa", "Manali", "Jaipur", "Kerala Backwaters", "Leh Ladakh",
+            "Andaman Islands", "Rishikesh", "Udaipur", "Darjeeling", "Coorg", "Varanasi", "Ooty" };
+    private static final String[] FIRST_NAMES = { "Aarav", "Priya", "Vivaan", "Ananya", "Ishaan", "Diya", "Kabir",
+            "Meera", "Rohan", "Saanvi", "Arjun", "Nisha" };
+    private static final String[] LAST_NAMES = { "Sharma", "Patil", "Singh", "Iyer", "Kulkarni", "Reddy", "Gupta",
+            "Nair", "Joshi", "Mehta" };
+    private static final String[] RELATIONS = { "Spouse", "Child", "Parent", "Sibling", "Friend" };
+    private static final String[] METHODS = { "UPI", "CARD", "NETBANKING" };
+
+    private final SplittableRandom random = new SplittableRandom(SEED);
+    // fixed so month buckets are stable across runs
+    static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    List<User> users(int count, Role role) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId((long) (role.ordinal() * 1_000_000 + i + 1));
+            user.setFirstName(pick(FIRST_NAMES));
+            user.setLastName(pick(LAST_NAMES));
+            user.setEmail(user.getFirstName().toLowerCase() + "." + user.getLastName().toLowerCase() + i + "@example.com");
+            user.setPassword("$2a$12$" + "x".repeat(53));
+            user.setRole(role);
+            user.setActive(random.nextInt(20) != 0);
+            user.setProvider(Provider.LOCAL);
+            user.setCreatedAt(LocalDateTime.of(2023, 1, 1, 9, 0).plusMinutes(random.nextInt(700_000)));
+            user.setUpdatedAt(user.getCreatedAt());
+            users.add(user);
+        }
+        return users;
+    }
+
+    List<TravelPackage> packages(int count, List<User> agents) {
+        List<TravelPackage> packages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String destination = pick(DESTINATIONS);
+            int days = 2 + random.nextInt(10);
+            TravelPackage travelPackage = new TravelPackage();
+            travelPackage.setPackageId((long) (i + 1));
+            travelPackage.setTitle(destination + " " + days + "-day getaway");
+            travelPackage.setDescription("Explore " + destination + " with handpicked stays, local guides and "
+                    + "transfers included. Breakfast daily, one curated experience per day and 24x7 support "
+                    + "from your agent throughout the trip.");
+            travelPackage.setDestination(destination);
+            // ₹5,000 - ₹2,00,000, whole rupees
+            travelPackage.setPrice(Money.ofMinor((5_000 + random.nextInt(195_000)) * 100L));
+            travelPackage.setDuration(days);
+            travelPackage.setTotalTravellers(10 + random.nextInt(40));
+            travelPackage.setStatus(random.nextInt(10) == 0 ? Status.PENDING : Status.APPROVED);
+            travelPackage.setImageUrl("https://res.cloudinary.com/odyssey/image/upload/v1/packages/" + (i + 1) + ".jpg");
+            travelPackage.setAgent(agents.get(random.nextInt(agents.size())));
+            travelPackage.setAverageRating(3.0 + random.nextInt(21) / 10.0);
+            travelPackage.setReviewCount(random.nextInt(400));
+            packages.add(travelPackage);
+        }
+        return packages;
+    }
+
+    List<Booking> bookings(int count, List<User> customers, List<TravelPackage> packages) {
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User customer = customers.get(random.nextInt(customers.size()));
+            TravelPackage travelPackage = packages.get(random.nextInt(packages.size()));
+            int travelers = 1 + random.nextInt(6);
+
+            Booking booking = new Booking();
+            booking.setBookingId((long) (i + 1));
+            booking.setUser(customer);
+            booking.setTravelPackage(travelPackage);
+            booking.setTravelDate(TODAY.minusDays(random.nextInt(365)));
+            booking.setTravelers(travelers);
+            booking.setContactFullName(customer.getFirstName() + " " + customer.getLastName());
+            booking.setContactEmail(customer.getEmail());
+            booking.setContactNumber("+91 9" + (100_000_000 + random.nextInt(900_000_000)));
+            booking.setSpecialRequest(random.nextInt(4) == 0 ? "Vegetarian meals, ground floor room please" : null);
+            for (int c = 1; c < travelers; c++) {
+                TravellersDetails companion = new TravellersDetails();
+                companion.setFullName(pick(FIRST_NAMES) + " " + customer.getLastName());
+                companion.setAge(4 + random.nextInt(70));
+                companion.setGender(random.nextBoolean() ? "Male" : "Female");
+                companion.setRelation(pick(RELATIONS));
+                companion.setBooking(booking);
+                booking.getCompanionDetails().add(companion);
+            }
+
+            int roll = random.nextInt(100);
+            PaymentStatus paymentStatus = roll < 90 ? PaymentStatus.SUCCEEDED
+                    : roll < 95 ? PaymentStatus.FAILED : PaymentStatus.PENDING;
+            Payment payment = new Payment();
+            payment.setPaymentId((long) (i + 1));
+            payment.setAmount(travelPackage.getPrice().times(travelers));
+            payment.setPaymentStatus(paymentStatus);
+            payment.setPaymentMethod(pick(METHODS));
+            payment.setBooking(booking);
+            booking.setPayment(payment);
+            booking.setBookingStatus(paymentStatus == PaymentStatus.SUCCEEDED ? BookingStatus.CONFIRMED
+                    : paymentStatus == PaymentStatus.FAILED ? BookingStatus.CANCELLED : BookingStatus.PENDING);
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    // agents, customers and packages in production-like proportions for the given booking count
+    List<Booking> bookings(int count) {
+        List<User> agents = users(Math.max(5, count / 200), Role.AGENT);
+        List<User> customers = users(Math.max(20, count / 3), Role.CLIENT);
+        return bookings(count, customers, packages(Math.max(10, count / 50), agents));
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
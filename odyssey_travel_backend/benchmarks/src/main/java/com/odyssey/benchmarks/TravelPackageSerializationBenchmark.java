@@ -0,0 +1,66 @@
+package com.odyssey.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.odyssey.entity.Role;
+import com.odyssey.entity.TravelPackage;
+
+// Catalogue responses: a List<TravelPackage> written the way Spring MVC writes it (Boot's
+// ObjectMapper defaults), against an ObjectWriter resolved once for the list type.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TravelPackageSerializationBenchmark {
+
+    // one search page vs the whole approved catalogue
+    @Param({ "20", "500" })
+    private int packages;
+
+    private List<TravelPackage> source;
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData();
+        source = data.packages(packages, data.users(25, Role.AGENT));
+
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        listWriter = objectMapper.writerFor(new TypeReference<List<TravelPackage>>() {
+        });
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(source);
+    }
+
+    @Benchmark
+    public byte[] typedListWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(source);
+    }
+}
@@ -0,0 +1,87 @@
+package com.odyssey.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeMap;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.odyssey.dto.UserResponseDto;
+import com.odyssey.entity.Role;
+import com.odyssey.entity.User;
+
+// User -> UserResponseDto, mapped on login and on every admin user listing. The shared default
+// ModelMapper is what the application injects; the rest are the alternatives.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UserMappingBenchmark {
+
+    // power of two, cycled through so the JIT cannot specialise on one instance
+    private static final int USERS = 1024;
+
+    private List<User> users;
+    private int next;
+
+    private ModelMapper defaultModelMapper;
+    private TypeMap<User, UserResponseDto> strictTypeMap;
+
+    @Setup
+    public void setUp() {
+        users = new SyntheticData().users(USERS, Role.CLIENT);
+
+        defaultModelMapper = new ModelMapper();
+        ModelMapper strict = new ModelMapper();
+        strict.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        strictTypeMap = strict.createTypeMap(User.class, UserResponseDto.class);
+    }
+
+    private User nextUser() {
+        return users.get(next++ & (USERS - 1));
+    }
+
+    @Benchmark
+    public UserResponseDto modelMapperDefault() {
+        return defaultModelMapper.map(nextUser(), UserResponseDto.class);
+    }
+
+    @Benchmark
+    public UserResponseDto modelMapperStrictTypeMap() {
+        return strictTypeMap.map(nextUser());
+    }
+
+    @Benchmark
+    public UserResponseDto lombokBuilder() {
+        User user = nextUser();
+        return UserResponseDto.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .provider(user.getProvider())
+                .active(user.isActive())
+                .build();
+    }
+
+    @Benchmark
+    public UserResponseDto constructor() {
+        User user = nextUser();
+        return new UserResponseDto(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getRole(), user.getProvider(), user.isActive());
+    }
+}
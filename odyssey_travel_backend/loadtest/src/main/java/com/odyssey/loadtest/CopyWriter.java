@@ -0,0 +1,116 @@
+package com.odyssey.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+// Streams rows into one table with COPY ... FROM STDIN (FORMAT csv), in chunks, so nothing but the
+// current chunk is ever held in memory. Strings are always quoted; an unquoted empty field is NULL.
+final class CopyWriter implements AutoCloseable {
+
+    private static final int CHUNK_CHARS = 1 << 20;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final CopyIn copy;
+    private final StringBuilder buffer = new StringBuilder(CHUNK_CHARS + 4096);
+    private boolean rowStart = true;
+    private long rows;
+
+    CopyWriter(Connection connection, String table, String columns) throws SQLException {
+        copy = connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + table + " (" + columns + ") FROM STDIN (FORMAT csv)");
+    }
+
+    CopyWriter add(String value) {
+        separator();
+        if (value != null) {
+            buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+        return this;
+    }
+
+    CopyWriter add(long value) {
+        separator();
+        buffer.append(value);
+        return this;
+    }
+
+    CopyWriter add(double value) {
+        separator();
+        buffer.append(value);
+        return this;
+    }
+
+    CopyWriter add(boolean value) {
+        separator();
+        buffer.append(value ? 't' : 'f');
+        return this;
+    }
+
+    CopyWriter add(LocalDate value) {
+        separator();
+        if (value != null) {
+            buffer.append(value);
+        }
+        return this;
+    }
+
+    CopyWriter add(LocalDateTime value) {
+        separator();
+        if (value != null) {
+            TIMESTAMP.formatTo(value, buffer);
+        }
+        return this;
+    }
+
+    CopyWriter addNull() {
+        separator();
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        rowStart = true;
+        rows++;
+        if (buffer.length() >= CHUNK_CHARS) {
+            flush();
+        }
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private void separator() {
+        if (!rowStart) {
+            buffer.append(',');
+        }
+        rowStart = false;
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.odyssey.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+// The rows sessions act on: the ids of the generated (see DatasetGenerator) customers, active agents,
+// admins and approved packages of active agents, in id order, so a seed always maps to the same rows.
+// Every generated user gets a session token up front, so virtual users act signed in without paying
+// for a BCrypt login each.
+final class Dataset {
+
+    final long[] customers;
+    final long[] agents;
+    final long[] admins;
+    final long[] packages;
+    final long[] pricesMinor;
+    // the generator gives low package ids the most bookings, sessions favour the same ones
+    private final Zipf popularity;
+    // token of user id = tokenPrefix + id, fresh per run
+    private final String tokenPrefix;
+
+    private Dataset(long[] customers, long[] agents, long[] admins, long[] packages, long[] pricesMinor,
+            double skew, String tokenPrefix) {
+        this.customers = customers;
+        this.agents = agents;
+        this.admins = admins;
+        this.packages = packages;
+        this.pricesMinor = pricesMinor;
+        this.popularity = new Zipf(packages.length, skew);
+        this.tokenPrefix = tokenPrefix;
+    }
+
+    static Dataset load(TestDatabase database, LoadTestConfig config) throws SQLException {
+        try (Connection connection = database.connect()) {
+            long[] customers = ids(connection,
+                    "select id from users where role = 'CLIENT' and active and email like ? order by id");
+            long[] agents = ids(connection,
+                    "select id from users where role = 'AGENT' and active and email like ? order by id");
+            long[] admins = ids(connection,
+                    "select id from users where role = 'ADMIN' and active and email like ? order by id");
+            List<long[]> packages = new ArrayList<>();
+            try (PreparedStatement select = connection.prepareStatement(
+                    "select p.package_id, p.price from travel_packages p join users u on u.id = p.agent_id"
+                            + " where p.status = 'APPROVED' and u.active and u.email like ? order by p.package_id")) {
+                select.setString(1, "%" + DatasetGenerator.EMAIL_DOMAIN);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        packages.add(new long[] { rows.getLong(1), rows.getLong(2) });
+                    }
+                }
+            }
+            if (customers.length == 0 || agents.length == 0 || admins.length == 0 || packages.isEmpty()) {
+                throw new IllegalStateException("No load-test customers, agents, admins or approved packages in the database");
+            }
+            String tokenPrefix = "loadtest-" + UUID.randomUUID() + "-";
+            issueSessions(connection, tokenPrefix);
+            return new Dataset(customers, agents, admins, packages.stream().mapToLong(p -> p[0]).toArray(),
+                    packages.stream().mapToLong(p -> p[1]).toArray(), config.popularitySkew, tokenPrefix);
+        }
+    }
+
+    // "Authorization: Bearer" value for a generated user
+    String token(long userId) {
+        return tokenPrefix + userId;
+    }
+
+    // user_sessions keeps only the SHA-256 of a token (SessionServiceImpl), computed here in SQL
+    private static void issueSessions(Connection connection, String tokenPrefix) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into user_sessions (token_hash, user_id, expires_at, revoked, created_at, updated_at)"
+                        + " select encode(sha256(convert_to(? || id, 'UTF8')), 'hex'), id, ?, false, ?, ?"
+                        + " from users where active and email like ?")) {
+            LocalDateTime now = LocalDateTime.now();
+            insert.setString(1, tokenPrefix);
+            insert.setObject(2, now.plusDays(1));
+            insert.setObject(3, now);
+            insert.setObject(4, now);
+            insert.setString(5, "%" + DatasetGenerator.EMAIL_DOMAIN);
+            insert.executeUpdate();
+        }
+    }
+
+    // index into packages
+    int pickPackage(SplittableRandom random) {
+        return popularity.sample(random);
+    }
+
+    private static long[] ids(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(sql)) {
+            select.setString(1, "%" + DatasetGenerator.EMAIL_DOMAIN);
+            try (ResultSet rows = select.executeQuery()) {
+                List<Long> ids = new ArrayList<>();
+                while (rows.next()) {
+                    ids.add(rows.getLong(1));
+                }
+                return ids.stream().mapToLong(Long::longValue).toArray();
+            }
+        }
+    }
+}
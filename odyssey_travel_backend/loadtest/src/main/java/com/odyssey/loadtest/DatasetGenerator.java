@@ -0,0 +1,475 @@
+package com.odyssey.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Bulk-loads a consistent, production-shaped dataset with COPY: users, packages, bookings with
+// companions and payments, support tickets, reviews, and the rating summaries derived from them.
+// Package popularity is Zipf by package id, customer activity a milder Zipf, travel dates follow the
+// travel seasons and everything happens before the anchor date (the dataset's "now"). On an empty
+// database the same seed and sizes always produce the same rows; ids continue after existing rows.
+final class DatasetGenerator {
+
+    static final String EMAIL_DOMAIN = "@loadtest.odyssey.example";
+    static final String[] DESTINATIONS = { "Goa", "Manali", "Jaipur", "Kerala Backwaters", "Leh Ladakh",
+            "Andaman Islands", "Rishikesh", "Udaipur", "Darjeeling", "Coorg", "Varanasi", "Ooty" };
+    private static final String[] FIRST_NAMES = { "Aarav", "Priya", "Vivaan", "Ananya", "Ishaan", "Diya", "Kabir",
+            "Meera", "Rohan", "Saanvi", "Arjun", "Nisha" };
+    private static final String[] LAST_NAMES = { "Sharma", "Patil", "Singh", "Iyer", "Kulkarni", "Reddy", "Gupta",
+            "Nair", "Joshi", "Mehta" };
+    private static final String[] RELATIONS = { "Spouse", "Child", "Parent", "Sibling", "Friend" };
+    private static final String[] METHODS = { "UPI", "CARD", "NETBANKING" };
+    private static final String[] TICKET_SUBJECTS = { "Change of travel date", "Refund status", "Hotel upgrade",
+            "Pickup time", "Invoice required", "Add a traveller", "Payment deducted twice", "Visa documents" };
+    private static final String[][] REVIEW_COMMENTS = {
+            { "Nothing like the description, would not book again." },
+            { "Hotel was far from the centre and transfers were late." },
+            { "Decent trip, a few things could have been better organised." },
+            { "Good stays and a helpful guide, would recommend.", "Well planned, only the last day felt rushed." },
+            { "Fantastic trip, everything was taken care of.", "Loved every day of it, great value." } };
+
+    private static final int ADMINS = 2;
+    private static final double CUSTOMER_SKEW = 0.6;
+    // relative travel demand per month, Jan..Dec: the winter holidays and the May-June school break
+    // peak, the monsoon months are quiet
+    private static final double[] SEASON = { 1.3, 1.0, 0.9, 0.8, 1.2, 1.3, 0.6, 0.5, 0.6, 1.1, 1.3, 1.6 };
+    private static final double MAX_SEASON = 1.6;
+    private static final int HISTORY_DAYS = 730;
+    private static final int FUTURE_DAYS = 180;
+    // support.sla.*-minutes defaults
+    private static final int[] SLA_MINUTES = { 4320, 1440, 240 };
+    private static final String[] PRIORITIES = { "LOW", "MEDIUM", "HIGH" };
+
+    private final LoadTestConfig config;
+    private final LocalDateTime anchor;
+    private final SplittableRandom root;
+
+    private long firstUserId;
+    private long firstPackageId;
+    private long firstBookingId;
+    private long firstPaymentId;
+
+    private byte[] customerFirstName;
+    private byte[] customerLastName;
+    private int[] packageAgent;
+    private long[] packagePrice;
+    private int[] packageDuration;
+    private int[] approvedPackages;
+
+    private int[] bookingCustomer;
+    private int[] bookingPackage;
+    private int[] bookingTravelDay;
+    private byte[] bookingTravelers;
+    // 0 confirmed and paid, 1 payment failed, 2 cancelled and refunded
+    private byte[] bookingState;
+    private long[] bookingPaidAt;
+
+    DatasetGenerator(LoadTestConfig config) {
+        this.config = config;
+        this.anchor = config.anchorDate.atStartOfDay();
+        this.root = new SplittableRandom(config.seed);
+    }
+
+    // the tables exist once the application has started against the database
+    static boolean hasSchema(TestDatabase database) throws SQLException {
+        try (Connection connection = database.connect();
+                Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("select to_regclass('users') is not null")) {
+            rows.next();
+            return rows.getBoolean(1);
+        }
+    }
+
+    static boolean hasDataset(TestDatabase database) throws SQLException {
+        try (Connection connection = database.connect();
+                PreparedStatement select = connection.prepareStatement(
+                        "select exists (select 1 from users where email like ?)")) {
+            select.setString(1, "%" + EMAIL_DOMAIN);
+            try (ResultSet rows = select.executeQuery()) {
+                rows.next();
+                return rows.getBoolean(1);
+            }
+        }
+    }
+
+    void generate(TestDatabase database) throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = database.connect()) {
+            connection.setAutoCommit(false);
+            firstUserId = nextId(connection, "users", "id");
+            firstPackageId = nextId(connection, "travel_packages", "package_id");
+            firstBookingId = nextId(connection, "bookings", "booking_id");
+            firstPaymentId = nextId(connection, "payments", "payment_id");
+
+            // every table draws from its own stream, split off in a fixed order
+            timed("users", () -> users(connection, root.split()));
+            timed("travel_packages", () -> packages(connection, root.split()));
+            timed("bookings", () -> bookings(connection, root.split()));
+            timed("travellers_details", () -> companions(connection, root.split()));
+            timed("payments", () -> payments(connection, root.split()));
+            timed("support_tickets", () -> tickets(connection, root.split()));
+            timed("reviews", () -> reviews(connection, root.split()));
+            timed("package_rating_summaries", () -> ratingSummaries(connection));
+
+            try (Statement statement = connection.createStatement()) {
+                // ids were given explicitly, move the identity sequences past them
+                for (String[] column : new String[][] { { "users", "id" }, { "travel_packages", "package_id" },
+                        { "bookings", "booking_id" }, { "payments", "payment_id" } }) {
+                    statement.execute("select setval(pg_get_serial_sequence('" + column[0] + "', '" + column[1]
+                            + "'), (select max(" + column[1] + ") from " + column[0] + "))");
+                }
+                connection.commit();
+                for (String table : new String[] { "users", "travel_packages", "bookings", "travellers_details",
+                        "payments", "support_tickets", "reviews", "package_rating_summaries" }) {
+                    statement.execute("analyze " + table);
+                }
+                connection.commit();
+            }
+        }
+        System.out.printf(Locale.ROOT, "Dataset generated in %.1fs%n",
+                (System.nanoTime() - started) / 1_000_000_000d);
+    }
+
+    // ===================== USERS =====================
+    private long users(Connection connection, SplittableRandom random) throws SQLException {
+        customerFirstName = new byte[config.customers];
+        customerLastName = new byte[config.customers];
+        try (CopyWriter copy = new CopyWriter(connection, "users", "id, first_name, last_name, email, email_verified,"
+                + " password, role, active, provider, created_at, updated_at")) {
+            for (int i = 0; i < config.customers; i++) {
+                customerFirstName[i] = (byte) random.nextInt(FIRST_NAMES.length);
+                customerLastName[i] = (byte) random.nextInt(LAST_NAMES.length);
+                user(copy, random, customerId(i), FIRST_NAMES[customerFirstName[i]], LAST_NAMES[customerLastName[i]],
+                        "customer" + i, "CLIENT", random.nextInt(50) != 0);
+            }
+            for (int i = 0; i < config.agents; i++) {
+                user(copy, random, agentId(i), pick(random, FIRST_NAMES), pick(random, LAST_NAMES), "agent" + i,
+                        "AGENT", random.nextInt(20) != 0);
+            }
+            for (int i = 0; i < ADMINS; i++) {
+                user(copy, random, agentId(config.agents) + i, pick(random, FIRST_NAMES), pick(random, LAST_NAMES),
+                        "admin" + i, "ADMIN", true);
+            }
+            return copy.rows();
+        }
+    }
+
+    private void user(CopyWriter copy, SplittableRandom random, long id, String firstName, String lastName,
+            String login, String role, boolean active) throws SQLException {
+        LocalDateTime createdAt = anchor.minusMinutes(random.nextLong(TimeUnit.DAYS.toMinutes(HISTORY_DAYS + 365)));
+        // placeholder password, sessions never sign in
+        copy.add(id).add(firstName).add(lastName).add(login + EMAIL_DOMAIN).add(true).add("loadtest").add(role)
+                .add(active).add("LOCAL").add(createdAt).add(createdAt);
+        copy.endRow();
+    }
+
+    // ===================== PACKAGES =====================
+    private long packages(Connection connection, SplittableRandom random) throws SQLException {
+        packageAgent = new int[config.packages];
+        packagePrice = new long[config.packages];
+        packageDuration = new int[config.packages];
+        int[] approved = new int[config.packages];
+        int approvedCount = 0;
+        try (CopyWriter copy = new CopyWriter(connection, "travel_packages", "package_id, title, description,"
+                + " destination, price, duration, total_travellers, status, image_url, agent_id")) {
+            for (int i = 0; i < config.packages; i++) {
+                String destination = pick(random, DESTINATIONS);
+                packageDuration[i] = 2 + random.nextInt(10);
+                // ₹5,000 - ₹2,00,000, whole rupees, in paise
+                packagePrice[i] = (5_000 + random.nextInt(195_000)) * 100L;
+                packageAgent[i] = random.nextInt(config.agents);
+                int roll = random.nextInt(100);
+                String status = roll < 85 ? "APPROVED" : roll < 95 ? "PENDING" : "REJECTED";
+                if (roll < 85) {
+                    approved[approvedCount++] = i;
+                }
+                copy.add(firstPackageId + i).add(destination + " " + packageDuration[i] + "-day getaway #" + i)
+                        .add("Explore " + destination + " with handpicked stays, local guides and transfers included."
+                                + " Breakfast daily and one curated experience per day.")
+                        .add(destination).add(packagePrice[i]).add(packageDuration[i]).add(10 + random.nextInt(40))
+                        .add(status)
+                        .add("https://res.cloudinary.com/odyssey/image/upload/v1/packages/loadtest-" + i + ".jpg")
+                        .add(agentId(packageAgent[i]));
+                copy.endRow();
+            }
+            approvedPackages = Arrays.copyOf(approved, approvedCount);
+            if (approvedCount == 0) {
+                throw new IllegalStateException("No approved packages generated, raise --packages");
+            }
+            return copy.rows();
+        }
+    }
+
+    // ===================== BOOKINGS =====================
+    private long bookings(Connection connection, SplittableRandom random) throws SQLException {
+        int count = config.bookings;
+        bookingCustomer = new int[count];
+        bookingPackage = new int[count];
+        bookingTravelDay = new int[count];
+        bookingTravelers = new byte[count];
+        bookingState = new byte[count];
+        bookingPaidAt = new long[count];
+        Zipf customers = new Zipf(config.customers, CUSTOMER_SKEW);
+        Zipf packages = new Zipf(approvedPackages.length, config.popularitySkew);
+
+        try (CopyWriter copy = new CopyWriter(connection, "bookings", "booking_id, travel_date, travelers,"
+                + " booking_status, contact_full_name, contact_email, contact_number, special_request, customer_id,"
+                + " package_id")) {
+            for (int i = 0; i < count; i++) {
+                int customer = customers.sample(random);
+                LocalDate travelDate = seasonalTravelDate(random);
+                int roll = random.nextInt(100);
+                byte state = (byte) (roll < 90 ? 0 : roll < 95 ? 1 : 2);
+                // booked 1 day to ~6 months ahead, never after the anchor
+                LocalDateTime paidAt = travelDate.atStartOfDay()
+                        .minusDays(1 + (long) Math.min(300, -Math.log(1 - random.nextDouble()) * 40))
+                        .plusMinutes(random.nextInt(24 * 60));
+                if (paidAt.isAfter(anchor)) {
+                    paidAt = anchor.minusMinutes(1 + random.nextInt(7 * 24 * 60));
+                }
+
+                bookingCustomer[i] = customer;
+                bookingPackage[i] = approvedPackages[packages.sample(random)];
+                bookingTravelDay[i] = (int) travelDate.toEpochDay();
+                bookingTravelers[i] = (byte) travelers(random);
+                bookingState[i] = state;
+                bookingPaidAt[i] = paidAt.toEpochSecond(ZoneOffset.UTC);
+
+                String name = FIRST_NAMES[customerFirstName[customer]] + " " + LAST_NAMES[customerLastName[customer]];
+                copy.add(firstBookingId + i).add(travelDate).add(bookingTravelers[i])
+                        .add(state == 0 ? "CONFIRMED" : "CANCELLED").add(name)
+                        .add("customer" + customer + EMAIL_DOMAIN)
+                        .add("+91 9" + (100_000_000 + random.nextInt(900_000_000)))
+                        .add(random.nextInt(4) == 0 ? "Vegetarian meals, ground floor room please" : null)
+                        .add(customerId(customer)).add(firstPackageId + bookingPackage[i]);
+                copy.endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    // 1-6 travellers, couples most common
+    private static int travelers(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        return roll < 25 ? 1 : roll < 65 ? 2 : roll < 80 ? 3 : roll < 92 ? 4 : roll < 97 ? 5 : 6;
+    }
+
+    // a day in [anchor - HISTORY_DAYS, anchor + FUTURE_DAYS), months weighted by SEASON
+    private LocalDate seasonalTravelDate(SplittableRandom random) {
+        LocalDate first = anchor.toLocalDate().minusDays(HISTORY_DAYS);
+        while (true) {
+            LocalDate day = first.plusDays(random.nextInt(HISTORY_DAYS + FUTURE_DAYS));
+            if (random.nextDouble() * MAX_SEASON < SEASON[day.getMonthValue() - 1]) {
+                return day;
+            }
+        }
+    }
+
+    private long companions(Connection connection, SplittableRandom random) throws SQLException {
+        try (CopyWriter copy = new CopyWriter(connection, "travellers_details",
+                "full_name, age, gender, relation, booking_id")) {
+            for (int i = 0; i < bookingCustomer.length; i++) {
+                for (int c = 1; c < bookingTravelers[i]; c++) {
+                    copy.add(pick(random, FIRST_NAMES) + " " + LAST_NAMES[customerLastName[bookingCustomer[i]]])
+                            .add(4 + random.nextInt(70)).add(random.nextBoolean() ? "Male" : "Female")
+                            .add(pick(random, RELATIONS)).add(firstBookingId + i);
+                    copy.endRow();
+                }
+            }
+            return copy.rows();
+        }
+    }
+
+    private long payments(Connection connection, SplittableRandom random) throws SQLException {
+        try (CopyWriter copy = new CopyWriter(connection, "payments", "payment_id, amount, payment_status,"
+                + " payment_method, idempotency_key, gateway_reference, failure_reason, attempts, next_attempt_at,"
+                + " created_at, updated_at, booking_id")) {
+            for (int i = 0; i < bookingCustomer.length; i++) {
+                LocalDateTime createdAt = LocalDateTime.ofEpochSecond(bookingPaidAt[i], 0, ZoneOffset.UTC);
+                LocalDateTime updatedAt = createdAt.plusSeconds(1 + random.nextInt(5));
+                if (bookingState[i] == 2) {
+                    updatedAt = updatedAt.plusDays(1 + random.nextInt(14));
+                    if (updatedAt.isAfter(anchor)) {
+                        updatedAt = anchor;
+                    }
+                }
+                copy.add(firstPaymentId + i).add(packagePrice[bookingPackage[i]] * bookingTravelers[i])
+                        .add(bookingState[i] == 0 ? "SUCCEEDED" : bookingState[i] == 1 ? "FAILED" : "REFUNDED")
+                        .add(pick(random, METHODS)).add(new UUID(random.nextLong(), random.nextLong()).toString())
+                        .add("sim_" + new UUID(random.nextLong(), random.nextLong()))
+                        .add(bookingState[i] == 1 ? "Card declined" : null).add(1).addNull()
+                        .add(createdAt).add(updatedAt).add(firstBookingId + i);
+                copy.endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    // ===================== SUPPORT TICKETS =====================
+    private long tickets(Connection connection, SplittableRandom random) throws SQLException {
+        long anchorSecond = anchor.toEpochSecond(ZoneOffset.UTC);
+        try (CopyWriter copy = new CopyWriter(connection, "support_tickets", "user_id, booking_id, subject,"
+                + " description, status, priority, created_at, last_updated_at, claimed_by_id, sla_due_at")) {
+            for (int i = 0; i < config.tickets; i++) {
+                // most tickets are about a booking, raised between payment and a week after the trip
+                int booking = bookingCustomer.length > 0 && random.nextInt(5) != 0
+                        ? random.nextInt(bookingCustomer.length) : -1;
+                long customer;
+                long from;
+                long to;
+                if (booking >= 0) {
+                    customer = customerId(bookingCustomer[booking]);
+                    from = bookingPaidAt[booking];
+                    to = TimeUnit.DAYS.toSeconds(bookingTravelDay[booking] + packageDuration[bookingPackage[booking]] + 7L);
+                } else {
+                    customer = customerId(random.nextInt(config.customers));
+                    from = anchorSecond - TimeUnit.DAYS.toSeconds(HISTORY_DAYS);
+                    to = anchorSecond;
+                }
+                to = Math.min(to, anchorSecond - 60);
+                LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                        from + random.nextLong(Math.max(1, to - from)), 0, ZoneOffset.UTC);
+
+                long ageHours = Duration.between(createdAt, anchor).toHours();
+                int roll = random.nextInt(100);
+                String status = ageHours < 48 ? (roll < 60 ? "OPEN" : "IN_PROGRESS")
+                        : ageHours < 7 * 24 ? (roll < 30 ? "IN_PROGRESS" : "RESOLVED")
+                        : (roll < 10 ? "RESOLVED" : "CLOSED");
+                int priorityRoll = random.nextInt(20);
+                int priority = priorityRoll < 10 ? 0 : priorityRoll < 17 ? 1 : 2;
+                LocalDateTime lastUpdatedAt = createdAt.plusMinutes(
+                        random.nextLong(Math.max(1, Math.min(ageHours * 60, 3 * 24 * 60))));
+                String subject = pick(random, TICKET_SUBJECTS);
+
+                copy.add(customer);
+                if (booking >= 0) {
+                    copy.add(firstBookingId + booking);
+                } else {
+                    copy.addNull();
+                }
+                copy.add(subject).add(subject + ": please get back to me at the earliest, details are on my booking.")
+                        .add(status).add(PRIORITIES[priority]).add(createdAt).add(lastUpdatedAt);
+                // claimed by the package's agent once someone picked it up, general questions go to the admins
+                if (!status.equals("OPEN") && booking >= 0) {
+                    copy.add(agentId(packageAgent[bookingPackage[booking]]));
+                } else {
+                    copy.addNull();
+                }
+                copy.add(status.equals("OPEN") ? createdAt.plusMinutes(SLA_MINUTES[priority]) : null);
+                copy.endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    // ===================== REVIEWS =====================
+    private long reviews(Connection connection, SplittableRandom random) throws SQLException {
+        long anchorDay = anchor.toLocalDate().toEpochDay();
+        int eligible = 0;
+        for (int i = 0; i < bookingCustomer.length; i++) {
+            if (reviewable(i, anchorDay)) {
+                eligible++;
+            }
+        }
+        // a little over the exact share, duplicates are skipped and the loop stops at the target
+        double share = eligible == 0 ? 0 : Math.min(1, 1.25 * config.reviews / eligible);
+        // how good each package is; its ratings scatter around this
+        double[] quality = new double[config.packages];
+        for (int p = 0; p < quality.length; p++) {
+            quality[p] = 3.0 + 1.8 * random.nextDouble();
+        }
+        // one review per customer and package (uk_reviews_client_package)
+        Set<Long> reviewed = new HashSet<>();
+
+        try (CopyWriter copy = new CopyWriter(connection, "reviews", "rating, comment, client_id, package_id,"
+                + " created_at, helpful_votes, unhelpful_votes, helpful_score")) {
+            for (int i = 0; i < bookingCustomer.length && copy.rows() < config.reviews; i++) {
+                if (!reviewable(i, anchorDay) || random.nextDouble() >= share
+                        || !reviewed.add((long) bookingCustomer[i] * config.packages + bookingPackage[i])) {
+                    continue;
+                }
+                int pkg = bookingPackage[i];
+                int rating = (int) Math.max(1, Math.min(5, Math.round(quality[pkg] + random.nextGaussian() * 0.9)));
+                LocalDateTime createdAt = LocalDate.ofEpochDay(bookingTravelDay[i] + packageDuration[pkg])
+                        .atStartOfDay().plusDays(1 + random.nextInt(20)).plusMinutes(random.nextInt(24 * 60));
+                if (createdAt.isAfter(anchor)) {
+                    createdAt = anchor.minusMinutes(1 + random.nextInt(60));
+                }
+                String[] comments = REVIEW_COMMENTS[rating - 1];
+                copy.add(rating).add(comments[random.nextInt(comments.length)]).add(customerId(bookingCustomer[i]))
+                        .add(firstPackageId + pkg).add(createdAt).add(0).add(0).add(0.0);
+                copy.endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    // a paid trip that is over before the anchor
+    private boolean reviewable(int booking, long anchorDay) {
+        return bookingState[booking] == 0
+                && bookingTravelDay[booking] + packageDuration[bookingPackage[booking]] < anchorDay;
+    }
+
+    // the running totals the review service keeps, built once from the generated reviews
+    private long ratingSummaries(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("insert into package_rating_summaries"
+                + " (package_id, review_count, rating_sum, stars1, stars2, stars3, stars4, stars5, updated_at)"
+                + " select package_id, count(*), sum(rating), count(*) filter (where rating = 1),"
+                + " count(*) filter (where rating = 2), count(*) filter (where rating = 3),"
+                + " count(*) filter (where rating = 4), count(*) filter (where rating = 5), ?"
+                + " from reviews where package_id between ? and ? group by package_id")) {
+            insert.setObject(1, anchor);
+            insert.setLong(2, firstPackageId);
+            insert.setLong(3, firstPackageId + config.packages - 1);
+            return insert.executeUpdate();
+        }
+    }
+
+    // ===================== HELPERS =====================
+    private long customerId(int index) {
+        return firstUserId + index;
+    }
+
+    private long agentId(int index) {
+        return firstUserId + config.customers + index;
+    }
+
+    private static long nextId(Connection connection, String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("select coalesce(max(" + column + "), 0) + 1 from " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static void timed(String table, Step step) throws SQLException {
+        long started = System.nanoTime();
+        long rows = step.run();
+        double seconds = (System.nanoTime() - started) / 1_000_000_000d;
+        System.out.printf(Locale.ROOT, "  %-26s %,12d rows in %6.1fs (%,.0f rows/s)%n", table, rows, seconds,
+                rows / Math.max(seconds, 0.001));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        long run() throws SQLException;
+    }
+}
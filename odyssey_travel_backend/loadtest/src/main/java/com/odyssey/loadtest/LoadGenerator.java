@@ -0,0 +1,107 @@
+package com.odyssey.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model traffic: sessions arrive on a seeded schedule (Poisson or evenly spaced) whether or not
+// earlier ones have finished, each on its own virtual thread. A slow application therefore shows up
+// as longer latencies and more sessions in flight, never as a quietly reduced request rate.
+final class LoadGenerator {
+
+    private final LoadTestConfig config;
+    private final Dataset dataset;
+    private final String baseUrl;
+    private final Results results = new Results();
+
+    LoadGenerator(LoadTestConfig config, Dataset dataset, String baseUrl) {
+        this.config = config;
+        this.dataset = dataset;
+        this.baseUrl = baseUrl;
+    }
+
+    // runs warmup + duration, waits for sessions in flight, returns what was measured after warmup
+    Results run(Runnable onMeasurementStart) throws InterruptedException {
+        List<String> types = new ArrayList<>();
+        List<Integer> cumulativeWeights = new ArrayList<>();
+        int totalWeight = 0;
+        for (Map.Entry<String, Integer> entry : config.mix.entrySet()) {
+            if (entry.getValue() > 0) {
+                totalWeight += entry.getValue();
+                types.add(entry.getKey());
+                cumulativeWeights.add(totalWeight);
+            }
+        }
+
+        SplittableRandom schedule = new SplittableRandom(config.seed);
+        Semaphore inFlight = new Semaphore(config.maxSessions);
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / config.rate;
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup.toNanos();
+        long end = measureFrom + config.duration.toNanos();
+        boolean measuring = false;
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+                ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            double offset = 0;
+            while (true) {
+                offset += config.arrivals.equals("poisson")
+                        ? -Math.log(1 - schedule.nextDouble()) * meanGapNanos
+                        : meanGapNanos;
+                long due = start + (long) offset;
+                if (due >= end) {
+                    break;
+                }
+                // drawn before the wait so the sequence does not depend on timing
+                int pick = schedule.nextInt(totalWeight);
+                String type = types.get(0);
+                for (int i = 0; i < types.size(); i++) {
+                    if (pick < cumulativeWeights.get(i)) {
+                        type = types.get(i);
+                        break;
+                    }
+                }
+                SplittableRandom sessionRandom = schedule.split();
+
+                for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!measuring && due >= measureFrom) {
+                    measuring = true;
+                    results.startMeasuring(measureFrom);
+                    onMeasurementStart.run();
+                }
+                if (!inFlight.tryAcquire()) {
+                    results.sessionDropped(due);
+                    continue;
+                }
+                String sessionType = type;
+                sessions.submit(() -> {
+                    try {
+                        results.sessionStarted(due, System.nanoTime());
+                        new VirtualUser(client, baseUrl, config, dataset, results, sessionRandom).run(sessionType);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            System.out.println("Arrivals done, waiting for " + (config.maxSessions - inFlight.availablePermits())
+                    + " sessions in flight");
+            // closing the executor waits for every session
+        }
+        return results;
+    }
+}
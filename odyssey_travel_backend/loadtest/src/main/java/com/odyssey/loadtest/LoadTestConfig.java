@@ -0,0 +1,228 @@
+package com.odyssey.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Command line of a load-test run, --name=value pairs. Everything that shapes the traffic ends up in
+// the report, so two reports can only be compared when their configs match.
+final class LoadTestConfig {
+
+    // named presets applied before the other options, which can still override them
+    static final Map<String, Map<String, String>> SCENARIOS = Map.of(
+            "baseline", Map.of(),
+            // a slow, flaky gateway: calls take 1-3s against the 2s timeout and 20% fail in transit,
+            // so timeouts open the breaker and the sweeper has unknown outcomes to resolve. Shows
+            // whether booking latency stays bounded and the rest of the site is unaffected
+            "degraded-gateway", Map.of(
+                    "app.payment.simulated.latency-ms", "1000",
+                    "app.payment.simulated.jitter-ms", "2000",
+                    "app.payment.simulated.error-rate", "0.2",
+                    "book-probability", "0.5"));
+
+    String scenario = "baseline";
+    // session arrivals per second, open model: arrivals never wait for earlier sessions to finish
+    double rate = 20;
+    Duration warmup = Duration.ofSeconds(15);
+    Duration duration = Duration.ofSeconds(60);
+    long seed = 42;
+    // poisson (exponential gaps) or uniform (fixed gaps)
+    String arrivals = "poisson";
+    // session type -> weight
+    Map<String, Integer> mix = new LinkedHashMap<>(Map.of("customer", 85, "agent", 10, "admin", 5));
+    double searchProbability = 0.3;
+    int maxViews = 3;
+    double bookProbability = 0.25;
+    // Zipf exponent of package popularity, 0 = every package equally likely
+    double popularitySkew = 1.0;
+    // mean pause between a session's requests (exponential), 0 = back to back
+    Duration think = Duration.ofMillis(500);
+    Duration timeout = Duration.ofSeconds(10);
+    // sessions in flight before new arrivals are dropped (and reported), so an overloaded run
+    // ends with a report instead of an OutOfMemoryError
+    int maxSessions = 5000;
+
+    // dataset, generated when the database has none (DatasetGenerator)
+    int customers = 2000;
+    int agents = 50;
+    int packages = 500;
+    int bookings = 20_000;
+    int tickets = 2000;
+    int reviews = 5000;
+    // the generated data's "now"; fixed so the same seed gives the same rows on any day
+    LocalDate anchorDate = LocalDate.of(2026, 1, 1);
+
+    // unset: an embedded PostgreSQL is started for the run
+    String dbUrl;
+    String dbUser = "postgres";
+    String dbPassword = "postgres";
+    // unset: the application is booted in-process (loadtest profile) against the database
+    String target;
+    // --app.some.property=value, passed to the in-process application
+    Map<String, String> appProperties = new TreeMap<>();
+
+    Path out = Path.of("target", "loadtest");
+    String label = "run";
+
+    static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        config.scenario = oneOf("scenario", options.getOrDefault("scenario", config.scenario),
+                SCENARIOS.keySet().stream().sorted().toArray(String[]::new));
+        SCENARIOS.get(config.scenario).forEach((name, value) -> set(config, name, value));
+        options.forEach((name, value) -> set(config, name, value));
+        if (config.target != null && config.dbUrl == null) {
+            throw new IllegalArgumentException("--target needs --db-url of the database that application uses");
+        }
+        if (config.target != null && !config.scenario.equals("baseline")) {
+            // the presets are application properties of the in-process app
+            throw new IllegalArgumentException("--scenario needs the in-process application, not --target");
+        }
+        return config;
+    }
+
+    private static void set(LoadTestConfig config, String name, String value) {
+        if (name.startsWith("app.")) {
+            config.appProperties.put(name.substring(4), value);
+            return;
+        }
+        switch (name) {
+            case "scenario" -> {
+                // applied first, in parse()
+            }
+            case "rate" -> config.rate = positive(name, Double.parseDouble(value));
+            case "warmup" -> config.warmup = duration(value);
+            case "duration" -> config.duration = duration(value);
+            case "seed" -> config.seed = Long.parseLong(value);
+            case "arrivals" -> config.arrivals = oneOf(name, value, "poisson", "uniform");
+            case "mix" -> config.mix = mix(value);
+            case "search-probability" -> config.searchProbability = probability(name, value);
+            case "max-views" -> config.maxViews = (int) positive(name, Integer.parseInt(value));
+            case "book-probability" -> config.bookProbability = probability(name, value);
+            case "popularity-skew" -> config.popularitySkew = Double.parseDouble(value);
+            case "think" -> config.think = duration(value);
+            case "timeout" -> config.timeout = duration(value);
+            case "max-sessions" -> config.maxSessions = (int) positive(name, Integer.parseInt(value));
+            case "customers" -> config.customers = (int) positive(name, Integer.parseInt(value));
+            case "agents" -> config.agents = (int) positive(name, Integer.parseInt(value));
+            case "packages" -> config.packages = (int) positive(name, Integer.parseInt(value));
+            case "bookings" -> config.bookings = nonNegative(name, Integer.parseInt(value));
+            case "tickets" -> config.tickets = nonNegative(name, Integer.parseInt(value));
+            case "reviews" -> config.reviews = nonNegative(name, Integer.parseInt(value));
+            case "anchor-date" -> config.anchorDate = LocalDate.parse(value);
+            case "db-url" -> config.dbUrl = value;
+            case "db-user" -> config.dbUser = value;
+            case "db-password" -> config.dbPassword = value;
+            case "target" -> config.target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+            case "out" -> config.out = Path.of(value);
+            case "label" -> config.label = value;
+            default -> throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    // the options that shape the traffic, in a fixed order; connection details and paths are left
+    // out so runs on different machines stay comparable
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("scenario", scenario);
+        description.put("rate", rate);
+        description.put("warmup", warmup.toString());
+        description.put("duration", duration.toString());
+        description.put("seed", seed);
+        description.put("arrivals", arrivals);
+        description.put("mix", new TreeMap<>(mix));
+        description.put("searchProbability", searchProbability);
+        description.put("maxViews", maxViews);
+        description.put("bookProbability", bookProbability);
+        description.put("popularitySkew", popularitySkew);
+        description.put("think", think.toString());
+        description.put("timeout", timeout.toString());
+        description.put("maxSessions", maxSessions);
+        description.put("customers", customers);
+        description.put("agents", agents);
+        description.put("packages", packages);
+        description.put("bookings", bookings);
+        description.put("tickets", tickets);
+        description.put("reviews", reviews);
+        description.put("anchorDate", anchorDate.toString());
+        description.put("appProperties", appProperties);
+        return description;
+    }
+
+    // 90s, 2m, 250ms or plain seconds
+    static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+
+    // customer:85,agent:10,admin:5
+    private static Map<String, Integer> mix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected --mix=type:weight,..., got " + value);
+            }
+            String type = oneOf("mix", pair[0].trim(), "customer", "agent", "admin");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + type);
+            }
+            mix.put(type, weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return mix;
+    }
+
+    private static double probability(String name, String value) {
+        double p = Double.parseDouble(value);
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("--" + name + " must be between 0 and 1");
+        }
+        return p;
+    }
+
+    private static double positive(String name, double value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return value;
+    }
+
+    private static int nonNegative(String name, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("--" + name + " must not be negative");
+        }
+        return value;
+    }
+
+    private static String oneOf(String name, String value, String... allowed) {
+        for (String candidate : allowed) {
+            if (candidate.equals(value)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("--" + name + " must be one of " + String.join(", ", allowed));
+    }
+}
@@ -0,0 +1,193 @@
+package com.odyssey.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.Application;
+
+// Entry point of target/loadtest.jar.
+//   java -jar loadtest.jar [--name=value ...]                   one run, see LoadTestConfig / README.md
+//   java -jar loadtest.jar generate --db-url=... [--name=value ...]  only generate the dataset
+//   java -jar loadtest.jar compare base.json new.json [--max-regression=10]
+// A run starts (or connects to) a test database, generates the dataset unless it is already there,
+// boots the application in-process under the loadtest profile (or uses --target), drives the
+// traffic and writes the report.
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("compare")) {
+            System.exit(compare(args));
+        }
+        if (args.length > 0 && args[0].equals("generate")) {
+            generate(LoadTestConfig.parse(Arrays.copyOfRange(args, 1, args.length)));
+            System.exit(0);
+        }
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        try (TestDatabase database = TestDatabase.open(config)) {
+            if (DatasetGenerator.hasSchema(database) && DatasetGenerator.hasDataset(database)) {
+                System.out.println("Using the load-test dataset already in the database");
+            } else {
+                generateDataset(config, database);
+            }
+            ConfigurableApplicationContext app = config.target == null ? startApplication(config, database) : null;
+            try {
+                String baseUrl = app != null
+                        ? "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort()
+                        : config.target;
+                Dataset dataset = Dataset.load(database, config);
+                System.out.printf("Dataset: %d customers, %d agents, %d approved packages%n",
+                        dataset.customers.length, dataset.agents.length, dataset.packages.length);
+
+                HttpClient client = HttpClient.newHttpClient();
+                // the actuator and the gateway state are admin-only
+                String adminToken = dataset.token(dataset.admins[0]);
+                Results results = new LoadGenerator(config, dataset, baseUrl)
+                        .run(() -> resetSqlStats(client, baseUrl, adminToken));
+                Path dir = Report.write(config, results, sqlStatementsPerRequest(client, baseUrl, adminToken),
+                        paymentGateway(client, baseUrl, adminToken));
+                System.out.println("Report written to " + dir.toAbsolutePath());
+            } finally {
+                if (app != null) {
+                    app.close();
+                }
+            }
+        }
+        // non-daemon threads of the embedded server or the pool must not keep the JVM alive
+        System.exit(0);
+    }
+
+    // into a database kept after the run, e.g. a local PostgreSQL reused by many runs
+    private static void generate(LoadTestConfig config) throws Exception {
+        if (config.dbUrl == null) {
+            throw new IllegalArgumentException("generate needs --db-url, an embedded database is gone after the run");
+        }
+        try (TestDatabase database = TestDatabase.open(config)) {
+            if (DatasetGenerator.hasSchema(database) && DatasetGenerator.hasDataset(database)) {
+                throw new IllegalStateException("The database already has a load-test dataset");
+            }
+            generateDataset(config, database);
+        }
+    }
+
+    private static void generateDataset(LoadTestConfig config, TestDatabase database) throws Exception {
+        if (!DatasetGenerator.hasSchema(database)) {
+            if (config.target != null) {
+                throw new IllegalStateException("No tables in --db-url, start the application against it first");
+            }
+            // the application creates the tables (ddl-auto, SchemaMigrations); it is started again for
+            // the run so its startup caches (ticket dispatch queues, rating summaries) see the new rows
+            startApplication(config, database).close();
+        }
+        System.out.printf("Generating %d customers, %d agents, %d packages, %d bookings, %d tickets, %d reviews%n",
+                config.customers, config.agents, config.packages, config.bookings, config.tickets, config.reviews);
+        new DatasetGenerator(config).generate(database);
+        if (config.target != null) {
+            System.out.println("Restart the application at " + config.target + " so its caches pick up the dataset");
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestConfig config, TestDatabase database) {
+        // command-line arguments, so they win over application.properties and the profile file
+        List<String> appArgs = new ArrayList<>();
+        appArgs.add("--server.port=0");
+        appArgs.add("--spring.datasource.url=" + database.url());
+        appArgs.add("--spring.datasource.username=" + database.user());
+        appArgs.add("--spring.datasource.password=" + database.password());
+        config.appProperties.forEach((name, value) -> appArgs.add("--" + name + "=" + value));
+        return new SpringApplicationBuilder(Application.class)
+                .profiles("loadtest")
+                .run(appArgs.toArray(String[]::new));
+    }
+
+    // SQL counts start with the measurement, not with startup and warmup
+    private static void resetSqlStats(HttpClient client, String baseUrl, String adminToken) {
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/sql"))
+                    .header("Authorization", "Bearer " + adminToken).DELETE().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                System.out.println("Could not reset SQL statistics: HTTP " + response.statusCode());
+            }
+        } catch (IOException e) {
+            System.out.println("Could not reset SQL statistics: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // empty when the application runs without SQL instrumentation
+    private static Map<String, Double> sqlStatementsPerRequest(HttpClient client, String baseUrl, String adminToken)
+            throws InterruptedException {
+        Map<String, Double> statements = new HashMap<>();
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/sql"))
+                    .header("Authorization", "Bearer " + adminToken).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                for (JsonNode endpoint : new ObjectMapper().readTree(response.body()).path("endpoints")) {
+                    statements.put(endpoint.get("endpoint").asText(), endpoint.get("avgStatements").asDouble());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read SQL statistics: " + e.getMessage());
+        }
+        return statements;
+    }
+
+    // the application's view of the gateway when the traffic stopped: breaker state, bulkhead use and
+    // the payments still waiting on it; empty when the endpoint cannot be read
+    private static Map<String, Object> paymentGateway(HttpClient client, String baseUrl, String adminToken)
+            throws InterruptedException {
+        Map<String, Object> gateway = new TreeMap<>();
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/payments/gateway"))
+                    .header("Authorization", "Bearer " + adminToken).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                new ObjectMapper().readTree(response.body()).properties()
+                        .forEach(field -> gateway.put(field.getKey(), field.getValue().isNumber()
+                                ? field.getValue().numberValue() : field.getValue().asText()));
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read the payment gateway state: " + e.getMessage());
+        }
+        return gateway;
+    }
+
+    private static int compare(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: compare base/report.json new/report.json [--max-regression=10]");
+            return 2;
+        }
+        double maxRegression = 10;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].startsWith("--max-regression=")) {
+                maxRegression = Double.parseDouble(args[i].substring("--max-regression=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        int regressions = Report.compare(Path.of(args[1]), Path.of(args[2]), maxRegression, System.out);
+        System.out.println(regressions == 0 ? "No regressions" : regressions + " endpoint(s) regressed");
+        return regressions == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,195 @@
+package com.odyssey.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Writes <out>/<label>/report.json (config, per-endpoint throughput, error rate and latency
+// percentiles in ms; endpoints sorted, fixed precision, so two runs diff line by line),
+// report.txt (the same as a table) and one .hgrm percentile distribution per endpoint for the
+// HdrHistogram plotter. compare() puts two report.json files side by side.
+final class Report {
+
+    private static final double[] PERCENTILES = { 50, 90, 95, 99, 99.9 };
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private Report() {
+    }
+
+    // sqlPerRequest: statements per request by endpoint, from the application's /actuator/sql;
+    // paymentGateway: its /api/payments/gateway at the end of the run
+    static Path write(LoadTestConfig config, Results results, Map<String, Double> sqlPerRequest,
+            Map<String, Object> paymentGateway) throws IOException {
+        Path dir = config.out.resolve(config.label);
+        Files.createDirectories(dir.resolve("hgrm"));
+        double seconds = config.duration.toMillis() / 1000d;
+
+        Map<String, Object> endpoints = new TreeMap<>();
+        for (Map.Entry<String, Results.Endpoint> entry : new TreeMap<>(results.endpoints()).entrySet()) {
+            Results.Endpoint stats = entry.getValue();
+            long requests = stats.requests();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", requests);
+            row.put("throughputPerSecond", round(requests / seconds));
+            row.put("errors", stats.errors.sum());
+            row.put("errorRate", requests == 0 ? 0.0 : round4((double) stats.errors.sum() / requests));
+            Map<String, Long> outcomes = new TreeMap<>();
+            stats.outcomes.forEach((outcome, count) -> outcomes.put(outcome, count.sum()));
+            row.put("outcomes", outcomes);
+            row.put("latencyMs", latency(stats.latency));
+            Double statements = sqlPerRequest.get(sqlKey(entry.getKey()));
+            if (statements != null) {
+                row.put("sqlStatementsPerRequest", round(statements));
+            }
+            endpoints.put(entry.getKey(), row);
+
+            try (PrintStream hgrm = new PrintStream(dir.resolve("hgrm").resolve(fileName(entry.getKey()) + ".hgrm")
+                    .toFile(), "UTF-8")) {
+                // microseconds recorded, milliseconds written
+                stats.latency.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+
+        Map<String, Object> generator = new LinkedHashMap<>();
+        generator.put("sessions", results.sessions());
+        generator.put("droppedSessions", results.droppedSessions());
+        generator.put("startLagMs", latency(results.startLag()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", config.label);
+        report.put("config", config.describe());
+        report.put("generator", generator);
+        report.put("endpoints", endpoints);
+        if (!paymentGateway.isEmpty()) {
+            report.put("paymentGateway", paymentGateway);
+        }
+        JSON.writeValue(dir.resolve("report.json").toFile(), report);
+
+        try (PrintStream text = new PrintStream(dir.resolve("report.txt").toFile(), "UTF-8")) {
+            printTable(text, config, results, endpoints, paymentGateway);
+        }
+        printTable(System.out, config, results, endpoints, paymentGateway);
+        return dir;
+    }
+
+    // prints both runs per endpoint and returns how many endpoints regressed: p99 up by more than
+    // maxRegression percent, or a higher error rate
+    static int compare(Path basePath, Path candidatePath, double maxRegression, PrintStream out) throws IOException {
+        JsonNode base = JSON.readTree(basePath.toFile());
+        JsonNode candidate = JSON.readTree(candidatePath.toFile());
+        if (!base.get("config").equals(candidate.get("config"))) {
+            out.println("WARNING: the runs used different configs, the numbers are not comparable");
+        }
+        out.printf(Locale.ROOT, "%-36s %12s %12s %8s %12s %12s %8s %9s %9s%n", "endpoint", "p50 base", "p50 new", "",
+                "p99 base", "p99 new", "", "err base", "err new");
+        TreeSet<String> names = new TreeSet<>();
+        base.get("endpoints").fieldNames().forEachRemaining(names::add);
+        candidate.get("endpoints").fieldNames().forEachRemaining(names::add);
+        int regressions = 0;
+        for (String name : names) {
+            JsonNode b = base.get("endpoints").get(name);
+            JsonNode c = candidate.get("endpoints").get(name);
+            if (b == null || c == null) {
+                out.printf(Locale.ROOT, "%-36s only in %s%n", name, b == null ? "new" : "base");
+                continue;
+            }
+            double p50Base = b.get("latencyMs").get("p50").asDouble();
+            double p50New = c.get("latencyMs").get("p50").asDouble();
+            double p99Base = b.get("latencyMs").get("p99").asDouble();
+            double p99New = c.get("latencyMs").get("p99").asDouble();
+            double errBase = b.get("errorRate").asDouble();
+            double errNew = c.get("errorRate").asDouble();
+            boolean regressed = change(p99Base, p99New) > maxRegression || errNew > errBase;
+            if (regressed) {
+                regressions++;
+            }
+            out.printf(Locale.ROOT, "%-36s %12.2f %12.2f %+7.1f%% %12.2f %12.2f %+7.1f%% %8.2f%% %8.2f%%%s%n", name,
+                    p50Base, p50New, change(p50Base, p50New), p99Base, p99New, change(p99Base, p99New),
+                    errBase * 100, errNew * 100, regressed ? "  <-- regression" : "");
+        }
+        return regressions;
+    }
+
+    private static void printTable(PrintStream out, LoadTestConfig config, Results results,
+            Map<String, Object> endpoints, Map<String, Object> paymentGateway) {
+        out.printf(Locale.ROOT, "%s: %.1f sessions/s (%s) for %s after %s warmup, seed %d%n", config.label,
+                config.rate, config.arrivals, config.duration, config.warmup, config.seed);
+        out.printf(Locale.ROOT, "%-36s %8s %8s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "req/s", "errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Object> entry : endpoints.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> row = (Map<String, Object>) entry.getValue();
+            @SuppressWarnings("unchecked")
+            Map<String, Object> latency = (Map<String, Object>) row.get("latencyMs");
+            out.printf(Locale.ROOT, "%-36s %8d %8.2f %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    row.get("requests"), row.get("throughputPerSecond"), (double) row.get("errorRate") * 100,
+                    latency.get("p50"), latency.get("p90"), latency.get("p99"), latency.get("p99.9"),
+                    latency.get("max"));
+        }
+        Histogram lag = results.startLag();
+        out.printf(Locale.ROOT, "%d sessions, %d dropped (max-sessions reached), start lag p99 %.2f ms%n",
+                results.sessions(), results.droppedSessions(), lag.getValueAtPercentile(99) / 1000d);
+        if (lag.getValueAtPercentile(99) > 10_000) {
+            out.println("WARNING: sessions started late, the load generator is saturated; latencies are understated");
+        }
+        if (!paymentGateway.isEmpty()) {
+            out.printf(Locale.ROOT, "payment gateway at the end: breaker %s (failure rate %.2f), %s pending and %s"
+                    + " processing payments left for the sweeper%n", paymentGateway.get("breakerState"),
+                    ((Number) paymentGateway.getOrDefault("recentFailureRate", 0)).doubleValue(),
+                    paymentGateway.get("pendingPayments"), paymentGateway.get("processingPayments"));
+        }
+    }
+
+    private static Map<String, Object> latency(Histogram histogram) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("min", millis(histogram.getMinValue()));
+        latency.put("mean", round(histogram.getMean() / 1000));
+        for (double percentile : PERCENTILES) {
+            String key = "p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                    : String.valueOf(percentile));
+            latency.put(key, millis(histogram.getValueAtPercentile(percentile)));
+        }
+        latency.put("max", millis(histogram.getMaxValue()));
+        return latency;
+    }
+
+    // "GET /api/packages?search" is counted by the application as "GET /api/packages"
+    private static String sqlKey(String endpoint) {
+        int query = endpoint.indexOf('?');
+        return query < 0 ? endpoint : endpoint.substring(0, query);
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+
+    private static double change(double base, double candidate) {
+        return base == 0 ? 0 : (candidate - base) / base * 100;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000d);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100d;
+    }
+
+    private static double round4(double value) {
+        return Math.round(value * 10_000) / 10_000d;
+    }
+}
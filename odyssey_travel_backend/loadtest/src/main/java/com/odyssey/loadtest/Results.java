@@ -0,0 +1,83 @@
+package com.odyssey.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// What the virtual users observed, per endpoint: outcomes by status and an HDR latency histogram
+// (microseconds, 3 significant digits). Only requests sent after the warmup are recorded.
+final class Results {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    // how late sessions started against their scheduled arrival; if this grows the generator, not
+    // the application, was the bottleneck and the latencies understate the real ones
+    private final Histogram startLag = new ConcurrentHistogram(3);
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder droppedSessions = new LongAdder();
+
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+
+    void startMeasuring(long fromNanos) {
+        measureFromNanos = fromNanos;
+    }
+
+    boolean measuring(long nanos) {
+        return nanos >= measureFromNanos;
+    }
+
+    void record(String endpoint, long sentNanos, long latencyNanos, String outcome, boolean error) {
+        if (!measuring(sentNanos)) {
+            return;
+        }
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        stats.latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        stats.outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+        if (error) {
+            stats.errors.increment();
+        }
+    }
+
+    void sessionStarted(long scheduledNanos, long startedNanos) {
+        if (measuring(scheduledNanos)) {
+            sessions.increment();
+            startLag.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(startedNanos - scheduledNanos)));
+        }
+    }
+
+    void sessionDropped(long scheduledNanos) {
+        if (measuring(scheduledNanos)) {
+            droppedSessions.increment();
+        }
+    }
+
+    Map<String, Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    Histogram startLag() {
+        return startLag;
+    }
+
+    long sessions() {
+        return sessions.sum();
+    }
+
+    long droppedSessions() {
+        return droppedSessions.sum();
+    }
+
+    static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(3);
+        // "200", "402", "timeout", "io-error", ...
+        final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        final LongAdder errors = new LongAdder();
+
+        long requests() {
+            return latency.getTotalCount();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.odyssey.loadtest;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// The database a run uses: the one given with --db-url, or a throwaway embedded PostgreSQL (real
+// server binaries, started in a temp directory and deleted on close). Never the hosted database.
+final class TestDatabase implements AutoCloseable {
+
+    private final EmbeddedPostgres embedded;
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private TestDatabase(EmbeddedPostgres embedded, String url, String user, String password) {
+        this.embedded = embedded;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    static TestDatabase open(LoadTestConfig config) throws IOException {
+        if (config.dbUrl != null) {
+            return new TestDatabase(null, config.dbUrl, config.dbUser, config.dbPassword);
+        }
+        EmbeddedPostgres embedded = EmbeddedPostgres.builder()
+                // the app's pool plus the harness's own connections
+                .setServerConfig("max_connections", "200")
+                .start();
+        System.out.println("Embedded PostgreSQL on port " + embedded.getPort());
+        return new TestDatabase(embedded, embedded.getJdbcUrl("postgres", "postgres"), "postgres", "");
+    }
+
+    String url() {
+        return url;
+    }
+
+    String user() {
+        return user;
+    }
+
+    String password() {
+        return password;
+    }
+
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+}
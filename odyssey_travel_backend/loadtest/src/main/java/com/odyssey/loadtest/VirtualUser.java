@@ -0,0 +1,173 @@
+package com.odyssey.loadtest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// One session of one simulated user, on its own virtual thread. Every choice comes from the
+// session's random stream, so a seed replays the same requests in the same order.
+final class VirtualUser {
+
+    private static final String[] METHODS = { "UPI", "CARD", "NETBANKING" };
+    private static final String[] RELATIONS = { "Spouse", "Child", "Parent", "Sibling", "Friend" };
+    private static final Set<Integer> OK = Set.of(200);
+    // 201 paid, 202 still being charged, 402 declined by the (simulated) gateway
+    private static final Set<Integer> BOOKED = Set.of(201, 202, 402);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LoadTestConfig config;
+    private final Dataset dataset;
+    private final Results results;
+    private final SplittableRandom random;
+    // the signed-in user of this session
+    private String token;
+
+    VirtualUser(HttpClient client, String baseUrl, LoadTestConfig config, Dataset dataset, Results results,
+            SplittableRandom random) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.dataset = dataset;
+        this.results = results;
+        this.random = random;
+    }
+
+    void run(String type) throws InterruptedException {
+        switch (type) {
+            case "customer" -> customer();
+            case "agent" -> agent();
+            case "admin" -> admin();
+            default -> throw new IllegalArgumentException("Unknown session type " + type);
+        }
+    }
+
+    // browse catalog -> view packages -> maybe book -> view own bookings
+    private void customer() throws InterruptedException {
+        long userId = dataset.customers[random.nextInt(dataset.customers.length)];
+        token = dataset.token(userId);
+        if (random.nextDouble() < config.searchProbability) {
+            String term = DatasetGenerator.DESTINATIONS[random.nextInt(DatasetGenerator.DESTINATIONS.length)];
+            get("GET /api/packages?search", "/api/packages?search=" + URLEncoder.encode(term, StandardCharsets.UTF_8));
+        } else {
+            get("GET /api/packages", "/api/packages");
+        }
+
+        int views = 1 + random.nextInt(config.maxViews);
+        int viewed = -1;
+        for (int i = 0; i < views; i++) {
+            think();
+            viewed = dataset.pickPackage(random);
+            get("GET /api/packages/{id}", "/api/packages/" + dataset.packages[viewed]);
+        }
+
+        if (random.nextDouble() < config.bookProbability) {
+            think();
+            book(userId, viewed);
+        }
+        think();
+        get("GET /api/bookings/user/{userId}", "/api/bookings/user/" + userId);
+    }
+
+    // the agent dashboard: stats, bookings on their packages, their packages
+    private void agent() throws InterruptedException {
+        long agentId = dataset.agents[random.nextInt(dataset.agents.length)];
+        token = dataset.token(agentId);
+        get("GET /api/stats/agent/{agentId}", "/api/stats/agent/" + agentId);
+        think();
+        get("GET /api/bookings/agent/{agentId}", "/api/bookings/agent/" + agentId);
+        think();
+        get("GET /api/packages/agent/{agentId}", "/api/packages/agent/" + agentId);
+    }
+
+    private void admin() throws InterruptedException {
+        token = dataset.token(dataset.admins[random.nextInt(dataset.admins.length)]);
+        get("GET /api/stats/admin", "/api/stats/admin");
+        think();
+        get("GET /api/packages/admin/pending", "/api/packages/admin/pending");
+    }
+
+    private void book(long userId, int packageIndex) throws InterruptedException {
+        int travelers = 1 + random.nextInt(4);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", userId);
+        body.put("packageId", dataset.packages[packageIndex]);
+        // fixed origin, not today, so the request bodies are the same on every run
+        body.put("travelDate", LocalDate.of(2030, 1, 1).plusDays(random.nextInt(365)).toString());
+        body.put("travelers", travelers);
+        body.put("totalAmount", BigDecimal.valueOf(dataset.pricesMinor[packageIndex] * travelers, 2));
+        body.put("payment", Map.of("paymentMethod", METHODS[random.nextInt(METHODS.length)]));
+        body.put("contactFullName", "Load Test " + userId);
+        body.put("contactEmail", "customer" + userId + DatasetGenerator.EMAIL_DOMAIN);
+        body.put("contactNumber", "+91 9" + (100_000_000 + random.nextInt(900_000_000)));
+        List<Map<String, Object>> companions = new ArrayList<>();
+        for (int i = 1; i < travelers; i++) {
+            companions.add(Map.of("fullName", "Companion " + i, "age", 4 + random.nextInt(70),
+                    "gender", random.nextBoolean() ? "Male" : "Female",
+                    "relation", RELATIONS[random.nextInt(RELATIONS.length)]));
+        }
+        body.put("companions", companions);
+
+        String json;
+        try {
+            json = JSON.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        send("POST /api/bookings", HttpRequest.newBuilder(URI.create(baseUrl + "/api/bookings"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)), BOOKED);
+    }
+
+    private void get(String endpoint, String path) throws InterruptedException {
+        send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), OK);
+    }
+
+    private void send(String endpoint, HttpRequest.Builder request, Set<Integer> expected) throws InterruptedException {
+        request.timeout(config.timeout).header("Accept", "application/json")
+                .header("Authorization", "Bearer " + token);
+        long sent = System.nanoTime();
+        String outcome;
+        boolean error;
+        try {
+            // the body is read to the end, as a browser would, then thrown away
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            outcome = String.valueOf(response.statusCode());
+            error = !expected.contains(response.statusCode());
+        } catch (HttpTimeoutException e) {
+            outcome = "timeout";
+            error = true;
+        } catch (IOException e) {
+            outcome = "io-error";
+            error = true;
+        }
+        results.record(endpoint, sent, System.nanoTime() - sent, outcome, error);
+    }
+
+    private void think() throws InterruptedException {
+        long meanMillis = config.think.toMillis();
+        if (meanMillis > 0) {
+            // exponential, capped so one unlucky draw does not hold a session for minutes
+            double pause = -Math.log(1 - random.nextDouble()) * meanMillis;
+            TimeUnit.MILLISECONDS.sleep((long) Math.min(pause, meanMillis * 10));
+        }
+    }
+}
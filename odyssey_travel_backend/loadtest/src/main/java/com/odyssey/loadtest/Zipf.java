@@ -0,0 +1,31 @@
+package com.odyssey.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Zipf(exponent) over ranks 0..n-1: rank r is drawn with probability proportional to 1/(r+1)^exponent,
+// so with exponent 1 the first 1% of ranks gets a large share of all draws. Exponent 0 is uniform.
+final class Zipf {
+
+    private final double[] cdf;
+
+    Zipf(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Zipf over an empty range");
+        }
+        cdf = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= total;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cdf.length - 1);
+    }
+}
@@ -0,0 +1,60 @@
+package com.odyssey.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+// Reports how close the Hikari pool is to exhaustion. Boot's "db" indicator only proves that a
+// connection can be borrowed, which on an exhausted pool means waiting out the connection timeout.
+@Component
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+    public static final Status SATURATED = new Status("SATURATED", "Connection pool is exhausted or nearly so");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${health.connection-pool.saturation-threshold:0.9}")
+    private double saturationThreshold;
+
+    @Override
+    public Health health() {
+        HikariDataSource hikari;
+        try {
+            hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            return Health.unknown().withDetail("reason", "not a Hikari pool").build();
+        }
+        if (hikari.isClosed()) {
+            return Health.down().withDetail("reason", "pool is closed").build();
+        }
+        // the pool starts with the first borrowed connection
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return Health.unknown().withDetail("reason", "pool not started").build();
+        }
+
+        int max = hikari.getMaximumPoolSize();
+        int active = pool.getActiveConnections();
+        int waiting = pool.getThreadsAwaitingConnection();
+        double usage = (double) active / max;
+        Health.Builder builder = usage >= saturationThreshold || waiting > 0 ? Health.status(SATURATED) : Health.up();
+        return builder
+                .withDetail("active", active)
+                .withDetail("idle", pool.getIdleConnections())
+                .withDetail("max", max)
+                .withDetail("waiting", waiting)
+                .withDetail("usage", usage)
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.odyssey.config;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.utils.CachedBodyHttpServletRequest;
+import com.odyssey.utils.ErrorResponse;
+import com.odyssey.utils.ExpiringCache;
+import com.odyssey.utils.TokenBucket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Throttles credential endpoints per client IP and per submitted email before
+// they reach the database. Runs ahead of session resolution. The client IP is the socket address;
+// behind a proxy, server.forward-headers-strategy=native lets Tomcat replace it with the right-most
+// X-Forwarded-For hop not added by a trusted proxy, so clients cannot pick their own bucket.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // login / register bodies are tiny, anything bigger is not worth parsing for an email
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // separate so that keys made up in one (random emails) cannot evict buckets of the other
+    private ExpiringCache<String, TokenBucket> ipBuckets;
+    private ExpiringCache<String, TokenBucket> emailBuckets;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        ipBuckets = new ExpiringCache<>(properties.getIdleTtlMs(), properties.getMaxTrackedKeys());
+        emailBuckets = new ExpiringCache<>(properties.getIdleTtlMs(), properties.getMaxTrackedKeys());
+        Gauge.builder("cache.size", ipBuckets, ExpiringCache::size).tag("cache", "rate-limit-ip-buckets")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", emailBuckets, ExpiringCache::size).tag("cache", "rate-limit-email-buckets")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || findRoute(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Map.Entry<String, RateLimitProperties.Route> match = findRoute(request);
+        String name = match.getKey();
+        RateLimitProperties.Route route = match.getValue();
+        long now = System.nanoTime();
+
+        long wait = consume(ipBuckets, name + ":" + request.getRemoteAddr(),
+                route.getIpCapacity(), route.getIpPerMinute(), now);
+        if (wait > 0) {
+            meterRegistry.counter("rate-limit.rejections", "route", name, "key", "ip").increment();
+            reject(response, wait);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        if (route.getEmailCapacity() > 0 && route.getEmailPerMinute() > 0) {
+            CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request, MAX_BODY_BYTES);
+            if (!cached.isComplete()) {
+                // padding must not be a way around the per-email limit
+                meterRegistry.counter("rate-limit.rejections", "route", name, "key", "body-size").increment();
+                sendError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large");
+                return;
+            }
+            String email = extractEmail(cached.getBody());
+            if (email != null) {
+                wait = consume(emailBuckets, name + ":" + email,
+                        route.getEmailCapacity(), route.getEmailPerMinute(), now);
+                if (wait > 0) {
+                    meterRegistry.counter("rate-limit.rejections", "route", name, "key", "email").increment();
+                    reject(response, wait);
+                    return;
+                }
+            }
+            forwarded = cached;
+        }
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private long consume(ExpiringCache<String, TokenBucket> buckets, String key, int capacity, int perMinute,
+            long now) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, perMinute)).tryConsume(now);
+    }
+
+    private Map.Entry<String, RateLimitProperties.Route> findRoute(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (Map.Entry<String, RateLimitProperties.Route> entry : properties.getRoutes().entrySet()) {
+            RateLimitProperties.Route route = entry.getValue();
+            if (path.equals(route.getPath()) && route.getMethod().equalsIgnoreCase(request.getMethod())) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private String extractEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // malformed bodies are rejected by the controller, only the IP limit applies
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        sendError(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, retry in " + retryAfterSeconds + "s");
+    }
+
+    private void sendError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message, status.value()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.odyssey.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // per cache (IPs, emails); beyond it arbitrary buckets are dropped
+    private int maxTrackedKeys = 100_000;
+
+    // a bucket unused for this long is forgotten, i.e. full again
+    private long idleTtlMs = 600_000;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        private String method = "POST";
+        private String path;
+        private int ipCapacity = 20;
+        private int ipPerMinute = 20;
+        // 0 disables the per-email limit for the route
+        private int emailCapacity = 0;
+        private int emailPerMinute = 0;
+    }
+}
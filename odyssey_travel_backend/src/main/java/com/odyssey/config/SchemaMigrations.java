@@ -0,0 +1,129 @@
+package com.odyssey.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+// Idempotent PostgreSQL DDL that JPA annotations cannot express (expression indexes etc.).
+// Runs once Hibernate's ddl-auto=update has brought the tables up to date.
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaMigrations {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private static final List<String> STATEMENTS = List.of(
+            // prefix search for the admin user screens
+            "create index if not exists idx_users_email_prefix on users (lower(email) text_pattern_ops)",
+            "create index if not exists idx_users_first_name_prefix on users (lower(first_name) text_pattern_ops)",
+            "create index if not exists idx_users_last_name_prefix on users (lower(last_name) text_pattern_ops)",
+            // full-text ticket search; the vector is stored so ranking never re-parses the text
+            "alter table support_tickets add column if not exists search_vector tsvector generated always as ("
+                    + "setweight(to_tsvector('english', coalesce(subject, '')), 'A') || "
+                    + "setweight(to_tsvector('english', coalesce(description, '')), 'B')) stored",
+            "create index if not exists idx_support_tickets_search on support_tickets using gin (search_vector)",
+            // one row per file and ticket; duplicates from before the constraint keep the oldest row
+            "do $$ begin"
+                    + " if to_regclass('ux_ticket_attachments_ticket_sha256') is null then"
+                    + " delete from ticket_attachments a using ticket_attachments b where a.ticket_id = b.ticket_id"
+                    + " and a.sha256 = b.sha256 and a.attachment_id > b.attachment_id;"
+                    + " create unique index ux_ticket_attachments_ticket_sha256 on ticket_attachments (ticket_id, sha256);"
+                    + " end if;"
+                    + " end $$",
+            // payment_status was free text before the PaymentStatus enum; "PAID" was the only value written
+            "update payments set payment_status = 'SUCCEEDED' where payment_status = 'PAID'",
+            // Hibernate's check on the enum's values from when the table was created; PaymentStatus
+            // has grown since (REFUNDING) and ddl-auto=update never rewrites it
+            "alter table payments drop constraint if exists payments_payment_status_check",
+            // money moved from double precision to bigint minor units (paise); converts once
+            "do $$ begin"
+                    + " if exists (select 1 from information_schema.columns where table_name = 'payments'"
+                    + " and column_name = 'amount' and data_type = 'double precision') then"
+                    + " alter table payments alter column amount type bigint using round(amount * 100)::bigint;"
+                    + " end if;"
+                    + " if exists (select 1 from information_schema.columns where table_name = 'travel_packages'"
+                    + " and column_name = 'price' and data_type = 'double precision') then"
+                    + " alter table travel_packages alter column price type bigint using round(price * 100)::bigint;"
+                    + " end if;"
+                    + " end $$",
+            // reviews.travel_package_package_id (the default join column) became package_id: keep the
+            // oldest review per client and package for the unique constraint (the others are copied to
+            // reviews_removed_duplicates first), move the column over, and count the old reviews into
+            // the rating summaries they were never added to
+            "do $$ begin"
+                    + " if exists (select 1 from information_schema.columns where table_name = 'reviews'"
+                    + " and column_name = 'travel_package_package_id') then"
+                    + " create table if not exists reviews_removed_duplicates as"
+                    + " select r.*, now() as removed_at from reviews r with no data;"
+                    + " with removed as (delete from reviews a using reviews b where a.client_id = b.client_id"
+                    + " and coalesce(a.package_id, a.travel_package_package_id)"
+                    + " = coalesce(b.package_id, b.travel_package_package_id)"
+                    + " and a.review_id > b.review_id returning a.*)"
+                    + " insert into reviews_removed_duplicates select removed.*, now() from removed;"
+                    + " update reviews set package_id = travel_package_package_id where package_id is null;"
+                    + " alter table reviews drop column travel_package_package_id;"
+                    + " insert into package_rating_summaries"
+                    + " (package_id, review_count, rating_sum, stars1, stars2, stars3, stars4, stars5, updated_at)"
+                    + " select package_id, count(*), sum(rating), count(*) filter (where rating = 1),"
+                    + " count(*) filter (where rating = 2), count(*) filter (where rating = 3),"
+                    + " count(*) filter (where rating = 4), count(*) filter (where rating = 5), now()"
+                    + " from reviews where package_id is not null and rating between 1 and 5 group by package_id"
+                    + " on conflict (package_id) do update set review_count = excluded.review_count,"
+                    + " rating_sum = excluded.rating_sum, stars1 = excluded.stars1, stars2 = excluded.stars2,"
+                    + " stars3 = excluded.stars3, stars4 = excluded.stars4, stars5 = excluded.stars5,"
+                    + " updated_at = excluded.updated_at;"
+                    + " end if;"
+                    + " end $$",
+            // vote columns created before they had defaults; rows written by SQL or COPY get 0 too
+            "alter table reviews alter column helpful_votes set default 0",
+            "alter table reviews alter column unhelpful_votes set default 0",
+            "alter table reviews alter column helpful_score set default 0",
+            // undated reviews from before created_at sort after every dated one in the recent feed;
+            // ddl-auto cannot add a not-null column to a table with rows, so it may still be missing
+            "alter table reviews add column if not exists created_at timestamp(6)",
+            "update reviews set created_at = timestamp '1970-01-01' where created_at is null",
+            "alter table reviews alter column created_at set not null");
+
+    private static final int MAX_LOGGED_IDS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void migrate() {
+        boolean legacyReviews = columnExists("reviews", "travel_package_package_id");
+        STATEMENTS.forEach(jdbcTemplate::execute);
+        if (legacyReviews) {
+            logRemovedReviews();
+        }
+    }
+
+    private boolean columnExists(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from information_schema.columns where table_name = ? and column_name = ?)",
+                Boolean.class, table, column));
+    }
+
+    // the review migration deletes rows; say which, they can be restored from the side table
+    private void logRemovedReviews() {
+        List<String> removed = jdbcTemplate.query(
+                "select review_id, client_id, coalesce(package_id, travel_package_package_id)"
+                        + " from reviews_removed_duplicates order by review_id",
+                (rs, n) -> rs.getLong(1) + " (client " + rs.getLong(2) + ", package " + rs.getLong(3) + ")");
+        if (removed.isEmpty()) {
+            log.info("Review package column migrated, no duplicate reviews");
+            return;
+        }
+        log.warn("Review package column migrated: removed {} duplicate reviews (a newer review by the same client"
+                + " on the same package), kept in reviews_removed_duplicates: {}{}", removed.size(),
+                removed.subList(0, Math.min(removed.size(), MAX_LOGGED_IDS)),
+                removed.size() > MAX_LOGGED_IDS ? " and " + (removed.size() - MAX_LOGGED_IDS) + " more" : "");
+    }
+}
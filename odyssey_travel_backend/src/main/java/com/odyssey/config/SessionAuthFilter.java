@@ -0,0 +1,142 @@
+package com.odyssey.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.entity.Role;
+import com.odyssey.service.SessionService;
+import com.odyssey.utils.ErrorResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Resolves the session token to a SessionPrincipal request attribute. The token comes from
+// "Authorization: Bearer <token>"; EventSource cannot set headers, so GETs on the stream paths may
+// send it as the session cookie set at login or as ?access_token=. A bad token is always rejected,
+// a missing one outside the public paths while auth.session.required is on (the default). The
+// admin paths (operational endpoints: metrics, SQL statistics) need an admin session either way,
+// except that the scrape paths also take the configured scrape token, a static secret for
+// Prometheus that does not expire with a session.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SessionAuthFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = "odyssey.sessionPrincipal";
+    public static final String SESSION_COOKIE = "odyssey_session";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String TOKEN_PARAMETER = "access_token";
+
+    private final SessionService sessionService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${auth.session.required:true}")
+    private boolean sessionRequired;
+
+    @Value("${auth.session.public-paths:/,/health,/api/v1/auth/**,/api/packages/**,/actuator/health/**}")
+    private List<String> publicPaths;
+
+    @Value("${auth.session.admin-paths:/actuator/**}")
+    private List<String> adminPaths;
+
+    @Value("${auth.session.scrape-paths:/actuator/prometheus}")
+    private List<String> scrapePaths;
+
+    // empty: no scrape token, the scrape paths need an admin session
+    @Value("${auth.session.scrape-token:}")
+    private String scrapeToken;
+
+    @Value("${auth.session.stream-paths:/api/stats/**/stream,/api/support/**/stream}")
+    private List<String> streamPaths;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public SessionAuthFilter(SessionService sessionService, ObjectMapper objectMapper) {
+        this.sessionService = sessionService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String token = token(request);
+        String path = request.getRequestURI();
+        if (token != null && isScrapeToken(token) && matches(scrapePaths, path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean preflight = "OPTIONS".equals(request.getMethod());
+        boolean publicPath = matches(publicPaths, path);
+        SessionPrincipal principal = null;
+        if (token != null) {
+            principal = sessionService.resolve(token).orElse(null);
+            if (principal == null) {
+                reject(response, HttpStatus.UNAUTHORIZED, "Session expired or revoked");
+                return;
+            }
+            request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        } else if (sessionRequired && !preflight && !publicPath) {
+            reject(response, HttpStatus.UNAUTHORIZED, "Authentication required");
+            return;
+        }
+        if (!preflight && !publicPath && matches(adminPaths, path)
+                && (principal == null || !principal.hasRole(Role.ADMIN))) {
+            reject(response, principal == null ? HttpStatus.UNAUTHORIZED : HttpStatus.FORBIDDEN,
+                    principal == null ? "Authentication required" : "Admin access required");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String token(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length()).trim();
+        }
+        // only read-only streams accept the cookie, so a cross-site form cannot act with it
+        if (!"GET".equals(request.getMethod()) || !matches(streamPaths, request.getRequestURI())) {
+            return null;
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (SESSION_COOKIE.equals(cookie.getName()) && !cookie.getValue().isBlank()) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        String parameter = request.getParameter(TOKEN_PARAMETER);
+        return parameter != null && !parameter.isBlank() ? parameter : null;
+    }
+
+    private boolean isScrapeToken(String token) {
+        return !scrapeToken.isEmpty() && MessageDigest.isEqual(
+                scrapeToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        return patterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message, status.value()));
+    }
+}
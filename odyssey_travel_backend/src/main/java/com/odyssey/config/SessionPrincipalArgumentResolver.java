@@ -0,0 +1,32 @@
+package com.odyssey.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.exception.UnauthorizedException;
+
+// Hands the request's SessionPrincipal to controller methods that declare one. Such an endpoint
+// needs a session even under a public path: the filter only resolves tokens, this enforces them.
+public class SessionPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return SessionPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object principal = webRequest.getAttribute(SessionAuthFilter.PRINCIPAL_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (principal == null) {
+            throw new UnauthorizedException("Authentication required");
+        }
+        return principal;
+    }
+}
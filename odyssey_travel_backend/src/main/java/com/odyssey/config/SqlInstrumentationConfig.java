@@ -0,0 +1,101 @@
+package com.odyssey.config;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.odyssey.service.SqlStatsService;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+// Wraps the connection pool in a JDBC proxy so every statement, Hibernate's and JdbcTemplate's
+// alike, is timed and reported to SqlStatsService. Replaces spring.jpa.show-sql.
+@Configuration
+@ConditionalOnProperty(name = "sql.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig {
+
+    // static and lazy: post-processors are created before ordinary beans, the service is looked
+    // up on the first statement instead
+    @Bean
+    static BeanPostProcessor sqlInstrumentingDataSourcePostProcessor(ObjectProvider<SqlStatsService> sqlStatsService) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new StatementListener(sqlStatsService))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class StatementListener implements QueryExecutionListener {
+
+        private final ObjectProvider<SqlStatsService> provider;
+        private final ThreadLocal<long[]> startedAt = ThreadLocal.withInitial(() -> new long[1]);
+        private volatile SqlStatsService sqlStatsService;
+
+        StatementListener(ObjectProvider<SqlStatsService> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            startedAt.get()[0] = System.nanoTime();
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            long nanos = System.nanoTime() - startedAt.get()[0];
+            SqlStatsService stats = sqlStatsService;
+            if (stats == null) {
+                // statements run while the context is still starting are not recorded
+                stats = provider.getIfAvailable();
+                if (stats == null) {
+                    return;
+                }
+                sqlStatsService = stats;
+            }
+            // a Statement batch carries several queries; its time is charged to the first
+            for (int i = 0; i < queryInfoList.size(); i++) {
+                QueryInfo query = queryInfoList.get(i);
+                stats.recordStatement(query.getQuery(), i == 0 ? nanos : 0, () -> parameterTypes(query));
+            }
+        }
+
+        // "[Long, String, null]", with " x<n>" for a batch of n parameter sets; values are never logged
+        private static String parameterTypes(QueryInfo query) {
+            List<List<ParameterSetOperation>> sets = query.getParametersList();
+            if (sets.isEmpty()) {
+                return "[]";
+            }
+            String types = sets.get(0).stream()
+                    .map(StatementListener::typeOf)
+                    .collect(Collectors.joining(", ", "[", "]"));
+            return sets.size() > 1 ? types + " x" + sets.size() : types;
+        }
+
+        private static String typeOf(ParameterSetOperation operation) {
+            Object[] args = operation.getArgs();
+            if ("setNull".equals(operation.getMethod().getName()) || args.length < 2 || args[1] == null) {
+                return "null";
+            }
+            return args[1].getClass().getSimpleName();
+        }
+    }
+}
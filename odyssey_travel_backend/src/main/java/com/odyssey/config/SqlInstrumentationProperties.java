@@ -0,0 +1,39 @@
+package com.odyssey.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "sql.instrumentation")
+@Getter
+@Setter
+public class SqlInstrumentationProperties {
+
+    private boolean enabled = true;
+
+    // statements slower than this are logged with their bind-parameter types
+    private long slowQueryMs = 200;
+
+    private int slowQueryHistory = 50;
+
+    // one statement shape run this many times in a single request is reported as a likely N+1
+    private int repeatedStatementThreshold = 10;
+
+    // statements allowed per request, 0 for no limit; budgets overrides it per URI pattern
+    private int defaultBudget = 0;
+
+    private Map<String, Integer> budgets = new LinkedHashMap<>();
+
+    // fail the request instead of logging when it goes over budget; meant for tests
+    private boolean failOnBudget = false;
+
+    public int budgetFor(String uri) {
+        return budgets.getOrDefault(uri, defaultBudget);
+    }
+}
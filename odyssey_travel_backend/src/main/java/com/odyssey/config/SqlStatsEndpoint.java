@@ -0,0 +1,29 @@
+package com.odyssey.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.odyssey.dto.SqlStatsDto;
+import com.odyssey.service.SqlStatsService;
+
+// /actuator/sql: statements per endpoint, likely N+1s and the latest slow queries; DELETE resets
+@Component
+@Endpoint(id = "sql")
+public class SqlStatsEndpoint {
+
+    @Autowired
+    private SqlStatsService sqlStatsService;
+
+    @ReadOperation
+    public SqlStatsDto stats() {
+        return sqlStatsService.getStats();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatsService.reset();
+    }
+}
@@ -0,0 +1,111 @@
+package com.odyssey.config;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.service.SqlStatsService;
+import com.odyssey.utils.ErrorResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Opens a SQL accounting scope around each request. Runs ahead of session resolution, so the
+// session lookup is part of the request's count. Work handed to other threads is not attributed.
+// With fail-on-budget (tests) the response is held back until the count is known, since a
+// request can only be failed before anything was sent; event streams pass straight through.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private final SqlStatsService sqlStatsService;
+    private final SqlInstrumentationProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public SqlStatsFilter(SqlStatsService sqlStatsService, SqlInstrumentationProperties properties,
+            ObjectMapper objectMapper) {
+        this.sqlStatsService = sqlStatsService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        HeldResponse held = properties.isFailOnBudget() ? new HeldResponse(response, request) : null;
+        sqlStatsService.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        String uri;
+        int statements;
+        try {
+            filterChain.doFilter(request, held != null ? held : response);
+        } finally {
+            uri = uriOf(request);
+            statements = sqlStatsService.endRequest(request.getMethod(), uri);
+        }
+        if (held == null || request.isAsyncStarted()) {
+            if (held != null) {
+                held.release();
+            }
+            return;
+        }
+
+        int budget = properties.budgetFor(uri);
+        if (budget > 0 && statements > budget && !response.isCommitted()) {
+            String message = request.getMethod() + " " + uri + " ran " + statements
+                    + " SQL statements, over its budget of " + budget;
+            response.reset();
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse(message, HttpStatus.INTERNAL_SERVER_ERROR.value()));
+            return;
+        }
+        held.copyBodyToResponse();
+    }
+
+    // the matched route pattern, so /api/packages/7 and /api/packages/8 are one endpoint
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    // once the request went async (an SSE stream) there is no end to wait for: what was held is
+    // sent and every later flush goes straight through
+    private static final class HeldResponse extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        HeldResponse(HttpServletResponse response, HttpServletRequest request) {
+            super(response);
+            this.request = request;
+        }
+
+        void release() throws IOException {
+            copyBodyToResponse(false);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (request.isAsyncStarted()) {
+                release();
+                getResponse().flushBuffer();
+            }
+        }
+    }
+}
@@ -1,32 +1,67 @@
 package com.odyssey.controller;
 
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import com.odyssey.config.SessionAuthFilter;
 import com.odyssey.dto.LoginRequestDTO;
+import com.odyssey.dto.LoginResponseDto;
 import jakarta.validation.*;
 import com.odyssey.dto.UserCreateRequestDto;
 import com.odyssey.dto.UserResponseDto;
 import com.odyssey.service.AuthService;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("api/v1/auth")
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
 
+    // off only for plain-http local setups; SameSite=None cookies must be Secure
+    @Value("${auth.session.cookie-secure:true}")
+    private boolean cookieSecure;
+
     @PostMapping("/register")
     public ResponseEntity<UserResponseDto> registerUser(@RequestBody UserCreateRequestDto userCreateRequestDto) {
         System.out.println(userCreateRequestDto.toString());
         return  ResponseEntity.status(HttpStatus.CREATED).body(authService.registerUser(userCreateRequestDto));
     }
 
+    // the token is also set as an HttpOnly cookie, for EventSource streams that cannot send headers
     @PostMapping("/login")
-    public ResponseEntity<UserResponseDto> loginUser( @RequestBody LoginRequestDTO loginRequestDTO) {
-        return  ResponseEntity.status(HttpStatus.OK).body(authService.loginUser(loginRequestDTO));
+    public ResponseEntity<LoginResponseDto> loginUser( @RequestBody LoginRequestDTO loginRequestDTO) {
+        LoginResponseDto login = authService.loginUser(loginRequestDTO);
+        Duration ttl = Duration.between(LocalDateTime.now(), login.getExpiresAt());
+        return  ResponseEntity.status(HttpStatus.OK)
+                .header(HttpHeaders.SET_COOKIE, sessionCookie(login.getToken(), ttl).toString())
+                .body(login);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logoutUser(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logoutUser(authorization.replaceFirst("^Bearer ", ""));
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, sessionCookie("", Duration.ZERO).toString())
+                .build();
+    }
+
+    private ResponseCookie sessionCookie(String token, Duration maxAge) {
+        return ResponseCookie.from(SessionAuthFilter.SESSION_COOKIE, token)
+                .httpOnly(true)
+                .secure(cookieSecure)
+                .sameSite(cookieSecure ? "None" : "Lax")
+                .path("/api")
+                .maxAge(maxAge)
+                .build();
     }
 
 }
@@ -1,6 +1,7 @@
 package com.odyssey.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +16,8 @@ import java.util.List;
 import com.odyssey.dto.BookingRequestDTO;
 import com.odyssey.service.BookingService;
 import com.odyssey.dto.BookingResponseDto;
+import com.odyssey.dto.PaymentDto;
+import com.odyssey.dto.SessionPrincipal;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -23,22 +26,31 @@ public class BookingController {
 	@Autowired
 	private BookingService bookingService;
 
+	// 201 paid and confirmed, 402 declined, 202 still being charged (poll /api/payments/booking/{id})
 	@PostMapping
-	public ResponseEntity<String> createBooking(@RequestBody BookingRequestDTO dto) {
-
-		bookingService.createBooking(dto);
-		return ResponseEntity.ok("Booking and Payment Successful");
+	public ResponseEntity<PaymentDto> createBooking(@RequestBody BookingRequestDTO dto, SessionPrincipal principal) {
+		// always booked for the signed-in user, whatever userId the body carries
+		dto.setUserId(principal.getUserId());
+		PaymentDto payment = bookingService.createBooking(dto);
+		HttpStatus status = switch (payment.getStatus()) {
+			case SUCCEEDED -> HttpStatus.CREATED;
+			case FAILED -> HttpStatus.PAYMENT_REQUIRED;
+			default -> HttpStatus.ACCEPTED;
+		};
+		return ResponseEntity.status(status).body(payment);
 	}
 
 	@GetMapping("/user/{userId}")
 	public ResponseEntity<List<BookingResponseDto>> getUserBookings(
-			@PathVariable Long userId) {
+			@PathVariable Long userId, SessionPrincipal principal) {
+		principal.requireSelfOrAdmin(userId);
 		return ResponseEntity.ok(bookingService.getAllBookings(userId));
 	}
 
 	@GetMapping("/agent/{agentId}")
 	public ResponseEntity<List<BookingResponseDto>> getAgentBookings(
-			@PathVariable Long agentId) {
+			@PathVariable Long agentId, SessionPrincipal principal) {
+		principal.requireSelfOrAdmin(agentId);
 		return ResponseEntity.ok(bookingService.getAgentBookings(agentId));
 	}
 }
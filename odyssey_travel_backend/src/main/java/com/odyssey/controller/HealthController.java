@@ -1,18 +1,43 @@
 package com.odyssey.controller;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.CompositeHealth;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class HealthController {
 
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @Autowired
+    private HttpCodeStatusMapper healthStatusMapper;
+
     @GetMapping("/")
     public String home() {
         return "Odyssey Travel Backend is LIVE 🚀";
     }
 
+    // same checks as /actuator/health (database, connection pool, disk), statuses only
     @GetMapping("/health")
-    public String health() {
-        return "Application is running successfully ✅";
+    public ResponseEntity<Map<String, Object>> health() {
+        HealthComponent health = healthEndpoint.health();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", health.getStatus().getCode());
+        if (health instanceof CompositeHealth composite) {
+            Map<String, String> components = new TreeMap<>();
+            composite.getComponents().forEach((name, component) -> components.put(name, component.getStatus().getCode()));
+            body.put("components", components);
+        }
+        return ResponseEntity.status(healthStatusMapper.getStatusCode(health.getStatus())).body(body);
     }
 }
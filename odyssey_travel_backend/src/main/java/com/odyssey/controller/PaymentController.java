@@ -1,5 +1,55 @@
 package com.odyssey.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.odyssey.dto.PaymentDto;
+import com.odyssey.dto.PaymentGatewayHealthDto;
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.entity.Role;
+import com.odyssey.service.BookingService;
+import com.odyssey.service.PaymentService;
+
+@RestController
+@RequestMapping("/api/payments")
 public class PaymentController {
 
+	@Autowired
+	private PaymentService paymentService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@GetMapping("/{paymentId}")
+	public ResponseEntity<PaymentDto> getPayment(@PathVariable Long paymentId, SessionPrincipal principal) {
+		PaymentDto payment = paymentService.getPayment(paymentId);
+		bookingService.checkAccess(payment.getBookingId(), principal);
+		return ResponseEntity.ok(payment);
+	}
+
+	// polled by the client while a booking's payment is PENDING or PROCESSING
+	@GetMapping("/booking/{bookingId}")
+	public ResponseEntity<PaymentDto> getBookingPayment(@PathVariable Long bookingId, SessionPrincipal principal) {
+		bookingService.checkAccess(bookingId, principal);
+		return ResponseEntity.ok(paymentService.getPaymentForBooking(bookingId));
+	}
+
+	// Admin : refund a succeeded payment, cancels the booking
+	@PostMapping("/{paymentId}/refund")
+	public ResponseEntity<PaymentDto> refund(@PathVariable Long paymentId, SessionPrincipal principal) {
+		principal.requireRole(Role.ADMIN);
+		return ResponseEntity.ok(paymentService.refundPayment(paymentId));
+	}
+
+	// breaker state, bulkhead usage and retry backlog
+	@GetMapping("/gateway")
+	public ResponseEntity<PaymentGatewayHealthDto> getGatewayHealth(SessionPrincipal principal) {
+		principal.requireRole(Role.ADMIN);
+		return ResponseEntity.ok(paymentService.getGatewayHealth());
+	}
 }
@@ -0,0 +1,80 @@
+package com.odyssey.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.entity.ReconciliationMismatch;
+import com.odyssey.entity.ReconciliationMismatchType;
+import com.odyssey.entity.ReconciliationRange;
+import com.odyssey.entity.ReconciliationRun;
+import com.odyssey.entity.Role;
+import com.odyssey.service.ReconciliationService;
+
+@RestController
+@RequestMapping("/api/reconciliation")
+public class ReconciliationController {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    // Admin : reconcile the settlement file of a given day (normally done nightly)
+    @PostMapping("/runs")
+    public ResponseEntity<ReconciliationRun> startRun(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciliationService.startRun(date));
+    }
+
+    // continue a failed or abandoned run from its checkpoints
+    @PostMapping("/runs/{runId}/resume")
+    public ResponseEntity<ReconciliationRun> resumeRun(@PathVariable Long runId, SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciliationService.resumeRun(runId));
+    }
+
+    @GetMapping("/runs")
+    public ResponseEntity<List<ReconciliationRun>> getRecentRuns(SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.ok(reconciliationService.getRecentRuns());
+    }
+
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<ReconciliationRun> getRun(@PathVariable Long runId, SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.ok(reconciliationService.getRun(runId));
+    }
+
+    // per-range checkpoints, i.e. progress of a running job
+    @GetMapping("/runs/{runId}/ranges")
+    public ResponseEntity<List<ReconciliationRange>> getRanges(@PathVariable Long runId, SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.ok(reconciliationService.getRanges(runId));
+    }
+
+    @GetMapping("/runs/{runId}/mismatches")
+    public ResponseEntity<Page<ReconciliationMismatch>> getMismatches(
+            @PathVariable Long runId,
+            @RequestParam(required = false) ReconciliationMismatchType type,
+            @PageableDefault(size = 50, sort = "paymentId", direction = Sort.Direction.ASC) Pageable pageable,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.ok(reconciliationService.getMismatches(runId, type, pageable));
+    }
+}
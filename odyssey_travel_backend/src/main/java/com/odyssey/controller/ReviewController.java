@@ -1,5 +1,60 @@
 package com.odyssey.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.odyssey.dto.RatingSummaryDto;
+import com.odyssey.dto.ReviewDto;
+import com.odyssey.dto.ReviewFeedDto;
+import com.odyssey.dto.ReviewRequestDto;
+import com.odyssey.dto.ReviewVoteRequestDto;
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.service.ReviewService;
+
+@RestController
+@RequestMapping("/api/packages/{packageId}/reviews")
 public class ReviewController {
 
+    @Autowired
+    private ReviewService reviewService;
+
+    // Client : review a package they travelled on
+    @PostMapping
+    public ResponseEntity<ReviewDto> createReview(
+            @PathVariable Long packageId,
+            @RequestBody ReviewRequestDto request,
+            SessionPrincipal principal) {
+        request.setUserId(principal.getUserId());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(reviewService.createReview(packageId, request));
+    }
+
+    // cursor feed: ?sort=recent|helpful&size=10, then &cursor=<nextCursor> for the following slice
+    @GetMapping
+    public ResponseEntity<ReviewFeedDto> getReviews(
+            @PathVariable Long packageId,
+            @RequestParam(defaultValue = "recent") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(reviewService.getReviewFeed(packageId, sort, cursor, size));
+    }
+
+    // helpful / not helpful; voting again replaces the earlier vote
+    @PostMapping("/{reviewId}/vote")
+    public ResponseEntity<ReviewDto> voteReview(
+            @PathVariable Long packageId,
+            @PathVariable Long reviewId,
+            @RequestBody ReviewVoteRequestDto request,
+            SessionPrincipal principal) {
+        request.setUserId(principal.getUserId());
+        return ResponseEntity.ok(reviewService.voteReview(packageId, reviewId, request));
+    }
+
+    // average, count and 1-5 star histogram
+    @GetMapping("/summary")
+    public ResponseEntity<RatingSummaryDto> getSummary(@PathVariable Long packageId) {
+        return ResponseEntity.ok(reviewService.getSummary(packageId));
+    }
 }
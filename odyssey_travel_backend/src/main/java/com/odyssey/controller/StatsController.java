@@ -1,11 +1,18 @@
 package com.odyssey.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.odyssey.dto.DashboardStatsDto;
 import com.odyssey.dto.AgentStatsDto;
+import com.odyssey.dto.SearchAnalyticsDto;
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.entity.Role;
+import com.odyssey.service.DashboardStreamService;
+import com.odyssey.service.SearchAnalyticsService;
 import com.odyssey.service.StatsService;
 
 @RestController
@@ -15,13 +22,43 @@ public class StatsController {
     @Autowired
     private StatsService statsService;
 
+    @Autowired
+    private SearchAnalyticsService searchAnalyticsService;
+
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
     @GetMapping("/admin")
-    public ResponseEntity<DashboardStatsDto> getAdminStats() {
+    public ResponseEntity<DashboardStatsDto> getAdminStats(SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
         return ResponseEntity.ok(statsService.getAdminStats());
     }
 
+    // most searched catalog terms, including ones with no matching packages
+    @GetMapping("/admin/searches")
+    public ResponseEntity<SearchAnalyticsDto> getSearchAnalytics(
+            @RequestParam(defaultValue = "10") int limit, SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.ok(searchAnalyticsService.getSearchAnalytics(limit));
+    }
+
     @GetMapping("/agent/{agentId}")
-    public ResponseEntity<AgentStatsDto> getAgentStats(@PathVariable Long agentId) {
+    public ResponseEntity<AgentStatsDto> getAgentStats(@PathVariable Long agentId, SessionPrincipal principal) {
+        principal.requireSelfOrAdmin(agentId);
         return ResponseEntity.ok(statsService.getAgentStats(agentId));
     }
+
+    // live dashboards: pushes fresh stats when bookings, packages or users change. EventSource
+    // signs in with the login cookie or ?access_token= (SessionAuthFilter)
+    @GetMapping(value = "/admin/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAdminStats(SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return dashboardStreamService.subscribeAdmin();
+    }
+
+    @GetMapping(value = "/agent/{agentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAgentStats(@PathVariable Long agentId, SessionPrincipal principal) {
+        principal.requireSelfOrAdmin(agentId);
+        return dashboardStreamService.subscribeAgent(agentId);
+    }
 }
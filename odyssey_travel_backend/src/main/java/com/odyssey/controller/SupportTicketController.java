@@ -1,28 +1,73 @@
 package com.odyssey.controller;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.odyssey.dto.SessionPrincipal;
 import com.odyssey.dto.SupportTicketDTO;
 import com.odyssey.dto.SupportTicketResponseDTO;
+import com.odyssey.dto.SupportTicketSearchResultDto;
+import com.odyssey.dto.TicketAttachmentDto;
 import com.odyssey.entity.Priority;
+import com.odyssey.entity.Role;
 import com.odyssey.entity.SupportTicketStatus;
+import com.odyssey.entity.TicketAutomationLog;
+import com.odyssey.exception.ResourceNotFoundException;
 import com.odyssey.service.SupportTicketService;
+import com.odyssey.service.TicketAttachmentService;
+import com.odyssey.service.TicketDispatchService;
+import com.odyssey.service.TicketStreamService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/support")
 public class SupportTicketController {
 
+    // Tomcat's NIO connector copies the file to the socket itself when these are set
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private SupportTicketService supportTicketService;
 
+    @Autowired
+    private TicketAttachmentService ticketAttachmentService;
+
+    @Autowired
+    private TicketStreamService ticketStreamService;
+
     // Raise ticket (User / Agent)
     @PostMapping
     public ResponseEntity<SupportTicketResponseDTO> raiseTicket(
-            @RequestBody SupportTicketDTO dto) {
+            @RequestBody SupportTicketDTO dto,
+            SessionPrincipal principal) {
+        dto.setUserId(principal.getUserId());
 
         return ResponseEntity.ok(
                 supportTicketService.raiseTicket(dto)
@@ -32,32 +77,206 @@ public class SupportTicketController {
     // User / Agent dashboard
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<SupportTicketResponseDTO>> getUserTickets(
-            @PathVariable Long userId) {
-
+            @PathVariable Long userId,
+            SessionPrincipal principal) {
+        principal.requireSelfOrAdmin(userId);
         return ResponseEntity.ok(
                 supportTicketService.getTicketsByUser(userId)
         );
     }
 
-    // Admin : update ticket status
+    // Admin / Agent of the ticket's package : update ticket status
     @PutMapping("/{ticketId}/status/{status}")
     public ResponseEntity<SupportTicketResponseDTO> updateStatus(
             @PathVariable Long ticketId,
-            @PathVariable SupportTicketStatus status) {
+            @PathVariable SupportTicketStatus status,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN, Role.AGENT);
+        supportTicketService.checkAccess(ticketId, principal);
 
         return ResponseEntity.ok(
                 supportTicketService.updateTicketStatus(ticketId, status)
         );
     }
 
+    // paged listing: /tickets?status=OPEN&priority=HIGH&agentId=7&page=0&size=20&sort=lastUpdatedAt,desc
+    // agents only see their packages' tickets, customers only their own
+    @GetMapping("/tickets")
+    public ResponseEntity<Page<SupportTicketResponseDTO>> searchTickets(
+            @RequestParam(required = false) SupportTicketStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long agentId,
+            @RequestParam(required = false) Long userId,
+            @PageableDefault(size = 20, sort = "lastUpdatedAt", direction = Sort.Direction.DESC) Pageable pageable,
+            SessionPrincipal principal) {
+        if (principal.hasRole(Role.AGENT)) {
+            agentId = principal.getUserId();
+        } else if (!principal.hasRole(Role.ADMIN)) {
+            userId = principal.getUserId();
+        }
+        return ResponseEntity.ok(
+                supportTicketService.searchTickets(status, priority, agentId, userId, pageable)
+        );
+    }
+
+    // ranked keyword search: /search?q=refund&status=OPEN&limit=20
+    @GetMapping("/search")
+    public ResponseEntity<List<SupportTicketSearchResultDto>> fullTextSearch(
+            @RequestParam String q,
+            @RequestParam(required = false) SupportTicketStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long agentId,
+            @RequestParam(defaultValue = "20") int limit,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN, Role.AGENT);
+        if (principal.hasRole(Role.AGENT)) {
+            agentId = principal.getUserId();
+        }
+        return ResponseEntity.ok(
+                supportTicketService.fullTextSearch(q, status, priority, agentId, limit)
+        );
+    }
+
+    // what the stale-ticket job changed on this ticket, newest first
+    @GetMapping("/{ticketId}/automation")
+    public ResponseEntity<List<TicketAutomationLog>> getAutomationLog(@PathVariable Long ticketId,
+            SessionPrincipal principal) {
+        supportTicketService.checkAccess(ticketId, principal);
+        return ResponseEntity.ok(supportTicketService.getAutomationLog(ticketId));
+    }
+
+    // live ticket events (ticket-created / ticket-updated) instead of polling the lists. EventSource
+    // signs in with the login cookie or ?access_token= (SessionAuthFilter); same access as the lists
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserTickets(@PathVariable Long userId, SessionPrincipal principal) {
+        principal.requireSelfOrAdmin(userId);
+        return ticketStreamService.subscribeUser(userId);
+    }
+
+    @GetMapping(value = "/agent/{agentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAgentTickets(@PathVariable Long agentId, SessionPrincipal principal) {
+        principal.requireSelfOrAdmin(agentId);
+        return ticketStreamService.subscribeAgent(agentId);
+    }
+
+    @GetMapping(value = "/admin/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAllTickets(SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ticketStreamService.subscribeAdmin();
+    }
+
     @GetMapping("/all")
-    public ResponseEntity<List<SupportTicketResponseDTO>> getAllTickets() {
+    public ResponseEntity<List<SupportTicketResponseDTO>> getAllTickets(SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
         return ResponseEntity.ok(supportTicketService.getAllTickets());
     }
 
     @GetMapping("/agent/{agentId}")
     public ResponseEntity<List<SupportTicketResponseDTO>> getAgentTickets(
-            @PathVariable Long agentId) {
+            @PathVariable Long agentId,
+            SessionPrincipal principal) {
+        principal.requireSelfOrAdmin(agentId);
         return ResponseEntity.ok(supportTicketService.getTicketsByAgent(agentId));
     }
+
+    // Agent : claim the most urgent open ticket on their packages, 204 when none are waiting
+    @PostMapping("/agent/{agentId}/next")
+    public ResponseEntity<SupportTicketResponseDTO> claimNextForAgent(@PathVariable Long agentId,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.AGENT);
+        principal.requireSelfOrAdmin(agentId);
+        return supportTicketService.claimNextTicket(agentId, agentId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    // Admin : claim from the pool of tickets without an agent and escalated breaches
+    @PostMapping("/admin/{adminId}/next")
+    public ResponseEntity<SupportTicketResponseDTO> claimNextForAdmin(@PathVariable Long adminId,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return supportTicketService.claimNextTicket(TicketDispatchService.ADMIN_POOL, adminId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/{ticketId}/claim/{userId}")
+    public ResponseEntity<SupportTicketResponseDTO> claimTicket(
+            @PathVariable Long ticketId,
+            @PathVariable Long userId,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN, Role.AGENT);
+        principal.requireSelfOrAdmin(userId);
+        supportTicketService.checkAccess(ticketId, principal);
+        return ResponseEntity.ok(supportTicketService.claimTicket(ticketId, userId));
+    }
+
+    @GetMapping("/queue")
+    public ResponseEntity<Map<Long, Long>> getQueueSizes(SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.ok(supportTicketService.getQueueSizes());
+    }
+
+    // Attach a screenshot or PDF (multipart field "file")
+    @PostMapping(value = "/{ticketId}/attachments", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<TicketAttachmentDto> addAttachment(
+            @PathVariable Long ticketId,
+            @RequestParam("file") MultipartFile file,
+            SessionPrincipal principal) {
+        supportTicketService.checkAccess(ticketId, principal);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ticketAttachmentService.addAttachment(ticketId, principal.getUserId(), file));
+    }
+
+    @GetMapping("/{ticketId}/attachments")
+    public ResponseEntity<List<TicketAttachmentDto>> getAttachments(@PathVariable Long ticketId,
+            SessionPrincipal principal) {
+        supportTicketService.checkAccess(ticketId, principal);
+        return ResponseEntity.ok(ticketAttachmentService.getAttachments(ticketId));
+    }
+
+    @GetMapping("/attachments/{attachmentId}")
+    public void downloadAttachment(
+            @PathVariable Long attachmentId,
+            SessionPrincipal principal,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        TicketAttachmentDto attachment = ticketAttachmentService.getAttachment(attachmentId);
+        // readable by whoever may see the ticket it belongs to
+        supportTicketService.checkAccess(attachment.getTicketId(), principal);
+        Path path = ticketAttachmentService.resolve(attachment.getSha256());
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Attachment content missing " + attachmentId);
+        }
+
+        // content is addressed by its checksum, so it never changes under the same ETag
+        String etag = "\"" + attachment.getSha256() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long size = Files.size(path);
+        response.setContentType(attachment.getContentType());
+        response.setContentLengthLong(size);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8).build().toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ);
+                WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
 }
@@ -13,15 +13,19 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.dto.SessionPrincipal;
 import com.odyssey.dto.TravelPackageDto;
+import com.odyssey.entity.Role;
 import com.odyssey.entity.Status;
 import com.odyssey.entity.TravelPackage;
 import com.odyssey.service.TravelPackageService;
+import com.odyssey.service.TrendingService;
 
 @RestController
 @RequestMapping("/api/packages")
@@ -30,6 +34,9 @@ public class TravelPackageController {
 	@Autowired
 	private TravelPackageService travelService;
 
+	@Autowired
+	private TrendingService trendingService;
+
 	@Autowired
 	private Cloudinary cloudinary;
 
@@ -37,7 +44,8 @@ public class TravelPackageController {
 
 	@PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
 	public ResponseEntity<String> createPackage(@RequestPart("data") String travelPackage,
-			@RequestPart("image") MultipartFile image) {
+			@RequestPart("image") MultipartFile image, SessionPrincipal principal) {
+		principal.requireRole(Role.AGENT);
 		System.out.println("DATA = " + travelPackage);
 		System.out.println("FILE = " + image.getOriginalFilename());
 		TravelPackageDto travelpackage;
@@ -69,27 +77,42 @@ public class TravelPackageController {
 	@GetMapping("/{id}")
 	public ResponseEntity<TravelPackage> getTravelPackageById(@PathVariable Long id) {
 		TravelPackage travelPackage = travelService.findPackageById(id);
+		trendingService.recordView(id);
 		return ResponseEntity.ok(travelPackage);
 	}
 
 	@GetMapping("/agent/{agentId}")
-	public ResponseEntity<List<TravelPackage>> getPackagesByAgentId(@PathVariable Long agentId) {
+	public ResponseEntity<List<TravelPackage>> getPackagesByAgentId(@PathVariable Long agentId,
+			SessionPrincipal principal) {
+		// includes pending and rejected packages
+		principal.requireSelfOrAdmin(agentId);
 		return ResponseEntity.ok(travelService.getPackagesByAgentId(agentId));
 	}
 
 	@GetMapping
-	public ResponseEntity<List<TravelPackage>> getAllApprovedPackages() {
+	public ResponseEntity<List<TravelPackage>> getAllApprovedPackages(
+			@RequestParam(required = false) String search,
+			@RequestParam(required = false) String sort) {
 		// Only show Approved packages from Active Agents
-		return ResponseEntity.ok(travelService.getPackagesByStatusAndAgentActive(Status.APPROVED));
+		List<TravelPackage> packages = (search != null && !search.isBlank())
+				? travelService.searchPackages(search)
+				: travelService.getPackagesByStatusAndAgentActive(Status.APPROVED);
+		if ("trending".equalsIgnoreCase(sort)) {
+			packages = travelService.sortByTrending(packages);
+		}
+		return ResponseEntity.ok(packages);
 	}
 
 	@GetMapping("/admin/pending")
-	public ResponseEntity<List<TravelPackage>> getPendingPackages() {
+	public ResponseEntity<List<TravelPackage>> getPendingPackages(SessionPrincipal principal) {
+		principal.requireRole(Role.ADMIN);
 		return ResponseEntity.ok(travelService.getPackagesByStatus(Status.PENDING));
 	}
 
 	@PostMapping("/{id}/status/{status}")
-	public ResponseEntity<String> updatePackageStatus(@PathVariable Long id, @PathVariable String status) {
+	public ResponseEntity<String> updatePackageStatus(@PathVariable Long id, @PathVariable String status,
+			SessionPrincipal principal) {
+		principal.requireRole(Role.ADMIN);
 		travelService.updatePackageStatus(id, status);
 		return ResponseEntity.ok("Status updated: " + status);
 	}
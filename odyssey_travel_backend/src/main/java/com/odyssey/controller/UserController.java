@@ -1,12 +1,21 @@
 package com.odyssey.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 
+import com.odyssey.dto.SessionPrincipal;
 import com.odyssey.dto.UserCreateRequestDto;
+import com.odyssey.dto.UserImportJobDto;
 import com.odyssey.dto.UserResponseDto;
+import com.odyssey.dto.UserRoleCountDto;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,6 +23,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import org.springframework.web.bind.annotation.*;
 
@@ -22,50 +32,108 @@ import lombok.RequiredArgsConstructor;
 
 import com.odyssey.entity.Role;
 import com.odyssey.entity.User;
+import com.odyssey.service.UserImportService;
 import com.odyssey.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     // create user api
     @PostMapping
-    public ResponseEntity<UserResponseDto> createUser(@RequestBody UserCreateRequestDto userCreateRequestDto) {
+    public ResponseEntity<UserResponseDto> createUser(@RequestBody UserCreateRequestDto userCreateRequestDto,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(userService.createUser(userCreateRequestDto));
     }
 
+    // bulk import from CSV (firstName,lastName,email,password,role); returns a job to poll.
+    // password may be a BCrypt hash; plaintext is hashed at login strength, a few rows/sec per core
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UserImportJobDto> importUsers(@RequestParam("file") MultipartFile file,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(userImportService.startImport(file));
+    }
+
+    // large files: the CSV as the raw request body (Content-Type: text/csv), streamed to disk up to
+    // user-import.max-file-size, where multipart uploads stop at spring.servlet.multipart.max-file-size
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportJobDto> importUsersCsv(HttpServletRequest request, SessionPrincipal principal)
+            throws IOException {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(userImportService.startImport(request.getInputStream(), request.getContentLengthLong()));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<UserImportJobDto> getImportJob(@PathVariable String jobId, SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.ok(userImportService.getImportJob(jobId));
+    }
+
     // get all user api
     @GetMapping
-    public ResponseEntity<List<UserResponseDto>> getAllUsers() {
+    public ResponseEntity<List<UserResponseDto>> getAllUsers(SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
         return ResponseEntity.ok(userService.getAllUsers());
 
     }
 
+    // paged admin listing: /search?role=CLIENT&q=jo&page=0&size=20&sort=lastName,asc
+    @GetMapping("/search")
+    public ResponseEntity<Page<UserResponseDto>> searchUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String q,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        Role roleFilter = role != null ? Role.valueOf(role.toUpperCase()) : null;
+        return ResponseEntity.ok(userService.searchUsers(roleFilter, q, pageable));
+    }
+
+    // user totals per role and active flag, one GROUP BY query
+    @GetMapping("/counts")
+    public ResponseEntity<List<UserRoleCountDto>> getUserCounts(SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
+        return ResponseEntity.ok(userService.getUserCounts());
+    }
+
     // get user by id api
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponseDto> getUser(@PathVariable Long id) {
+    public ResponseEntity<UserResponseDto> getUser(@PathVariable Long id, SessionPrincipal principal) {
+        principal.requireSelfOrAdmin(id);
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
     // UPDATE USER STATUS (BLOCK/UNBLOCK)
     @PutMapping("/{id}/block")
-    public ResponseEntity<UserResponseDto> updateStatus(@PathVariable Long id, @RequestParam boolean blocked) {
+    public ResponseEntity<UserResponseDto> updateStatus(@PathVariable Long id, @RequestParam boolean blocked,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
         // blocked=true means active=false
         return ResponseEntity.ok(userService.updateUserStatus(id, !blocked));
     }
 
     @GetMapping("/role/{role}")
-    public ResponseEntity<List<UserResponseDto>> getUsersByRole(@PathVariable String role) {
+    public ResponseEntity<List<UserResponseDto>> getUsersByRole(@PathVariable String role, SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
         return ResponseEntity.ok(userService.getUsersByRole(Role.valueOf(role.toUpperCase())));
     }
 
     //for agent
     @PostMapping("/{id}/status/{active}")
-    public ResponseEntity<String> updateUserStatus(@PathVariable Long id, @PathVariable boolean active) {
+    public ResponseEntity<String> updateUserStatus(@PathVariable Long id, @PathVariable boolean active,
+            SessionPrincipal principal) {
+        principal.requireRole(Role.ADMIN);
         userService.updateUserStatus(id, active);
         return ResponseEntity.ok("User status updated to: " + (active ? "ACTIVE" : "INACTIVE"));
     }
@@ -1,5 +1,7 @@
 package com.odyssey.dto;
 
+import com.odyssey.utils.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,6 +15,6 @@ public class AgentStatsDto {
     private long totalPackages;
     private long activeBookings;
     private long pendingApprovals;
-    private double totalEarnings;
+    private Money totalEarnings;
     private java.util.List<MonthlyTrendDto> monthlyTrend;
 }
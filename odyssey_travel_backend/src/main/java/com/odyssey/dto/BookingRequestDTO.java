@@ -4,6 +4,8 @@ import java.time.LocalDate;
 
 import java.util.List;
 
+import com.odyssey.utils.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -19,7 +21,7 @@ public class BookingRequestDTO {
     private Long packageId;
     private LocalDate travelDate;
     private int travelers;
-    private Double totalAmount;
+    private Money totalAmount;
     private PaymentRequestDTO payment;
 
     private String contactFullName;
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.odyssey.entity.BookingStatus;
+import com.odyssey.utils.Money;
 
 import lombok.*;
 
@@ -21,7 +22,7 @@ public class BookingResponseDto {
     private LocalDate travelDate;
     private int travelers;
     private BookingStatus status;
-    private Double totalAmount;
+    private Money totalAmount;
     private String paymentMethod;
 
     private String contactFullName;
@@ -1,5 +1,7 @@
 package com.odyssey.dto;
 
+import com.odyssey.utils.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -10,7 +12,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 public class DashboardStatsDto {
-    private double totalRevenue;
+    private Money totalRevenue;
     private long totalBookings;
     private long totalCustomers;
     private long totalAgents;
@@ -0,0 +1,18 @@
+package com.odyssey.dto;
+
+import com.odyssey.utils.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GatewayChargeRequest {
+    private String idempotencyKey;
+    private Money amount;
+    private String paymentMethod;
+}
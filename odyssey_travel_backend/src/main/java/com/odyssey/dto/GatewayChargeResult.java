@@ -0,0 +1,17 @@
+package com.odyssey.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// a definitive answer from the gateway; declines are results, not exceptions
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GatewayChargeResult {
+    private String reference;
+    private boolean approved;
+    private String declineReason;
+}
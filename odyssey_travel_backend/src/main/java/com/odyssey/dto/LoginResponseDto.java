@@ -0,0 +1,25 @@
+package com.odyssey.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponseDto {
+
+    // kept flat on the wire so existing clients still read id, email, role... at the top level
+    @JsonUnwrapped
+    private UserResponseDto user;
+
+    private String token;
+
+    private LocalDateTime expiresAt;
+}
@@ -1,5 +1,7 @@
 package com.odyssey.dto;
 
+import com.odyssey.utils.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,5 +15,5 @@ public class MonthlyTrendDto {
     private String month;
     private long count;
     private long customers;
-    private double amount;
+    private Money amount;
 }
@@ -0,0 +1,32 @@
+package com.odyssey.dto;
+
+import com.odyssey.entity.Role;
+import com.odyssey.exception.ForbiddenException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// who may see a booking or ticket: its customer, the agent of its package and whoever claimed it
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipantsRow {
+    private Long ownerId;
+    private Long agentId;
+    private Long claimedById;
+
+    public ParticipantsRow(Long ownerId, Long agentId) {
+        this(ownerId, agentId, null);
+    }
+
+    public void requireParticipant(SessionPrincipal principal) {
+        Long userId = principal.getUserId();
+        if (!principal.hasRole(Role.ADMIN) && !userId.equals(ownerId)
+                && !userId.equals(agentId) && !userId.equals(claimedById)) {
+            throw new ForbiddenException("Not allowed to access another user's data");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.odyssey.dto;
+
+import java.time.LocalDateTime;
+
+import com.odyssey.entity.PaymentStatus;
+import com.odyssey.utils.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentDto {
+    private Long paymentId;
+    private Long bookingId;
+    private Money amount;
+    private PaymentStatus status;
+    private String paymentMethod;
+    private String gatewayReference;
+    private String failureReason;
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,20 @@
+package com.odyssey.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentGatewayHealthDto {
+    private String provider;
+    private String breakerState;
+    private double recentFailureRate;
+    private int activeCalls;
+    private int queuedCalls;
+    private long pendingPayments;
+    private long processingPayments;
+}
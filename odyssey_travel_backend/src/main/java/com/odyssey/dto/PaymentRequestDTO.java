@@ -2,6 +2,7 @@ package com.odyssey.dto;
 
 import com.odyssey.entity.Status;
 import com.odyssey.entity.User;
+import com.odyssey.utils.Money;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -14,6 +15,6 @@ import lombok.Setter;
 @AllArgsConstructor
 public class PaymentRequestDTO {
 
-	 private Double amount;
+	 private Money amount;
 	 private String paymentMethod;
 }
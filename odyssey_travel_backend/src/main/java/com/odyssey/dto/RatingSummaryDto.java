@@ -0,0 +1,22 @@
+package com.odyssey.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryDto {
+    private Long packageId;
+    private long reviewCount;
+    private double averageRating;
+    // stars[0] is the number of 1-star reviews ... stars[4] the number of 5-star reviews
+    private long[] stars;
+
+    public static RatingSummaryDto empty(Long packageId) {
+        return new RatingSummaryDto(packageId, 0, 0, new long[5]);
+    }
+}
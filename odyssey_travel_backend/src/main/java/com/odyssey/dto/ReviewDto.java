@@ -0,0 +1,25 @@
+package com.odyssey.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewDto {
+    private Long reviewId;
+    private Long packageId;
+    private Long userId;
+    private String reviewerName;
+    private int rating;
+    private String comment;
+    private LocalDateTime createdAt;
+    private int helpfulVotes;
+    private int unhelpfulVotes;
+    private double helpfulScore;
+}
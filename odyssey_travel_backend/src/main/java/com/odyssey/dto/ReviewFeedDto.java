@@ -0,0 +1,18 @@
+package com.odyssey.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// one slice of a review feed; nextCursor is null on the last slice
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewFeedDto {
+    private List<ReviewDto> reviews;
+    private String nextCursor;
+}
@@ -0,0 +1,12 @@
+package com.odyssey.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReviewRequestDto {
+    private Long userId;
+    private int rating;
+    private String comment;
+}
@@ -0,0 +1,15 @@
+package com.odyssey.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewVoteRequestDto {
+    private Long userId;
+    private boolean helpful;
+}
@@ -0,0 +1,19 @@
+package com.odyssey.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchAnalyticsDto {
+    private long totalSearches;
+    private List<SearchTermDto> topSearches;
+    // searches that returned no packages - demand we cannot serve yet
+    private List<SearchTermDto> topUnmatchedSearches;
+}
@@ -0,0 +1,45 @@
+package com.odyssey.dto;
+
+import java.time.LocalDateTime;
+
+import com.odyssey.entity.Role;
+import com.odyssey.exception.ForbiddenException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// The signed-in user of a request (SessionAuthFilter). Controllers take it as a parameter and
+// act on its userId instead of ids sent by the client.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionPrincipal {
+    private Long userId;
+    private Role role;
+    private LocalDateTime expiresAt;
+
+    public boolean hasRole(Role... roles) {
+        for (Role candidate : roles) {
+            if (candidate == role) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void requireRole(Role... roles) {
+        if (!hasRole(roles)) {
+            throw new ForbiddenException("Not allowed for role " + role);
+        }
+    }
+
+    // the user's own resources, admins see everyone's
+    public void requireSelfOrAdmin(Long ownerId) {
+        if (role != Role.ADMIN && !userId.equals(ownerId)) {
+            throw new ForbiddenException("Not allowed to access another user's data");
+        }
+    }
+}
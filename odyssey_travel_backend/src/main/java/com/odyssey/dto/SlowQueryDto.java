@@ -0,0 +1,22 @@
+package com.odyssey.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryDto {
+    private LocalDateTime at;
+    // null for statements run outside a request (schedulers, background jobs)
+    private String request;
+    private double millis;
+    private String sql;
+    // bind-parameter types, never values, e.g. "[Long, String]"
+    private String parameterTypes;
+}
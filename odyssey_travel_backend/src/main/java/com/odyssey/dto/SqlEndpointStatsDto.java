@@ -0,0 +1,25 @@
+package com.odyssey.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlEndpointStatsDto {
+    // "GET /api/packages/{id}"
+    private String endpoint;
+    private long requests;
+    private long statements;
+    private double avgStatements;
+    private long maxStatements;
+    private double avgDbMillis;
+    // requests that ran one statement shape at least repeated-statement-threshold times
+    private long repeatedStatementRequests;
+    private String lastRepeatedStatement;
+    private int lastRepeatCount;
+    private long overBudgetRequests;
+}
@@ -0,0 +1,21 @@
+package com.odyssey.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlStatsDto {
+    private LocalDateTime since;
+    // most statements first
+    private List<SqlEndpointStatsDto> endpoints;
+    // newest first
+    private List<SlowQueryDto> slowQueries;
+}
@@ -26,4 +26,7 @@ public class SupportTicketResponseDTO {
     private Long userId;
     private Long bookingId;
     private String packageTitle;
+    private LocalDateTime slaDueAt;
+    private Long claimedById;
+    private Long agentId;
 }
@@ -0,0 +1,23 @@
+package com.odyssey.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketAttachmentDto {
+    private Long attachmentId;
+    private Long ticketId;
+    private Long uploadedById;
+    private String fileName;
+    private String contentType;
+    private long sizeBytes;
+    private String sha256;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,23 @@
+package com.odyssey.dto;
+
+import java.time.LocalDateTime;
+
+import com.odyssey.entity.Priority;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// what the dispatch queues need to know about an open ticket, nothing more
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketDispatchRow {
+    private Long ticketId;
+    private Priority priority;
+    private LocalDateTime createdAt;
+    private LocalDateTime slaDueAt;
+    private Long agentId;
+}
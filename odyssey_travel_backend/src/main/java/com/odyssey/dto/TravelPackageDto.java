@@ -2,6 +2,7 @@ package com.odyssey.dto;
 
 import com.odyssey.entity.Status;
 import com.odyssey.entity.User;
+import com.odyssey.utils.Money;
 
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -22,8 +23,7 @@ public class TravelPackageDto {
 	    private String description;
 
 	    @NotNull
-	    @Positive
-	    private Double price;
+	    private Money price;
 
 	    @NotNull
 	    private Integer duration;
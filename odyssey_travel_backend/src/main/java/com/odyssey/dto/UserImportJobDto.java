@@ -0,0 +1,28 @@
+package com.odyssey.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportJobDto {
+    private String jobId;
+    private String status;
+    private long rowsRead;
+    private long inserted;
+    private long duplicates;
+    private long rejected;
+    private double rowsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String failureReason;
+    // first rows that failed validation, capped
+    private List<UserImportErrorDto> errors;
+}
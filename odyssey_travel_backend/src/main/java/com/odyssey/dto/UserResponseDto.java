@@ -12,7 +12,7 @@ import lombok.*;
 @Builder
 public class UserResponseDto {
 
-    private long id;
+    private Long id;
 
     private String firstName;
 
@@ -0,0 +1,18 @@
+package com.odyssey.dto;
+
+import com.odyssey.entity.Role;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRoleCountDto {
+    private Role role;
+    private Boolean active;
+    private Long count;
+}
@@ -0,0 +1,21 @@
+package com.odyssey.entity;
+
+import com.odyssey.utils.Money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// every Money attribute is a bigint column of minor units
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money != null ? money.getMinorUnits() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minorUnits) {
+        return minorUnits != null ? Money.ofMinor(minorUnits) : null;
+    }
+}
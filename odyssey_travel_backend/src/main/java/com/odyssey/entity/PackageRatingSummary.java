@@ -0,0 +1,32 @@
+package com.odyssey.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// running totals per package, bumped by the review write itself so nothing ever scans reviews
+@Entity
+@Table(name = "package_rating_summaries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageRatingSummary {
+
+    @Id
+    private Long packageId;
+
+    private long reviewCount;
+    private long ratingSum;
+    private long stars1;
+    private long stars2;
+    private long stars3;
+    private long stars4;
+    private long stars5;
+
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,9 @@
 package com.odyssey.entity;
 
+import java.time.LocalDateTime;
+
+import com.odyssey.utils.Money;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -7,7 +11,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments",
+        indexes = {
+                // the retry sweeper reads due rows of one status in next_attempt_at order
+                @Index(name = "idx_payments_status_next_attempt", columnList = "payment_status, next_attempt_at"),
+                // reconciliation reads the payments that changed on the settlement day
+                @Index(name = "idx_payments_updated_at", columnList = "updated_at") })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,8 +27,25 @@ public class Payment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long paymentId;
 
-    private double amount;
-    private String paymentStatus;
+    // minor units (bigint), see MoneyConverter
+    private Money amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status")
+    private PaymentStatus paymentStatus;
+
+    private String paymentMethod;
+
+    // sent with every charge attempt so a retry after a lost response cannot charge twice
+    @Column(unique = true, length = 64)
+    private String idempotencyKey;
+
+    private String gatewayReference;
+    private String failureReason;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 
     @OneToOne
     @JoinColumn(name = "booking_id", nullable = false)
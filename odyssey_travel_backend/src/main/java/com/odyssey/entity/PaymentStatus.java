@@ -0,0 +1,20 @@
+package com.odyssey.entity;
+
+// PENDING -> PROCESSING -> SUCCEEDED -> REFUNDING -> REFUNDED
+//               |  ^   \-> FAILED     ^          |
+//               v  |                  \----------/ (refund declined or never sent)
+//   (not sent / unknown to the gateway: back to PENDING for another attempt)
+public enum PaymentStatus {
+
+	PENDING, PROCESSING, SUCCEEDED, FAILED, REFUNDING, REFUNDED;
+
+	public boolean canTransitionTo(PaymentStatus next) {
+		return switch (this) {
+			case PENDING -> next == PROCESSING || next == FAILED;
+			case PROCESSING -> next == SUCCEEDED || next == FAILED || next == PENDING;
+			case SUCCEEDED -> next == REFUNDING;
+			case REFUNDING -> next == REFUNDED || next == SUCCEEDED;
+			case FAILED, REFUNDED -> false;
+		};
+	}
+}
@@ -0,0 +1,55 @@
+package com.odyssey.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// report rows, written in batches by the reconciliation job and read through JPA
+@Entity
+@Table(name = "reconciliation_mismatches",
+        indexes = @Index(name = "idx_reconciliation_mismatches_run", columnList = "run_id, payment_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationMismatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ReconciliationMismatchType type;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal ledgerAmount;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal settlementAmount;
+
+    @Column(length = 20)
+    private String ledgerStatus;
+
+    @Column(length = 20)
+    private String settlementStatus;
+
+    private String gatewayReference;
+
+    @Column(length = 1000)
+    private String detail;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
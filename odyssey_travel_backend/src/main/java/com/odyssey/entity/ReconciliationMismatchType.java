@@ -0,0 +1,14 @@
+package com.odyssey.entity;
+
+public enum ReconciliationMismatchType {
+
+	// we recorded a successful charge the gateway never settled
+	MISSING_IN_SETTLEMENT,
+	// the gateway settled a payment id we have no record of
+	MISSING_IN_LEDGER,
+	AMOUNT_MISMATCH,
+	// e.g. settled by the gateway but FAILED on our side, or refunded on one side only
+	STATUS_MISMATCH,
+	DUPLICATE_IN_SETTLEMENT,
+	MALFORMED_LINE
+}
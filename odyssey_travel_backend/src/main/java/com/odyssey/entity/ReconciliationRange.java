@@ -0,0 +1,46 @@
+package com.odyssey.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// A slice of the payment id space reconciled by one worker, and its checkpoint: every id up to
+// lastPaymentId is done and its mismatches are stored, so a restart continues right after it.
+@Entity
+@Table(name = "reconciliation_ranges",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reconciliation_ranges_run_index", columnNames = {"run_id", "range_index"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "range_index", nullable = false)
+    private int rangeIndex;
+
+    // inclusive bounds
+    private long startId;
+    private long endId;
+
+    // startId - 1 until the first checkpoint
+    private long lastPaymentId;
+
+    private boolean done;
+
+    private long ledgerRows;
+    private long settlementRows;
+    private long mismatches;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,61 @@
+package com.odyssey.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// one reconciliation of the payments ledger against a gateway settlement file
+@Entity
+@Table(name = "reconciliation_runs",
+        indexes = @Index(name = "idx_reconciliation_runs_date", columnList = "settlement_date"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "settlement_date", nullable = false)
+    private LocalDate settlementDate;
+
+    @Column(nullable = false)
+    private String filePath;
+
+    // a resumed run refuses to continue against a file that changed underneath it
+    private long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReconciliationStatus status;
+
+    private int rangeCount;
+    private long ledgerRows;
+    private long settlementRows;
+    private long mismatches;
+
+    @Column(length = 1000)
+    private String failureReason;
+
+    private LocalDateTime startedAt;
+
+    // bumped with every checkpoint; a RUNNING run with a stale heartbeat lost its node
+    private LocalDateTime heartbeatAt;
+
+    // bumped by every resume; checkpoints of an older epoch are refused, so the node that lost the
+    // run cannot keep writing next to the one that took it over
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long epoch;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,8 @@
+package com.odyssey.entity;
+
+public enum ReconciliationStatus {
+
+	RUNNING,
+	COMPLETED,
+	FAILED
+}
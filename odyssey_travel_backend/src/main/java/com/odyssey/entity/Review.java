@@ -1,5 +1,9 @@
 package com.odyssey.entity;
 
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -7,7 +11,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reviews_client_package", columnNames = {"client_id", "package_id"}),
+        // keyset feeds: each sort order is one index range scan from the cursor, at any depth
+        indexes = {
+                @Index(name = "idx_reviews_package_recent", columnList = "package_id, created_at, review_id"),
+                @Index(name = "idx_reviews_package_helpful", columnList = "package_id, helpful_score, review_id") })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,12 +28,29 @@ public class Review {
     private Long reviewId;
 
     private int rating;
+
+    @Column(length = 2000)
     private String comment;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id")
     private User client;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "package_id")
     private TravelPackage travelPackage;
-}
 
+    // the recent feed's cursor key; reviews from before the column existed are backfilled
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // defaults let ddl-auto add the columns to a table that already has reviews
+    @ColumnDefault("0")
+    private int helpfulVotes;
+    @ColumnDefault("0")
+    private int unhelpfulVotes;
+
+    // Wilson lower bound of the helpful share, recomputed on every vote
+    @ColumnDefault("0")
+    private double helpfulScore;
+}
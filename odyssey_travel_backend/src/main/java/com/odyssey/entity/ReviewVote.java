@@ -0,0 +1,35 @@
+package com.odyssey.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "review_votes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_review_votes_review_voter", columnNames = {"review_id", "voter_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewVote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long voteId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "review_id", nullable = false)
+    private Review review;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "voter_id", nullable = false)
+    private User voter;
+
+    private boolean helpful;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package com.odyssey.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "search_term_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchTermStat {
+
+    @Id
+    @Column(length = 64)
+    private String term;
+
+    private long searchCount;
+
+    private long unmatchedCount;
+
+    private LocalDateTime lastUpdatedAt;
+}
@@ -8,7 +8,12 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "support_tickets")
+@Table(name = "support_tickets", indexes = {
+  @Index(name = "idx_support_tickets_status_priority_updated", columnList = "status, priority, last_updated_at"),
+  @Index(name = "idx_support_tickets_status_updated", columnList = "status, last_updated_at"),
+  @Index(name = "idx_support_tickets_user", columnList = "user_id"),
+  @Index(name = "idx_support_tickets_booking", columnList = "booking_id")
+})
 public class SupportTicket {
 
  @Id
@@ -37,5 +42,12 @@ public class SupportTicket {
  private LocalDateTime createdAt;
  
  private LocalDateTime lastUpdatedAt;
+
+ @ManyToOne(fetch = FetchType.LAZY)
+ @JoinColumn(name = "claimed_by_id")
+ private User claimedBy;
+
+ // first-response deadline while OPEN; pushed out again each time the ticket is escalated
+ private LocalDateTime slaDueAt;
 }
 
@@ -0,0 +1,43 @@
+package com.odyssey.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// metadata only; the bytes live once per distinct sha256 in the attachment store on disk.
+// (ticket_id, sha256) is unique, see SchemaMigrations.
+@Getter
+@Setter
+@Entity
+@Table(name = "ticket_attachments", indexes = {
+        @Index(name = "idx_ticket_attachments_ticket", columnList = "ticket_id"),
+        @Index(name = "idx_ticket_attachments_sha256", columnList = "sha256")
+})
+public class TicketAttachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long attachmentId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ticket_id", nullable = false)
+    private SupportTicket ticket;
+
+    @Column(name = "uploaded_by_id")
+    private Long uploadedById;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    private long sizeBytes;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    private LocalDateTime createdAt;
+}
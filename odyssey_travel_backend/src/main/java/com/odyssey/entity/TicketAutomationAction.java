@@ -0,0 +1,7 @@
+package com.odyssey.entity;
+
+public enum TicketAutomationAction {
+
+	ESCALATED,
+	AUTO_CLOSED
+}
@@ -0,0 +1,37 @@
+package com.odyssey.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// one row per change the stale-ticket job made; written by the job's own SQL, read through JPA
+@Entity
+@Table(name = "ticket_automation_log", indexes = @Index(name = "idx_ticket_automation_log_ticket", columnList = "ticket_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketAutomationLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private TicketAutomationAction action;
+
+    private String previousValue;
+
+    private String newValue;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,7 @@
 package com.odyssey.entity;
 
+import com.odyssey.utils.Money;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -23,7 +25,8 @@ public class TravelPackage {
     private String title;
     private String description;
     private String destination;
-    private double price;
+    // minor units (bigint), see MoneyConverter
+    private Money price;
 
 
     private Integer duration;
@@ -42,4 +45,11 @@ public class TravelPackage {
     @JoinColumn(name = "agent_id", nullable = false)
     private User agent;
 
+    // filled from the in-memory rating summaries, never stored here
+    @Transient
+    private Double averageRating;
+
+    @Transient
+    private long reviewCount;
+
 }
@@ -0,0 +1,8 @@
+package com.odyssey.exception;
+
+// signed in, but the resource belongs to someone else or needs another role
+public class ForbiddenException extends RuntimeException {
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.odyssey.exception;
+
+// the gateway could not be reached or did not answer in time; the charge may or may not have happened
+public class PaymentGatewayException extends RuntimeException {
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
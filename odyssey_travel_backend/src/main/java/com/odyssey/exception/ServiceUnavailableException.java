@@ -0,0 +1,8 @@
+package com.odyssey.exception;
+
+// thrown when a bounded resource (worker pool, downstream service) is saturated
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
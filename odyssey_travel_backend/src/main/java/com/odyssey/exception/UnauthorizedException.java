@@ -0,0 +1,8 @@
+package com.odyssey.exception;
+
+// no valid session for an endpoint that acts on behalf of a user
+public class UnauthorizedException extends RuntimeException {
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+}
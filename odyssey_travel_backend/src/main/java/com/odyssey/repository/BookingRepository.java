@@ -1,14 +1,29 @@
 package com.odyssey.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.odyssey.dto.ParticipantsRow;
 import com.odyssey.entity.Booking;
+import com.odyssey.entity.BookingStatus;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByUser_Id(Long userId);
     List<Booking> findByTravelPackage_Agent_Id(Long agentId);
+    boolean existsByUser_IdAndTravelPackage_PackageIdAndBookingStatus(Long userId, Long packageId, BookingStatus status);
+
+    @Query("select new com.odyssey.dto.ParticipantsRow(u.id, a.id) from Booking b join b.user u"
+            + " join b.travelPackage p join p.agent a where b.bookingId = :bookingId")
+    Optional<ParticipantsRow> findParticipants(@Param("bookingId") Long bookingId);
+
+    @Modifying
+    @Query("update Booking b set b.bookingStatus = :status where b.bookingId = :bookingId")
+    int updateStatus(@Param("bookingId") Long bookingId, @Param("status") BookingStatus status);
 }
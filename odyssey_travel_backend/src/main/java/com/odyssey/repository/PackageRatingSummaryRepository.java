@@ -0,0 +1,10 @@
+package com.odyssey.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.entity.PackageRatingSummary;
+
+@Repository
+public interface PackageRatingSummaryRepository extends JpaRepository<PackageRatingSummary, Long> {
+}
@@ -1,11 +1,62 @@
 package com.odyssey.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.odyssey.dto.GatewayChargeRequest;
+import com.odyssey.dto.PaymentDto;
 import com.odyssey.entity.Payment;
+import com.odyssey.entity.PaymentStatus;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment,Long> {
 
+    String DTO_SELECT = "select new com.odyssey.dto.PaymentDto(p.paymentId, p.booking.bookingId, p.amount,"
+            + " p.paymentStatus, p.paymentMethod, p.gatewayReference, p.failureReason, p.attempts,"
+            + " p.createdAt, p.updatedAt) from Payment p";
+
+    @Query(DTO_SELECT + " where p.paymentId = :paymentId")
+    Optional<PaymentDto> findDtoById(@Param("paymentId") Long paymentId);
+
+    @Query(DTO_SELECT + " where p.booking.bookingId = :bookingId")
+    Optional<PaymentDto> findDtoByBookingId(@Param("bookingId") Long bookingId);
+
+    @Query("select new com.odyssey.dto.GatewayChargeRequest(p.idempotencyKey, p.amount, p.paymentMethod)"
+            + " from Payment p where p.paymentId = :paymentId")
+    Optional<GatewayChargeRequest> findChargeRequest(@Param("paymentId") Long paymentId);
+
+    // Every state change is a conditional update on the current status, so two nodes (or the
+    // request thread and the retry sweeper) can never both move the same payment.
+    @Modifying
+    @Query("update Payment p set p.paymentStatus = com.odyssey.entity.PaymentStatus.PROCESSING,"
+            + " p.attempts = p.attempts + 1, p.nextAttemptAt = :resolveAt, p.updatedAt = :now"
+            + " where p.paymentId = :paymentId and p.paymentStatus = com.odyssey.entity.PaymentStatus.PENDING")
+    int startAttempt(@Param("paymentId") Long paymentId, @Param("resolveAt") LocalDateTime resolveAt,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Payment p set p.paymentStatus = :next, p.gatewayReference = coalesce(:reference, p.gatewayReference),"
+            + " p.failureReason = :reason, p.nextAttemptAt = :nextAttemptAt, p.updatedAt = :now"
+            + " where p.paymentId = :paymentId and p.paymentStatus = :current")
+    int transition(@Param("paymentId") Long paymentId, @Param("current") PaymentStatus current,
+            @Param("next") PaymentStatus next, @Param("reference") String reference,
+            @Param("reason") String reason, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("now") LocalDateTime now);
+
+    @Query("select p.paymentId from Payment p where p.paymentStatus = :status and p.nextAttemptAt <= :now"
+            + " order by p.nextAttemptAt")
+    List<Long> findDue(@Param("status") PaymentStatus status, @Param("now") LocalDateTime now, Pageable limit);
+
+    @Query("select p.attempts from Payment p where p.paymentId = :paymentId")
+    int findAttempts(@Param("paymentId") Long paymentId);
+
+    long countByPaymentStatus(PaymentStatus status);
 }
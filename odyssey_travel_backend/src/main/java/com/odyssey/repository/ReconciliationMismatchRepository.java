@@ -0,0 +1,17 @@
+package com.odyssey.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.entity.ReconciliationMismatch;
+import com.odyssey.entity.ReconciliationMismatchType;
+
+@Repository
+public interface ReconciliationMismatchRepository extends JpaRepository<ReconciliationMismatch, Long> {
+
+    Page<ReconciliationMismatch> findByRunId(Long runId, Pageable pageable);
+
+    Page<ReconciliationMismatch> findByRunIdAndType(Long runId, ReconciliationMismatchType type, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.odyssey.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.entity.ReconciliationRange;
+
+@Repository
+public interface ReconciliationRangeRepository extends JpaRepository<ReconciliationRange, Long> {
+
+    List<ReconciliationRange> findByRunIdOrderByRangeIndex(Long runId);
+
+    List<ReconciliationRange> findByRunIdAndDoneFalseOrderByRangeIndex(Long runId);
+}
@@ -0,0 +1,32 @@
+package com.odyssey.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.entity.ReconciliationRun;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+
+    Optional<ReconciliationRun> findFirstBySettlementDateOrderByIdDesc(LocalDate settlementDate);
+
+    List<ReconciliationRun> findTop20ByOrderByIdDesc();
+
+    // a failed run, or a running one whose node stopped checkpointing; only one caller wins, and
+    // the new epoch fences off the old node's workers
+    @Modifying
+    @Query("update ReconciliationRun r set r.status = com.odyssey.entity.ReconciliationStatus.RUNNING,"
+            + " r.epoch = r.epoch + 1, r.heartbeatAt = :now, r.failureReason = null, r.finishedAt = null"
+            + " where r.id = :runId and (r.status = com.odyssey.entity.ReconciliationStatus.FAILED"
+            + " or (r.status = com.odyssey.entity.ReconciliationStatus.RUNNING and r.heartbeatAt < :staleBefore))")
+    int claimForResume(@Param("runId") Long runId, @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -1,5 +1,52 @@
 package com.odyssey.repository;
 
-public class ReviewRepository {
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.dto.ReviewDto;
+import com.odyssey.entity.Review;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    boolean existsByClient_IdAndTravelPackage_PackageId(Long userId, Long packageId);
+
+    String FEED_SELECT = "select new com.odyssey.dto.ReviewDto(r.reviewId, p.packageId, u.id,"
+            + " concat(u.firstName, ' ', u.lastName), r.rating, r.comment, r.createdAt,"
+            + " r.helpfulVotes, r.unhelpfulVotes, r.helpfulScore)"
+            + " from Review r join r.travelPackage p join r.client u where p.packageId = :packageId";
+
+    // Keyset feeds. The cursor is the (sort key, id) of the last row already sent; the row
+    // comparison lets PostgreSQL start the index scan right after it, so no rows are skipped
+    // over. Pass PageRequest.ofSize(n): no count query runs for a List result.
+    @Query(FEED_SELECT + " order by r.createdAt desc, r.reviewId desc")
+    List<ReviewDto> findRecent(@Param("packageId") Long packageId, Pageable limit);
+
+    @Query(FEED_SELECT + " and (r.createdAt, r.reviewId) < (:createdAt, :reviewId)"
+            + " order by r.createdAt desc, r.reviewId desc")
+    List<ReviewDto> findRecentAfter(@Param("packageId") Long packageId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("reviewId") Long reviewId, Pageable limit);
+
+    @Query(FEED_SELECT + " order by r.helpfulScore desc, r.reviewId desc")
+    List<ReviewDto> findMostHelpful(@Param("packageId") Long packageId, Pageable limit);
+
+    @Query(FEED_SELECT + " and (r.helpfulScore, r.reviewId) < (:score, :reviewId)"
+            + " order by r.helpfulScore desc, r.reviewId desc")
+    List<ReviewDto> findMostHelpfulAfter(@Param("packageId") Long packageId,
+            @Param("score") double score, @Param("reviewId") Long reviewId, Pageable limit);
+
+    // serialises votes on one review so the counters and score stay in step
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Review r where r.reviewId = :reviewId")
+    Optional<Review> findByIdForUpdate(@Param("reviewId") Long reviewId);
 }
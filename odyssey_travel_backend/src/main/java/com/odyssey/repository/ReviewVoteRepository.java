@@ -0,0 +1,14 @@
+package com.odyssey.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.entity.ReviewVote;
+
+@Repository
+public interface ReviewVoteRepository extends JpaRepository<ReviewVote, Long> {
+
+    Optional<ReviewVote> findByReview_ReviewIdAndVoter_Id(Long reviewId, Long voterId);
+}
@@ -0,0 +1,19 @@
+package com.odyssey.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.entity.SearchTermStat;
+
+@Repository
+public interface SearchTermStatRepository extends JpaRepository<SearchTermStat, String> {
+
+    @Modifying
+    @Query("delete from SearchTermStat s where s.term not in :terms")
+    int deleteByTermNotIn(@Param("terms") Collection<String> terms);
+}
@@ -0,0 +1,25 @@
+package com.odyssey.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.odyssey.dto.SupportTicketResponseDTO;
+import com.odyssey.dto.SupportTicketSearchResultDto;
+import com.odyssey.entity.Priority;
+import com.odyssey.entity.SupportTicketStatus;
+
+public interface SupportTicketQueryRepository {
+
+    // every filter is optional; rows come back as DTOs from one query, no entities are loaded
+    Page<SupportTicketResponseDTO> findTicketPage(SupportTicketStatus status, Priority priority, Long agentId,
+            Long userId, Pageable pageable);
+
+    List<SupportTicketResponseDTO> findDtosByIds(Collection<Long> ticketIds);
+
+    // ranked full-text match on subject/description, or an exact ticket/booking reference
+    List<SupportTicketSearchResultDto> searchText(String query, Collection<Long> references,
+            SupportTicketStatus status, Priority priority, Long agentId, int limit);
+}
@@ -0,0 +1,203 @@
+package com.odyssey.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.odyssey.dto.SupportTicketResponseDTO;
+import com.odyssey.dto.SupportTicketSearchResultDto;
+import com.odyssey.entity.Priority;
+import com.odyssey.entity.SupportTicketStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+// Built by hand rather than with "(:x is null or ...)" so each filter combination gets a plain
+// predicate the (status, priority, last_updated_at) index can serve, and priority sorts by urgency
+public class SupportTicketQueryRepositoryImpl implements SupportTicketQueryRepository {
+
+    private static final String SELECT = "select new com.odyssey.dto.SupportTicketResponseDTO("
+            + "t.ticketId, t.subject, t.description, t.status, t.priority, t.createdAt, t.lastUpdatedAt,"
+            + " u.id, b.bookingId, p.title, t.slaDueAt, c.id, p.agent.id)"
+            + " from SupportTicket t join t.user u left join t.booking b left join b.travelPackage p"
+            + " left join t.claimedBy c";
+
+    private static final Map<String, String> SORTABLE = Map.of(
+            "ticketId", "t.ticketId",
+            "createdAt", "t.createdAt",
+            "lastUpdatedAt", "t.lastUpdatedAt",
+            "slaDueAt", "t.slaDueAt",
+            "status", "t.status",
+            "priority", "case t.priority when com.odyssey.entity.Priority.HIGH then 2"
+                    + " when com.odyssey.entity.Priority.MEDIUM then 1 else 0 end");
+
+    // matches are ranked inside the subquery and only the page that survives the limit is
+    // highlighted, ts_headline re-parses the raw text and is by far the most expensive step
+    private static final String SEARCH = "select t.ticket_id, t.subject, t.description, t.status, t.priority,"
+            + " t.created_at, t.last_updated_at, t.user_id, t.booking_id, p.title as package_title, m.rank,"
+            + " ts_headline('english', %s, m.query, 'StartSel=<mark>, StopSel=</mark>, HighlightAll=true')"
+            + " as subject_highlight,"
+            + " ts_headline('english', %s, m.query,"
+            + " 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5') as description_highlight"
+            + " from (%s) m"
+            + " join support_tickets t on t.ticket_id = m.ticket_id"
+            + " left join bookings b on b.booking_id = t.booking_id"
+            + " left join travel_packages p on p.package_id = b.package_id"
+            + " order by m.rank desc, t.ticket_id desc";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public Page<SupportTicketResponseDTO> findTicketPage(SupportTicketStatus status, Priority priority,
+            Long agentId, Long userId, Pageable pageable) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        if (status != null) {
+            predicates.add("t.status = :status");
+            params.put("status", status);
+        }
+        if (priority != null) {
+            predicates.add("t.priority = :priority");
+            params.put("priority", priority);
+        }
+        if (agentId != null) {
+            predicates.add("p.agent.id = :agentId");
+            params.put("agentId", agentId);
+        }
+        if (userId != null) {
+            predicates.add("u.id = :userId");
+            params.put("userId", userId);
+        }
+        String where = predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+
+        TypedQuery<SupportTicketResponseDTO> query = entityManager.createQuery(
+                SELECT + where + orderBy(pageable.getSort()), SupportTicketResponseDTO.class);
+        params.forEach(query::setParameter);
+        if (pageable.isUnpaged()) {
+            List<SupportTicketResponseDTO> rows = query.getResultList();
+            return new PageImpl<>(rows, pageable, rows.size());
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        List<SupportTicketResponseDTO> rows = query.getResultList();
+
+        // skip the count when this page already shows where the result ends
+        if (pageable.getOffset() == 0 && rows.size() < pageable.getPageSize()) {
+            return new PageImpl<>(rows, pageable, rows.size());
+        }
+        String from = agentId != null
+                ? " from SupportTicket t join t.user u left join t.booking b left join b.travelPackage p"
+                : " from SupportTicket t join t.user u";
+        TypedQuery<Long> count = entityManager.createQuery("select count(t)" + from + where, Long.class);
+        params.forEach(count::setParameter);
+        return new PageImpl<>(rows, pageable, count.getSingleResult());
+    }
+
+    @Override
+    public List<SupportTicketResponseDTO> findDtosByIds(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(SELECT + " where t.ticketId in :ids", SupportTicketResponseDTO.class)
+                .setParameter("ids", ticketIds)
+                .getResultList();
+    }
+
+    @Override
+    public List<SupportTicketSearchResultDto> searchText(String query, Collection<Long> references,
+            SupportTicketStatus status, Priority priority, Long agentId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query != null ? query : "")
+                .addValue("limit", limit);
+
+        String rank = "ts_rank_cd(t.search_vector, q.query)";
+        String match = "t.search_vector @@ q.query";
+        if (!references.isEmpty()) {
+            // an exact ticket or booking number always outranks a text match
+            String isReference = "(t.ticket_id in (:refs) or t.booking_id in (:refs))";
+            rank = "case when " + isReference + " then 1 else 0 end + " + rank;
+            match = "(" + match + " or " + isReference + ")";
+            params.addValue("refs", references);
+        }
+
+        StringBuilder ranked = new StringBuilder("select t.ticket_id, q.query, ").append(rank).append(" as rank")
+                .append(" from support_tickets t cross join websearch_to_tsquery('english', :query) q(query)");
+        if (agentId != null) {
+            ranked.append(" join bookings b on b.booking_id = t.booking_id")
+                    .append(" join travel_packages p on p.package_id = b.package_id");
+        }
+        ranked.append(" where ").append(match);
+        if (status != null) {
+            ranked.append(" and t.status = :status");
+            params.addValue("status", status.name());
+        }
+        if (priority != null) {
+            ranked.append(" and t.priority = :priority");
+            params.addValue("priority", priority.name());
+        }
+        if (agentId != null) {
+            ranked.append(" and p.agent_id = :agentId");
+            params.addValue("agentId", agentId);
+        }
+        ranked.append(" order by rank desc, t.ticket_id desc limit :limit");
+
+        // escaped before highlighting so the only markup in the result is our own <mark>
+        String sql = String.format(SEARCH, escapeHtml("t.subject"), escapeHtml("t.description"), ranked);
+        return namedParameterJdbcTemplate.query(sql, params, (rs, n) -> new SupportTicketSearchResultDto(
+                rs.getLong("ticket_id"),
+                rs.getString("subject"),
+                rs.getString("description"),
+                rs.getString("status") != null ? SupportTicketStatus.valueOf(rs.getString("status")) : null,
+                rs.getString("priority") != null ? Priority.valueOf(rs.getString("priority")) : null,
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("last_updated_at")),
+                rs.getLong("user_id"),
+                rs.getObject("booking_id", Long.class),
+                rs.getString("package_title"),
+                rs.getDouble("rank"),
+                rs.getString("subject_highlight"),
+                rs.getString("description_highlight")));
+    }
+
+    private static String escapeHtml(String column) {
+        return "replace(replace(replace(coalesce(" + column + ", ''), '&', '&amp;'), '<', '&lt;'), '>', '&gt;')";
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " order by t.lastUpdatedAt desc, t.ticketId desc";
+        }
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String expression = SORTABLE.get(order.getProperty());
+            if (expression == null) {
+                throw new IllegalArgumentException("Cannot sort tickets by " + order.getProperty());
+            }
+            orders.add(expression + (order.isAscending() ? " asc" : " desc"));
+        }
+        // ties broken by id so pages never overlap
+        orders.add("t.ticketId desc");
+        return " order by " + String.join(", ", orders);
+    }
+}
@@ -1,13 +1,49 @@
 package com.odyssey.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.odyssey.dto.ParticipantsRow;
+import com.odyssey.dto.TicketDispatchRow;
+import com.odyssey.entity.Priority;
 import com.odyssey.entity.SupportTicket;
+import com.odyssey.entity.User;
 
-public interface SupportTicketRepository extends JpaRepository<SupportTicket , Long> {
+public interface SupportTicketRepository extends JpaRepository<SupportTicket , Long>, SupportTicketQueryRepository {
 
 	List<SupportTicket> findByUser_Id(Long userId);
 	List<SupportTicket> findByBooking_TravelPackage_Agent_Id(Long agentId);
+
+	@Query("select new com.odyssey.dto.ParticipantsRow(u.id, a.id, c.id) from SupportTicket t join t.user u"
+			+ " left join t.booking b left join b.travelPackage p left join p.agent a left join t.claimedBy c"
+			+ " where t.ticketId = :ticketId")
+	Optional<ParticipantsRow> findParticipants(@Param("ticketId") Long ticketId);
+
+	// startup rebuild of the dispatch queues
+	@Query("select new com.odyssey.dto.TicketDispatchRow(t.ticketId, t.priority, t.createdAt, t.slaDueAt, a.id)"
+			+ " from SupportTicket t left join t.booking b left join b.travelPackage p left join p.agent a"
+			+ " where t.status = com.odyssey.entity.SupportTicketStatus.OPEN")
+	List<TicketDispatchRow> findOpenForDispatch();
+
+	// only one claimer can move a ticket out of OPEN; 0 rows means someone else got there first
+	@Modifying(clearAutomatically = true)
+	@Query("update SupportTicket t set t.status = com.odyssey.entity.SupportTicketStatus.IN_PROGRESS,"
+			+ " t.claimedBy = :claimer, t.lastUpdatedAt = :now"
+			+ " where t.ticketId = :ticketId and t.status = com.odyssey.entity.SupportTicketStatus.OPEN")
+	int claim(@Param("ticketId") Long ticketId, @Param("claimer") User claimer, @Param("now") LocalDateTime now);
+
+	// no-op unless the ticket is still open at the priority and deadline the timer was armed with
+	@Modifying(clearAutomatically = true)
+	@Query("update SupportTicket t set t.priority = :next, t.slaDueAt = :nextDueAt, t.lastUpdatedAt = :now"
+			+ " where t.ticketId = :ticketId and t.status = com.odyssey.entity.SupportTicketStatus.OPEN"
+			+ " and t.priority = :current")
+	int escalate(@Param("ticketId") Long ticketId, @Param("current") Priority current,
+			@Param("next") Priority next, @Param("nextDueAt") LocalDateTime nextDueAt,
+			@Param("now") LocalDateTime now);
 }
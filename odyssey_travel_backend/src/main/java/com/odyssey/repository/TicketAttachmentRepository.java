@@ -0,0 +1,29 @@
+package com.odyssey.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.dto.TicketAttachmentDto;
+import com.odyssey.entity.TicketAttachment;
+
+@Repository
+public interface TicketAttachmentRepository extends JpaRepository<TicketAttachment, Long> {
+
+    String SELECT_DTO = "select new com.odyssey.dto.TicketAttachmentDto(a.attachmentId, a.ticket.ticketId,"
+            + " a.uploadedById, a.fileName, a.contentType, a.sizeBytes, a.sha256, a.createdAt) from TicketAttachment a";
+
+    @Query(SELECT_DTO + " where a.ticket.ticketId = :ticketId order by a.attachmentId")
+    List<TicketAttachmentDto> findDtosByTicketId(@Param("ticketId") Long ticketId);
+
+    @Query(SELECT_DTO + " where a.attachmentId = :attachmentId")
+    Optional<TicketAttachmentDto> findDtoById(@Param("attachmentId") Long attachmentId);
+
+    @Query(SELECT_DTO + " where a.ticket.ticketId = :ticketId and a.sha256 = :sha256")
+    List<TicketAttachmentDto> findDtosByTicketIdAndSha256(@Param("ticketId") Long ticketId,
+            @Param("sha256") String sha256);
+}
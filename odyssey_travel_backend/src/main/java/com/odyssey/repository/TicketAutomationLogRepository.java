@@ -0,0 +1,14 @@
+package com.odyssey.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.entity.TicketAutomationLog;
+
+@Repository
+public interface TicketAutomationLogRepository extends JpaRepository<TicketAutomationLog, Long> {
+
+    List<TicketAutomationLog> findByTicketIdOrderByCreatedAtDesc(Long ticketId);
+}
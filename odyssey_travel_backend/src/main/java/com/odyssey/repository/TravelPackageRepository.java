@@ -3,6 +3,8 @@ package com.odyssey.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.odyssey.entity.Status;
@@ -17,4 +19,15 @@ public interface TravelPackageRepository extends JpaRepository<TravelPackage, Lo
 
 	List<TravelPackage> findByAgent_Id(Long agentId);
 
+	long countByStatus(Status status);
+
+	long countByAgent_Id(Long agentId);
+
+	long countByAgent_IdAndStatus(Long agentId, Status status);
+
+	@Query("select p from TravelPackage p where p.status = :status and p.agent.active = true"
+			+ " and (lower(p.destination) like concat('%', :term, '%') escape '\\'"
+			+ " or lower(p.title) like concat('%', :term, '%') escape '\\')")
+	List<TravelPackage> searchByStatusAndAgentActive(@Param("status") Status status, @Param("term") String term);
+
 }
@@ -1,11 +1,20 @@
 package com.odyssey.repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.odyssey.dto.UserResponseDto;
+import com.odyssey.dto.UserRoleCountDto;
+
 import com.odyssey.entity.Role;
 import com.odyssey.entity.User;
 
@@ -15,8 +24,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	User getReferenceById(Long agentId);
 
 	java.util.List<User> findByRole(Role role);
+
+	long countByRole(Role role);
+
+	// projection straight into the response DTO, prefix matches use the lower(...) text_pattern_ops indexes
+	@Query(value = "select new com.odyssey.dto.UserResponseDto(u.id, u.firstName, u.lastName, u.email, u.role, u.provider, u.active)"
+			+ " from User u where (:role is null or u.role = :role)"
+			+ " and (:prefix is null or lower(u.email) like :prefix escape '\\'"
+			+ " or lower(u.firstName) like :prefix escape '\\'"
+			+ " or lower(u.lastName) like :prefix escape '\\')",
+			countQuery = "select count(u) from User u where (:role is null or u.role = :role)"
+					+ " and (:prefix is null or lower(u.email) like :prefix escape '\\'"
+					+ " or lower(u.firstName) like :prefix escape '\\'"
+					+ " or lower(u.lastName) like :prefix escape '\\')")
+	Page<UserResponseDto> searchUsers(@Param("role") Role role, @Param("prefix") String prefix, Pageable pageable);
+
+	@Query("select new com.odyssey.dto.UserRoleCountDto(u.role, u.active, count(u)) from User u group by u.role, u.active")
+	java.util.List<UserRoleCountDto> countGroupedByRoleAndActive();
     Optional<User> findByEmail(String email);
 	boolean existsByEmail(String email);
 
+	// streamed with a server-side cursor, must be consumed inside a transaction
+	@QueryHints(@jakarta.persistence.QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+	@Query("select u.email from User u")
+	Stream<String> streamAllEmails();
+
 
 }
@@ -0,0 +1,34 @@
+package com.odyssey.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.entity.UserSession;
+
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, Long> {
+
+    @Query("select new com.odyssey.dto.SessionPrincipal(u.id, u.role, s.expiresAt) from UserSession s join s.user u"
+            + " where s.tokenHash = :tokenHash and s.revoked = false and s.expiresAt > :now and u.active = true")
+    Optional<SessionPrincipal> findActivePrincipal(@Param("tokenHash") String tokenHash,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update UserSession s set s.revoked = true where s.tokenHash = :tokenHash")
+    int revokeByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("update UserSession s set s.revoked = true where s.user.id = :userId and s.revoked = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from UserSession s where s.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
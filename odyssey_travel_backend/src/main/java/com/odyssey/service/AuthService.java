@@ -1,6 +1,7 @@
 package com.odyssey.service;
 
 import com.odyssey.dto.LoginRequestDTO;
+import com.odyssey.dto.LoginResponseDto;
 import com.odyssey.dto.UserCreateRequestDto;
 import com.odyssey.dto.UserResponseDto;
 
@@ -8,5 +9,7 @@ public interface AuthService {
 
     public UserResponseDto registerUser(UserCreateRequestDto userCreateRequestDto);
 
-    public UserResponseDto loginUser(LoginRequestDTO loginRequestDTO);
+    public LoginResponseDto loginUser(LoginRequestDTO loginRequestDTO);
+
+    public void logoutUser(String token);
 }
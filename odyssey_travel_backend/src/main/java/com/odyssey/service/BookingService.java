@@ -4,13 +4,19 @@ import java.util.List;
 
 import com.odyssey.dto.BookingRequestDTO;
 import com.odyssey.dto.BookingResponseDto;
+import com.odyssey.dto.PaymentDto;
+import com.odyssey.dto.SessionPrincipal;
 
 public interface BookingService {
 
-	void createBooking(BookingRequestDTO bookingRequest);
+	// saves the booking as PENDING, then charges it; the booking is confirmed or cancelled with the payment
+	PaymentDto createBooking(BookingRequestDTO bookingRequest);
     
 	List<BookingResponseDto> getAllBookings(Long userId);
 
 	List<BookingResponseDto> getAgentBookings(Long agentId);
 
+	// the booking's customer, the agent of its package or an admin; ForbiddenException otherwise
+	void checkAccess(Long bookingId, SessionPrincipal principal);
+
 }
@@ -0,0 +1,17 @@
+package com.odyssey.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DashboardStreamService {
+
+    SseEmitter subscribeAdmin();
+
+    SseEmitter subscribeAgent(Long agentId);
+
+    // change notifications, coalesced until the next push interval
+    void bookingChanged(Long agentId);
+
+    void packageChanged(Long agentId);
+
+    void usersChanged();
+}
@@ -0,0 +1,18 @@
+package com.odyssey.service;
+
+public interface EmailLookupService {
+
+    // false means the email is definitely not registered, no database query needed. Only an
+    // authoritative filter (email-filter.authoritative) answers false, otherwise this is always true.
+    boolean mightExist(String email);
+
+    // Bloom filter first while it is authoritative, database otherwise
+    boolean exists(String email);
+
+    // call once the insert has committed
+    void add(String email);
+
+    // the database's answer for an email the filter was asked about: counts false positives and
+    // puts emails the filter missed (other nodes, bulk loads, manual SQL) into it
+    void recordLookup(String email, boolean found);
+}
@@ -0,0 +1,22 @@
+package com.odyssey.service;
+
+public interface PasswordHashingService {
+
+    String hash(String rawPassword);
+
+    boolean matches(String rawPassword, String storedPassword);
+
+    // the same work as matches() against a real hash, always false: an unknown email takes as long
+    // to turn away as a wrong password, so timing does not tell which emails are registered
+    boolean matchesNothing(String rawPassword);
+
+    // true for legacy plaintext rows and hashes made with a lower work factor
+    boolean needsRehash(String storedPassword);
+
+    int getWorkFactor();
+
+    // bulk imports: the same work factor as hash(), but on the caller's thread instead of the login
+    // pool. Values that are already BCrypt hashes are kept as they are, which is what makes a large
+    // import fast; a plaintext value costs a full login-strength hash (~target-hash-ms).
+    String hashForImport(String rawOrHashedPassword);
+}
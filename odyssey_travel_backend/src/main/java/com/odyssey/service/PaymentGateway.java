@@ -0,0 +1,23 @@
+package com.odyssey.service;
+
+import java.util.Optional;
+
+import com.odyssey.dto.GatewayChargeRequest;
+import com.odyssey.dto.GatewayChargeResult;
+import com.odyssey.utils.Money;
+
+// SPI for card processors. Implementations may block; callers wrap every call in a timeout,
+// circuit breaker and bulkhead. Transport failures throw PaymentGatewayException.
+public interface PaymentGateway {
+
+    String getName();
+
+    // must be idempotent on request.idempotencyKey: a repeat returns the first result
+    GatewayChargeResult charge(GatewayChargeRequest request);
+
+    // the result of an earlier charge, empty when the gateway never received it
+    Optional<GatewayChargeResult> lookup(String idempotencyKey);
+
+    // must be idempotent on idempotencyKey as well: a repeated refund returns the first result
+    GatewayChargeResult refund(String reference, Money amount, String idempotencyKey);
+}
@@ -1,10 +1,25 @@
 package com.odyssey.service;
 
-import com.odyssey.dto.PaymentRequestDTO;
+import com.odyssey.dto.PaymentDto;
+import com.odyssey.dto.PaymentGatewayHealthDto;
+import com.odyssey.entity.Booking;
 import com.odyssey.entity.Payment;
+import com.odyssey.utils.Money;
 
 public interface PaymentService {
 
-	Payment savePaymentDetails(PaymentRequestDTO payment);
-	PaymentRequestDTO getPaymentDetails(Long PaymentID,Long UserID);
+	// joins the caller's booking transaction; nothing is sent to the gateway yet
+	Payment createPendingPayment(Booking booking, Money amount, String paymentMethod);
+
+	// charges a PENDING payment; must run outside any transaction so no connection is held
+	// while waiting on the gateway. PENDING/PROCESSING results are finished by the retry sweeper.
+	PaymentDto processPayment(Long paymentId);
+
+	PaymentDto getPayment(Long paymentId);
+
+	PaymentDto getPaymentForBooking(Long bookingId);
+
+	PaymentDto refundPayment(Long paymentId);
+
+	PaymentGatewayHealthDto getGatewayHealth();
 }
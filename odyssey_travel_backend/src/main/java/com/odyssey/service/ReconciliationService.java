@@ -0,0 +1,29 @@
+package com.odyssey.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.odyssey.entity.ReconciliationMismatch;
+import com.odyssey.entity.ReconciliationMismatchType;
+import com.odyssey.entity.ReconciliationRange;
+import com.odyssey.entity.ReconciliationRun;
+
+public interface ReconciliationService {
+
+    // reconciles payments against the gateway settlement file for that date; runs in the background
+    ReconciliationRun startRun(LocalDate settlementDate);
+
+    // continues a failed or abandoned run from its checkpoints
+    ReconciliationRun resumeRun(Long runId);
+
+    ReconciliationRun getRun(Long runId);
+
+    List<ReconciliationRun> getRecentRuns();
+
+    List<ReconciliationRange> getRanges(Long runId);
+
+    Page<ReconciliationMismatch> getMismatches(Long runId, ReconciliationMismatchType type, Pageable pageable);
+}
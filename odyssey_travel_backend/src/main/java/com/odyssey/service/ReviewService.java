@@ -0,0 +1,29 @@
+package com.odyssey.service;
+
+import java.util.Collection;
+
+import com.odyssey.dto.RatingSummaryDto;
+import com.odyssey.dto.ReviewDto;
+import com.odyssey.dto.ReviewFeedDto;
+import com.odyssey.dto.ReviewRequestDto;
+import com.odyssey.dto.ReviewVoteRequestDto;
+import com.odyssey.entity.TravelPackage;
+
+public interface ReviewService {
+
+    // one review per client per package, only after a confirmed booking of it
+    ReviewDto createReview(Long packageId, ReviewRequestDto request);
+
+    // sort is "recent" or "helpful"; cursor is the nextCursor of the previous slice, null for the first
+    ReviewFeedDto getReviewFeed(Long packageId, String sort, String cursor, int size);
+
+    // one vote per user per review; voting again replaces the earlier vote
+    ReviewDto voteReview(Long packageId, Long reviewId, ReviewVoteRequestDto request);
+
+    RatingSummaryDto getSummary(Long packageId);
+
+    // fills the transient rating fields from memory, no query
+    void applyRatings(Collection<TravelPackage> packages);
+
+    void applyRatings(TravelPackage travelPackage);
+}
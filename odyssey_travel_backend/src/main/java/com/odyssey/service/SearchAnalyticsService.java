@@ -0,0 +1,13 @@
+package com.odyssey.service;
+
+import com.odyssey.dto.SearchAnalyticsDto;
+
+public interface SearchAnalyticsService {
+
+    // called on the catalog request path, must stay cheap
+    void recordSearch(String query, int resultCount);
+
+    SearchAnalyticsDto getSearchAnalytics(int limit);
+
+    void flush();
+}
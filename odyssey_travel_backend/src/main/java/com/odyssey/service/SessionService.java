@@ -0,0 +1,19 @@
+package com.odyssey.service;
+
+import java.util.Optional;
+
+import com.odyssey.dto.LoginResponseDto;
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.dto.UserResponseDto;
+
+public interface SessionService {
+
+    LoginResponseDto issueSession(UserResponseDto user);
+
+    Optional<SessionPrincipal> resolve(String token);
+
+    void revoke(String token);
+
+    // used when a user is blocked, every open session ends immediately
+    void revokeAll(Long userId);
+}
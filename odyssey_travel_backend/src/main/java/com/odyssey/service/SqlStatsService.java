@@ -0,0 +1,22 @@
+package com.odyssey.service;
+
+import java.util.function.Supplier;
+
+import com.odyssey.dto.SqlStatsDto;
+
+public interface SqlStatsService {
+
+    // statements run on this thread are attributed to the request until endRequest
+    void beginRequest(String request);
+
+    // closes the thread's request scope, records it under the endpoint (checking its statement
+    // budget) and returns the number of statements it ran
+    int endRequest(String method, String uri);
+
+    // called by the JDBC proxy after every execution; parameter types are only rendered for slow statements
+    void recordStatement(String sql, long nanos, Supplier<String> parameterTypes);
+
+    SqlStatsDto getStats();
+
+    void reset();
+}
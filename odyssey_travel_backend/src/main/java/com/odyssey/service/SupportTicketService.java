@@ -1,10 +1,19 @@
 package com.odyssey.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.odyssey.dto.SessionPrincipal;
 import com.odyssey.dto.SupportTicketDTO;
 import com.odyssey.dto.SupportTicketResponseDTO;
+import com.odyssey.dto.SupportTicketSearchResultDto;
+import com.odyssey.entity.Priority;
 import com.odyssey.entity.SupportTicketStatus;
+import com.odyssey.entity.TicketAutomationLog;
 
 public interface SupportTicketService {
 
@@ -20,4 +29,24 @@ public interface SupportTicketService {
     List<SupportTicketResponseDTO> getAllTickets();
 
     List<SupportTicketResponseDTO> getTicketsByAgent(Long agentId);
+
+    Page<SupportTicketResponseDTO> searchTickets(SupportTicketStatus status, Priority priority, Long agentId,
+            Long userId, Pageable pageable);
+
+    // keyword search over subject/description; "#123" or "123" also matches that ticket or booking
+    List<SupportTicketSearchResultDto> fullTextSearch(String query, SupportTicketStatus status, Priority priority,
+            Long agentId, int limit);
+
+    List<TicketAutomationLog> getAutomationLog(Long ticketId);
+
+    // the ticket's customer, the agent of its package, its claimer or an admin; ForbiddenException otherwise
+    void checkAccess(Long ticketId, SessionPrincipal principal);
+
+    // most urgent open ticket in the assignee's queue, claimed for claimerId
+    Optional<SupportTicketResponseDTO> claimNextTicket(long assigneeId, Long claimerId);
+
+    SupportTicketResponseDTO claimTicket(Long ticketId, Long claimerId);
+
+    // open tickets per assignee (0 = admin pool)
+    Map<Long, Long> getQueueSizes();
 }
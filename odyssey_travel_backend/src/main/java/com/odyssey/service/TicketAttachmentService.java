@@ -0,0 +1,21 @@
+package com.odyssey.service;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.odyssey.dto.TicketAttachmentDto;
+
+public interface TicketAttachmentService {
+
+    // streams the upload to the store, identical content is kept once however often it is attached
+    TicketAttachmentDto addAttachment(Long ticketId, Long uploadedById, MultipartFile file);
+
+    List<TicketAttachmentDto> getAttachments(Long ticketId);
+
+    TicketAttachmentDto getAttachment(Long attachmentId);
+
+    // location of the stored bytes for a checksum
+    Path resolve(String sha256);
+}
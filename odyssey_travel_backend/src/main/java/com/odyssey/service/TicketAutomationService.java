@@ -0,0 +1,16 @@
+package com.odyssey.service;
+
+import java.util.List;
+
+import com.odyssey.entity.TicketAutomationLog;
+
+public interface TicketAutomationService {
+
+    // IN_PROGRESS tickets idle past the threshold go up one priority level; returns how many changed
+    int escalateStaleTickets();
+
+    // RESOLVED tickets nobody reopened within the grace period are CLOSED; returns how many changed
+    int closeIdleResolvedTickets();
+
+    List<TicketAutomationLog> getAutomationLog(Long ticketId);
+}
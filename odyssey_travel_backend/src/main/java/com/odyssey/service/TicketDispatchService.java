@@ -0,0 +1,26 @@
+package com.odyssey.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import com.odyssey.entity.Priority;
+
+public interface TicketDispatchService {
+
+    // queue for tickets not tied to an agent's package (and SLA breaches at HIGH), worked by admins
+    long ADMIN_POOL = 0L;
+
+    void enqueue(Long ticketId, Long agentId, Priority priority, LocalDateTime createdAt, LocalDateTime slaDueAt);
+
+    void remove(Long ticketId);
+
+    // pops the most urgent open ticket for the assignee and claims it; empty when the queue is drained
+    Optional<Long> claimNext(long assigneeId, Long claimerId);
+
+    boolean claim(Long ticketId, Long claimerId);
+
+    LocalDateTime slaDeadline(Priority priority, LocalDateTime from);
+
+    Map<Long, Long> getQueueSizes();
+}
@@ -0,0 +1,27 @@
+package com.odyssey.service;
+
+import java.util.Collection;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.odyssey.dto.SupportTicketResponseDTO;
+
+public interface TicketStreamService {
+
+    // the ticket owner's stream
+    SseEmitter subscribeUser(Long userId);
+
+    // tickets on the agent's packages
+    SseEmitter subscribeAgent(Long agentId);
+
+    // every ticket
+    SseEmitter subscribeAdmin();
+
+    // pushed once the surrounding transaction commits
+    void ticketCreated(SupportTicketResponseDTO ticket);
+
+    void ticketUpdated(SupportTicketResponseDTO ticket);
+
+    // for bulk changes that only know ids; rows are loaded only if someone is listening
+    void ticketsUpdated(Collection<Long> ticketIds);
+}
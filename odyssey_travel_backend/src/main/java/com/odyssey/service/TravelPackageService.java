@@ -22,6 +22,12 @@ public interface TravelPackageService {
     // user will be able to see only approved and active agents travel packages
     List<TravelPackage> getPackagesByStatusAndAgentActive(Status status);
 
+    // catalog search over approved packages by destination or title
+    List<TravelPackage> searchPackages(String query);
+
+    // orders packages by the trending snapshot, unranked packages keep their order at the end
+    List<TravelPackage> sortByTrending(List<TravelPackage> packages);
+
     // agent will be able to see only their travel packages
     List<TravelPackage> getPackagesByAgentId(Long agentId);
 
@@ -0,0 +1,11 @@
+package com.odyssey.service;
+
+public interface TrendingService {
+
+    void recordBooking(Long packageId);
+
+    void recordView(Long packageId);
+
+    // package ids ordered by decayed popularity, taken from the latest snapshot
+    long[] getRankedPackageIds();
+}
@@ -0,0 +1,20 @@
+package com.odyssey.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.odyssey.dto.UserImportJobDto;
+
+public interface UserImportService {
+
+    // CSV columns: firstName,lastName,email,password,role - runs in the background
+    UserImportJobDto startImport(MultipartFile file);
+
+    // the same for a CSV sent as the request body, copied to disk up to user-import.max-file-size;
+    // contentLength is -1 when the client did not send one
+    UserImportJobDto startImport(InputStream csv, long contentLength) throws IOException;
+
+    UserImportJobDto getImportJob(String jobId);
+}
@@ -4,9 +4,12 @@ import java.util.List;
 
 import com.odyssey.dto.UserCreateRequestDto;
 import com.odyssey.dto.UserResponseDto;
+import com.odyssey.dto.UserRoleCountDto;
 import com.odyssey.entity.Role;
 import com.odyssey.entity.User;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 
@@ -22,4 +25,9 @@ public interface UserService {
 
     UserResponseDto updateUserStatus(Long userId, boolean active);
 
+    // admin screens: one page at a time, optional role filter and name/email prefix search
+    Page<UserResponseDto> searchUsers(Role role, String query, Pageable pageable);
+
+    List<UserRoleCountDto> getUserCounts();
+
 }
@@ -1,12 +1,18 @@
 package com.odyssey.service.impl;
 
 import com.odyssey.dto.LoginRequestDTO;
+import com.odyssey.dto.LoginResponseDto;
 import com.odyssey.dto.UserCreateRequestDto;
 import com.odyssey.dto.UserResponseDto;
 import com.odyssey.entity.User;
 import com.odyssey.repository.UserRepository;
 import com.odyssey.service.AuthService;
+import com.odyssey.service.EmailLookupService;
+import com.odyssey.service.PasswordHashingService;
+import com.odyssey.service.SessionService;
 import com.odyssey.service.UserService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
 import org.modelmapper.Converters;
 import org.modelmapper.ModelMapper;
@@ -14,27 +20,62 @@ import org.springframework.stereotype.Service;
 
 
 @Service
+@Timed("odyssey.service")
 @AllArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
+    // one answer, and the same BCrypt work, for an unknown email and a wrong password
+    private static final String INVALID_CREDENTIALS = "Invalid email or password";
+
     private final UserService userService;
     private final UserRepository userRepository;
     private final ModelMapper modelMapper;
+    private final SessionService sessionService;
+    private final PasswordHashingService passwordHashingService;
+    private final EmailLookupService emailLookupService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public UserResponseDto registerUser(UserCreateRequestDto userCreateRequestDto) {
-        return userService.createUser(userCreateRequestDto);
+        UserResponseDto user = userService.createUser(userCreateRequestDto);
+        meterRegistry.counter("auth.registrations", "role", String.valueOf(user.getRole())).increment();
+        return user;
     }
 
     @Override
-    public UserResponseDto loginUser(LoginRequestDTO loginRequestDTO) {
-        User user = userRepository.findByEmail(loginRequestDTO.getEmail())
-                .orElseThrow(() ->
-                        new IllegalArgumentException("Invalid email or password")
-                );
-
-        if(!loginRequestDTO.getPassword().equals(user.getPassword())) {
-            throw new IllegalArgumentException("Invalid password");
+    public LoginResponseDto loginUser(LoginRequestDTO loginRequestDTO) {
+        try {
+            LoginResponseDto response = authenticate(loginRequestDTO);
+            meterRegistry.counter("auth.logins", "result", "success").increment();
+            return response;
+        } catch (IllegalArgumentException e) {
+            meterRegistry.counter("auth.logins", "result", "rejected").increment();
+            throw e;
+        }
+    }
+
+    private LoginResponseDto authenticate(LoginRequestDTO loginRequestDTO) {
+        // an authoritative Bloom filter turns unknown emails away without touching the database
+        if (!emailLookupService.mightExist(loginRequestDTO.getEmail())) {
+            passwordHashingService.matchesNothing(loginRequestDTO.getPassword());
+            throw new IllegalArgumentException(INVALID_CREDENTIALS);
+        }
+
+        User user = userRepository.findByEmail(loginRequestDTO.getEmail()).orElse(null);
+        emailLookupService.recordLookup(loginRequestDTO.getEmail(), user != null);
+        if (user == null) {
+            passwordHashingService.matchesNothing(loginRequestDTO.getPassword());
+            throw new IllegalArgumentException(INVALID_CREDENTIALS);
+        }
+
+        if (!passwordHashingService.matches(loginRequestDTO.getPassword(), user.getPassword())) {
+            throw new IllegalArgumentException(INVALID_CREDENTIALS);
+        }
+
+        // transparently migrate plaintext rows and hashes below the current work factor
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.hash(loginRequestDTO.getPassword()));
+            userRepository.save(user);
         }
 
         if (loginRequestDTO.getRole() != null && !user.getRole().equals(loginRequestDTO.getRole())) {
@@ -45,7 +86,12 @@ public class AuthServiceImpl implements AuthService {
             throw new IllegalArgumentException("User account is inactive or pending approval");
         }
 
-        return modelMapper.map(user, UserResponseDto.class);
+        return sessionService.issueSession(modelMapper.map(user, UserResponseDto.class));
+    }
+
+    @Override
+    public void logoutUser(String token) {
+        sessionService.revoke(token);
     }
 
 
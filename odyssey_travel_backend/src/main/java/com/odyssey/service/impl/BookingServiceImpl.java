@@ -1,29 +1,41 @@
 package com.odyssey.service.impl;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.odyssey.dto.BookingRequestDTO;
 import com.odyssey.dto.BookingResponseDto;
-import com.odyssey.dto.CompanionDTO;
+import com.odyssey.dto.PaymentDto;
+import com.odyssey.dto.SessionPrincipal;
 import com.odyssey.entity.Booking;
 import com.odyssey.entity.BookingStatus;
-import com.odyssey.entity.Payment;
 import com.odyssey.entity.TravelPackage;
 import com.odyssey.entity.User;
 import com.odyssey.entity.TravellersDetails;
+import com.odyssey.exception.ResourceNotFoundException;
 import com.odyssey.repository.BookingRepository;
-import com.odyssey.repository.PaymentRepository;
 import com.odyssey.repository.TravelPackageRepository;
 import com.odyssey.repository.UserRepository;
 import com.odyssey.repository.TravellersDetailsRepository;
 import com.odyssey.service.BookingService;
+import com.odyssey.service.DashboardStreamService;
+import com.odyssey.service.PaymentService;
+import com.odyssey.utils.BookingMapper;
+import com.odyssey.utils.Money;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 
 @Service
+@Timed("odyssey.service")
 @Transactional
 public class BookingServiceImpl implements BookingService {
 
@@ -31,7 +43,7 @@ public class BookingServiceImpl implements BookingService {
 	private BookingRepository bookingRepository;
 
 	@Autowired
-	private PaymentRepository paymentRepository;
+	private PaymentService paymentService;
 
 	@Autowired
 	private UserRepository userRepository;
@@ -42,8 +54,36 @@ public class BookingServiceImpl implements BookingService {
 	@Autowired
 	private TravellersDetailsRepository travellersDetailsRepository;
 
+	@Autowired
+	private DashboardStreamService dashboardStreamService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private TransactionTemplate tx;
+	// outcomes are counted by the payment, see payments.finished
+	private Counter bookingsCreated;
+
+	@PostConstruct
+	void init() {
+		tx = new TransactionTemplate(transactionManager);
+		bookingsCreated = meterRegistry.counter("bookings.created");
+	}
+
+	// The booking is committed before the gateway is called, so no database connection is
+	// held while the charge is in flight and a slow gateway cannot drain the pool.
 	@Override
-	public void createBooking(BookingRequestDTO bookingRequest) {
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public PaymentDto createBooking(BookingRequestDTO bookingRequest) {
+		Long paymentId = tx.execute(status -> savePendingBooking(bookingRequest));
+		bookingsCreated.increment();
+		return paymentService.processPayment(paymentId);
+	}
+
+	private Long savePendingBooking(BookingRequestDTO bookingRequest) {
 		User user = userRepository.findById(bookingRequest.getUserId())
 				.orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -51,13 +91,26 @@ public class BookingServiceImpl implements BookingService {
 		TravelPackage travelPackage = travelPackageRepository.findById(bookingRequest.getPackageId())
 				.orElseThrow(() -> new RuntimeException("Package not found"));
 
+		// The amount charged is the catalogue price, never what the client says it is; a client total
+		// is only checked against it, so a stale or edited price fails instead of being charged
+		if (bookingRequest.getTravelers() < 1) {
+			throw new IllegalArgumentException("At least one traveler is required");
+		}
+		Money amount = travelPackage.getPrice().times(bookingRequest.getTravelers());
+		Money clientAmount = bookingRequest.getTotalAmount() != null ? bookingRequest.getTotalAmount()
+				: bookingRequest.getPayment() != null ? bookingRequest.getPayment().getAmount() : null;
+		if (clientAmount != null && !clientAmount.equals(amount)) {
+			throw new IllegalArgumentException("Booking amount " + clientAmount.toDecimal().toPlainString()
+					+ " does not match the package price, expected " + amount.toDecimal().toPlainString());
+		}
+
 		// 3. Create Booking
 		Booking booking = new Booking();
 		booking.setUser(user);
 		booking.setTravelPackage(travelPackage);
 		booking.setTravelDate(bookingRequest.getTravelDate());
 		booking.setTravelers(bookingRequest.getTravelers());
-		booking.setBookingStatus(BookingStatus.CONFIRMED);
+		booking.setBookingStatus(BookingStatus.PENDING);
 
 		// New Fields
 		booking.setContactFullName(bookingRequest.getContactFullName());
@@ -80,87 +133,30 @@ public class BookingServiceImpl implements BookingService {
 			});
 		}
 
-		// 5. Create Payment
-		Payment payment = new Payment();
-		payment.setAmount(bookingRequest.getTotalAmount());
-		payment.setPaymentStatus("PAID");
-		payment.setBooking(booking);
+		// 5. Create Payment (charged after commit)
+		String paymentMethod = bookingRequest.getPayment() != null ? bookingRequest.getPayment().getPaymentMethod() : null;
+		Long paymentId = paymentService.createPendingPayment(booking, amount, paymentMethod).getPaymentId();
 
-		booking.setPayment(payment); // Set bidirectional relationship
-
-		paymentRepository.save(payment);
+		dashboardStreamService.bookingChanged(travelPackage.getAgent().getId());
+		return paymentId;
 	}
 
 	@Override
 	public List<BookingResponseDto> getAllBookings(Long userId) {
-		List<Booking> bookings = bookingRepository.findByUser_Id(userId);
-
-		return bookings.stream().map(booking -> {
-			BookingResponseDto dto = new BookingResponseDto();
-			dto.setBookingId(booking.getBookingId());
-			dto.setPackageTitle(booking.getTravelPackage().getTitle());
-			// Assuming there's a booking date field or using travelDate as placeholder if
-			// not present
-			// booking.getBookingDate() if exists, else travelDate
-			dto.setTravelDate(booking.getTravelDate());
-			dto.setStatus(booking.getBookingStatus());
-			dto.setTravelers(booking.getTravelers());
-			if (booking.getPayment() != null) {
-				dto.setTotalAmount(booking.getPayment().getAmount());
-			}
-
-			// Get contact details
-			dto.setContactFullName(booking.getContactFullName());
-			dto.setContactEmail(booking.getContactEmail());
-			dto.setContactNumber(booking.getContactNumber());
-			dto.setSpecialRequest(booking.getSpecialRequest());
-
-			// Map companions
-			List<CompanionDTO> companions = booking.getCompanionDetails().stream().map(c -> {
-				CompanionDTO cDto = new CompanionDTO();
-				cDto.setFullName(c.getFullName());
-				cDto.setAge(c.getAge());
-				cDto.setGender(c.getGender());
-				cDto.setRelation(c.getRelation());
-				return cDto;
-			}).collect(Collectors.toList());
-
-			dto.setCompanions(companions);
-			return dto;
-		}).collect(Collectors.toList());
+		return BookingMapper.toResponseDtos(bookingRepository.findByUser_Id(userId));
 	}
 
 	@Override
 	public List<BookingResponseDto> getAgentBookings(Long agentId) {
-		List<Booking> bookings = bookingRepository.findByTravelPackage_Agent_Id(agentId);
-
-		return bookings.stream().map(booking -> {
-			BookingResponseDto dto = new BookingResponseDto();
-			dto.setBookingId(booking.getBookingId());
-			dto.setPackageTitle(booking.getTravelPackage().getTitle());
-			dto.setTravelDate(booking.getTravelDate());
-			dto.setStatus(booking.getBookingStatus());
-			dto.setTravelers(booking.getTravelers());
-			if (booking.getPayment() != null) {
-				dto.setTotalAmount(booking.getPayment().getAmount());
-			}
-			dto.setContactFullName(booking.getContactFullName());
-			dto.setContactEmail(booking.getContactEmail());
-			dto.setContactNumber(booking.getContactNumber());
-			dto.setSpecialRequest(booking.getSpecialRequest());
-
-			List<CompanionDTO> companions = booking.getCompanionDetails().stream().map(c -> {
-				CompanionDTO cDto = new CompanionDTO();
-				cDto.setFullName(c.getFullName());
-				cDto.setAge(c.getAge());
-				cDto.setGender(c.getGender());
-				cDto.setRelation(c.getRelation());
-				return cDto;
-			}).collect(Collectors.toList());
-
-			dto.setCompanions(companions);
-			return dto;
-		}).collect(Collectors.toList());
+		return BookingMapper.toResponseDtos(bookingRepository.findByTravelPackage_Agent_Id(agentId));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void checkAccess(Long bookingId, SessionPrincipal principal) {
+		bookingRepository.findParticipants(bookingId)
+				.orElseThrow(() -> new ResourceNotFoundException("Booking not found " + bookingId))
+				.requireParticipant(principal);
 	}
 
 }
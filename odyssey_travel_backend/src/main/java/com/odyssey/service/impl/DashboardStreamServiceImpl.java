@@ -0,0 +1,171 @@
+package com.odyssey.service.impl;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.service.DashboardStreamService;
+import com.odyssey.service.StatsService;
+import com.odyssey.utils.SseHub;
+import com.odyssey.utils.SseSubscription;
+import com.odyssey.utils.TransactionHooks;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class DashboardStreamServiceImpl implements DashboardStreamService {
+
+    private static final String ADMIN_EVENT = "admin-stats";
+    private static final String AGENT_EVENT = "agent-stats";
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${dashboard.stream.buffer-size:4}")
+    private int bufferSize;
+
+    // writes block on slow sockets, virtual threads keep that from costing a platform thread each
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Set<SseSubscription> adminSubscribers = ConcurrentHashMap.newKeySet();
+    private SseHub<Long> agentSubscribers;
+
+    private final AtomicBoolean adminDirty = new AtomicBoolean();
+    private final Set<Long> dirtyAgents = ConcurrentHashMap.newKeySet();
+
+    // last pushed frames, replayed to new subscribers so they do not trigger a recomputation
+    private volatile Set<DataWithMediaType> lastAdminFrame;
+    private final Map<Long, Set<DataWithMediaType>> lastAgentFrames = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        agentSubscribers = new SseHub<>(timeoutMillis, bufferSize, sender);
+    }
+
+    // ===================== SUBSCRIBE =====================
+    @Override
+    public SseEmitter subscribeAdmin() {
+        SseSubscription subscription = new SseSubscription(timeoutMillis, bufferSize, sender,
+                adminSubscribers::remove);
+        adminSubscribers.add(subscription);
+
+        Set<DataWithMediaType> frame = lastAdminFrame;
+        if (frame != null) {
+            subscription.offer(frame);
+        } else {
+            adminDirty.set(true);
+        }
+        return subscription.getEmitter();
+    }
+
+    @Override
+    public SseEmitter subscribeAgent(Long agentId) {
+        SseSubscription subscription = agentSubscribers.subscribe(agentId);
+
+        Set<DataWithMediaType> frame = lastAgentFrames.get(agentId);
+        if (frame != null) {
+            subscription.offer(frame);
+        } else {
+            dirtyAgents.add(agentId);
+        }
+        return subscription.getEmitter();
+    }
+
+    // ===================== CHANGE NOTIFICATIONS =====================
+    @Override
+    public void bookingChanged(Long agentId) {
+        // stats are read after the writer's commit, otherwise a push could miss the change
+        TransactionHooks.afterCommit(() -> {
+            adminDirty.set(true);
+            markAgent(agentId);
+        });
+    }
+
+    @Override
+    public void packageChanged(Long agentId) {
+        TransactionHooks.afterCommit(() -> {
+            adminDirty.set(true);
+            markAgent(agentId);
+        });
+    }
+
+    @Override
+    public void usersChanged() {
+        TransactionHooks.afterCommit(() -> adminDirty.set(true));
+    }
+
+    // ===================== PUSH =====================
+    // at most one frame per subscriber per interval, however many changes happened
+    @Scheduled(fixedDelayString = "${dashboard.stream.interval-ms:2000}")
+    public void publish() {
+        if (adminDirty.getAndSet(false)) {
+            if (adminSubscribers.isEmpty()) {
+                lastAdminFrame = null;
+            } else {
+                Set<DataWithMediaType> frame = SseSubscription.frame(ADMIN_EVENT, toJson(statsService.getAdminStats()));
+                lastAdminFrame = frame;
+                adminSubscribers.forEach(sub -> sub.offer(frame));
+            }
+        }
+
+        Iterator<Long> it = dirtyAgents.iterator();
+        while (it.hasNext()) {
+            Long agentId = it.next();
+            it.remove();
+            if (!agentSubscribers.hasSubscribers(agentId)) {
+                lastAgentFrames.remove(agentId);
+                continue;
+            }
+            Set<DataWithMediaType> frame = SseSubscription.frame(AGENT_EVENT, toJson(statsService.getAgentStats(agentId)));
+            lastAgentFrames.put(agentId, frame);
+            agentSubscribers.publish(agentId, frame);
+        }
+    }
+
+    // keeps proxies from closing idle connections and surfaces dead ones
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> frame = SseSubscription.heartbeat();
+        adminSubscribers.forEach(sub -> sub.offer(frame));
+        agentSubscribers.publishAll(frame);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void markAgent(Long agentId) {
+        if (agentId != null) {
+            dirtyAgents.add(agentId);
+        }
+    }
+
+    private String toJson(Object stats) {
+        try {
+            return objectMapper.writeValueAsString(stats);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize dashboard stats", e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.odyssey.service.impl;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.odyssey.repository.UserRepository;
+import com.odyssey.service.EmailLookupService;
+import com.odyssey.utils.BloomFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+// Local Bloom filter over users.email. Its negatives are only exact for users this instance
+// inserted since the last rebuild, so a miss still goes to the database unless
+// email-filter.authoritative says every user is created through this instance. That is off by
+// default: until an operator opts in, the filter only measures what it would have saved.
+@Service
+public class EmailLookupServiceImpl implements EmailLookupService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailLookupServiceImpl.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${email-filter.min-expected-insertions:100000}")
+    private long minExpectedInsertions;
+
+    @Value("${email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${email-filter.authoritative:false}")
+    private boolean authoritative;
+
+    private volatile BloomFilter filter;
+    // set while a rebuild streams the table, so concurrent inserts land in both filters
+    private volatile BloomFilter rebuilding;
+
+    private Counter negatives;
+    private Counter positives;
+    private Counter falsePositives;
+    private Counter missed;
+
+    @PostConstruct
+    void init() {
+        rebuild();
+
+        negatives = meterRegistry.counter("email.filter.lookups", "result", "negative");
+        positives = meterRegistry.counter("email.filter.lookups", "result", "positive");
+        falsePositives = meterRegistry.counter("email.filter.false.positives");
+        // registered emails the filter said no to; must stay 0 before turning on email-filter.authoritative
+        missed = meterRegistry.counter("email.filter.missed");
+        Gauge.builder("email.filter.expected.fpp", this, s -> s.filter.expectedFalsePositiveRate())
+                .register(meterRegistry);
+        Gauge.builder("email.filter.observed.fpp", this,
+                s -> s.positives.count() == 0 ? 0 : s.falsePositives.count() / s.positives.count())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean mightExist(String email) {
+        if (email == null) {
+            return false;
+        }
+        boolean possible = filter.mightContain(normalize(email));
+        (possible ? positives : negatives).increment();
+        return possible || !authoritative;
+    }
+
+    @Override
+    public boolean exists(String email) {
+        if (!mightExist(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        recordLookup(email, exists);
+        return exists;
+    }
+
+    @Override
+    public void add(String email) {
+        String key = normalize(email);
+        // rebuilding before filter: a rebuild that ends in between has already published its
+        // filter, one that starts later streams a snapshot taken after the insert committed
+        BloomFilter next = rebuilding;
+        filter.add(key);
+        if (next != null) {
+            next.add(key);
+        }
+    }
+
+    @Override
+    public void recordLookup(String email, boolean found) {
+        boolean possible = filter.mightContain(normalize(email));
+        if (found && !possible) {
+            missed.increment();
+            add(email);
+        } else if (!found && possible) {
+            falsePositives.increment();
+        }
+    }
+
+    // resizes the filter as the table grows and picks up users created by other nodes
+    @Scheduled(fixedDelayString = "${email-filter.rebuild-interval-ms:900000}",
+            initialDelayString = "${email-filter.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        long expected = Math.max(minExpectedInsertions, userRepository.count() * 2);
+        BloomFilter next = new BloomFilter(expected, falsePositiveRate);
+        rebuilding = next;
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(true);
+            tx.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(email -> next.add(normalize(email)));
+                }
+            });
+            filter = next;
+        } finally {
+            rebuilding = null;
+        }
+        log.info("Email Bloom filter built with {} entries, expected false-positive rate {}",
+                next.getInsertions(), String.format("%.4f", next.expectedFalsePositiveRate()));
+    }
+
+    // lower-casing can only merge keys, never split them, so negatives stay exact
+    private String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
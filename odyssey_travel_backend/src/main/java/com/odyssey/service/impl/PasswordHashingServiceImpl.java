@@ -0,0 +1,173 @@
+package com.odyssey.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.odyssey.exception.ServiceUnavailableException;
+import com.odyssey.service.PasswordHashingService;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+@Timed("odyssey.service")
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingServiceImpl.class);
+
+    private static final int CALIBRATION_ROUNDS = 5;
+
+    @Value("${auth.password.target-hash-ms:250}")
+    private long targetHashMillis;
+
+    @Value("${auth.password.min-strength:10}")
+    private int minStrength;
+
+    @Value("${auth.password.max-strength:14}")
+    private int maxStrength;
+
+    // 0 means one thread per available core
+    @Value("${auth.password.threads:0}")
+    private int threads;
+
+    @Value("${auth.password.queue-limit:64}")
+    private int queueLimit;
+
+    @Value("${auth.password.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private BCryptPasswordEncoder encoder;
+    private String dummyHash;
+    private int workFactor;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        workFactor = calibrate();
+        encoder = new BCryptPasswordEncoder(workFactor);
+        dummyHash = encoder.encode(UUID.randomUUID().toString());
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueLimit),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        if (!isBcrypt(storedPassword)) {
+            // legacy plaintext row, migrated by the caller through needsRehash()
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return submit(() -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    @Override
+    public boolean matchesNothing(String rawPassword) {
+        submit(() -> encoder.matches(rawPassword != null ? rawPassword : "", dummyHash));
+        return false;
+    }
+
+    @Override
+    public boolean needsRehash(String storedPassword) {
+        return !isBcrypt(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    @Override
+    public int getWorkFactor() {
+        return workFactor;
+    }
+
+    @Override
+    public String hashForImport(String rawOrHashedPassword) {
+        return isBcrypt(rawOrHashedPassword) ? rawOrHashedPassword : encoder.encode(rawOrHashedPassword);
+    }
+
+    // hashing is CPU bound; keeping it on its own bounded pool stops a login burst from
+    // occupying every request thread, overflow is shed with a 503 instead of queueing forever
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many login attempts in progress, please retry");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Password check timed out, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password check interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // picks the highest bcrypt cost whose hash time stays under the target on this hardware;
+    // each cost step doubles the work so one measurement at the minimum is enough to extrapolate
+    private int calibrate() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration-warmup");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            probe.encode("calibration-" + i);
+        }
+        double millisAtMin = (System.nanoTime() - start) / 1_000_000d / CALIBRATION_ROUNDS;
+
+        int strength = minStrength;
+        double millis = millisAtMin;
+        while (strength < maxStrength && millis * 2 <= targetHashMillis) {
+            strength++;
+            millis *= 2;
+        }
+        log.info("BCrypt work factor {} (~{} ms per hash, ~{} logins/sec per core)",
+                strength, Math.round(millis), String.format("%.1f", 1000d / millis));
+        return strength;
+    }
+
+    private boolean isBcrypt(String storedPassword) {
+        return storedPassword != null && storedPassword.length() == 60
+                && (storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$")
+                        || storedPassword.startsWith("$2y$"));
+    }
+}
@@ -1,27 +1,428 @@
 package com.odyssey.service.impl;
 
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.odyssey.dto.PaymentRequestDTO;
+import com.odyssey.dto.GatewayChargeRequest;
+import com.odyssey.dto.GatewayChargeResult;
+import com.odyssey.dto.PaymentDto;
+import com.odyssey.dto.PaymentGatewayHealthDto;
+import com.odyssey.entity.Booking;
+import com.odyssey.entity.BookingStatus;
 import com.odyssey.entity.Payment;
+import com.odyssey.entity.PaymentStatus;
+import com.odyssey.exception.PaymentGatewayException;
+import com.odyssey.exception.ResourceNotFoundException;
+import com.odyssey.exception.ServiceUnavailableException;
+import com.odyssey.repository.BookingRepository;
+import com.odyssey.repository.PaymentRepository;
+import com.odyssey.service.DashboardStreamService;
+import com.odyssey.service.PaymentGateway;
 import com.odyssey.service.PaymentService;
+import com.odyssey.service.TrendingService;
+import com.odyssey.utils.CircuitBreaker;
+import com.odyssey.utils.Money;
+import com.odyssey.utils.TransactionHooks;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Service
+@Timed("odyssey.service")
 @Transactional
 public class PaymentServiceImpl implements PaymentService {
 
+	private static final Logger log = LoggerFactory.getLogger(PaymentServiceImpl.class);
+
+	private static final int MAX_BACKOFF_FACTOR = 16;
+
+	@Autowired
+	private PaymentGateway gateway;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private TrendingService trendingService;
+
+	@Autowired
+	private DashboardStreamService dashboardStreamService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${payment.gateway.timeout-ms:2000}")
+	private long timeoutMillis;
+
+	// bulkhead: gateway calls run on their own bounded pool, so a slow gateway ties up at most
+	// this many threads and never the request pool; overflow is rejected at once
+	@Value("${payment.gateway.max-concurrent:32}")
+	private int maxConcurrent;
+
+	@Value("${payment.gateway.queue-limit:64}")
+	private int queueLimit;
+
+	@Value("${payment.breaker.window-size:50}")
+	private int breakerWindow;
+
+	@Value("${payment.breaker.min-calls:20}")
+	private int breakerMinCalls;
+
+	@Value("${payment.breaker.failure-rate:0.5}")
+	private double breakerFailureRate;
+
+	@Value("${payment.breaker.open-ms:10000}")
+	private long breakerOpenMillis;
+
+	// must stay well above timeout-ms: an unknown outcome is only looked up after this delay
+	@Value("${payment.retry.delay-ms:15000}")
+	private long retryDelayMillis;
+
+	@Value("${payment.retry.max-attempts:5}")
+	private int maxAttempts;
+
+	@Value("${payment.retry.batch-size:100}")
+	private int retryBatchSize;
+
+	private CircuitBreaker breaker;
+	private ThreadPoolExecutor executor;
+	private TransactionTemplate tx;
+
+	@PostConstruct
+	void init() {
+		breaker = new CircuitBreaker(breakerWindow, breakerMinCalls, breakerFailureRate, breakerOpenMillis);
+		AtomicInteger counter = new AtomicInteger();
+		executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueLimit),
+				r -> {
+					Thread t = new Thread(r, "payment-gateway-" + counter.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+		tx = new TransactionTemplate(transactionManager);
+
+		// 0 closed, 1 half-open, 2 open
+		Gauge.builder("payment.gateway.breaker.state", this,
+				s -> s.breaker.getState() == CircuitBreaker.State.CLOSED ? 0
+						: s.breaker.getState() == CircuitBreaker.State.HALF_OPEN ? 1 : 2)
+				.register(meterRegistry);
+		Gauge.builder("payment.gateway.breaker.failure.rate", this, s -> s.breaker.getFailureRate())
+				.register(meterRegistry);
+		Gauge.builder("payment.gateway.bulkhead.active", this, s -> s.executor.getActiveCount())
+				.register(meterRegistry);
+		Gauge.builder("payment.gateway.bulkhead.queued", this, s -> s.executor.getQueue().size())
+				.register(meterRegistry);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdown();
+	}
+
+	// ===================== CREATE =====================
 	@Override
-	public Payment savePaymentDetails(PaymentRequestDTO payment) {
-		// TODO Auto-generated method stub
-		return null;
+	public Payment createPendingPayment(Booking booking, Money amount, String paymentMethod) {
+		if (amount == null || !amount.isPositive()) {
+			throw new IllegalArgumentException("Payment amount must be positive");
+		}
+		LocalDateTime now = LocalDateTime.now();
+		Payment payment = new Payment();
+		payment.setAmount(amount);
+		payment.setPaymentMethod(paymentMethod != null ? paymentMethod : "CARD");
+		payment.setPaymentStatus(PaymentStatus.PENDING);
+		payment.setIdempotencyKey(UUID.randomUUID().toString());
+		// the request thread charges it right after commit; the sweeper only steps in if it never does
+		payment.setNextAttemptAt(now.plusNanos(retryDelayMillis * 1_000_000L));
+		payment.setCreatedAt(now);
+		payment.setUpdatedAt(now);
+		payment.setBooking(booking);
+		booking.setPayment(payment);
+		return paymentRepository.save(payment);
 	}
 
+	// ===================== CHARGE =====================
 	@Override
-	public PaymentRequestDTO getPaymentDetails(Long PaymentID, Long UserID) {
-		// TODO Auto-generated method stub
-		return null;
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public PaymentDto processPayment(Long paymentId) {
+		GatewayChargeRequest request = paymentRepository.findChargeRequest(paymentId)
+				.orElseThrow(() -> new ResourceNotFoundException("Payment not found " + paymentId));
+		LocalDateTime now = LocalDateTime.now();
+		Integer started = tx.execute(s -> paymentRepository.startAttempt(paymentId,
+				now.plusNanos(retryDelayMillis * 1_000_000L), now));
+		if (started == null || started == 0) {
+			// already being charged elsewhere, or finished
+			return getPayment(paymentId);
+		}
+
+		try {
+			settle(paymentId, callGateway(() -> gateway.charge(request)));
+		} catch (ServiceUnavailableException e) {
+			// never reached the gateway: safe to try again later
+			retryLater(paymentId, e.getMessage());
+		} catch (PaymentGatewayException e) {
+			// outcome unknown; stays PROCESSING and the sweeper asks the gateway at next_attempt_at
+			log.warn("Payment {} charge outcome unknown: {}", paymentId, e.getMessage());
+		}
+		return getPayment(paymentId);
 	}
 
+	// picks up payments whose request thread gave up or died, and unknown outcomes. Its gateway calls
+	// block for up to timeout-ms each, which is why spring.task.scheduling.pool.size is above 1
+	@Scheduled(fixedDelayString = "${payment.retry.interval-ms:5000}",
+			initialDelayString = "${payment.retry.interval-ms:5000}")
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void retryDuePayments() {
+		PageRequest batch = PageRequest.ofSize(retryBatchSize);
+		for (Long paymentId : paymentRepository.findDue(PaymentStatus.PROCESSING, LocalDateTime.now(), batch)) {
+			if (breaker.getState() == CircuitBreaker.State.OPEN) {
+				return;
+			}
+			resolveUnknown(paymentId);
+		}
+		for (Long paymentId : paymentRepository.findDue(PaymentStatus.PENDING, LocalDateTime.now(), batch)) {
+			// no point burning attempts while the gateway is known to be down
+			if (breaker.getState() == CircuitBreaker.State.OPEN) {
+				return;
+			}
+			processPayment(paymentId);
+		}
+		for (Long paymentId : paymentRepository.findDue(PaymentStatus.REFUNDING, LocalDateTime.now(), batch)) {
+			if (breaker.getState() == CircuitBreaker.State.OPEN) {
+				return;
+			}
+			resolveRefund(paymentId);
+		}
+	}
+
+	private void resolveUnknown(Long paymentId) {
+		GatewayChargeRequest request = paymentRepository.findChargeRequest(paymentId).orElse(null);
+		if (request == null) {
+			return;
+		}
+		try {
+			callGateway(() -> gateway.lookup(request.getIdempotencyKey())).ifPresentOrElse(
+					result -> settle(paymentId, result),
+					// the charge never arrived, so repeating it with the same key is safe
+					() -> retryLater(paymentId, "Charge did not reach the gateway"));
+		} catch (ServiceUnavailableException | PaymentGatewayException e) {
+			LocalDateTime now = LocalDateTime.now();
+			tx.executeWithoutResult(s -> paymentRepository.transition(paymentId, PaymentStatus.PROCESSING,
+					PaymentStatus.PROCESSING, null, e.getMessage(), now.plusNanos(retryDelayMillis * 1_000_000L), now));
+		}
+	}
+
+	private void settle(Long paymentId, GatewayChargeResult result) {
+		if (result.isApproved()) {
+			finish(paymentId, PaymentStatus.PROCESSING, PaymentStatus.SUCCEEDED, result.getReference(), null);
+		} else {
+			finish(paymentId, PaymentStatus.PROCESSING, PaymentStatus.FAILED, result.getReference(),
+					result.getDeclineReason() != null ? result.getDeclineReason() : "Payment declined");
+		}
+	}
+
+	private void retryLater(Long paymentId, String reason) {
+		int attempts = paymentRepository.findAttempts(paymentId);
+		if (attempts >= maxAttempts) {
+			finish(paymentId, PaymentStatus.PROCESSING, PaymentStatus.FAILED, null, reason);
+			return;
+		}
+		transition(PaymentStatus.PROCESSING, PaymentStatus.PENDING);
+		long backoff = retryDelayMillis * Math.min(1L << Math.max(0, attempts - 1), MAX_BACKOFF_FACTOR);
+		LocalDateTime now = LocalDateTime.now();
+		tx.executeWithoutResult(s -> paymentRepository.transition(paymentId, PaymentStatus.PROCESSING,
+				PaymentStatus.PENDING, null, reason, now.plusNanos(backoff * 1_000_000L), now));
+	}
+
+	// terminal (or refund) transition of the payment together with its booking, in one transaction
+	private boolean finish(Long paymentId, PaymentStatus from, PaymentStatus to, String reference, String reason) {
+		transition(from, to);
+		LocalDateTime now = LocalDateTime.now();
+		Boolean moved = tx.execute(s -> {
+			if (paymentRepository.transition(paymentId, from, to, reference, reason, null, now) == 0) {
+				return false;
+			}
+			Booking booking = paymentRepository.findById(paymentId).orElseThrow().getBooking();
+			bookingRepository.updateStatus(booking.getBookingId(),
+					to == PaymentStatus.SUCCEEDED ? BookingStatus.CONFIRMED : BookingStatus.CANCELLED);
+			Long packageId = booking.getTravelPackage().getPackageId();
+			if (to == PaymentStatus.SUCCEEDED) {
+				TransactionHooks.afterCommit(() -> trendingService.recordBooking(packageId));
+			}
+			dashboardStreamService.bookingChanged(booking.getTravelPackage().getAgent().getId());
+			return true;
+		});
+		if (!Boolean.TRUE.equals(moved)) {
+			return false;
+		}
+		meterRegistry.counter("payments.finished", "status", to.name()).increment();
+		return true;
+	}
+
+	private static void transition(PaymentStatus from, PaymentStatus to) {
+		if (from != to && !from.canTransitionTo(to)) {
+			throw new IllegalStateException("Payment cannot move from " + from + " to " + to);
+		}
+	}
+
+	// timeout + circuit breaker + bulkhead around every gateway call.
+	// ServiceUnavailableException: the call was not made. PaymentGatewayException: outcome unknown.
+	private <T> T callGateway(Callable<T> call) {
+		if (!breaker.tryAcquire()) {
+			meterRegistry.counter("payment.gateway.rejected", "reason", "circuit-open").increment();
+			throw new ServiceUnavailableException("Payment gateway is unavailable, please retry shortly");
+		}
+		Future<T> future;
+		try {
+			future = executor.submit(call);
+		} catch (RejectedExecutionException e) {
+			breaker.release();
+			meterRegistry.counter("payment.gateway.rejected", "reason", "bulkhead-full").increment();
+			throw new ServiceUnavailableException("Payment gateway is busy, please retry shortly");
+		}
+		try {
+			T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+			breaker.onSuccess();
+			return result;
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			breaker.onFailure();
+			meterRegistry.counter("payment.gateway.failures", "reason", "timeout").increment();
+			throw new PaymentGatewayException("Payment gateway timed out");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			breaker.release();
+			throw new PaymentGatewayException("Payment gateway call interrupted", e);
+		} catch (ExecutionException e) {
+			breaker.onFailure();
+			meterRegistry.counter("payment.gateway.failures", "reason", "error").increment();
+			if (e.getCause() instanceof PaymentGatewayException gatewayException) {
+				throw gatewayException;
+			}
+			throw new PaymentGatewayException("Payment gateway call failed", e.getCause());
+		}
+	}
+
+	// ===================== REFUND =====================
+	// Claimed with a conditional SUCCEEDED -> REFUNDING update before the gateway is called, so of two
+	// concurrent refunds only one reaches it. The call carries a key derived from the charge's, so the
+	// sweeper can repeat a refund whose outcome is unknown without refunding twice.
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public PaymentDto refundPayment(Long paymentId) {
+		PaymentDto payment = getPayment(paymentId);
+		if (!payment.getStatus().canTransitionTo(PaymentStatus.REFUNDING)) {
+			throw new IllegalArgumentException("Only succeeded payments can be refunded");
+		}
+		LocalDateTime now = LocalDateTime.now();
+		Integer claimed = tx.execute(s -> paymentRepository.transition(paymentId, PaymentStatus.SUCCEEDED,
+				PaymentStatus.REFUNDING, null, null, now.plusNanos(retryDelayMillis * 1_000_000L), now));
+		if (claimed == null || claimed == 0) {
+			// another request is refunding it, or already has
+			return getPayment(paymentId);
+		}
+
+		GatewayChargeResult result;
+		try {
+			result = callGateway(refundCall(paymentId));
+		} catch (ServiceUnavailableException e) {
+			// never reached the gateway: the payment is simply not refunded
+			cancelRefund(paymentId, e.getMessage());
+			throw e;
+		} catch (PaymentGatewayException e) {
+			// outcome unknown; stays REFUNDING and the sweeper repeats it with the same key
+			log.warn("Payment {} refund outcome unknown: {}", paymentId, e.getMessage());
+			return getPayment(paymentId);
+		}
+		if (!result.isApproved()) {
+			cancelRefund(paymentId, result.getDeclineReason());
+			throw new IllegalArgumentException("Refund was declined: " + result.getDeclineReason());
+		}
+		finish(paymentId, PaymentStatus.REFUNDING, PaymentStatus.REFUNDED, null, null);
+		return getPayment(paymentId);
+	}
+
+	private void resolveRefund(Long paymentId) {
+		try {
+			GatewayChargeResult result = callGateway(refundCall(paymentId));
+			if (result.isApproved()) {
+				finish(paymentId, PaymentStatus.REFUNDING, PaymentStatus.REFUNDED, null, null);
+			} else {
+				cancelRefund(paymentId, result.getDeclineReason());
+			}
+		} catch (ServiceUnavailableException | PaymentGatewayException e) {
+			LocalDateTime now = LocalDateTime.now();
+			tx.executeWithoutResult(s -> paymentRepository.transition(paymentId, PaymentStatus.REFUNDING,
+					PaymentStatus.REFUNDING, null, e.getMessage(), now.plusNanos(retryDelayMillis * 1_000_000L), now));
+		}
+	}
+
+	private Callable<GatewayChargeResult> refundCall(Long paymentId) {
+		PaymentDto payment = getPayment(paymentId);
+		String key = paymentRepository.findChargeRequest(paymentId).orElseThrow().getIdempotencyKey() + ":refund";
+		return () -> gateway.refund(payment.getGatewayReference(), payment.getAmount(), key);
+	}
+
+	// back to SUCCEEDED; the booking was never touched
+	private void cancelRefund(Long paymentId, String reason) {
+		transition(PaymentStatus.REFUNDING, PaymentStatus.SUCCEEDED);
+		LocalDateTime now = LocalDateTime.now();
+		tx.executeWithoutResult(s -> paymentRepository.transition(paymentId, PaymentStatus.REFUNDING,
+				PaymentStatus.SUCCEEDED, null, reason != null ? reason : "Refund declined", null, now));
+	}
+
+	// ===================== READ =====================
+	@Override
+	@Transactional(readOnly = true)
+	public PaymentDto getPayment(Long paymentId) {
+		return paymentRepository.findDtoById(paymentId)
+				.orElseThrow(() -> new ResourceNotFoundException("Payment not found " + paymentId));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PaymentDto getPaymentForBooking(Long bookingId) {
+		return paymentRepository.findDtoByBookingId(bookingId)
+				.orElseThrow(() -> new ResourceNotFoundException("No payment for booking " + bookingId));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PaymentGatewayHealthDto getGatewayHealth() {
+		return new PaymentGatewayHealthDto(gateway.getName(), breaker.getState().name(), breaker.getFailureRate(),
+				executor.getActiveCount(), executor.getQueue().size(),
+				paymentRepository.countByPaymentStatus(PaymentStatus.PENDING),
+				paymentRepository.countByPaymentStatus(PaymentStatus.PROCESSING));
+	}
 }
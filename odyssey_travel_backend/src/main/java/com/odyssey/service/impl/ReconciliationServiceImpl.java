@@ -0,0 +1,659 @@
+package com.odyssey.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.odyssey.entity.PaymentStatus;
+import com.odyssey.entity.ReconciliationMismatch;
+import com.odyssey.entity.ReconciliationMismatchType;
+import com.odyssey.entity.ReconciliationRange;
+import com.odyssey.entity.ReconciliationRun;
+import com.odyssey.entity.ReconciliationStatus;
+import com.odyssey.exception.ResourceNotFoundException;
+import com.odyssey.repository.ReconciliationMismatchRepository;
+import com.odyssey.repository.ReconciliationRangeRepository;
+import com.odyssey.repository.ReconciliationRunRepository;
+import com.odyssey.service.ReconciliationService;
+import com.odyssey.utils.CsvLineParser;
+import com.odyssey.utils.Money;
+import com.odyssey.utils.SortedCsvFile;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Nightly payments-vs-settlement reconciliation.
+//
+// The settlement file (payment_id,gateway_reference,amount,status[,...], sorted by payment_id)
+// and the payments that changed on the settlement day are both walked in payment id order and
+// merge-joined, so memory stays at one ledger chunk plus one read buffer per worker whatever the
+// file size. The id space is cut into ranges holding equal shares of those payments and worked in
+// parallel; each worker seeks straight to its range in the file and pages the table by keyset.
+// Mismatches and the range checkpoint commit together every chunk-size ids, so a restarted run
+// redoes at most one chunk per range. Every resume bumps the run's epoch and every write checks
+// it, so workers of a run that was taken over stop at their next checkpoint instead of writing
+// alongside the new ones.
+@Service
+@Timed("odyssey.service")
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationServiceImpl.class);
+
+    private static final String LEDGER_COLUMNS = "select payment_id, amount, payment_status, gateway_reference, updated_at"
+            + " from payments";
+
+    // the ledger side of a run: payments whose status last changed on the settlement day
+    private static final String LEDGER_CHUNK = LEDGER_COLUMNS + " where payment_id > ? and payment_id <= ?"
+            + " and updated_at >= ? and updated_at < ? order by payment_id limit ?";
+
+    // a settled payment that changed on another day, e.g. refunded since
+    private static final String LEDGER_ROW = LEDGER_COLUMNS + " where payment_id = ?";
+
+    private static final String LEDGER_BOUNDS = "select min(payment_id), max(payment_id) from payments"
+            + " where updated_at >= ? and updated_at < ?";
+
+    // last id of each of n equal shares of the day's payments
+    private static final String LEDGER_SPLITS = "select max(payment_id) from (select payment_id,"
+            + " ntile(?) over (order by payment_id) part from payments where updated_at >= ? and updated_at < ?) t"
+            + " group by part order by 1";
+
+    // only the run's current owner may write; 0 rows means it was taken over
+    private static final String HEARTBEAT = "update reconciliation_runs set heartbeat_at = ? where id = ? and epoch = ?";
+
+    private static final String INSERT_MISMATCH = "insert into reconciliation_mismatches (run_id, payment_id, type,"
+            + " ledger_amount, settlement_amount, ledger_status, settlement_status, gateway_reference, detail, created_at)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CHECKPOINT = "update reconciliation_ranges set last_payment_id = ?, done = ?,"
+            + " ledger_rows = ?, settlement_rows = ?, mismatches = ?, updated_at = ? where id = ?";
+
+    private static final String FINISH_RUN = "update reconciliation_runs r set status = ?, failure_reason = ?,"
+            + " finished_at = ?, ledger_rows = s.ledger_rows, settlement_rows = s.settlement_rows, mismatches = s.mismatches"
+            + " from (select coalesce(sum(ledger_rows), 0) ledger_rows, coalesce(sum(settlement_rows), 0) settlement_rows,"
+            + " coalesce(sum(mismatches), 0) mismatches from reconciliation_ranges where run_id = ?) s"
+            + " where r.id = ? and r.epoch = ?";
+
+    private static final int MAX_DETAIL = 1000;
+
+    @Autowired
+    private ReconciliationRunRepository runRepository;
+
+    @Autowired
+    private ReconciliationRangeRepository rangeRepository;
+
+    @Autowired
+    private ReconciliationMismatchRepository mismatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${reconciliation.settlement-dir:./data/settlements}")
+    private String settlementDir;
+
+    @Value("${reconciliation.parallelism:4}")
+    private int parallelism;
+
+    // more ranges than workers so a dense id region does not leave one worker running alone
+    @Value("${reconciliation.ranges-per-worker:4}")
+    private int rangesPerWorker;
+
+    @Value("${reconciliation.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${reconciliation.stale-after-minutes:10}")
+    private long staleAfterMinutes;
+
+    // one run at a time per node; its ranges fan out to a worker pool of their own
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "reconciliation");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private TransactionTemplate tx;
+
+    @PostConstruct
+    void init() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    // yesterday's file; picks up an unfinished run for the same date instead of starting over
+    @Scheduled(cron = "${reconciliation.cron:0 30 2 * * *}")
+    public void reconcileYesterday() {
+        LocalDate date = LocalDate.now().minusDays(1);
+        ReconciliationRun previous = runRepository.findFirstBySettlementDateOrderByIdDesc(date).orElse(null);
+        try {
+            if (previous == null) {
+                startRun(date);
+            } else if (previous.getStatus() != ReconciliationStatus.COMPLETED) {
+                resumeRun(previous.getId());
+            }
+        } catch (ResourceNotFoundException | IllegalArgumentException e) {
+            log.warn("Nightly reconciliation for {} not started: {}", date, e.getMessage());
+        }
+    }
+
+    // ===================== START / RESUME =====================
+    @Override
+    public ReconciliationRun startRun(LocalDate settlementDate) {
+        Path file = Path.of(settlementDir, "settlement-" + settlementDate + ".csv");
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("No settlement file for " + settlementDate);
+        }
+        runRepository.findFirstBySettlementDateOrderByIdDesc(settlementDate)
+                .filter(run -> run.getStatus() == ReconciliationStatus.RUNNING && !isStale(run))
+                .ifPresent(run -> {
+                    throw new IllegalArgumentException("Reconciliation for " + settlementDate + " is already running");
+                });
+
+        long fileSize;
+        Long firstKey;
+        Long lastKey;
+        try (SortedCsvFile csv = new SortedCsvFile(file)) {
+            fileSize = csv.size();
+            firstKey = csv.firstKey();
+            lastKey = csv.lastKey();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read settlement file " + file, e);
+        }
+        Timestamp from = Timestamp.valueOf(settlementDate.atStartOfDay());
+        Timestamp until = Timestamp.valueOf(settlementDate.plusDays(1).atStartOfDay());
+        Long[] ledgerBounds = jdbcTemplate.queryForObject(LEDGER_BOUNDS,
+                (rs, n) -> new Long[] { (Long) rs.getObject(1), (Long) rs.getObject(2) }, from, until);
+        long low = min(firstKey, ledgerBounds[0]);
+        long high = max(lastKey, ledgerBounds[1]);
+        int rangeCount = Math.max(1, parallelism * rangesPerWorker);
+        List<Long> splits = ledgerBounds[0] == null ? List.of()
+                : jdbcTemplate.queryForList(LEDGER_SPLITS, Long.class, rangeCount, from, until);
+
+        LocalDateTime now = LocalDateTime.now();
+        ReconciliationRun run = tx.execute(s -> {
+            ReconciliationRun created = new ReconciliationRun();
+            created.setSettlementDate(settlementDate);
+            created.setFilePath(file.toAbsolutePath().toString());
+            created.setFileSize(fileSize);
+            created.setStatus(ReconciliationStatus.RUNNING);
+            created.setStartedAt(now);
+            created.setHeartbeatAt(now);
+            created = runRepository.save(created);
+
+            List<ReconciliationRange> ranges = splitRange(created.getId(), low, high, splits, rangeCount, now);
+            created.setRangeCount(ranges.size());
+            rangeRepository.saveAll(ranges);
+            return created;
+        });
+        submit(run.getId(), file, run.getEpoch());
+        return run;
+    }
+
+    @Override
+    public ReconciliationRun resumeRun(Long runId) {
+        ReconciliationRun run = getRun(runId);
+        if (run.getStatus() == ReconciliationStatus.COMPLETED) {
+            throw new IllegalArgumentException("Reconciliation run " + runId + " has already completed");
+        }
+        Path file = Path.of(run.getFilePath());
+        try {
+            if (Files.size(file) != run.getFileSize()) {
+                throw new IllegalArgumentException("Settlement file changed since run " + runId + " started, start a new run");
+            }
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("Settlement file " + file + " is no longer readable");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = tx.execute(s -> runRepository.claimForResume(runId, now, now.minusMinutes(staleAfterMinutes)));
+        if (claimed == null || claimed == 0) {
+            throw new IllegalArgumentException("Reconciliation run " + runId + " is still in progress");
+        }
+        ReconciliationRun resumed = getRun(runId);
+        submit(runId, file, resumed.getEpoch());
+        return resumed;
+    }
+
+    private void submit(Long runId, Path file, long epoch) {
+        coordinator.submit(() -> execute(runId, file, epoch));
+    }
+
+    private void execute(Long runId, Path file, long epoch) {
+        ReconciliationRun run = getRun(runId);
+        LedgerWindow window = new LedgerWindow(runId, epoch, run.getSettlementDate().atStartOfDay(),
+                run.getSettlementDate().plusDays(1).atStartOfDay());
+        List<ReconciliationRange> pending = rangeRepository.findByRunIdAndDoneFalseOrderByRangeIndex(runId);
+        long start = System.nanoTime();
+
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "reconciliation-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (ReconciliationRange range : pending) {
+                futures.add(workers.submit(() -> reconcileRange(range, file, window)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            finishRun(window, ReconciliationStatus.COMPLETED, null);
+            log.info("Reconciliation run {} completed in {} ms", runId, (System.nanoTime() - start) / 1_000_000);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RunTakenOverException) {
+                log.warn("Reconciliation run {} was resumed elsewhere, this worker stopped", runId);
+                return;
+            }
+            log.error("Reconciliation run {} failed", runId, e.getCause());
+            finishRun(window, ReconciliationStatus.FAILED, String.valueOf(e.getCause().getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finishRun(window, ReconciliationStatus.FAILED, "Interrupted");
+        } catch (RuntimeException e) {
+            log.error("Reconciliation run {} failed", runId, e);
+            finishRun(window, ReconciliationStatus.FAILED, String.valueOf(e.getMessage()));
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // a no-op for an owner that was taken over
+    private void finishRun(LedgerWindow window, ReconciliationStatus status, String reason) {
+        String trimmed = reason != null && reason.length() > MAX_DETAIL ? reason.substring(0, MAX_DETAIL) : reason;
+        jdbcTemplate.update(FINISH_RUN, status.name(), trimmed, Timestamp.valueOf(LocalDateTime.now()), window.runId,
+                window.runId, window.epoch);
+    }
+
+    // ===================== MERGE-JOIN =====================
+    private void reconcileRange(ReconciliationRange range, Path file, LedgerWindow window) {
+        RangeProgress progress = new RangeProgress(range);
+        // unreadable lines belong to the range of the id before them, the file's head to the first
+        // range; reading from the checkpointed id lets the source tell whose they are
+        boolean ownsHead = range.getRangeIndex() == 0 && range.getLastPaymentId() < range.getStartId();
+        try (SortedCsvFile csv = new SortedCsvFile(file);
+                BufferedReader reader = csv.readerAt(ownsHead ? csv.dataStart() : csv.seek(range.getLastPaymentId()))) {
+            SettlementSource settlement = new SettlementSource(reader, range.getLastPaymentId(), range.getEndId(),
+                    ownsHead);
+            LedgerSource ledger = new LedgerSource(range.getLastPaymentId(), range.getEndId(), window);
+            SettlementLine s = settlement.next();
+            LedgerRow l = ledger.hasNext() ? ledger.next() : null;
+            int sinceCheckpoint = 0;
+
+            while (s != null || l != null) {
+                if (s != null && s.paymentId == null) {
+                    progress.add(mismatch(range, ReconciliationMismatchType.MALFORMED_LINE, null, s,
+                            "Unreadable settlement line: " + s.raw));
+                    s = settlement.next();
+                    continue;
+                }
+                long key;
+                if (s != null && l != null && s.paymentId == l.paymentId) {
+                    key = l.paymentId;
+                    compare(range, progress, l, s, window);
+                    progress.ledgerRows++;
+                    progress.settlementRows++;
+                    l = ledger.hasNext() ? ledger.next() : null;
+                    s = settlement.next();
+                } else if (l != null && (s == null || l.paymentId < s.paymentId)) {
+                    key = l.paymentId;
+                    if (expectedSettlement(l.status) != null) {
+                        progress.add(mismatch(range, ReconciliationMismatchType.MISSING_IN_SETTLEMENT, l, null,
+                                "Not in the settlement file"));
+                    }
+                    progress.ledgerRows++;
+                    l = ledger.hasNext() ? ledger.next() : null;
+                } else {
+                    key = s.paymentId;
+                    LedgerRow other = ledgerRow(s.paymentId);
+                    if (other == null) {
+                        progress.add(mismatch(range, ReconciliationMismatchType.MISSING_IN_LEDGER, null, s,
+                                "No payment with this id"));
+                    } else {
+                        compare(range, progress, other, s, window);
+                    }
+                    progress.settlementRows++;
+                    s = settlement.next();
+                }
+                // every settlement line up to the next id (duplicates of this one, unreadable lines
+                // after it) must be consumed before the id can be checkpointed
+                while (s != null && (s.paymentId == null || s.paymentId == key)) {
+                    if (s.paymentId == null) {
+                        progress.add(mismatch(range, ReconciliationMismatchType.MALFORMED_LINE, null, s,
+                                "Unreadable settlement line: " + s.raw));
+                    } else {
+                        progress.add(mismatch(range, ReconciliationMismatchType.DUPLICATE_IN_SETTLEMENT, null, s,
+                                "Payment settled more than once"));
+                        progress.settlementRows++;
+                    }
+                    s = settlement.next();
+                }
+                if (++sinceCheckpoint >= chunkSize) {
+                    checkpoint(range, progress, key, false, window);
+                    sinceCheckpoint = 0;
+                }
+            }
+            checkpoint(range, progress, range.getEndId(), true, window);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading settlement file failed", e);
+        }
+    }
+
+    private void compare(ReconciliationRange range, RangeProgress progress, LedgerRow l, SettlementLine s,
+            LedgerWindow window) {
+        String expected = expectedSettlement(l.status);
+        if (PaymentStatus.REFUNDED.name().equals(l.status) && !l.updatedAt.isBefore(window.until)) {
+            // refunded after the settlement day, which still saw the charge
+            expected = "SETTLED";
+        }
+        if (expected == null || !expected.equalsIgnoreCase(s.status)) {
+            progress.add(mismatch(range, ReconciliationMismatchType.STATUS_MISMATCH, l, s,
+                    "Ledger " + l.status + ", settlement " + s.status));
+        } else if (s.amount == null || l.amount.compareTo(s.amount) != 0) {
+            progress.add(mismatch(range, ReconciliationMismatchType.AMOUNT_MISMATCH, l, s,
+                    "Ledger " + l.amount + ", settlement " + s.amount));
+        }
+    }
+
+    // what the gateway should report for a payment in this state, null when it should not appear at all
+    private static String expectedSettlement(String ledgerStatus) {
+        if (PaymentStatus.SUCCEEDED.name().equals(ledgerStatus)) {
+            return "SETTLED";
+        }
+        if (PaymentStatus.REFUNDED.name().equals(ledgerStatus)) {
+            return "REFUNDED";
+        }
+        // a refund still in flight: the gateway may not have booked it yet
+        if (PaymentStatus.REFUNDING.name().equals(ledgerStatus)) {
+            return "SETTLED";
+        }
+        return null;
+    }
+
+    private Object[] mismatch(ReconciliationRange range, ReconciliationMismatchType type,
+            LedgerRow l, SettlementLine s, String detail) {
+        Long paymentId = l != null ? Long.valueOf(l.paymentId) : s.paymentId;
+        String reference = s != null && s.reference != null ? s.reference : l != null ? l.reference : null;
+        String trimmed = detail.length() > MAX_DETAIL ? detail.substring(0, MAX_DETAIL) : detail;
+        return new Object[] { range.getRunId(), paymentId, type.name(),
+                l != null ? l.amount : null, s != null ? s.amount : null,
+                l != null ? l.status : null, s != null ? s.status : null,
+                reference, trimmed, Timestamp.valueOf(LocalDateTime.now()) };
+    }
+
+    private LedgerRow ledgerRow(long paymentId) {
+        List<LedgerRow> rows = jdbcTemplate.query(LEDGER_ROW, ReconciliationServiceImpl::ledgerRow, paymentId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static LedgerRow ledgerRow(ResultSet rs, int n) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new LedgerRow(rs.getLong("payment_id"), Money.ofMinor(rs.getLong("amount")).toDecimal(),
+                rs.getString("payment_status"), rs.getString("gateway_reference"),
+                updatedAt != null ? updatedAt.toLocalDateTime() : LocalDateTime.MIN);
+    }
+
+    // mismatches found since the last checkpoint and the new checkpoint land in one transaction,
+    // behind the run's row lock; nothing lands once another worker has resumed the run
+    private void checkpoint(ReconciliationRange range, RangeProgress progress, long lastPaymentId, boolean done,
+            LedgerWindow window) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        tx.executeWithoutResult(status -> {
+            if (jdbcTemplate.update(HEARTBEAT, now, window.runId, window.epoch) == 0) {
+                throw new RunTakenOverException();
+            }
+            if (!progress.pending.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_MISMATCH, progress.pending);
+            }
+            jdbcTemplate.update(CHECKPOINT, lastPaymentId, done, progress.ledgerRows, progress.settlementRows,
+                    progress.mismatches, now, range.getId());
+        });
+        progress.pending.clear();
+    }
+
+    // cut at the day's payment splits; with none (no payments that day) in equal id widths
+    private static List<ReconciliationRange> splitRange(Long runId, long low, long high, List<Long> splits, int count,
+            LocalDateTime now) {
+        List<ReconciliationRange> ranges = new ArrayList<>();
+        if (high < low) {
+            return ranges;
+        }
+        List<Long> ends = new ArrayList<>();
+        if (splits.isEmpty()) {
+            long width = Math.max(1, (high - low) / count + 1);
+            for (long end = low + width - 1; end < high; end += width) {
+                ends.add(end);
+            }
+        } else {
+            ends.addAll(splits);
+        }
+        long start = low;
+        for (long end : ends) {
+            if (end >= start && end < high) {
+                ranges.add(range(runId, ranges.size(), start, end, now));
+                start = end + 1;
+            }
+        }
+        ranges.add(range(runId, ranges.size(), start, high, now));
+        return ranges;
+    }
+
+    private static ReconciliationRange range(Long runId, int index, long start, long end, LocalDateTime now) {
+        ReconciliationRange range = new ReconciliationRange();
+        range.setRunId(runId);
+        range.setRangeIndex(index);
+        range.setStartId(start);
+        range.setEndId(end);
+        range.setLastPaymentId(start - 1);
+        range.setUpdatedAt(now);
+        return range;
+    }
+
+    private boolean isStale(ReconciliationRun run) {
+        return run.getHeartbeatAt() == null
+                || run.getHeartbeatAt().isBefore(LocalDateTime.now().minusMinutes(staleAfterMinutes));
+    }
+
+    private static long min(Long a, Long b) {
+        return a == null ? (b == null ? 1 : b) : b == null ? a : Math.min(a, b);
+    }
+
+    private static long max(Long a, Long b) {
+        return a == null ? (b == null ? 0 : b) : b == null ? a : Math.max(a, b);
+    }
+
+    // ===================== READ =====================
+    @Override
+    public ReconciliationRun getRun(Long runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reconciliation run not found " + runId));
+    }
+
+    @Override
+    public List<ReconciliationRun> getRecentRuns() {
+        return runRepository.findTop20ByOrderByIdDesc();
+    }
+
+    @Override
+    public List<ReconciliationRange> getRanges(Long runId) {
+        return rangeRepository.findByRunIdOrderByRangeIndex(runId);
+    }
+
+    @Override
+    public Page<ReconciliationMismatch> getMismatches(Long runId, ReconciliationMismatchType type, Pageable pageable) {
+        return type == null
+                ? mismatchRepository.findByRunId(runId, pageable)
+                : mismatchRepository.findByRunIdAndType(runId, type, pageable);
+    }
+
+    // ===================== SOURCES =====================
+    private static final class RangeProgress {
+        private long ledgerRows;
+        private long settlementRows;
+        private long mismatches;
+        private final List<Object[]> pending = new ArrayList<>();
+
+        RangeProgress(ReconciliationRange range) {
+            this.ledgerRows = range.getLedgerRows();
+            this.settlementRows = range.getSettlementRows();
+            this.mismatches = range.getMismatches();
+        }
+
+        void add(Object[] mismatch) {
+            pending.add(mismatch);
+            mismatches++;
+        }
+    }
+
+    private record LedgerRow(long paymentId, BigDecimal amount, String status, String reference,
+            LocalDateTime updatedAt) {
+    }
+
+    // what one execution of a run reads and who it writes as
+    private record LedgerWindow(Long runId, long epoch, LocalDateTime from, LocalDateTime until) {
+    }
+
+    // the run was resumed by another worker since this one claimed it
+    private static final class RunTakenOverException extends RuntimeException {
+        RunTakenOverException() {
+            super("Reconciliation run was resumed elsewhere");
+        }
+    }
+
+    // paymentId null marks a line that could not be parsed
+    private record SettlementLine(Long paymentId, String reference, BigDecimal amount, String status, String raw) {
+    }
+
+    // payments in id order, one keyset chunk in memory at a time
+    private final class LedgerSource implements Iterator<LedgerRow> {
+        private final long endId;
+        private final LedgerWindow window;
+        private long after;
+        private List<LedgerRow> chunk = List.of();
+        private int position;
+        private boolean exhausted;
+
+        LedgerSource(long after, long endId, LedgerWindow window) {
+            this.after = after;
+            this.endId = endId;
+            this.window = window;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < chunk.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            chunk = jdbcTemplate.query(LEDGER_CHUNK, ReconciliationServiceImpl::ledgerRow, after, endId,
+                    Timestamp.valueOf(window.from), Timestamp.valueOf(window.until), chunkSize);
+            position = 0;
+            exhausted = chunk.size() < chunkSize;
+            if (chunk.isEmpty()) {
+                return false;
+            }
+            after = chunk.get(chunk.size() - 1).paymentId;
+            return true;
+        }
+
+        @Override
+        public LedgerRow next() {
+            return chunk.get(position++);
+        }
+    }
+
+    // settlement lines of one id range, streamed from at or before the first id after afterId; fails
+    // fast if the file is not sorted. Lines of ids up to afterId were handled before (by an earlier
+    // range or before a checkpoint), and so were the unreadable lines following them; unreadable
+    // lines before any id belong to whichever range ownsHead.
+    private static final class SettlementSource {
+        private final BufferedReader reader;
+        private final long afterId;
+        private final long endId;
+        private final boolean ownsHead;
+        private long previous = Long.MIN_VALUE;
+
+        SettlementSource(BufferedReader reader, long afterId, long endId, boolean ownsHead) {
+            this.reader = reader;
+            this.afterId = afterId;
+            this.endId = endId;
+            this.ownsHead = ownsHead;
+        }
+
+        SettlementLine next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                SettlementLine parsed = parse(line);
+                if (parsed.paymentId == null) {
+                    if (previous == Long.MIN_VALUE ? ownsHead : previous > afterId) {
+                        return parsed;
+                    }
+                    continue;
+                }
+                if (parsed.paymentId < previous) {
+                    throw new IllegalStateException("Settlement file is not sorted by payment id at id " + parsed.paymentId);
+                }
+                previous = parsed.paymentId;
+                if (parsed.paymentId <= afterId) {
+                    continue;
+                }
+                return parsed.paymentId > endId ? null : parsed;
+            }
+            return null;
+        }
+
+        private static SettlementLine parse(String line) {
+            List<String> fields = CsvLineParser.parse(line);
+            if (fields.size() < 4) {
+                return new SettlementLine(null, null, null, null, line);
+            }
+            try {
+                return new SettlementLine(Long.valueOf(fields.get(0).trim()), fields.get(1).trim(),
+                        new BigDecimal(fields.get(2).trim()).setScale(2, RoundingMode.HALF_UP),
+                        fields.get(3).trim().toUpperCase(), line);
+            } catch (NumberFormatException | ArithmeticException e) {
+                return new SettlementLine(null, null, null, null, line);
+            }
+        }
+    }
+}
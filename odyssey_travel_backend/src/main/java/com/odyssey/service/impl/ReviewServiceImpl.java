@@ -0,0 +1,328 @@
+package com.odyssey.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.odyssey.dto.RatingSummaryDto;
+import com.odyssey.dto.ReviewDto;
+import com.odyssey.dto.ReviewFeedDto;
+import com.odyssey.dto.ReviewRequestDto;
+import com.odyssey.dto.ReviewVoteRequestDto;
+import com.odyssey.entity.BookingStatus;
+import com.odyssey.entity.PackageRatingSummary;
+import com.odyssey.entity.Review;
+import com.odyssey.entity.ReviewVote;
+import com.odyssey.entity.TravelPackage;
+import com.odyssey.entity.User;
+import com.odyssey.exception.ResourceNotFoundException;
+import com.odyssey.repository.BookingRepository;
+import com.odyssey.repository.PackageRatingSummaryRepository;
+import com.odyssey.repository.ReviewRepository;
+import com.odyssey.repository.ReviewVoteRepository;
+import com.odyssey.repository.TravelPackageRepository;
+import com.odyssey.repository.UserRepository;
+import com.odyssey.service.ReviewService;
+import com.odyssey.utils.TransactionHooks;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+@Service
+@Timed("odyssey.service")
+public class ReviewServiceImpl implements ReviewService {
+
+    private static final int MAX_COMMENT_LENGTH = 2000;
+    private static final int MAX_FEED_SIZE = 50;
+    // 95% confidence for the Wilson interval
+    private static final double Z = 1.96;
+
+    // Adds one review to the package's totals in a single statement and hands back the new
+    // totals, so concurrent reviews of the same package serialise on the summary row only.
+    private static final String ADD_TO_SUMMARY = "insert into package_rating_summaries"
+            + " (package_id, review_count, rating_sum, stars1, stars2, stars3, stars4, stars5, updated_at)"
+            + " values (?, 1, ?, ?, ?, ?, ?, ?, ?)"
+            + " on conflict (package_id) do update set"
+            + " review_count = package_rating_summaries.review_count + 1,"
+            + " rating_sum = package_rating_summaries.rating_sum + excluded.rating_sum,"
+            + " stars1 = package_rating_summaries.stars1 + excluded.stars1,"
+            + " stars2 = package_rating_summaries.stars2 + excluded.stars2,"
+            + " stars3 = package_rating_summaries.stars3 + excluded.stars3,"
+            + " stars4 = package_rating_summaries.stars4 + excluded.stars4,"
+            + " stars5 = package_rating_summaries.stars5 + excluded.stars5,"
+            + " updated_at = excluded.updated_at"
+            + " returning package_id, review_count, rating_sum, stars1, stars2, stars3, stars4, stars5";
+
+    // totals only grow, so whichever has more reviews is newer: a slower commit or a reload that
+    // read the table before a review landed must not overwrite fresher totals
+    private static final BinaryOperator<RatingSummaryDto> NEWER =
+            (current, next) -> next.getReviewCount() >= current.getReviewCount() ? next : current;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ReviewVoteRepository reviewVoteRepository;
+
+    @Autowired
+    private PackageRatingSummaryRepository packageRatingSummaryRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // one small entry per reviewed package; catalog listings read ratings from here
+    private final Map<Long, RatingSummaryDto> summaries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        reload();
+        Gauge.builder("cache.size", summaries, Map::size).tag("cache", "rating-summaries").register(meterRegistry);
+    }
+
+    // picks up reviews written through other instances; one row per package, never the reviews
+    @Scheduled(fixedDelayString = "${reviews.summary-refresh-ms:60000}",
+            initialDelayString = "${reviews.summary-refresh-ms:60000}")
+    public void reload() {
+        for (PackageRatingSummary row : packageRatingSummaryRepository.findAll()) {
+            summaries.merge(row.getPackageId(), toDto(row.getPackageId(), row.getReviewCount(), row.getRatingSum(),
+                    new long[] { row.getStars1(), row.getStars2(), row.getStars3(), row.getStars4(), row.getStars5() }),
+                    NEWER);
+        }
+    }
+
+    // ===================== CREATE =====================
+    @Override
+    @Transactional
+    public ReviewDto createReview(Long packageId, ReviewRequestDto request) {
+        if (request.getUserId() == null) {
+            throw new IllegalArgumentException("User is required");
+        }
+        if (request.getRating() < 1 || request.getRating() > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        if (request.getComment() != null && request.getComment().length() > MAX_COMMENT_LENGTH) {
+            throw new IllegalArgumentException("Comment is limited to " + MAX_COMMENT_LENGTH + " characters");
+        }
+        TravelPackage travelPackage = travelPackageRepository.findById(packageId)
+                .orElseThrow(() -> new ResourceNotFoundException("Package not found " + packageId));
+        User client = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found " + request.getUserId()));
+        if (!bookingRepository.existsByUser_IdAndTravelPackage_PackageIdAndBookingStatus(
+                client.getId(), packageId, BookingStatus.CONFIRMED)) {
+            throw new IllegalArgumentException("Only travellers with a confirmed booking can review this package");
+        }
+        if (reviewRepository.existsByClient_IdAndTravelPackage_PackageId(client.getId(), packageId)) {
+            throw new IllegalArgumentException("You have already reviewed this package");
+        }
+
+        // micros, as stored, so a feed cursor built from this value matches the row
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Review review = new Review();
+        review.setRating(request.getRating());
+        review.setComment(request.getComment());
+        review.setClient(client);
+        review.setTravelPackage(travelPackage);
+        review.setCreatedAt(now);
+        try {
+            // flushed here so a concurrent duplicate fails before the summary is touched
+            review = reviewRepository.saveAndFlush(review);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("You have already reviewed this package");
+        }
+
+        int rating = request.getRating();
+        RatingSummaryDto summary = jdbcTemplate.queryForObject(ADD_TO_SUMMARY, (rs, n) -> toDto(
+                rs.getLong("package_id"), rs.getLong("review_count"), rs.getLong("rating_sum"),
+                new long[] { rs.getLong("stars1"), rs.getLong("stars2"), rs.getLong("stars3"),
+                        rs.getLong("stars4"), rs.getLong("stars5") }),
+                packageId, rating,
+                rating == 1 ? 1 : 0, rating == 2 ? 1 : 0, rating == 3 ? 1 : 0, rating == 4 ? 1 : 0, rating == 5 ? 1 : 0,
+                Timestamp.valueOf(now));
+        TransactionHooks.afterCommit(() -> summaries.merge(packageId, summary, NEWER));
+        meterRegistry.counter("reviews.created", "rating", String.valueOf(rating)).increment();
+
+        return new ReviewDto(review.getReviewId(), packageId, client.getId(),
+                client.getFirstName() + " " + client.getLastName(), rating, review.getComment(), now, 0, 0, 0);
+    }
+
+    // ===================== VOTE =====================
+    @Override
+    @Transactional
+    public ReviewDto voteReview(Long packageId, Long reviewId, ReviewVoteRequestDto request) {
+        if (request.getUserId() == null) {
+            throw new IllegalArgumentException("User is required");
+        }
+        // row lock first: concurrent votes on this review queue here, so the counter and
+        // score updates below never interleave and no vote is lost
+        Review review = reviewRepository.findByIdForUpdate(reviewId)
+                .filter(r -> r.getTravelPackage().getPackageId().equals(packageId))
+                .orElseThrow(() -> new ResourceNotFoundException("Review not found " + reviewId));
+        User voter = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found " + request.getUserId()));
+        if (review.getClient().getId().equals(voter.getId())) {
+            throw new IllegalArgumentException("You cannot vote on your own review");
+        }
+
+        ReviewVote vote = reviewVoteRepository.findByReview_ReviewIdAndVoter_Id(reviewId, voter.getId()).orElse(null);
+        if (vote == null) {
+            vote = new ReviewVote();
+            vote.setReview(review);
+            vote.setVoter(voter);
+            vote.setHelpful(request.isHelpful());
+            vote.setCreatedAt(LocalDateTime.now());
+            reviewVoteRepository.save(vote);
+            adjustVotes(review, request.isHelpful(), 1);
+        } else if (vote.isHelpful() != request.isHelpful()) {
+            adjustVotes(review, vote.isHelpful(), -1);
+            adjustVotes(review, request.isHelpful(), 1);
+            vote.setHelpful(request.isHelpful());
+        }
+        review.setHelpfulScore(wilsonLowerBound(review.getHelpfulVotes(), review.getUnhelpfulVotes()));
+        meterRegistry.counter("reviews.votes", "helpful", String.valueOf(request.isHelpful())).increment();
+
+        User client = review.getClient();
+        return new ReviewDto(review.getReviewId(), packageId, client.getId(),
+                client.getFirstName() + " " + client.getLastName(), review.getRating(), review.getComment(),
+                review.getCreatedAt(), review.getHelpfulVotes(), review.getUnhelpfulVotes(), review.getHelpfulScore());
+    }
+
+    private static void adjustVotes(Review review, boolean helpful, int delta) {
+        if (helpful) {
+            review.setHelpfulVotes(review.getHelpfulVotes() + delta);
+        } else {
+            review.setUnhelpfulVotes(review.getUnhelpfulVotes() + delta);
+        }
+    }
+
+    // Lower bound of the 95% Wilson interval for the helpful share: 8 of 10 ranks above
+    // 1 of 1, and a review with no helpful votes scores 0 (exactly, the formula rounds below it).
+    static double wilsonLowerBound(int helpful, int unhelpful) {
+        if (helpful == 0) {
+            return 0;
+        }
+        int n = helpful + unhelpful;
+        double p = (double) helpful / n;
+        double z2 = Z * Z;
+        return (p + z2 / (2 * n) - Z * Math.sqrt((p * (1 - p) + z2 / (4 * n)) / n)) / (1 + z2 / n);
+    }
+
+    // ===================== READ =====================
+    @Override
+    public ReviewFeedDto getReviewFeed(Long packageId, String sort, String cursor, int size) {
+        boolean helpful = "helpful".equalsIgnoreCase(sort);
+        if (!helpful && sort != null && !"recent".equalsIgnoreCase(sort)) {
+            throw new IllegalArgumentException("Unknown review sort: " + sort);
+        }
+        int limit = Math.max(1, Math.min(size, MAX_FEED_SIZE));
+        // one extra row tells us whether another slice exists without counting
+        Pageable fetch = PageRequest.ofSize(limit + 1);
+
+        List<ReviewDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = helpful
+                    ? reviewRepository.findMostHelpful(packageId, fetch)
+                    : reviewRepository.findRecent(packageId, fetch);
+        } else {
+            String[] key = decodeCursor(cursor, helpful ? "h" : "r");
+            Long reviewId;
+            double score = 0;
+            LocalDateTime createdAt = null;
+            try {
+                reviewId = Long.valueOf(key[2]);
+                if (helpful) {
+                    score = Double.parseDouble(key[1]);
+                } else {
+                    createdAt = LocalDateTime.parse(key[1]);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid review cursor");
+            }
+            rows = helpful
+                    ? reviewRepository.findMostHelpfulAfter(packageId, score, reviewId, fetch)
+                    : reviewRepository.findRecentAfter(packageId, createdAt, reviewId, fetch);
+        }
+
+        if (rows.size() <= limit) {
+            return new ReviewFeedDto(rows, null);
+        }
+        List<ReviewDto> slice = rows.subList(0, limit);
+        ReviewDto last = slice.get(limit - 1);
+        String next = helpful
+                ? encodeCursor("h", Double.toString(last.getHelpfulScore()), last.getReviewId())
+                : encodeCursor("r", last.getCreatedAt().toString(), last.getReviewId());
+        return new ReviewFeedDto(List.copyOf(slice), next);
+    }
+
+    // opaque to clients: "<sort>|<sort key>|<review id>", base64url
+    private static String encodeCursor(String sort, String key, Long reviewId) {
+        String raw = sort + "|" + key + "|" + reviewId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor, String expectedSort) {
+        String[] key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid review cursor");
+        }
+        // a cursor from the other sort order would silently skip or repeat rows
+        if (key.length != 3 || !key[0].equals(expectedSort)) {
+            throw new IllegalArgumentException("Invalid review cursor");
+        }
+        return key;
+    }
+
+    @Override
+    public RatingSummaryDto getSummary(Long packageId) {
+        return summaries.getOrDefault(packageId, RatingSummaryDto.empty(packageId));
+    }
+
+    @Override
+    public void applyRatings(Collection<TravelPackage> packages) {
+        packages.forEach(this::applyRatings);
+    }
+
+    @Override
+    public void applyRatings(TravelPackage travelPackage) {
+        RatingSummaryDto summary = summaries.get(travelPackage.getPackageId());
+        travelPackage.setReviewCount(summary != null ? summary.getReviewCount() : 0);
+        travelPackage.setAverageRating(summary != null ? summary.getAverageRating() : null);
+    }
+
+    private static RatingSummaryDto toDto(Long packageId, long count, long sum, long[] stars) {
+        double average = count == 0 ? 0 : Math.round(sum * 100.0 / count) / 100.0;
+        return new RatingSummaryDto(packageId, count, average, stars);
+    }
+}
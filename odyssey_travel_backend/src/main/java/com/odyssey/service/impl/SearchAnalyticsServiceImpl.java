@@ -0,0 +1,129 @@
+package com.odyssey.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.odyssey.dto.SearchAnalyticsDto;
+import com.odyssey.dto.SearchTermDto;
+import com.odyssey.entity.SearchTermStat;
+import com.odyssey.repository.SearchTermStatRepository;
+import com.odyssey.service.SearchAnalyticsService;
+import com.odyssey.utils.CountMinSketch;
+import com.odyssey.utils.TopKTracker;
+
+import jakarta.annotation.PostConstruct;
+
+@Service
+public class SearchAnalyticsServiceImpl implements SearchAnalyticsService {
+
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private SearchTermStatRepository searchTermStatRepository;
+
+    @Value("${analytics.search.sketch-width:2048}")
+    private int sketchWidth;
+
+    @Value("${analytics.search.sketch-depth:5}")
+    private int sketchDepth;
+
+    @Value("${analytics.search.top-k:50}")
+    private int topK;
+
+    private CountMinSketch searches;
+    private CountMinSketch unmatched;
+    private TopKTracker topSearches;
+    private TopKTracker topUnmatched;
+    private final LongAdder totalSearches = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        searches = new CountMinSketch(sketchWidth, sketchDepth);
+        unmatched = new CountMinSketch(sketchWidth, sketchDepth);
+        topSearches = new TopKTracker(topK);
+        topUnmatched = new TopKTracker(topK);
+
+        // restore the last persisted heavy hitters so rankings survive restarts
+        for (SearchTermStat stat : searchTermStatRepository.findAll()) {
+            if (stat.getSearchCount() > 0) {
+                topSearches.offer(stat.getTerm(), searches.add(stat.getTerm(), stat.getSearchCount()));
+                totalSearches.add(stat.getSearchCount());
+            }
+            if (stat.getUnmatchedCount() > 0) {
+                topUnmatched.offer(stat.getTerm(), unmatched.add(stat.getTerm(), stat.getUnmatchedCount()));
+            }
+        }
+    }
+
+    // ===================== RECORD =====================
+    @Override
+    public void recordSearch(String query, int resultCount) {
+        String term = normalize(query);
+        if (term.isEmpty()) {
+            return;
+        }
+        totalSearches.increment();
+        topSearches.offer(term, searches.add(term, 1));
+        if (resultCount == 0) {
+            topUnmatched.offer(term, unmatched.add(term, 1));
+        }
+    }
+
+    // ===================== REPORT =====================
+    @Override
+    public SearchAnalyticsDto getSearchAnalytics(int limit) {
+        return new SearchAnalyticsDto(
+                totalSearches.sum(),
+                ranked(topSearches, searches, limit),
+                ranked(topUnmatched, unmatched, limit));
+    }
+
+    // ===================== PERSIST =====================
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${analytics.search.flush-interval-ms:60000}",
+            initialDelayString = "${analytics.search.flush-interval-ms:60000}")
+    public void flush() {
+        Set<String> terms = new HashSet<>(topSearches.items());
+        terms.addAll(topUnmatched.items());
+        if (terms.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<SearchTermStat> stats = terms.stream()
+                .map(term -> new SearchTermStat(term, searches.estimate(term), unmatched.estimate(term), now))
+                .toList();
+        searchTermStatRepository.saveAll(stats);
+        searchTermStatRepository.deleteByTermNotIn(terms);
+    }
+
+    private List<SearchTermDto> ranked(TopKTracker tracker, CountMinSketch sketch, int limit) {
+        return tracker.items().stream()
+                .map(term -> new SearchTermDto(term, sketch.estimate(term)))
+                .sorted(Comparator.comparingLong(SearchTermDto::getCount).reversed())
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    private String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String term = WHITESPACE.matcher(query.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+    }
+}
@@ -0,0 +1,137 @@
+package com.odyssey.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.odyssey.dto.LoginResponseDto;
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.dto.UserResponseDto;
+import com.odyssey.entity.UserSession;
+import com.odyssey.repository.UserRepository;
+import com.odyssey.repository.UserSessionRepository;
+import com.odyssey.service.SessionService;
+import com.odyssey.utils.ExpiringCache;
+import com.odyssey.utils.TransactionHooks;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+@Service
+@Timed("odyssey.service")
+public class SessionServiceImpl implements SessionService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.session.ttl-hours:12}")
+    private long sessionTtlHours;
+
+    // how long a node trusts its cached copy before re-checking the database;
+    // bounds how stale a revocation made on another node can be
+    @Value("${auth.session.cache-ttl-ms:60000}")
+    private long cacheTtlMillis;
+
+    @Value("${auth.session.cache-max-size:50000}")
+    private int cacheMaxSize;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private ExpiringCache<String, SessionPrincipal> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new ExpiringCache<>(cacheTtlMillis, cacheMaxSize);
+        Gauge.builder("cache.size", cache, ExpiringCache::size).tag("cache", "sessions").register(meterRegistry);
+    }
+
+    // ===================== ISSUE =====================
+    @Override
+    @Transactional
+    public LoginResponseDto issueSession(UserResponseDto user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String tokenHash = hash(token);
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(sessionTtlHours);
+
+        UserSession session = new UserSession();
+        session.setTokenHash(tokenHash);
+        session.setUser(userRepository.getReferenceById(user.getId()));
+        session.setExpiresAt(expiresAt);
+        userSessionRepository.save(session);
+
+        cache.put(tokenHash, new SessionPrincipal(user.getId(), user.getRole(), expiresAt));
+        return new LoginResponseDto(user, token, expiresAt);
+    }
+
+    // ===================== RESOLVE =====================
+    @Override
+    public Optional<SessionPrincipal> resolve(String token) {
+        String tokenHash = hash(token);
+        LocalDateTime now = LocalDateTime.now();
+
+        SessionPrincipal cached = cache.get(tokenHash);
+        if (cached != null) {
+            return cached.getExpiresAt().isAfter(now) ? Optional.of(cached) : Optional.empty();
+        }
+
+        Optional<SessionPrincipal> principal = userSessionRepository.findActivePrincipal(tokenHash, now);
+        principal.ifPresent(p -> cache.put(tokenHash, p, Duration.between(now, p.getExpiresAt()).toMillis()));
+        return principal;
+    }
+
+    // ===================== REVOKE =====================
+    @Override
+    @Transactional
+    public void revoke(String token) {
+        String tokenHash = hash(token);
+        userSessionRepository.revokeByTokenHash(tokenHash);
+        // not before: a resolve in between would read the still-valid row and cache it again
+        TransactionHooks.afterCommit(() -> cache.remove(tokenHash));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(Long userId) {
+        userSessionRepository.revokeAllByUserId(userId);
+        TransactionHooks.afterCommit(() -> cache.removeIf(p -> p.getUserId().equals(userId)));
+    }
+
+    @Transactional
+    @Scheduled(cron = "${auth.session.cleanup-cron:0 30 3 * * *}")
+    public void deleteExpiredSessions() {
+        userSessionRepository.deleteExpired(LocalDateTime.now().minusDays(1));
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.odyssey.service.impl;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.odyssey.dto.GatewayChargeRequest;
+import com.odyssey.dto.GatewayChargeResult;
+import com.odyssey.exception.PaymentGatewayException;
+import com.odyssey.service.PaymentGateway;
+import com.odyssey.utils.ExpiringCache;
+import com.odyssey.utils.Money;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+// In-process stand-in for a card processor with tunable latency, error and decline rates,
+// used locally and for load tests that need a slow or flaky gateway on demand.
+@Service
+@Timed("odyssey.service")
+@ConditionalOnProperty(name = "payment.gateway.provider", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private static final long RETENTION_MS = 24 * 60 * 60 * 1000L;
+
+    @Value("${payment.simulated.latency-ms:150}")
+    private long latencyMillis;
+
+    @Value("${payment.simulated.jitter-ms:100}")
+    private long jitterMillis;
+
+    // transport errors; half of them strike after the charge went through (a lost response)
+    @Value("${payment.simulated.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${payment.simulated.decline-rate:0.02}")
+    private double declineRate;
+
+    @Value("${payment.simulated.max-records:200000}")
+    private int maxRecords;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ExpiringCache<String, GatewayChargeResult> charges;
+
+    @PostConstruct
+    void init() {
+        charges = new ExpiringCache<>(RETENTION_MS, maxRecords);
+        Gauge.builder("cache.size", charges, ExpiringCache::size).tag("cache", "simulated-gateway-charges")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return "simulated";
+    }
+
+    @Override
+    public GatewayChargeResult charge(GatewayChargeRequest request) {
+        pause();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < errorRate / 2) {
+            throw new PaymentGatewayException("Simulated gateway error");
+        }
+        GatewayChargeResult result = charges.computeIfAbsent(request.getIdempotencyKey(), key ->
+                random.nextDouble() < declineRate
+                        ? new GatewayChargeResult("sim_" + UUID.randomUUID(), false, "Card declined")
+                        : new GatewayChargeResult("sim_" + UUID.randomUUID(), true, null));
+        if (random.nextDouble() < errorRate / 2) {
+            throw new PaymentGatewayException("Simulated gateway error after charge");
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<GatewayChargeResult> lookup(String idempotencyKey) {
+        pause();
+        return Optional.ofNullable(charges.get(idempotencyKey));
+    }
+
+    @Override
+    public GatewayChargeResult refund(String reference, Money amount, String idempotencyKey) {
+        pause();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < errorRate / 2) {
+            throw new PaymentGatewayException("Simulated gateway error");
+        }
+        GatewayChargeResult result = charges.computeIfAbsent(idempotencyKey,
+                key -> new GatewayChargeResult("simr_" + UUID.randomUUID(), true, null));
+        if (random.nextDouble() < errorRate / 2) {
+            throw new PaymentGatewayException("Simulated gateway error after refund");
+        }
+        return result;
+    }
+
+    private void pause() {
+        long millis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Gateway call interrupted", e);
+        }
+    }
+}
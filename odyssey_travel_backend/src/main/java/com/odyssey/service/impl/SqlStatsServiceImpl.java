@@ -0,0 +1,249 @@
+package com.odyssey.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.odyssey.config.SqlInstrumentationProperties;
+import com.odyssey.dto.SlowQueryDto;
+import com.odyssey.dto.SqlEndpointStatsDto;
+import com.odyssey.dto.SqlStatsDto;
+import com.odyssey.service.SqlStatsService;
+import com.odyssey.utils.ExpiringCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+// Per-request SQL accounting. The JDBC proxy reports every execution here; statements on a thread
+// with an open request scope are counted against that request, grouped by shape (the SQL with
+// literals and IN-list lengths folded), so one shape repeated many times shows up as a likely N+1.
+@Service
+public class SqlStatsServiceImpl implements SqlStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsServiceImpl.class);
+
+    // distinct shapes tracked per request; a request past this is pathological anyway
+    private static final int MAX_SHAPES_PER_REQUEST = 256;
+    private static final int MAX_LOGGED_SQL_LENGTH = 1000;
+    private static final long REPORT_INTERVAL_MS = 600_000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final List<String> STATEMENT_TYPES = List.of("select", "insert", "update", "delete", "other");
+
+    @Autowired
+    private SqlInstrumentationProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ThreadLocal<RequestScope> scope = new ThreadLocal<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Deque<SlowQueryDto> slowQueries = new ArrayDeque<>();
+    // one warning per endpoint and shape per interval, a hot N+1 would flood the log otherwise
+    private final ExpiringCache<String, Boolean> reported = new ExpiringCache<>(REPORT_INTERVAL_MS, 10_000);
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    private volatile LocalDateTime since = LocalDateTime.now();
+
+    @PostConstruct
+    void init() {
+        for (String type : STATEMENT_TYPES) {
+            timers.put(type, meterRegistry.timer("sql.statements", "type", type));
+        }
+    }
+
+    // ===================== REQUEST SCOPE =====================
+    @Override
+    public void beginRequest(String request) {
+        scope.set(new RequestScope(request));
+    }
+
+    @Override
+    public int endRequest(String method, String uri) {
+        RequestScope current = scope.get();
+        if (current == null) {
+            return 0;
+        }
+        scope.remove();
+
+        String endpoint = method + " " + uri;
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, k -> new EndpointStats());
+        stats.requests.increment();
+        stats.statements.add(current.statements);
+        stats.nanos.add(current.nanos);
+        stats.maxStatements.accumulate(current.statements);
+        meterRegistry.summary("sql.request.statements", "method", method, "uri", uri).record(current.statements);
+
+        String repeated = null;
+        int repeats = 0;
+        for (Map.Entry<String, Integer> shape : current.shapes.entrySet()) {
+            if (shape.getValue() > repeats) {
+                repeated = shape.getKey();
+                repeats = shape.getValue();
+            }
+        }
+        if (repeats >= properties.getRepeatedStatementThreshold()) {
+            stats.repeatedStatementRequests.increment();
+            stats.lastRepeatedStatement = repeated;
+            stats.lastRepeatCount = repeats;
+            meterRegistry.counter("sql.request.repeated.statements", "method", method, "uri", uri).increment();
+            if (firstReport("repeat|" + endpoint + "|" + repeated)) {
+                log.warn("Possible N+1 on {}: {} executions of {}", endpoint, repeats, truncate(repeated));
+            }
+        }
+
+        int budget = properties.budgetFor(uri);
+        if (budget > 0 && current.statements > budget) {
+            stats.overBudgetRequests.increment();
+            meterRegistry.counter("sql.request.over.budget", "method", method, "uri", uri).increment();
+            if (firstReport("budget|" + endpoint)) {
+                log.warn("{} ran {} statements, over its budget of {}", endpoint, current.statements, budget);
+            }
+        }
+        return current.statements;
+    }
+
+    // ===================== STATEMENTS =====================
+    @Override
+    public void recordStatement(String sql, long nanos, Supplier<String> parameterTypes) {
+        timers.get(typeOf(sql)).record(nanos, TimeUnit.NANOSECONDS);
+
+        RequestScope current = scope.get();
+        String shape = null;
+        if (current != null) {
+            shape = shapeOf(sql);
+            current.statements++;
+            current.nanos += nanos;
+            if (current.shapes.size() < MAX_SHAPES_PER_REQUEST || current.shapes.containsKey(shape)) {
+                current.shapes.merge(shape, 1, Integer::sum);
+            }
+        }
+
+        if (nanos >= TimeUnit.MILLISECONDS.toNanos(properties.getSlowQueryMs())) {
+            if (shape == null) {
+                shape = shapeOf(sql);
+            }
+            String request = current != null ? current.request : null;
+            String types = parameterTypes.get();
+            double millis = nanos / 1_000_000d;
+            log.warn("Slow SQL ({} ms{}): {} params {}", String.format(Locale.ROOT, "%.1f", millis),
+                    request != null ? ", " + request : "", truncate(shape), types);
+            synchronized (slowQueries) {
+                slowQueries.addFirst(new SlowQueryDto(LocalDateTime.now(), request, millis, truncate(shape), types));
+                while (slowQueries.size() > properties.getSlowQueryHistory()) {
+                    slowQueries.removeLast();
+                }
+            }
+        }
+    }
+
+    // ===================== READ =====================
+    @Override
+    public SqlStatsDto getStats() {
+        List<SqlEndpointStatsDto> rows = new ArrayList<>();
+        endpoints.forEach((endpoint, stats) -> {
+            long requests = stats.requests.sum();
+            long statements = stats.statements.sum();
+            rows.add(new SqlEndpointStatsDto(endpoint, requests, statements,
+                    requests == 0 ? 0 : (double) statements / requests,
+                    stats.maxStatements.get(),
+                    requests == 0 ? 0 : stats.nanos.sum() / 1_000_000d / requests,
+                    stats.repeatedStatementRequests.sum(), stats.lastRepeatedStatement, stats.lastRepeatCount,
+                    stats.overBudgetRequests.sum()));
+        });
+        rows.sort(Comparator.comparingLong(SqlEndpointStatsDto::getStatements).reversed());
+        List<SlowQueryDto> slow;
+        synchronized (slowQueries) {
+            slow = new ArrayList<>(slowQueries);
+        }
+        return new SqlStatsDto(since, rows, slow);
+    }
+
+    @Override
+    public void reset() {
+        endpoints.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+        since = LocalDateTime.now();
+    }
+
+    // ===================== HELPERS =====================
+    private boolean firstReport(String key) {
+        if (reported.get(key) != null) {
+            return false;
+        }
+        reported.put(key, Boolean.TRUE);
+        return true;
+    }
+
+    // literals become ?, IN lists of any length become (?...), whitespace collapses
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private static String typeOf(String sql) {
+        String head = sql.stripLeading();
+        int end = 0;
+        while (end < head.length() && end < 6 && Character.isLetter(head.charAt(end))) {
+            end++;
+        }
+        String keyword = head.substring(0, end).toLowerCase(Locale.ROOT);
+        if (keyword.equals("with")) {
+            return "select";
+        }
+        return STATEMENT_TYPES.contains(keyword) ? keyword : "other";
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL_LENGTH ? sql : sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    // only ever touched by the request's own thread
+    private static final class RequestScope {
+        private final String request;
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int statements;
+        private long nanos;
+
+        private RequestScope(String request) {
+            this.request = request;
+        }
+    }
+
+    private static final class EndpointStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder repeatedStatementRequests = new LongAdder();
+        private final LongAdder overBudgetRequests = new LongAdder();
+        private volatile String lastRepeatedStatement;
+        private volatile int lastRepeatCount;
+    }
+}
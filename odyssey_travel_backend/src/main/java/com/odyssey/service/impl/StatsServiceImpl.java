@@ -1,6 +1,7 @@
 package com.odyssey.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import com.odyssey.dto.DashboardStatsDto;
@@ -8,19 +9,39 @@ import com.odyssey.dto.AgentStatsDto;
 import com.odyssey.dto.MonthlyTrendDto;
 import com.odyssey.entity.Role;
 import com.odyssey.entity.Status;
-import com.odyssey.entity.Booking;
-import com.odyssey.entity.TravelPackage;
-import com.odyssey.repository.BookingRepository;
-import com.odyssey.repository.PaymentRepository;
 import com.odyssey.repository.TravelPackageRepository;
 import com.odyssey.repository.UserRepository;
 import com.odyssey.service.StatsService;
+import com.odyssey.utils.Money;
 
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import io.micrometer.core.annotation.Timed;
+
+// All totals are computed by PostgreSQL: amounts are bigint minor units, so SUM is exact and
+// only one row per month comes back instead of every booking with its payment.
 @Service
+@Timed("odyssey.service")
 public class StatsServiceImpl implements StatsService {
 
+    private static final String[] MONTHS = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    private static final int TREND_MONTHS = 6;
+
+    private static final String TOTALS = "select count(*) as bookings,"
+            + " coalesce(sum(p.amount) filter (where p.payment_status = 'SUCCEEDED'), 0) as revenue"
+            + " from bookings b left join payments p on p.booking_id = b.booking_id";
+
+    private static final String MONTHLY = "select extract(month from b.travel_date)::int as month, count(*) as bookings,"
+            + " count(distinct b.customer_id) as customers,"
+            + " coalesce(sum(p.amount) filter (where p.payment_status = 'SUCCEEDED'), 0) as revenue"
+            + " from bookings b left join payments p on p.booking_id = b.booking_id";
+
+    private static final String AGENT_FILTER = " join travel_packages tp on tp.package_id = b.package_id where tp.agent_id = ?";
+
     @Autowired
     private UserRepository userRepository;
 
@@ -28,87 +49,75 @@ public class StatsServiceImpl implements StatsService {
     private TravelPackageRepository travelPackageRepository;
 
     @Autowired
-    private BookingRepository bookingRepository;
-
-    @Autowired
-    private PaymentRepository paymentRepository;
+    private JdbcTemplate jdbcTemplate;
 
     @Override
     public DashboardStatsDto getAdminStats() {
-        long totalCustomers = userRepository.findByRole(Role.CLIENT).size();
-        long totalAgents = userRepository.findByRole(Role.AGENT).size();
+        long totalCustomers = userRepository.countByRole(Role.CLIENT);
+        long totalAgents = userRepository.countByRole(Role.AGENT);
         long totalPackages = travelPackageRepository.count();
-        long pendingPackages = travelPackageRepository.findByStatus(Status.PENDING).size();
-        
-        List<Booking> allBookings = bookingRepository.findAll();
-        long totalBookings = allBookings.size();
-        
-        double totalRevenue = allBookings.stream()
-                .filter(b -> b.getPayment() != null && "PAID".equals(b.getPayment().getPaymentStatus()))
-                .mapToDouble(b -> b.getPayment().getAmount())
-                .sum();
-
-        // Generate Trends (Simple last 6 months)
+        long pendingPackages = travelPackageRepository.countByStatus(Status.PENDING);
+
+        Totals totals = jdbcTemplate.queryForObject(TOTALS,
+                (rs, n) -> new Totals(rs.getLong("bookings"), Money.ofMinor(rs.getLong("revenue"))));
+        Map<Integer, MonthlyTrendDto> months = monthlyTrend(MONTHLY + " where", null);
+
         List<MonthlyTrendDto> yoyData = new java.util.ArrayList<>();
         List<MonthlyTrendDto> revenueData = new java.util.ArrayList<>();
-        String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        
-        int currentMonth = java.time.LocalDate.now().getMonthValue();
-        for (int i = 0; i < 6; i++) {
-            int mIdx = (currentMonth - 6 + i + 12) % 12;
-            String mName = months[mIdx];
-            
-            long mBookings = allBookings.stream()
-                    .filter(b -> b.getTravelDate() != null && b.getTravelDate().getMonthValue() == (mIdx + 1))
-                    .count();
-            
-            long mCustomers = allBookings.stream()
-                    .filter(b -> b.getTravelDate() != null && b.getTravelDate().getMonthValue() == (mIdx + 1))
-                    .map(b -> b.getUser().getId())
-                    .distinct()
-                    .count();
-            
-            double mRev = allBookings.stream()
-                    .filter(b -> b.getTravelDate() != null && b.getTravelDate().getMonthValue() == (mIdx + 1))
-                    .filter(b -> b.getPayment() != null && "PAID".equals(b.getPayment().getPaymentStatus()))
-                    .mapToDouble(b -> b.getPayment().getAmount())
-                    .sum();
-            
-            yoyData.add(new MonthlyTrendDto(mName, mBookings, mCustomers, 0));
-            revenueData.add(new MonthlyTrendDto(mName, 0, 0, mRev));
+        for (MonthlyTrendDto month : orderedMonths(months)) {
+            yoyData.add(new MonthlyTrendDto(month.getMonth(), month.getCount(), month.getCustomers(), Money.ZERO));
+            revenueData.add(new MonthlyTrendDto(month.getMonth(), 0, 0, month.getAmount()));
         }
 
-        return new DashboardStatsDto(totalRevenue, totalBookings, totalCustomers, totalAgents, totalPackages, pendingPackages, yoyData, revenueData);
+        return new DashboardStatsDto(totals.revenue(), totals.bookings(), totalCustomers, totalAgents, totalPackages, pendingPackages, yoyData, revenueData);
     }
 
     @Override
     public AgentStatsDto getAgentStats(Long agentId) {
-        List<TravelPackage> agentPackages = travelPackageRepository.findByAgent_Id(agentId);
-        long totalPackages = agentPackages.size();
-        long pendingApprovals = agentPackages.stream().filter(p -> p.getStatus() == Status.PENDING).count();
-        
-        List<Booking> agentBookings = bookingRepository.findByTravelPackage_Agent_Id(agentId);
-        long activeBookings = agentBookings.size();
-        
-        double totalEarnings = agentBookings.stream()
-                .filter(b -> b.getPayment() != null && "PAID".equals(b.getPayment().getPaymentStatus()))
-                .mapToDouble(b -> b.getPayment().getAmount())
-                .sum();
-
-        // Agent Trends
+        long totalPackages = travelPackageRepository.countByAgent_Id(agentId);
+        long pendingApprovals = travelPackageRepository.countByAgent_IdAndStatus(agentId, Status.PENDING);
+
+        Totals totals = jdbcTemplate.queryForObject(TOTALS + AGENT_FILTER,
+                (rs, n) -> new Totals(rs.getLong("bookings"), Money.ofMinor(rs.getLong("revenue"))), agentId);
+        Map<Integer, MonthlyTrendDto> months = monthlyTrend(MONTHLY + AGENT_FILTER + " and", agentId);
+
         List<MonthlyTrendDto> trend = new java.util.ArrayList<>();
-        String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        int currentMonth = java.time.LocalDate.now().getMonthValue();
-        
-        for (int i = 0; i < 6; i++) {
-            int mIdx = (currentMonth - 6 + i + 12) % 12;
-            String mName = months[mIdx];
-            long count = agentBookings.stream()
-                    .filter(b -> b.getTravelDate() != null && b.getTravelDate().getMonthValue() == (mIdx + 1))
-                    .count();
-            trend.add(new MonthlyTrendDto(mName, count, 0, 0));
+        for (MonthlyTrendDto month : orderedMonths(months)) {
+            trend.add(new MonthlyTrendDto(month.getMonth(), month.getCount(), 0, Money.ZERO));
         }
 
-        return new AgentStatsDto(totalPackages, activeBookings, pendingApprovals, totalEarnings, trend);
+        return new AgentStatsDto(totalPackages, totals.bookings(), pendingApprovals, totals.revenue(), trend);
+    }
+
+    // the last six calendar months up to and including the current one, by travel date
+    private Map<Integer, MonthlyTrendDto> monthlyTrend(String sqlUpToWhere, Long agentId) {
+        LocalDate from = LocalDate.now().withDayOfMonth(1).minusMonths(TREND_MONTHS - 1);
+        LocalDate to = LocalDate.now().withDayOfMonth(1).plusMonths(1);
+        String sql = sqlUpToWhere + " b.travel_date >= ? and b.travel_date < ? group by 1";
+        Object[] args = agentId != null
+                ? new Object[] { agentId, Date.valueOf(from), Date.valueOf(to) }
+                : new Object[] { Date.valueOf(from), Date.valueOf(to) };
+
+        Map<Integer, MonthlyTrendDto> months = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            int month = rs.getInt("month");
+            months.put(month, new MonthlyTrendDto(MONTHS[month - 1], rs.getLong("bookings"), rs.getLong("customers"),
+                    Money.ofMinor(rs.getLong("revenue"))));
+        }, args);
+        return months;
+    }
+
+    // oldest first, months without bookings included as zeros
+    private List<MonthlyTrendDto> orderedMonths(Map<Integer, MonthlyTrendDto> months) {
+        List<MonthlyTrendDto> ordered = new java.util.ArrayList<>();
+        LocalDate month = LocalDate.now().withDayOfMonth(1).minusMonths(TREND_MONTHS - 1);
+        for (int i = 0; i < TREND_MONTHS; i++, month = month.plusMonths(1)) {
+            int m = month.getMonthValue();
+            ordered.add(months.getOrDefault(m, new MonthlyTrendDto(MONTHS[m - 1], 0, 0, Money.ZERO)));
+        }
+        return ordered;
+    }
+
+    private record Totals(long bookings, Money revenue) {
     }
 }
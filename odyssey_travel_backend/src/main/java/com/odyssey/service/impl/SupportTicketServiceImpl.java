@@ -1,26 +1,49 @@
 package com.odyssey.service.impl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.odyssey.dto.SessionPrincipal;
 import com.odyssey.dto.SupportTicketDTO;
 import com.odyssey.dto.SupportTicketResponseDTO;
+import com.odyssey.dto.SupportTicketSearchResultDto;
 import com.odyssey.entity.Booking;
 import com.odyssey.entity.Priority;
 import com.odyssey.entity.SupportTicket;
 import com.odyssey.entity.SupportTicketStatus;
+import com.odyssey.entity.TicketAutomationLog;
 import com.odyssey.entity.User;
+import com.odyssey.exception.ForbiddenException;
+import com.odyssey.exception.ResourceNotFoundException;
 import com.odyssey.repository.BookingRepository;
 import com.odyssey.repository.SupportTicketRepository;
 import com.odyssey.repository.UserRepository;
 import com.odyssey.service.SupportTicketService;
+import com.odyssey.service.TicketAutomationService;
+import com.odyssey.service.TicketDispatchService;
+import com.odyssey.service.TicketStreamService;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
+@Timed("odyssey.service")
 public class SupportTicketServiceImpl implements SupportTicketService {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final Pattern REFERENCE = Pattern.compile("(?<![\\w])#?(\\d{1,18})(?![\\w])");
+
     @Autowired
     private SupportTicketRepository supportTicketRepository;
 
@@ -30,6 +53,18 @@ public class SupportTicketServiceImpl implements SupportTicketService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private TicketDispatchService ticketDispatchService;
+
+    @Autowired
+    private TicketAutomationService ticketAutomationService;
+
+    @Autowired
+    private TicketStreamService ticketStreamService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // ===================== RAISE TICKET =====================
     @Override
     public SupportTicketResponseDTO raiseTicket(SupportTicketDTO dto) {
@@ -40,28 +75,37 @@ public class SupportTicketServiceImpl implements SupportTicketService {
         Booking booking = dto.getBookingId() != null
                 ? bookingRepository.findById(dto.getBookingId()).orElse(null)
                 : null;
+        // a ticket about a booking routes to that booking's agent, so it has to be the user's own
+        if (booking != null && !booking.getUser().getId().equals(user.getId())) {
+            throw new ForbiddenException("Booking " + dto.getBookingId() + " belongs to another user");
+        }
 
         SupportTicket ticket = new SupportTicket();
         ticket.setUser(user);
         ticket.setBooking(booking);
         ticket.setSubject(dto.getSubject());
         ticket.setDescription(dto.getDescription());
-        ticket.setPriority(dto.getPriority());
+        Priority priority = dto.getPriority() != null ? dto.getPriority() : Priority.MEDIUM;
+        LocalDateTime now = LocalDateTime.now();
+        ticket.setPriority(priority);
         ticket.setStatus(SupportTicketStatus.OPEN);
-        ticket.setCreatedAt(LocalDateTime.now());
-        ticket.setLastUpdatedAt(LocalDateTime.now());
+        ticket.setCreatedAt(now);
+        ticket.setLastUpdatedAt(now);
+        ticket.setSlaDueAt(ticketDispatchService.slaDeadline(priority, now));
 
         SupportTicket saved = supportTicketRepository.save(ticket);
-        return mapToDTO(saved);
+        ticketDispatchService.enqueue(saved.getTicketId(), agentIdOf(saved), priority, now, saved.getSlaDueAt());
+        SupportTicketResponseDTO created = mapToDTO(saved);
+        ticketStreamService.ticketCreated(created);
+        meterRegistry.counter("support.tickets.created", "priority", priority.name()).increment();
+        return created;
     }
 
     // ===================== GET USER TICKETS =====================
     @Override
     public List<SupportTicketResponseDTO> getTicketsByUser(Long userId) {
-        return supportTicketRepository.findByUser_Id(userId)
-                .stream()
-                .map(this::mapToDTO)
-                .toList();
+        return supportTicketRepository.findTicketPage(null, null, null, userId, Pageable.unpaged(Sort.by("ticketId")))
+                .getContent();
     }
 
     // ===================== UPDATE STATUS =====================
@@ -74,28 +118,109 @@ public class SupportTicketServiceImpl implements SupportTicketService {
         SupportTicket ticket = supportTicketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
 
+        boolean reopened = status == SupportTicketStatus.OPEN && ticket.getStatus() != SupportTicketStatus.OPEN;
+        LocalDateTime now = LocalDateTime.now();
         ticket.setStatus(status);
-        ticket.setLastUpdatedAt(LocalDateTime.now());
+        ticket.setLastUpdatedAt(now);
+        if (reopened) {
+            // back in the queue with a fresh first-response deadline
+            ticket.setClaimedBy(null);
+            if (ticket.getPriority() == null) {
+                ticket.setPriority(Priority.LOW);
+            }
+            ticket.setSlaDueAt(ticketDispatchService.slaDeadline(ticket.getPriority(), now));
+        }
 
         SupportTicket updated = supportTicketRepository.save(ticket);
-        return mapToDTO(updated);
+        if (reopened) {
+            ticketDispatchService.enqueue(updated.getTicketId(), agentIdOf(updated), updated.getPriority(),
+                    updated.getCreatedAt(), updated.getSlaDueAt());
+        } else if (status != SupportTicketStatus.OPEN) {
+            ticketDispatchService.remove(ticketId);
+        }
+        SupportTicketResponseDTO result = mapToDTO(updated);
+        ticketStreamService.ticketUpdated(result);
+        return result;
     }
 
     @Override
     public List<SupportTicketResponseDTO> getAllTickets() {
-        return supportTicketRepository.findAll()
-                .stream()
-                .map(this::mapToDTO)
-                .toList();
+        return supportTicketRepository.findTicketPage(null, null, null, null, Pageable.unpaged(Sort.by("ticketId")))
+                .getContent();
     }
 
     @Override
     public List<SupportTicketResponseDTO> getTicketsByAgent(Long agentId) {
         // Tickets linked to this agent's packages via bookings
-        return supportTicketRepository.findByBooking_TravelPackage_Agent_Id(agentId)
-                .stream()
+        return supportTicketRepository.findTicketPage(null, null, agentId, null, Pageable.unpaged(Sort.by("ticketId")))
+                .getContent();
+    }
+
+    @Override
+    public Page<SupportTicketResponseDTO> searchTickets(SupportTicketStatus status, Priority priority, Long agentId,
+            Long userId, Pageable pageable) {
+        return supportTicketRepository.findTicketPage(status, priority, agentId, userId, pageable);
+    }
+
+    // ===================== FULL-TEXT SEARCH =====================
+    @Override
+    public List<SupportTicketSearchResultDto> fullTextSearch(String query, SupportTicketStatus status,
+            Priority priority, Long agentId, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        List<Long> references = new ArrayList<>();
+        Matcher matcher = REFERENCE.matcher(query);
+        while (matcher.find()) {
+            references.add(Long.parseLong(matcher.group(1)));
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return supportTicketRepository.searchText(query.trim(), references, status, priority, agentId, boundedLimit);
+    }
+
+    @Override
+    public List<TicketAutomationLog> getAutomationLog(Long ticketId) {
+        return ticketAutomationService.getAutomationLog(ticketId);
+    }
+
+    @Override
+    public void checkAccess(Long ticketId, SessionPrincipal principal) {
+        supportTicketRepository.findParticipants(ticketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found " + ticketId))
+                .requireParticipant(principal);
+    }
+
+    // ===================== DISPATCH =====================
+    @Override
+    public Optional<SupportTicketResponseDTO> claimNextTicket(long assigneeId, Long claimerId) {
+        Optional<SupportTicketResponseDTO> claimed = ticketDispatchService.claimNext(assigneeId, claimerId)
+                .flatMap(supportTicketRepository::findById)
+                .map(this::mapToDTO);
+        claimed.ifPresent(ticketStreamService::ticketUpdated);
+        return claimed;
+    }
+
+    @Override
+    public SupportTicketResponseDTO claimTicket(Long ticketId, Long claimerId) {
+        if (!ticketDispatchService.claim(ticketId, claimerId)) {
+            throw new IllegalArgumentException("Ticket is not open for claiming");
+        }
+        SupportTicketResponseDTO claimed = supportTicketRepository.findById(ticketId)
                 .map(this::mapToDTO)
-                .toList();
+                .orElseThrow(() -> new RuntimeException("Ticket not found"));
+        ticketStreamService.ticketUpdated(claimed);
+        return claimed;
+    }
+
+    @Override
+    public Map<Long, Long> getQueueSizes() {
+        return ticketDispatchService.getQueueSizes();
+    }
+
+    private Long agentIdOf(SupportTicket ticket) {
+        return ticket.getBooking() != null
+                ? ticket.getBooking().getTravelPackage().getAgent().getId()
+                : null;
     }
 
     // ===================== ENTITY → DTO =====================
@@ -108,11 +233,16 @@ public class SupportTicketServiceImpl implements SupportTicketService {
         dto.setPriority(ticket.getPriority());
         dto.setCreatedAt(ticket.getCreatedAt());
         dto.setLastUpdatedAt(ticket.getLastUpdatedAt());
+        dto.setSlaDueAt(ticket.getSlaDueAt());
+        if (ticket.getClaimedBy() != null) {
+            dto.setClaimedById(ticket.getClaimedBy().getId());
+        }
         
         dto.setUserId(ticket.getUser().getId());
         if (ticket.getBooking() != null) {
             dto.setBookingId(ticket.getBooking().getBookingId());
             dto.setPackageTitle(ticket.getBooking().getTravelPackage().getTitle());
+            dto.setAgentId(ticket.getBooking().getTravelPackage().getAgent().getId());
         }
         
         return dto;
@@ -0,0 +1,235 @@
+package com.odyssey.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.odyssey.dto.TicketAttachmentDto;
+import com.odyssey.entity.SupportTicket;
+import com.odyssey.entity.TicketAttachment;
+import com.odyssey.exception.ResourceNotFoundException;
+import com.odyssey.repository.SupportTicketRepository;
+import com.odyssey.repository.TicketAttachmentRepository;
+import com.odyssey.service.TicketAttachmentService;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+
+@Service
+@Timed("odyssey.service")
+public class TicketAttachmentServiceImpl implements TicketAttachmentService {
+
+    // the only per-upload allocation; file size doesn't change it
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FILE_NAME = 255;
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern PATH_PREFIX = Pattern.compile(".*[/\\\\]");
+    private static final Pattern CONTROL_CHARS = Pattern.compile("\\p{Cntrl}");
+
+    @Autowired
+    private TicketAttachmentRepository ticketAttachmentRepository;
+
+    @Autowired
+    private SupportTicketRepository supportTicketRepository;
+
+    @Value("${support.attachments.storage-dir:./data/attachments}")
+    private String storageDir;
+
+    @Value("${support.attachments.max-size-bytes:10485760}")
+    private long maxSizeBytes;
+
+    private Path root;
+    private Path incoming;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(storageDir).toAbsolutePath().normalize();
+        // same file system as the store, so finished uploads are renamed into place, not copied
+        incoming = Files.createDirectories(root.resolve("incoming"));
+    }
+
+    @Override
+    public TicketAttachmentDto addAttachment(Long ticketId, Long uploadedById, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File is required");
+        }
+        if (file.getSize() > maxSizeBytes) {
+            throw new IllegalArgumentException("Attachments are limited to " + maxSizeBytes + " bytes");
+        }
+        SupportTicket ticket = supportTicketRepository.findById(ticketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found " + ticketId));
+
+        StoredFile stored = store(file);
+
+        // attaching the same file to the same ticket twice is a no-op
+        List<TicketAttachmentDto> existing =
+                ticketAttachmentRepository.findDtosByTicketIdAndSha256(ticketId, stored.sha256());
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+
+        TicketAttachment attachment = new TicketAttachment();
+        attachment.setTicket(ticket);
+        attachment.setUploadedById(uploadedById);
+        attachment.setFileName(cleanFileName(file.getOriginalFilename()));
+        attachment.setContentType(stored.contentType());
+        attachment.setSizeBytes(stored.size());
+        attachment.setSha256(stored.sha256());
+        attachment.setCreatedAt(LocalDateTime.now());
+        TicketAttachment saved;
+        try {
+            saved = ticketAttachmentRepository.save(attachment);
+        } catch (DataIntegrityViolationException e) {
+            // unique (ticket_id, sha256): a concurrent upload of the same file won the race
+            return ticketAttachmentRepository.findDtosByTicketIdAndSha256(ticketId, stored.sha256()).stream()
+                    .findFirst()
+                    .orElseThrow(() -> e);
+        }
+
+        return new TicketAttachmentDto(saved.getAttachmentId(), ticketId, uploadedById, saved.getFileName(),
+                saved.getContentType(), saved.getSizeBytes(), saved.getSha256(), saved.getCreatedAt());
+    }
+
+    @Override
+    public List<TicketAttachmentDto> getAttachments(Long ticketId) {
+        return ticketAttachmentRepository.findDtosByTicketId(ticketId);
+    }
+
+    @Override
+    public TicketAttachmentDto getAttachment(Long attachmentId) {
+        return ticketAttachmentRepository.findDtoById(attachmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment not found " + attachmentId));
+    }
+
+    @Override
+    public Path resolve(String sha256) {
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid checksum");
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    // Copies the part through a fixed buffer, hashing and counting as it goes, then renames the
+    // temp file to its checksum. Identical content already in the store is simply discarded.
+    private StoredFile store(MultipartFile file) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(incoming, "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long size = 0;
+            try (InputStream stream = file.getInputStream();
+                    ReadableByteChannel in = Channels.newChannel(stream);
+                    FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    // the declared part size can't be trusted, so the limit is enforced on what was read
+                    if (size > maxSizeBytes) {
+                        throw new IllegalArgumentException("Attachments are limited to " + maxSizeBytes + " bytes");
+                    }
+                    buffer.mark();
+                    digest.update(buffer);
+                    buffer.reset();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            String contentType = sniffContentType(temp);
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(sha256);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // a concurrent upload of the same bytes won the rename
+                }
+            }
+            return new StoredFile(sha256, size, contentType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store attachment", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // left for the next cleanup of the incoming directory
+                }
+            }
+        }
+    }
+
+    // the client's Content-Type is ignored; only a few formats that browsers render safely are accepted
+    private String sniffContentType(Path path) throws IOException {
+        byte[] head = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(path)) {
+            read = in.readNBytes(head, 0, head.length);
+        }
+        if (read >= 8 && startsWith(head, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (read >= 3 && startsWith(head, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (read >= 4 && startsWith(head, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (read >= 12 && startsWith(head, 0, 'R', 'I', 'F', 'F') && startsWith(head, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        if (read >= 5 && startsWith(head, 0, '%', 'P', 'D', 'F', '-')) {
+            return "application/pdf";
+        }
+        throw new IllegalArgumentException("Only PNG, JPEG, GIF, WEBP images and PDF files can be attached");
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if ((data[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String cleanFileName(String original) {
+        String name = original == null ? "" : CONTROL_CHARS.matcher(PATH_PREFIX.matcher(original).replaceFirst(""))
+                .replaceAll("").trim();
+        if (name.isEmpty()) {
+            return "attachment";
+        }
+        return name.length() > MAX_FILE_NAME ? name.substring(name.length() - MAX_FILE_NAME) : name;
+    }
+
+    private record StoredFile(String sha256, long size, String contentType) {
+    }
+}
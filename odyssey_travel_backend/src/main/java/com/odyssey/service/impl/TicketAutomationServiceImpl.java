@@ -0,0 +1,138 @@
+package com.odyssey.service.impl;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.odyssey.entity.TicketAutomationLog;
+import com.odyssey.repository.TicketAutomationLogRepository;
+import com.odyssey.service.TicketAutomationService;
+import com.odyssey.service.TicketStreamService;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+
+@Service
+@Timed("odyssey.service")
+public class TicketAutomationServiceImpl implements TicketAutomationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketAutomationServiceImpl.class);
+
+    // Each statement claims one batch of stale rows with SKIP LOCKED, changes them and logs the
+    // change in the same round trip. Nodes running the job concurrently take disjoint batches,
+    // and the (status, last_updated_at) index keeps the scan to stale rows only.
+    // OPEN tickets are left to the dispatch SLA timers, which own their priority.
+    private static final String ESCALATE = "with stale as ("
+            + " select ticket_id, priority from support_tickets"
+            + " where status = 'IN_PROGRESS' and last_updated_at < ? and coalesce(priority, 'LOW') <> 'HIGH'"
+            + " order by last_updated_at limit ? for update skip locked"
+            + "), changed as ("
+            + " update support_tickets t set priority = case when stale.priority = 'MEDIUM' then 'HIGH' else 'MEDIUM' end,"
+            + " last_updated_at = ?"
+            + " from stale where t.ticket_id = stale.ticket_id"
+            + " returning t.ticket_id, stale.priority as previous_value, t.priority as new_value"
+            + "), logged as ("
+            + " insert into ticket_automation_log (ticket_id, action, previous_value, new_value, created_at)"
+            + " select ticket_id, 'ESCALATED', previous_value, new_value, ? from changed returning ticket_id"
+            + ") select ticket_id from logged";
+
+    private static final String AUTO_CLOSE = "with stale as ("
+            + " select ticket_id from support_tickets"
+            + " where status = 'RESOLVED' and last_updated_at < ?"
+            + " order by last_updated_at limit ? for update skip locked"
+            + "), changed as ("
+            + " update support_tickets t set status = 'CLOSED', last_updated_at = ?"
+            + " from stale where t.ticket_id = stale.ticket_id"
+            + " returning t.ticket_id"
+            + "), logged as ("
+            + " insert into ticket_automation_log (ticket_id, action, previous_value, new_value, created_at)"
+            + " select ticket_id, 'AUTO_CLOSED', 'RESOLVED', 'CLOSED', ? from changed returning ticket_id"
+            + ") select ticket_id from logged";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TicketAutomationLogRepository ticketAutomationLogRepository;
+
+    @Autowired
+    private TicketStreamService ticketStreamService;
+
+    @Value("${support.automation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${support.automation.escalate-after-hours:48}")
+    private long escalateAfterHours;
+
+    @Value("${support.automation.close-after-days:7}")
+    private long closeAfterDays;
+
+    @Value("${support.automation.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate tx;
+
+    @PostConstruct
+    void init() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${support.automation.interval-ms:300000}",
+            initialDelayString = "${support.automation.interval-ms:300000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        int escalated = escalateStaleTickets();
+        int closed = closeIdleResolvedTickets();
+        if (escalated > 0 || closed > 0) {
+            log.info("Ticket automation escalated {} and auto-closed {} tickets", escalated, closed);
+        }
+    }
+
+    @Override
+    public int escalateStaleTickets() {
+        return runInBatches(ESCALATE, LocalDateTime.now().minusHours(escalateAfterHours));
+    }
+
+    @Override
+    public int closeIdleResolvedTickets() {
+        return runInBatches(AUTO_CLOSE, LocalDateTime.now().minusDays(closeAfterDays));
+    }
+
+    @Override
+    public List<TicketAutomationLog> getAutomationLog(Long ticketId) {
+        return ticketAutomationLogRepository.findByTicketIdOrderByCreatedAtDesc(ticketId);
+    }
+
+    // one short transaction per batch so row locks are never held across the whole backlog;
+    // changed rows get a fresh last_updated_at and drop out of the next batch's range
+    private int runInBatches(String sql, LocalDateTime cutoff) {
+        int total = 0;
+        int changed;
+        do {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Long> ticketIds = tx.execute(status ->
+                    jdbcTemplate.queryForList(sql, Long.class, Timestamp.valueOf(cutoff), batchSize, now, now));
+            changed = ticketIds != null ? ticketIds.size() : 0;
+            total += changed;
+            if (changed > 0) {
+                ticketStreamService.ticketsUpdated(ticketIds);
+            }
+        } while (changed == batchSize);
+        return total;
+    }
+}
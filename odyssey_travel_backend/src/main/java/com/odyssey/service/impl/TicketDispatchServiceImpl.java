@@ -0,0 +1,280 @@
+package com.odyssey.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.odyssey.dto.TicketDispatchRow;
+import com.odyssey.entity.Priority;
+import com.odyssey.repository.SupportTicketRepository;
+import com.odyssey.repository.UserRepository;
+import com.odyssey.service.TicketDispatchService;
+import com.odyssey.service.TicketStreamService;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+@Service
+@Timed("odyssey.service")
+public class TicketDispatchServiceImpl implements TicketDispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketDispatchServiceImpl.class);
+
+    // most urgent first: priority, then oldest, then lowest id for a stable order
+    private static final Comparator<Entry> BY_URGENCY = Comparator
+            .comparing((Entry e) -> e.priority, Comparator.reverseOrder())
+            .thenComparing(e -> e.createdAt)
+            .thenComparingLong(e -> e.ticketId);
+
+    private static final Comparator<Entry> BY_DEADLINE = Comparator.comparing((Entry e) -> e.slaDueAt);
+
+    @Autowired
+    private SupportTicketRepository supportTicketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TicketStreamService ticketStreamService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${support.sla.high-minutes:240}")
+    private long highSlaMinutes;
+
+    @Value("${support.sla.medium-minutes:1440}")
+    private long mediumSlaMinutes;
+
+    @Value("${support.sla.low-minutes:4320}")
+    private long lowSlaMinutes;
+
+    // one heap per assignee; entries are never removed in place, a ticket's live entry is the one
+    // in this map and anything else popped from a heap is stale and skipped (lazy deletion)
+    private final Map<Long, PriorityQueue<Entry>> queues = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> live = new ConcurrentHashMap<>();
+    private final PriorityQueue<Entry> deadlines = new PriorityQueue<>(BY_DEADLINE);
+    private final AtomicInteger stale = new AtomicInteger();
+
+    private TransactionTemplate tx;
+
+    @PostConstruct
+    void init() {
+        tx = new TransactionTemplate(transactionManager);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TicketDispatchRow> open = supportTicketRepository.findOpenForDispatch();
+        for (TicketDispatchRow row : open) {
+            Priority priority = row.getPriority() != null ? row.getPriority() : Priority.LOW;
+            LocalDateTime createdAt = row.getCreatedAt() != null ? row.getCreatedAt() : now;
+            LocalDateTime dueAt = row.getSlaDueAt() != null ? row.getSlaDueAt() : slaDeadline(priority, createdAt);
+            long assignee = row.getAgentId() != null ? row.getAgentId() : ADMIN_POOL;
+            // a HIGH ticket past its deadline was already handed to the admins before the restart
+            if (priority == Priority.HIGH && dueAt.isBefore(now)) {
+                assignee = ADMIN_POOL;
+                dueAt = null;
+            }
+            push(new Entry(row.getTicketId(), assignee, priority, createdAt, dueAt));
+        }
+        log.info("Ticket dispatch queues rebuilt with {} open tickets", open.size());
+
+        Gauge.builder("support.dispatch.queued", live, Map::size).register(meterRegistry);
+        Gauge.builder("support.dispatch.stale", stale, AtomicInteger::get).register(meterRegistry);
+    }
+
+    // ===================== QUEUE =====================
+    @Override
+    public void enqueue(Long ticketId, Long agentId, Priority priority, LocalDateTime createdAt,
+            LocalDateTime slaDueAt) {
+        push(new Entry(ticketId, agentId != null ? agentId : ADMIN_POOL, priority, createdAt, slaDueAt));
+    }
+
+    @Override
+    public void remove(Long ticketId) {
+        if (live.remove(ticketId) != null) {
+            stale.incrementAndGet();
+        }
+    }
+
+    @Override
+    public Map<Long, Long> getQueueSizes() {
+        return live.values().stream()
+                .collect(Collectors.groupingBy(e -> e.assignee, Collectors.counting()));
+    }
+
+    // ===================== CLAIM =====================
+    @Override
+    public Optional<Long> claimNext(long assigneeId, Long claimerId) {
+        Entry entry;
+        while ((entry = poll(assigneeId)) != null) {
+            Entry candidate = entry;
+            boolean claimed;
+            try {
+                claimed = Boolean.TRUE.equals(tx.execute(status -> supportTicketRepository.claim(
+                        candidate.ticketId, userRepository.getReferenceById(claimerId), LocalDateTime.now()) == 1));
+            } catch (RuntimeException e) {
+                // nothing was claimed, put the ticket back for the next caller
+                push(candidate);
+                throw e;
+            }
+            if (claimed) {
+                return Optional.of(candidate.ticketId);
+            }
+            // closed or claimed through another path since it was queued; try the next one
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean claim(Long ticketId, Long claimerId) {
+        boolean claimed = Boolean.TRUE.equals(tx.execute(status -> supportTicketRepository.claim(
+                ticketId, userRepository.getReferenceById(claimerId), LocalDateTime.now()) == 1));
+        if (claimed) {
+            remove(ticketId);
+        }
+        return claimed;
+    }
+
+    // ===================== SLA =====================
+    @Override
+    public LocalDateTime slaDeadline(Priority priority, LocalDateTime from) {
+        long minutes = switch (priority) {
+            case HIGH -> highSlaMinutes;
+            case MEDIUM -> mediumSlaMinutes;
+            case LOW -> lowSlaMinutes;
+        };
+        return from.plusMinutes(minutes);
+    }
+
+    @Scheduled(fixedDelayString = "${support.sla.check-interval-ms:30000}")
+    public void checkDeadlines() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Entry> due = new ArrayList<>();
+        synchronized (deadlines) {
+            while (!deadlines.isEmpty() && !deadlines.peek().slaDueAt.isAfter(now)) {
+                due.add(deadlines.poll());
+            }
+        }
+        for (Entry entry : due) {
+            // claimed, closed or re-armed since this timer was set
+            if (live.get(entry.ticketId) == entry) {
+                escalate(entry, now);
+            }
+        }
+        compactIfMostlyStale();
+    }
+
+    private void escalate(Entry entry, LocalDateTime now) {
+        if (entry.priority == Priority.HIGH) {
+            if (entry.assignee != ADMIN_POOL) {
+                log.warn("Ticket {} breached its HIGH priority SLA, moving it to the admin pool", entry.ticketId);
+                meterRegistry.counter("support.sla.breaches", "priority", entry.priority.name()).increment();
+                push(new Entry(entry.ticketId, ADMIN_POOL, Priority.HIGH, entry.createdAt, null));
+            }
+            return;
+        }
+
+        Priority next = Priority.values()[entry.priority.ordinal() + 1];
+        LocalDateTime nextDueAt = slaDeadline(next, now);
+        Integer updated = tx.execute(status -> supportTicketRepository.escalate(
+                entry.ticketId, entry.priority, next, nextDueAt, now));
+        if (updated != null && updated == 1) {
+            log.info("Ticket {} breached its SLA, escalated {} -> {}", entry.ticketId, entry.priority, next);
+            meterRegistry.counter("support.sla.breaches", "priority", entry.priority.name()).increment();
+            push(new Entry(entry.ticketId, entry.assignee, next, entry.createdAt, nextDueAt));
+            ticketStreamService.ticketsUpdated(List.of(entry.ticketId));
+        } else if (live.remove(entry.ticketId, entry)) {
+            stale.incrementAndGet();
+        }
+    }
+
+    // ===================== HEAPS =====================
+    private void push(Entry entry) {
+        if (live.put(entry.ticketId, entry) != null) {
+            // the entry it replaced stays in its heap until popped or compacted
+            stale.incrementAndGet();
+        }
+        PriorityQueue<Entry> queue = queues.computeIfAbsent(entry.assignee, k -> new PriorityQueue<>(BY_URGENCY));
+        synchronized (queue) {
+            queue.add(entry);
+        }
+        if (entry.slaDueAt != null) {
+            synchronized (deadlines) {
+                deadlines.add(entry);
+            }
+        }
+    }
+
+    private Entry poll(long assigneeId) {
+        PriorityQueue<Entry> queue = queues.get(assigneeId);
+        if (queue == null) {
+            return null;
+        }
+        synchronized (queue) {
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                // remove(key, value) is atomic, so two pollers never hand out the same ticket
+                if (live.remove(entry.ticketId, entry)) {
+                    return entry;
+                }
+                stale.updateAndGet(n -> Math.max(0, n - 1));
+            }
+        }
+        return null;
+    }
+
+    // stale entries only leave a heap when they reach the top; sweep them once they outnumber live ones
+    private void compactIfMostlyStale() {
+        int garbage = stale.get();
+        if (garbage < 1000 || garbage < live.size()) {
+            return;
+        }
+        stale.set(0);
+        for (PriorityQueue<Entry> queue : queues.values()) {
+            synchronized (queue) {
+                queue.removeIf(e -> live.get(e.ticketId) != e);
+            }
+        }
+        synchronized (deadlines) {
+            deadlines.removeIf(e -> live.get(e.ticketId) != e);
+        }
+    }
+
+    // identity matters: the live map decides which of several entries for a ticket is current
+    private static final class Entry {
+        final long ticketId;
+        final long assignee;
+        final Priority priority;
+        final LocalDateTime createdAt;
+        final LocalDateTime slaDueAt;
+
+        Entry(long ticketId, long assignee, Priority priority, LocalDateTime createdAt, LocalDateTime slaDueAt) {
+            this.ticketId = ticketId;
+            this.assignee = assignee;
+            this.priority = priority;
+            this.createdAt = createdAt;
+            this.slaDueAt = slaDueAt;
+        }
+    }
+}
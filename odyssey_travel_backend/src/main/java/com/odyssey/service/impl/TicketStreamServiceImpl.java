@@ -0,0 +1,141 @@
+package com.odyssey.service.impl;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.dto.SupportTicketResponseDTO;
+import com.odyssey.repository.SupportTicketRepository;
+import com.odyssey.service.TicketStreamService;
+import com.odyssey.utils.SseHub;
+import com.odyssey.utils.SseSubscription;
+import com.odyssey.utils.TransactionHooks;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class TicketStreamServiceImpl implements TicketStreamService {
+
+    private static final String CREATED_EVENT = "ticket-created";
+    private static final String UPDATED_EVENT = "ticket-updated";
+    private static final Long ADMINS = 0L;
+
+    @Autowired
+    private SupportTicketRepository supportTicketRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${support.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${support.stream.buffer-size:16}")
+    private int bufferSize;
+
+    // a parked virtual thread per in-flight write, nothing per idle connection
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private SseHub<Long> userHub;
+    private SseHub<Long> agentHub;
+    private SseHub<Long> adminHub;
+
+    @PostConstruct
+    void init() {
+        userHub = new SseHub<>(timeoutMillis, bufferSize, sender);
+        agentHub = new SseHub<>(timeoutMillis, bufferSize, sender);
+        adminHub = new SseHub<>(timeoutMillis, bufferSize, sender);
+    }
+
+    // ===================== SUBSCRIBE =====================
+    @Override
+    public SseEmitter subscribeUser(Long userId) {
+        return userHub.subscribe(userId).getEmitter();
+    }
+
+    @Override
+    public SseEmitter subscribeAgent(Long agentId) {
+        return agentHub.subscribe(agentId).getEmitter();
+    }
+
+    @Override
+    public SseEmitter subscribeAdmin() {
+        return adminHub.subscribe(ADMINS).getEmitter();
+    }
+
+    // ===================== PUBLISH =====================
+    @Override
+    public void ticketCreated(SupportTicketResponseDTO ticket) {
+        TransactionHooks.afterCommit(() -> publish(CREATED_EVENT, ticket));
+    }
+
+    @Override
+    public void ticketUpdated(SupportTicketResponseDTO ticket) {
+        TransactionHooks.afterCommit(() -> publish(UPDATED_EVENT, ticket));
+    }
+
+    @Override
+    public void ticketsUpdated(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            if (userHub.getConnectionCount() + agentHub.getConnectionCount() + adminHub.getConnectionCount() == 0) {
+                return;
+            }
+            supportTicketRepository.findDtosByIds(ticketIds).forEach(ticket -> publish(UPDATED_EVENT, ticket));
+        });
+    }
+
+    // keeps proxies from closing idle connections and surfaces dead ones
+    @Scheduled(fixedDelayString = "${support.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> frame = SseSubscription.heartbeat();
+        userHub.publishAll(frame);
+        agentHub.publishAll(frame);
+        adminHub.publishAll(frame);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    // serialized once, then shared by every interested subscriber
+    private void publish(String event, SupportTicketResponseDTO ticket) {
+        boolean toUser = userHub.hasSubscribers(ticket.getUserId());
+        boolean toAgent = agentHub.hasSubscribers(ticket.getAgentId());
+        boolean toAdmins = adminHub.hasSubscribers(ADMINS);
+        if (!toUser && !toAgent && !toAdmins) {
+            return;
+        }
+        Set<DataWithMediaType> frame = SseSubscription.frame(event, toJson(ticket));
+        if (toUser) {
+            userHub.publish(ticket.getUserId(), frame);
+        }
+        if (toAgent) {
+            agentHub.publish(ticket.getAgentId(), frame);
+        }
+        if (toAdmins) {
+            adminHub.publish(ADMINS, frame);
+        }
+    }
+
+    private String toJson(SupportTicketResponseDTO ticket) {
+        try {
+            return objectMapper.writeValueAsString(ticket);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize ticket event", e);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.odyssey.service.impl;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,9 +17,17 @@ import com.odyssey.entity.TravelPackage;
 import com.odyssey.entity.User;
 import com.odyssey.repository.TravelPackageRepository;
 import com.odyssey.repository.UserRepository;
+import com.odyssey.service.DashboardStreamService;
+import com.odyssey.service.ReviewService;
+import com.odyssey.service.SearchAnalyticsService;
 import com.odyssey.service.TravelPackageService;
+import com.odyssey.service.TrendingService;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
+@Timed("odyssey.service")
 @Transactional
 public class TravelPackageServiceImpl implements TravelPackageService {
 
@@ -25,9 +37,26 @@ public class TravelPackageServiceImpl implements TravelPackageService {
 	@Autowired
 	private UserRepository userRepo;
 
+	@Autowired
+	private SearchAnalyticsService searchAnalyticsService;
+
+	@Autowired
+	private TrendingService trendingService;
+
+	@Autowired
+	private DashboardStreamService dashboardStreamService;
+
+	@Autowired
+	private ReviewService reviewService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@Override
 	public TravelPackage findPackageById(Long id) {
-		return travelRepo.findById(id).orElseThrow(() -> new RuntimeException("Package not found"));
+		TravelPackage travelPackage = travelRepo.findById(id).orElseThrow(() -> new RuntimeException("Package not found"));
+		reviewService.applyRatings(travelPackage);
+		return travelPackage;
 	}
 
 	@Override
@@ -39,6 +68,9 @@ public class TravelPackageServiceImpl implements TravelPackageService {
 		 if (image == null || image.isEmpty()) {
 	            throw new RuntimeException("Image is required");
 	        }
+		if (dto.getPrice() == null || !dto.getPrice().isPositive()) {
+			throw new IllegalArgumentException("Price must be positive");
+		}
 
 	        
 	            TravelPackage travelPackage = new TravelPackage();
@@ -54,28 +86,61 @@ public class TravelPackageServiceImpl implements TravelPackageService {
 
 
 			travelRepo.save(travelPackage);
+			dashboardStreamService.packageChanged(agent.getId());
+			meterRegistry.counter("packages.created").increment();
 
 	}
 
 	@Override
 	public List<TravelPackage> getAllPackages() {
 		// TODO Auto-generated method stub
-		return travelRepo.findAll();
+		return withRatings(travelRepo.findAll());
 	}
 
 	@Override
 	public List<TravelPackage> getPackagesByStatusAndAgentActive(Status status) {
-		return travelRepo.findByStatusAndAgent_ActiveTrue(status);
+		return withRatings(travelRepo.findByStatusAndAgent_ActiveTrue(status));
+	}
+
+	@Override
+	public List<TravelPackage> searchPackages(String query) {
+		List<TravelPackage> packages = travelRepo.searchByStatusAndAgentActive(Status.APPROVED,
+				escapeLike(query.trim().toLowerCase(Locale.ROOT)));
+		searchAnalyticsService.recordSearch(query, packages.size());
+		return withRatings(packages);
+	}
+
+	// the term is matched literally: % and _ typed by the user are not wildcards
+	private static String escapeLike(String term) {
+		return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	@Override
+	public List<TravelPackage> sortByTrending(List<TravelPackage> packages) {
+		Map<Long, TravelPackage> remaining = new LinkedHashMap<>();
+		packages.forEach(p -> remaining.put(p.getPackageId(), p));
+
+		List<TravelPackage> sorted = new ArrayList<>(packages.size());
+		for (long id : trendingService.getRankedPackageIds()) {
+			TravelPackage pkg = remaining.remove(id);
+			if (pkg != null) {
+				sorted.add(pkg);
+			}
+		}
+		sorted.addAll(remaining.values());
+		return sorted;
 	}
 
 	@Override
 	public List<TravelPackage> getPackagesByAgentId(Long agentId) {
-		return travelRepo.findByAgent_Id(agentId);
+		return withRatings(travelRepo.findByAgent_Id(agentId));
 	}
 
 	@Override
 	public Optional<TravelPackage> getPackageById(Long id) {
-		return travelRepo.findById(id);
+		Optional<TravelPackage> travelPackage = travelRepo.findById(id);
+		travelPackage.ifPresent(reviewService::applyRatings);
+		return travelPackage;
 	}
 
 	@Override
@@ -83,11 +148,18 @@ public class TravelPackageServiceImpl implements TravelPackageService {
 		TravelPackage pkg = travelRepo.findById(id).orElseThrow(() -> new RuntimeException("Package not found"));
 		pkg.setStatus(Status.valueOf(status.toUpperCase()));
 		travelRepo.save(pkg);
+		dashboardStreamService.packageChanged(pkg.getAgent().getId());
 	}
 
 	@Override
 	public List<TravelPackage> getPackagesByStatus(Status status) {
 
-		return travelRepo.findByStatus(status);
+		return withRatings(travelRepo.findByStatus(status));
+	}
+
+	// ratings come from the in-memory summaries, so listings cost no extra query
+	private List<TravelPackage> withRatings(List<TravelPackage> packages) {
+		reviewService.applyRatings(packages);
+		return packages;
 	}
 }
@@ -0,0 +1,96 @@
+package com.odyssey.service.impl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.odyssey.service.TrendingService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+@Service
+public class TrendingServiceImpl implements TrendingService {
+
+    // scores below this are treated as fully decayed and dropped from the map
+    private static final double MIN_SCORE = 0.01;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${trending.booking-weight:5}")
+    private double bookingWeight;
+
+    @Value("${trending.view-weight:1}")
+    private double viewWeight;
+
+    private double decayPerMilli;
+
+    private final Map<Long, DecayingScore> scores = new ConcurrentHashMap<>();
+
+    // replaced wholesale on every snapshot, readers never lock
+    private volatile long[] ranked = new long[0];
+
+    @PostConstruct
+    void init() {
+        decayPerMilli = Math.log(2) / (halfLifeHours * 3_600_000d);
+        Gauge.builder("cache.size", scores, Map::size).tag("cache", "trending-scores").register(meterRegistry);
+    }
+
+    @Override
+    public void recordBooking(Long packageId) {
+        record(packageId, bookingWeight);
+    }
+
+    @Override
+    public void recordView(Long packageId) {
+        record(packageId, viewWeight);
+    }
+
+    @Override
+    public long[] getRankedPackageIds() {
+        long[] snapshot = ranked;
+        return Arrays.copyOf(snapshot, snapshot.length);
+    }
+
+    // ===================== SNAPSHOT =====================
+    @Scheduled(fixedDelayString = "${trending.snapshot-interval-ms:5000}")
+    public void snapshot() {
+        long now = System.currentTimeMillis();
+        scores.entrySet().removeIf(e -> e.getValue().valueAt(now, decayPerMilli) < MIN_SCORE);
+
+        ranked = scores.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().valueAt(now, decayPerMilli)))
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()))
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+    }
+
+    private void record(Long packageId, double weight) {
+        if (packageId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        scores.compute(packageId, (id, current) -> current == null
+                ? new DecayingScore(weight, now)
+                : new DecayingScore(current.valueAt(now, decayPerMilli) + weight, now));
+    }
+
+    // score value as of a timestamp; decays exponentially from there
+    private record DecayingScore(double value, long at) {
+
+        double valueAt(long now, double decayPerMilli) {
+            return now <= at ? value : value * Math.exp(-decayPerMilli * (now - at));
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.odyssey.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.odyssey.dto.UserImportErrorDto;
+import com.odyssey.dto.UserImportJobDto;
+import com.odyssey.entity.Provider;
+import com.odyssey.entity.Role;
+import com.odyssey.exception.ResourceNotFoundException;
+import com.odyssey.service.DashboardStreamService;
+import com.odyssey.service.EmailLookupService;
+import com.odyssey.service.PasswordHashingService;
+import com.odyssey.service.UserImportService;
+import com.odyssey.utils.CsvLineParser;
+import com.odyssey.utils.ExpiringCache;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+@Timed("odyssey.service")
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    private static final List<String> COLUMNS = List.of("firstname", "lastname", "email", "password", "role");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private EmailLookupService emailLookupService;
+
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
+    @Value("${user-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${user-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${user-import.max-file-size:200MB}")
+    private DataSize maxFileSize;
+
+    // 0 means half the cores
+    @Value("${user-import.hash-threads:0}")
+    private int hashThreads;
+
+    // one import at a time; a second upload waits in line instead of competing for the pool
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "user-import");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // BCrypt at full strength is most of an import's time; a pool of its own keeps it off the
+    // common pool and leaves cores to the login hashing pool
+    private ForkJoinPool hashPool;
+
+    // queued and running jobs are never evicted; finished ones stay queryable for a day
+    private final Map<String, ImportJob> activeJobs = new ConcurrentHashMap<>();
+    private final ExpiringCache<String, ImportJob> finishedJobs =
+            new ExpiringCache<>(Duration.ofHours(24).toMillis(), 100);
+
+    @PostConstruct
+    void init() {
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        hashPool = new ForkJoinPool(threads);
+        log.info("User import hashes plaintext passwords on {} threads at BCrypt cost {}; pre-hashed rows skip it",
+                threads, passwordHashingService.getWorkFactor());
+    }
+
+    @Override
+    public UserImportJobDto startImport(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("CSV file is required");
+        }
+
+        // the request thread only copies the upload to disk; parsing happens off-request
+        Path csv;
+        try {
+            csv = Files.createTempFile("user-import-", ".csv");
+            file.transferTo(csv);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store uploaded file", e);
+        }
+        return submit(csv);
+    }
+
+    @Override
+    public UserImportJobDto startImport(InputStream body, long contentLength) throws IOException {
+        long maxBytes = maxFileSize.toBytes();
+        if (contentLength > maxBytes) {
+            throw new MaxUploadSizeExceededException(maxBytes);
+        }
+
+        Path csv = Files.createTempFile("user-import-", ".csv");
+        long copied = 0;
+        try (OutputStream out = Files.newOutputStream(csv)) {
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = body.read(buffer)) > 0) {
+                copied += n;
+                // chunked uploads have no length to check up front
+                if (copied > maxBytes) {
+                    throw new MaxUploadSizeExceededException(maxBytes);
+                }
+                out.write(buffer, 0, n);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(csv);
+            throw e;
+        }
+        if (copied == 0) {
+            Files.deleteIfExists(csv);
+            throw new IllegalArgumentException("CSV file is required");
+        }
+        return submit(csv);
+    }
+
+    @Override
+    public UserImportJobDto getImportJob(String jobId) {
+        ImportJob job = activeJobs.get(jobId);
+        if (job == null) {
+            job = finishedJobs.get(jobId);
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found: " + jobId);
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        hashPool.shutdownNow();
+    }
+
+    private UserImportJobDto submit(Path csv) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        activeJobs.put(job.id, job);
+        executor.execute(() -> run(job, csv));
+        return job.toDto();
+    }
+
+    private void run(ImportJob job, Path csv) {
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            int[] columns = readHeader(reader.readLine());
+
+            // emails seen earlier in this file; the DB catches the rest
+            Set<String> seen = new HashSet<>();
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            long rowNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                job.rowsRead.incrementAndGet();
+
+                ImportRow row;
+                try {
+                    row = toRow(CsvLineParser.parse(line), columns);
+                } catch (IllegalArgumentException e) {
+                    job.reject(rowNumber, e.getMessage(), maxReportedErrors);
+                    continue;
+                }
+                if (!seen.add(row.email())) {
+                    job.duplicates.incrementAndGet();
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    insertChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(job, chunk);
+            }
+            job.finish("COMPLETED", null);
+        } catch (Exception e) {
+            log.error("User import {} failed", job.id, e);
+            job.finish("FAILED", e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(csv);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", csv, e);
+            }
+            // published before it leaves the active map, so a poll in between still finds it
+            finishedJobs.put(job.id, job);
+            activeJobs.remove(job.id);
+            if (job.inserted.get() > 0) {
+                dashboardStreamService.usersChanged();
+            }
+        }
+    }
+
+    private int[] readHeader(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        List<String> names = CsvLineParser.parse(header.replace("\uFEFF", ""));
+        int[] columns = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.size(); j++) {
+                if (names.get(j).replace("_", "").toLowerCase(Locale.ROOT).equals(COLUMNS.get(i))) {
+                    columns[i] = j;
+                }
+            }
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Missing column: " + COLUMNS.get(i));
+            }
+        }
+        return columns;
+    }
+
+    private ImportRow toRow(List<String> fields, int[] columns) {
+        String firstName = field(fields, columns[0], "firstName");
+        String lastName = field(fields, columns[1], "lastName");
+        String email = field(fields, columns[2], "email");
+        String password = field(fields, columns[3], "password");
+        String role = field(fields, columns[4], "role").toUpperCase(Locale.ROOT);
+
+        if (email.length() > 255 || email.indexOf('@') < 1) {
+            throw new IllegalArgumentException("Invalid email");
+        }
+        // admins are never created from a file
+        if (!Role.CLIENT.name().equals(role) && !Role.AGENT.name().equals(role)) {
+            throw new IllegalArgumentException("Invalid role: " + role);
+        }
+        return new ImportRow(firstName, lastName, email, password, role);
+    }
+
+    private String field(List<String> fields, int index, String name) {
+        String value = index < fields.size() ? fields.get(index) : "";
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    private void insertChunk(ImportJob job, List<ImportRow> chunk) {
+        // only rows the Bloom filter can't rule out need a round trip to check
+        List<String> candidates = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            if (emailLookupService.mightExist(row.email())) {
+                candidates.add(row.email());
+            }
+        }
+        Set<String> existing = candidates.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.query(
+                "select email from users where email = any(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", candidates.toArray())),
+                (rs, n) -> rs.getString(1)));
+
+        List<ImportRow> fresh = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (!existing.contains(row.email())) {
+                fresh.add(row);
+            }
+        }
+        job.duplicates.addAndGet(chunk.size() - fresh.size());
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // hashing is the expensive part of an import, spread over the import's own pool
+        List<String> hashes = hashPool.submit(() -> fresh.parallelStream()
+                .map(row -> passwordHashingService.hashForImport(row.password()))
+                .toList()).join();
+
+        // one statement per chunk; a concurrent signup with the same email is skipped, not an error
+        List<String> inserted = jdbcTemplate.query(insertSql(fresh.size()), ps -> {
+            int i = 1;
+            for (int r = 0; r < fresh.size(); r++) {
+                ImportRow row = fresh.get(r);
+                ps.setString(i++, row.firstName());
+                ps.setString(i++, row.lastName());
+                ps.setString(i++, row.email());
+                ps.setString(i++, hashes.get(r));
+                ps.setString(i++, row.role());
+            }
+        }, (rs, n) -> rs.getString(1));
+
+        job.inserted.addAndGet(inserted.size());
+        job.duplicates.addAndGet(fresh.size() - inserted.size());
+        inserted.forEach(emailLookupService::add);
+    }
+
+    private String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(
+                "insert into users (first_name, last_name, email, password, role, email_verified, active, provider, created_at, updated_at) values ");
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?, false, true, '").append(Provider.LOCAL.name()).append("', now(), now())");
+        }
+        return sql.append(" on conflict (email) do nothing returning email").toString();
+    }
+
+    private record ImportRow(String firstName, String lastName, String email, String password, String role) {
+    }
+
+    private static final class ImportJob {
+        final String id;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long startNanos = System.nanoTime();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong inserted = new AtomicLong();
+        final AtomicLong duplicates = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final List<UserImportErrorDto> errors = Collections.synchronizedList(new ArrayList<>());
+        volatile String status = "RUNNING";
+        volatile String failureReason;
+        volatile LocalDateTime finishedAt;
+        volatile long finishedNanos;
+
+        ImportJob(String id) {
+            this.id = id;
+        }
+
+        void reject(long row, String message, int maxErrors) {
+            rejected.incrementAndGet();
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportErrorDto(row, message));
+            }
+        }
+
+        void finish(String status, String failureReason) {
+            this.finishedNanos = System.nanoTime();
+            this.finishedAt = LocalDateTime.now();
+            this.failureReason = failureReason;
+            this.status = status;
+        }
+
+        UserImportJobDto toDto() {
+            long end = finishedAt != null ? finishedNanos : System.nanoTime();
+            double seconds = Math.max(end - startNanos, 1) / 1e9;
+            List<UserImportErrorDto> snapshot;
+            synchronized (errors) {
+                snapshot = List.copyOf(errors);
+            }
+            return new UserImportJobDto(id, status, rowsRead.get(), inserted.get(), duplicates.get(),
+                    rejected.get(), rowsRead.get() / seconds, startedAt, finishedAt, failureReason, snapshot);
+        }
+    }
+}
@@ -1,27 +1,48 @@
 package com.odyssey.service.impl;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 import com.odyssey.dto.UserCreateRequestDto;
 import com.odyssey.dto.UserResponseDto;
+import com.odyssey.dto.UserRoleCountDto;
 import com.odyssey.entity.Provider;
 import com.odyssey.entity.Role;
 import com.odyssey.exception.ResourceNotFoundException;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 
 import com.odyssey.entity.User;
 import com.odyssey.repository.UserRepository;
+import com.odyssey.service.DashboardStreamService;
+import com.odyssey.service.EmailLookupService;
+import com.odyssey.service.PasswordHashingService;
+import com.odyssey.service.SessionService;
 import com.odyssey.service.UserService;
+import com.odyssey.utils.TransactionHooks;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed("odyssey.service")
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "firstName", "lastName", "email", "role", "active", "createdAt");
+
     private final UserRepository userRepository;
     private final ModelMapper modelMapper;
+    private final DashboardStreamService dashboardStreamService;
+    private final SessionService sessionService;
+    private final PasswordHashingService passwordHashingService;
+    private final EmailLookupService emailLookupService;
 
     @Override
     public UserResponseDto createUser(UserCreateRequestDto userCreateRequestDto) {
@@ -30,22 +51,60 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Email is required");
         }
 
-        if (userRepository.existsByEmail(userCreateRequestDto.getEmail())) {
+        if (userCreateRequestDto.getPassword() == null || userCreateRequestDto.getPassword().isBlank()) {
+            throw new IllegalArgumentException("Password is required");
+        }
+
+        // Bloom filter answers most new emails without a round-trip
+        if (emailLookupService.exists(userCreateRequestDto.getEmail())) {
             throw new IllegalArgumentException("User already exists");
         }
 
         User user = modelMapper.map(userCreateRequestDto, User.class);
+        user.setPassword(passwordHashingService.hash(userCreateRequestDto.getPassword()));
         user.setProvider(Provider.LOCAL);
         user.setActive(true);
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // unique constraint on email, a concurrent registration won the race
+            throw new IllegalArgumentException("User already exists");
+        }
+        // after commit, so a filter rebuild streaming the table meanwhile cannot miss the user
+        TransactionHooks.afterCommit(() -> emailLookupService.add(savedUser.getEmail()));
+        dashboardStreamService.usersChanged();
         return modelMapper.map(savedUser, UserResponseDto.class);
     }
 
     @Override
     public List<UserResponseDto> getUsersByRole(Role role) {
-        return userRepository.findByRole(role).stream()
-                .map( user -> modelMapper.map(user, UserResponseDto.class))
-                .toList();
+        return userRepository.searchUsers(role, null, Pageable.unpaged(Sort.by("id"))).getContent();
+    }
+
+    @Override
+    public Page<UserResponseDto> searchUsers(Role role, String query, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_FIELDS.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort users by " + order.getProperty());
+            }
+        }
+        String prefix = null;
+        if (query != null && !query.isBlank()) {
+            prefix = escapeLike(query.trim().toLowerCase(Locale.ROOT)) + "%";
+        }
+        return userRepository.searchUsers(role, prefix, pageable);
+    }
+
+    // escaped rather than stripped: first_name finds first_name, and a typed % or _ can neither
+    // widen the match nor move the wildcard off the end where the prefix index needs it
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    public List<UserRoleCountDto> getUserCounts() {
+        return userRepository.countGroupedByRoleAndActive();
     }
 
     @Override
@@ -54,6 +113,10 @@ public class UserServiceImpl implements UserService {
                 ResourceNotFoundException("User not found "+userId));
         user.setActive(active);
         User savedUser = userRepository.save(user);
+        if (!active) {
+            sessionService.revokeAll(userId);
+        }
+        dashboardStreamService.usersChanged();
         return modelMapper.map(savedUser, UserResponseDto.class);
     }
 
@@ -67,9 +130,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<UserResponseDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map( user -> modelMapper.map(user, UserResponseDto.class))
-                .toList();
+        return userRepository.searchUsers(null, null, Pageable.unpaged(Sort.by("id"))).getContent();
     }
 
 }
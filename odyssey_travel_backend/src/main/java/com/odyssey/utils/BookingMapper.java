@@ -0,0 +1,51 @@
+package com.odyssey.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.odyssey.dto.BookingResponseDto;
+import com.odyssey.dto.CompanionDTO;
+import com.odyssey.entity.Booking;
+import com.odyssey.entity.TravellersDetails;
+
+// Booking -> BookingResponseDto for the client and agent booking lists. Plain getters and
+// setters on purpose, see BookingMappingBenchmark in the benchmarks module for ModelMapper.
+public final class BookingMapper {
+
+    private BookingMapper() {
+    }
+
+    public static List<BookingResponseDto> toResponseDtos(List<Booking> bookings) {
+        List<BookingResponseDto> dtos = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            dtos.add(toResponseDto(booking));
+        }
+        return dtos;
+    }
+
+    public static BookingResponseDto toResponseDto(Booking booking) {
+        BookingResponseDto dto = new BookingResponseDto();
+        dto.setBookingId(booking.getBookingId());
+        dto.setPackageTitle(booking.getTravelPackage().getTitle());
+        dto.setTravelDate(booking.getTravelDate());
+        dto.setStatus(booking.getBookingStatus());
+        dto.setTravelers(booking.getTravelers());
+        if (booking.getPayment() != null) {
+            dto.setTotalAmount(booking.getPayment().getAmount());
+            dto.setPaymentMethod(booking.getPayment().getPaymentMethod());
+        }
+        dto.setContactFullName(booking.getContactFullName());
+        dto.setContactEmail(booking.getContactEmail());
+        dto.setContactNumber(booking.getContactNumber());
+        dto.setSpecialRequest(booking.getSpecialRequest());
+
+        List<TravellersDetails> details = booking.getCompanionDetails();
+        List<CompanionDTO> companions = new ArrayList<>(details.size());
+        for (TravellersDetails companion : details) {
+            companions.add(new CompanionDTO(companion.getFullName(), companion.getAge(), companion.getGender(),
+                    companion.getRelation()));
+        }
+        dto.setCompanions(companions);
+        return dto;
+    }
+}
@@ -0,0 +1,118 @@
+package com.odyssey.utils;
+
+// Count-based circuit breaker. Records the outcome of the last windowSize calls; once at least
+// minCalls are recorded and the failure share reaches failureRate it opens and rejects calls
+// for openMillis, then lets a single trial call through (half-open) to decide whether to close.
+// Critical sections are a few field updates, so plain synchronization is cheaper than the
+// contention it avoids.
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] failures;
+    private final int minCalls;
+    private final double failureRate;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failed;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int windowSize, int minCalls, double failureRate, long openMillis) {
+        if (windowSize <= 0 || minCalls <= 0 || minCalls > windowSize || failureRate <= 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+        this.failures = new boolean[windowSize];
+        this.minCalls = minCalls;
+        this.failureRate = failureRate;
+        this.openNanos = openMillis * 1_000_000L;
+    }
+
+    // true when the caller may make the call; it must then report onSuccess, onFailure or release
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minCalls && failed >= failureRate * recorded) {
+            open();
+        }
+    }
+
+    // the permitted call was never made (e.g. rejected further down), nothing to learn from it
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0 : (double) failed / recorded;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failures.length) {
+            if (failures[next]) {
+                failed--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        if (failure) {
+            failed++;
+        }
+        next = (next + 1) % failures.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        trialInFlight = false;
+    }
+
+    // a fresh window, so the failures that opened the breaker do not reopen it at once
+    private void close() {
+        state = State.CLOSED;
+        trialInFlight = false;
+        recorded = 0;
+        failed = 0;
+        next = 0;
+    }
+}
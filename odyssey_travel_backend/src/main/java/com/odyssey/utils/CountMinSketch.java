@@ -0,0 +1,48 @@
+package com.odyssey.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-memory frequency estimator: counts never under-estimate, over-estimate
+// is bounded by total / width with probability 1 - (1/2)^depth
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Sketch width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    // returns the new estimate so callers do not have to hash the item twice
+    public long add(String item, long count) {
+        long h1 = Hashing.hash64(item);
+        long h2 = Hashing.mix64(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long value = counters.addAndGet(index(row, h1, h2), count);
+            estimate = Math.min(estimate, value);
+        }
+        return estimate;
+    }
+
+    public long estimate(String item) {
+        long h1 = Hashing.hash64(item);
+        long h2 = Hashing.mix64(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    private int index(int row, long h1, long h2) {
+        long combined = h1 + row * h2;
+        return row * width + (int) Math.floorMod(combined, (long) width);
+    }
+}
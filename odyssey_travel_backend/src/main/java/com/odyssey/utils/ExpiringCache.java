@@ -0,0 +1,96 @@
+package com.odyssey.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Size-bounded concurrent map whose entries expire a fixed time after they are written, or after
+// they were last used when taken through computeIfAbsent. Expired entries are dropped lazily on
+// read and in bulk when the map goes over its bound.
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public ExpiringCache(long ttlMillis, int maxSize) {
+        if (ttlMillis <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("Cache TTL and size must be positive");
+        }
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value) {
+        store(key, value, ttlNanos);
+    }
+
+    // for values that must not outlive their own expiry, e.g. a session ending sooner than the TTL
+    public void put(K key, V value, long ttlMillis) {
+        store(key, value, Math.min(ttlNanos, ttlMillis * 1_000_000L));
+    }
+
+    // every call pushes the expiry out again, so an entry lives until it has been idle for the TTL
+    public V computeIfAbsent(K key, Function<K, V> factory) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.compute(key, (k, current) -> current == null || current.isExpired(now)
+                ? new Entry<>(factory.apply(k), now + ttlNanos)
+                : new Entry<>(current.value(), now + ttlNanos));
+        trimIfNeeded();
+        return entry.value();
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void removeIf(Predicate<V> predicate) {
+        entries.values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void store(K key, V value, long ttl) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttl));
+        trimIfNeeded();
+    }
+
+    private void trimIfNeeded() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+
+        // still over the bound: drop an arbitrary tenth, cheaper than tracking recency
+        int excess = entries.size() - maxSize + maxSize / 10;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.odyssey.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+// Exact amount of money as a count of the currency's minor units (paise for INR).
+// Stored as a bigint and summed as one, so totals never drift the way doubles do.
+// JSON keeps the plain decimal form (1499.50) clients already send and read.
+// The catalogue is priced in a single currency, so it is a constant of the type rather than a
+// column; mixing currencies in arithmetic fails loudly instead of adding rupees to dollars.
+public final class Money implements Comparable<Money> {
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("INR");
+
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    // rejects sub-minor-unit precision instead of silently rounding it away
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        try {
+            return new Money(amount.movePointRight(DEFAULT_CURRENCY.getDefaultFractionDigits()).longValueExact(),
+                    DEFAULT_CURRENCY);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount " + amount.toPlainString());
+        }
+    }
+
+    // JSON input comes from JavaScript doubles (4499.969999999999 for 3 x 1499.99), so the
+    // binary noise is rounded off here at the boundary; everything past it is exact
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money fromJson(BigDecimal amount) {
+        return amount != null
+                ? of(amount.setScale(DEFAULT_CURRENCY.getDefaultFractionDigits(), RoundingMode.HALF_UP))
+                : null;
+    }
+
+    // used by Spring's String -> Money conversion for request parameters
+    public static Money valueOf(String amount) {
+        try {
+            return of(new BigDecimal(amount.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount " + amount);
+        }
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    @JsonValue
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + " " + toDecimal().toPlainString();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot combine " + currency + " with " + other.currency);
+        }
+    }
+}
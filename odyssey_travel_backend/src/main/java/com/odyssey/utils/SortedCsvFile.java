@@ -0,0 +1,164 @@
+package com.odyssey.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Read access to a CSV file sorted ascending by a numeric first column, without loading it.
+// seek() binary-searches byte offsets for the first line whose key is >= a given key, so any
+// number of workers can each stream just their own key range of a file of any size.
+// Not thread-safe: open one instance per worker.
+public class SortedCsvFile implements Closeable {
+
+    private static final int READ_BUFFER = 64 * 1024;
+    private static final int PROBE_BUFFER = 256;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final long dataStart;
+    private final ByteBuffer probe = ByteBuffer.allocate(PROBE_BUFFER);
+
+    public SortedCsvFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        // a first line that does not start with a number is a header
+        this.dataStart = size > 0 && parseKey(0) == null ? lineEnd(0) : 0;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // offset of the first data line, past a header
+    public long dataStart() {
+        return dataStart;
+    }
+
+    // key of the first data line, null for an empty file
+    public Long firstKey() throws IOException {
+        return dataStart < size ? parseKey(dataStart) : null;
+    }
+
+    // key of the last data line, null for an empty file
+    public Long lastKey() throws IOException {
+        long end = size;
+        while (end > dataStart && (byteAt(end - 1) == '\n' || byteAt(end - 1) == '\r')) {
+            end--;
+        }
+        if (end <= dataStart) {
+            return null;
+        }
+        long start = end - 1;
+        while (start > dataStart && byteAt(start - 1) != '\n') {
+            start--;
+        }
+        return parseKey(start);
+    }
+
+    // offset of the first line with key >= target (size when there is none); unparseable lines
+    // take the key of the next parseable line, so one may be returned just ahead of the match
+    public long seek(long target) throws IOException {
+        long lo = dataStart;
+        long hi = size;
+        while (lo < hi) {
+            long start = lineStartAtOrAfter(lo + (hi - lo) / 2);
+            long keyed = start;
+            Long key = null;
+            while (keyed < hi && (key = parseKey(keyed)) == null) {
+                keyed = lineEnd(keyed);
+            }
+            if (keyed >= hi) {
+                break;
+            }
+            if (key < target) {
+                lo = lineEnd(keyed);
+            } else {
+                hi = start;
+            }
+        }
+        // at most a line or two left between lo and hi
+        while (lo < hi) {
+            Long key = parseKey(lo);
+            if (key != null && key >= target) {
+                return lo;
+            }
+            lo = lineEnd(lo);
+        }
+        return lo;
+    }
+
+    // independent reader from the given offset; the caller closes it, the file stays open
+    public BufferedReader readerAt(long offset) throws IOException {
+        FileChannel own = FileChannel.open(path, StandardOpenOption.READ);
+        own.position(offset);
+        return new BufferedReader(new InputStreamReader(Channels.newInputStream(own), StandardCharsets.UTF_8), READ_BUFFER);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // first byte of the line containing or following pos
+    private long lineStartAtOrAfter(long pos) throws IOException {
+        if (pos <= dataStart) {
+            return dataStart;
+        }
+        return byteAt(pos - 1) == '\n' ? pos : lineEnd(pos);
+    }
+
+    // offset just past the newline that ends the line at pos (size when it is the last line)
+    private long lineEnd(long pos) throws IOException {
+        long p = pos;
+        while (p < size) {
+            probe.clear();
+            int read = channel.read(probe, p);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += read;
+        }
+        return size;
+    }
+
+    private int byteAt(long pos) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        channel.read(one, pos);
+        return one.get(0);
+    }
+
+    private Long parseKey(long pos) throws IOException {
+        probe.clear();
+        int read = channel.read(probe, pos);
+        long key = 0;
+        int digits = 0;
+        for (int i = 0; i < read; i++) {
+            byte b = probe.get(i);
+            if (b == '"' && digits == 0) {
+                continue;
+            }
+            if (b < '0' || b > '9') {
+                break;
+            }
+            if (++digits > 18) {
+                return null;
+            }
+            key = key * 10 + (b - '0');
+        }
+        return digits == 0 ? null : key;
+    }
+}
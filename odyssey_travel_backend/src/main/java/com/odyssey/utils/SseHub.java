@@ -0,0 +1,63 @@
+package com.odyssey.utils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+// SSE subscribers grouped by key (a user id, an agent id...). Publishing only enqueues the
+// shared frame onto each subscriber's bounded buffer, so publishers never wait on a socket
+// and an idle key costs nothing once its last subscriber disconnects.
+public class SseHub<K> {
+
+    private final Map<K, Set<SseSubscription>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final Executor executor;
+
+    public SseHub(long timeoutMillis, int bufferSize, Executor executor) {
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.executor = executor;
+    }
+
+    public SseSubscription subscribe(K key) {
+        SseSubscription subscription = new SseSubscription(timeoutMillis, bufferSize, executor, closed -> {
+            connections.decrementAndGet();
+            subscribers.computeIfPresent(key, (k, subs) -> {
+                subs.remove(closed);
+                return subs.isEmpty() ? null : subs;
+            });
+        });
+        connections.incrementAndGet();
+        subscribers.compute(key, (k, subs) -> {
+            Set<SseSubscription> current = subs != null ? subs : ConcurrentHashMap.newKeySet();
+            current.add(subscription);
+            return current;
+        });
+        return subscription;
+    }
+
+    public boolean hasSubscribers(K key) {
+        return key != null && subscribers.containsKey(key);
+    }
+
+    public void publish(K key, Set<DataWithMediaType> frame) {
+        Set<SseSubscription> subs = key != null ? subscribers.get(key) : null;
+        if (subs != null) {
+            subs.forEach(sub -> sub.offer(frame));
+        }
+    }
+
+    public void publishAll(Set<DataWithMediaType> frame) {
+        subscribers.values().forEach(subs -> subs.forEach(sub -> sub.offer(frame)));
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+}
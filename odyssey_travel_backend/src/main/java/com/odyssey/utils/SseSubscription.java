@@ -0,0 +1,93 @@
+package com.odyssey.utils;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// One SSE connection with a bounded outbound buffer. Publishers only enqueue,
+// writes happen on the supplied executor, and a consumer that lets its buffer
+// fill up is disconnected instead of slowing everyone else down.
+public final class SseSubscription {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<DataWithMediaType>> buffer;
+    private final Executor executor;
+    private final Consumer<SseSubscription> onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public SseSubscription(long timeoutMillis, int bufferSize, Executor executor, Consumer<SseSubscription> onClose) {
+        this.emitter = new SseEmitter(timeoutMillis);
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.executor = executor;
+        this.onClose = onClose;
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(ex -> close());
+    }
+
+    // frames are built once and shared by every subscriber they are offered to
+    public static Set<DataWithMediaType> frame(String eventName, String json) {
+        return SseEmitter.event().name(eventName).data(json, MediaType.APPLICATION_JSON).build();
+    }
+
+    public static Set<DataWithMediaType> heartbeat() {
+        return SseEmitter.event().comment("keep-alive").build();
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public boolean offer(Set<DataWithMediaType> frame) {
+        if (closed.get()) {
+            return false;
+        }
+        if (!buffer.offer(frame)) {
+            // slow consumer, drop it rather than buffer without bound; completing
+            // may wait on an in-flight write so it is done off the publishing thread
+            close();
+            executor.execute(emitter::complete);
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    private void drain() {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!closed.get() && (frame = buffer.poll()) != null) {
+                emitter.send(frame);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            close();
+        } finally {
+            draining.set(false);
+            if (!closed.get() && !buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+    }
+
+    private void close() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            onClose.accept(this);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.odyssey.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket in its GCRA form: the whole bucket state is a single
+// "theoretical arrival time", so a request is one read and one CAS.
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, long tokensPerMinute) {
+        if (capacity <= 0 || tokensPerMinute <= 0) {
+            throw new IllegalArgumentException("Bucket capacity and refill rate must be positive");
+        }
+        this.intervalNanos = 60_000_000_000L / tokensPerMinute;
+        this.capacityNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    // 0 when a token was taken, otherwise the nanos until one becomes available
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + intervalNanos;
+            long overflow = next - nowNanos - capacityNanos;
+            if (overflow > 0) {
+                return overflow;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+}
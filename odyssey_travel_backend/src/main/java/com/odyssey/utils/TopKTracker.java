@@ -0,0 +1,81 @@
+package com.odyssey.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded min-heap of the K items with the highest estimated counts.
+// offer() never blocks: if another thread holds the heap the update is skipped,
+// the count itself is already in the sketch and is picked up on the next offer.
+public class TopKTracker {
+
+    private final int capacity;
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(Comparator.comparingLong(Entry::getCount));
+    private final Map<String, Entry> index = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long floor = 0;
+
+    public TopKTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Top-K capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(String item, long estimate) {
+        if (estimate <= floor || !lock.tryLock()) {
+            return;
+        }
+        try {
+            Entry entry = index.get(item);
+            if (entry != null) {
+                heap.remove(entry);
+                entry.count = estimate;
+                heap.add(entry);
+            } else if (heap.size() < capacity) {
+                entry = new Entry(item, estimate);
+                index.put(item, entry);
+                heap.add(entry);
+            } else if (estimate > heap.peek().count) {
+                index.remove(heap.poll().item);
+                entry = new Entry(item, estimate);
+                index.put(item, entry);
+                heap.add(entry);
+            }
+            floor = heap.size() < capacity ? 0 : heap.peek().count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<String> items() {
+        lock.lock();
+        try {
+            return new ArrayList<>(index.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static final class Entry {
+        private final String item;
+        private long count;
+
+        private Entry(String item, long count) {
+            this.item = item;
+            this.count = count;
+        }
+
+        public String getItem() {
+            return item;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
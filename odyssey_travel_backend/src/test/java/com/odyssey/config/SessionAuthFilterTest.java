@@ -0,0 +1,201 @@
+package com.odyssey.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.dto.LoginResponseDto;
+import com.odyssey.dto.SessionPrincipal;
+import com.odyssey.dto.UserResponseDto;
+import com.odyssey.entity.Role;
+import com.odyssey.service.SessionService;
+
+import jakarta.servlet.http.Cookie;
+
+class SessionAuthFilterTest {
+
+    private static final String TOKEN = "valid-token";
+    private static final String ADMIN_TOKEN = "admin-token";
+    private static final String SCRAPE_TOKEN = "scrape-secret";
+
+    private final SessionPrincipal principal = new SessionPrincipal(7L, Role.CLIENT, LocalDateTime.now().plusHours(1));
+    private final SessionPrincipal admin = new SessionPrincipal(1L, Role.ADMIN, LocalDateTime.now().plusHours(1));
+    private SessionAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SessionService sessions = new SessionService() {
+            @Override
+            public LoginResponseDto issueSession(UserResponseDto user) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Optional<SessionPrincipal> resolve(String token) {
+                return TOKEN.equals(token) ? Optional.of(principal)
+                        : ADMIN_TOKEN.equals(token) ? Optional.of(admin) : Optional.empty();
+            }
+
+            @Override
+            public void revoke(String token) {
+            }
+
+            @Override
+            public void revokeAll(Long userId) {
+            }
+        };
+        filter = new SessionAuthFilter(sessions, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "sessionRequired", true);
+        ReflectionTestUtils.setField(filter, "publicPaths",
+                List.of("/api/v1/auth/**", "/api/packages/**", "/actuator/health/**"));
+        ReflectionTestUtils.setField(filter, "adminPaths", List.of("/actuator/**"));
+        ReflectionTestUtils.setField(filter, "scrapePaths", List.of("/actuator/prometheus"));
+        ReflectionTestUtils.setField(filter, "scrapeToken", SCRAPE_TOKEN);
+        ReflectionTestUtils.setField(filter, "streamPaths", List.of("/api/stats/**/stream", "/api/support/**/stream"));
+    }
+
+    @Test
+    void bearerTokenResolvesThePrincipal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings/user/7");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+
+        MockFilterChain chain = run(request, new MockHttpServletResponse());
+
+        assertSame(principal, chain.getRequest().getAttribute(SessionAuthFilter.PRINCIPAL_ATTRIBUTE));
+    }
+
+    @Test
+    void anonymousRequestsOutsidePublicPathsAreRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = run(new MockHttpServletRequest("GET", "/api/bookings/user/7"), response);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void publicPathsPassWithoutToken() throws Exception {
+        MockFilterChain chain = run(new MockHttpServletRequest("GET", "/api/packages/3"), new MockHttpServletResponse());
+
+        assertNull(chain.getRequest().getAttribute(SessionAuthFilter.PRINCIPAL_ATTRIBUTE));
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenOnPublicPaths() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/packages/3");
+        request.addHeader("Authorization", "Bearer revoked");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        run(request, response);
+
+        assertEquals(401, response.getStatus());
+    }
+
+    @Test
+    void streamsAcceptTheSessionCookieAndQueryToken() throws Exception {
+        MockHttpServletRequest withCookie = new MockHttpServletRequest("GET", "/api/support/user/7/stream");
+        withCookie.setCookies(new Cookie(SessionAuthFilter.SESSION_COOKIE, TOKEN));
+        assertSame(principal, run(withCookie, new MockHttpServletResponse()).getRequest()
+                .getAttribute(SessionAuthFilter.PRINCIPAL_ATTRIBUTE));
+
+        MockHttpServletRequest withParameter = new MockHttpServletRequest("GET", "/api/stats/agent/7/stream");
+        withParameter.setParameter("access_token", TOKEN);
+        assertSame(principal, run(withParameter, new MockHttpServletResponse()).getRequest()
+                .getAttribute(SessionAuthFilter.PRINCIPAL_ATTRIBUTE));
+    }
+
+    @Test
+    void cookieIsIgnoredOutsideStreams() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.setCookies(new Cookie(SessionAuthFilter.SESSION_COOKIE, TOKEN));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        run(request, response);
+
+        assertEquals(401, response.getStatus());
+    }
+
+    @Test
+    void actuatorNeedsAnAdminSession() throws Exception {
+        MockHttpServletResponse anonymous = new MockHttpServletResponse();
+        assertNull(run(new MockHttpServletRequest("DELETE", "/actuator/sql"), anonymous).getRequest());
+        assertEquals(401, anonymous.getStatus());
+
+        MockHttpServletRequest client = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        client.addHeader("Authorization", "Bearer " + TOKEN);
+        MockHttpServletResponse forbidden = new MockHttpServletResponse();
+        assertNull(run(client, forbidden).getRequest());
+        assertEquals(403, forbidden.getStatus());
+
+        MockHttpServletRequest byAdmin = new MockHttpServletRequest("DELETE", "/actuator/sql");
+        byAdmin.addHeader("Authorization", "Bearer " + ADMIN_TOKEN);
+        assertSame(admin, run(byAdmin, new MockHttpServletResponse()).getRequest()
+                .getAttribute(SessionAuthFilter.PRINCIPAL_ATTRIBUTE));
+    }
+
+    @Test
+    void actuatorStaysAdminOnlyWhenSessionsAreOptional() throws Exception {
+        ReflectionTestUtils.setField(filter, "sessionRequired", false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        run(new MockHttpServletRequest("GET", "/actuator/metrics"), response);
+
+        assertEquals(401, response.getStatus());
+    }
+
+    @Test
+    void scrapeTokenOnlyOpensTheScrapePaths() throws Exception {
+        MockHttpServletRequest scrape = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        scrape.addHeader("Authorization", "Bearer " + SCRAPE_TOKEN);
+        MockFilterChain chain = run(scrape, new MockHttpServletResponse());
+        assertNotNull(chain.getRequest());
+        assertNull(chain.getRequest().getAttribute(SessionAuthFilter.PRINCIPAL_ATTRIBUTE));
+
+        MockHttpServletRequest sql = new MockHttpServletRequest("DELETE", "/actuator/sql");
+        sql.addHeader("Authorization", "Bearer " + SCRAPE_TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertNull(run(sql, response).getRequest());
+        assertEquals(401, response.getStatus());
+    }
+
+    @Test
+    void withoutAScrapeTokenPrometheusNeedsAnAdmin() throws Exception {
+        ReflectionTestUtils.setField(filter, "scrapeToken", "");
+        MockHttpServletRequest empty = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        empty.addHeader("Authorization", "Bearer ");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertNull(run(empty, response).getRequest());
+        assertEquals(401, response.getStatus());
+
+        MockHttpServletRequest byAdmin = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        byAdmin.addHeader("Authorization", "Bearer " + ADMIN_TOKEN);
+        assertNotNull(run(byAdmin, new MockHttpServletResponse()).getRequest());
+    }
+
+    @Test
+    void healthStaysOpenForProbes() throws Exception {
+        assertNotNull(run(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse())
+                .getRequest());
+        assertNotNull(run(new MockHttpServletRequest("GET", "/actuator/health/readiness"),
+                new MockHttpServletResponse()).getRequest());
+    }
+
+    private MockFilterChain run(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return chain;
+    }
+}
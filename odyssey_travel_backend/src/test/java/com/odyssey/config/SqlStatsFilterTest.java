@@ -0,0 +1,97 @@
+package com.odyssey.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.service.SqlStatsService;
+import com.odyssey.service.impl.SqlStatsServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SqlStatsFilterTest {
+
+    private static final String ROUTE = "/test/queries/{count}";
+
+    private final ObjectMapper json = new ObjectMapper();
+    private SqlInstrumentationProperties properties;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SqlInstrumentationProperties();
+        properties.getBudgets().put(ROUTE, 3);
+        properties.setFailOnBudget(true);
+
+        SqlStatsServiceImpl sqlStatsService = new SqlStatsServiceImpl();
+        ReflectionTestUtils.setField(sqlStatsService, "properties", properties);
+        ReflectionTestUtils.setField(sqlStatsService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(sqlStatsService, "init");
+
+        mvc = MockMvcBuilders.standaloneSetup(new QueryController(sqlStatsService))
+                .addFilters(new SqlStatsFilter(sqlStatsService, properties, json))
+                .build();
+    }
+
+    @Test
+    void withinBudgetPassesThrough() throws Exception {
+        MockHttpServletResponse response = perform("/test/queries/3");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("ran 3", response.getContentAsString());
+    }
+
+    @Test
+    void overBudgetFailsBeforeTheBodyIsSent() throws Exception {
+        MockHttpServletResponse response = perform("/test/queries/4");
+
+        assertEquals(500, response.getStatus());
+        JsonNode body = json.readTree(response.getContentAsString());
+        assertEquals("GET " + ROUTE + " ran 4 SQL statements, over its budget of 3", body.get("message").asText());
+        assertEquals(500, body.get("status").asInt());
+    }
+
+    @Test
+    void overBudgetOnlyCountsWithoutFailOnBudget() throws Exception {
+        properties.setFailOnBudget(false);
+
+        MockHttpServletResponse response = perform("/test/queries/4");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("ran 4", response.getContentAsString());
+    }
+
+    private MockHttpServletResponse perform(String uri) throws Exception {
+        return mvc.perform(get(uri)).andReturn().getResponse();
+    }
+
+    // stands in for a repository-backed endpoint, one recorded statement per count
+    @RestController
+    static class QueryController {
+
+        private final SqlStatsService sqlStatsService;
+
+        QueryController(SqlStatsService sqlStatsService) {
+            this.sqlStatsService = sqlStatsService;
+        }
+
+        @GetMapping(ROUTE)
+        String run(@PathVariable("count") int count) {
+            for (int i = 0; i < count; i++) {
+                sqlStatsService.recordStatement("select * from payments where id = " + i, 1_000, () -> "");
+            }
+            return "ran " + count;
+        }
+    }
+}
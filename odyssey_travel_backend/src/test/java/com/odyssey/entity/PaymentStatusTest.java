@@ -0,0 +1,47 @@
+package com.odyssey.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class PaymentStatusTest {
+
+    // the diagram in PaymentStatus, edge by edge
+    private static final Map<PaymentStatus, Set<PaymentStatus>> ALLOWED = Map.of(
+            PaymentStatus.PENDING, EnumSet.of(PaymentStatus.PROCESSING, PaymentStatus.FAILED),
+            PaymentStatus.PROCESSING, EnumSet.of(PaymentStatus.SUCCEEDED, PaymentStatus.FAILED, PaymentStatus.PENDING),
+            PaymentStatus.SUCCEEDED, EnumSet.of(PaymentStatus.REFUNDING),
+            PaymentStatus.REFUNDING, EnumSet.of(PaymentStatus.REFUNDED, PaymentStatus.SUCCEEDED),
+            PaymentStatus.FAILED, EnumSet.noneOf(PaymentStatus.class),
+            PaymentStatus.REFUNDED, EnumSet.noneOf(PaymentStatus.class));
+
+    @Test
+    void allowsExactlyTheDocumentedTransitions() {
+        assertEquals(EnumSet.allOf(PaymentStatus.class), ALLOWED.keySet());
+        for (PaymentStatus from : PaymentStatus.values()) {
+            for (PaymentStatus to : PaymentStatus.values()) {
+                assertEquals(ALLOWED.get(from).contains(to), from.canTransitionTo(to), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void refundsGoThroughRefunding() {
+        assertFalse(PaymentStatus.SUCCEEDED.canTransitionTo(PaymentStatus.REFUNDED));
+        assertTrue(PaymentStatus.SUCCEEDED.canTransitionTo(PaymentStatus.REFUNDING));
+    }
+
+    @Test
+    void finalStatesStayFinal() {
+        for (PaymentStatus to : PaymentStatus.values()) {
+            assertFalse(PaymentStatus.FAILED.canTransitionTo(to), "FAILED -> " + to);
+            assertFalse(PaymentStatus.REFUNDED.canTransitionTo(to), "REFUNDED -> " + to);
+        }
+    }
+}
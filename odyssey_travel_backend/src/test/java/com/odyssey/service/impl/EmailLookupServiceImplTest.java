@@ -0,0 +1,119 @@
+package com.odyssey.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.odyssey.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmailLookupServiceImplTest {
+
+    // the users table, shared by every "node"
+    private final Set<String> users = ConcurrentHashMap.newKeySet();
+    // runs while a rebuild streams the table, after its snapshot was taken
+    private Runnable duringStream = () -> {
+    };
+    private SimpleMeterRegistry meterRegistry;
+    private EmailLookupServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        users.add("existing@example.com");
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EmailLookupServiceImpl();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository());
+        ReflectionTestUtils.setField(service, "transactionManager", new NoOpTransactionManager());
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "minExpectedInsertions", 1_000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+        service.init();
+    }
+
+    @Test
+    void usersCreatedElsewhereAreStillFound() {
+        // another node, a COPY or manual SQL: this instance's filter never saw the insert
+        users.add("elsewhere@example.com");
+
+        assertTrue(service.mightExist("elsewhere@example.com"));
+        assertTrue(service.exists("elsewhere@example.com"));
+        assertEquals(1, meterRegistry.counter("email.filter.missed").count());
+
+        // the miss was put into the filter, so an authoritative filter would now answer too
+        ReflectionTestUtils.setField(service, "authoritative", true);
+        assertTrue(service.mightExist("elsewhere@example.com"));
+    }
+
+    @Test
+    void authoritativeFilterSkipsTheDatabaseForUnknownEmails() {
+        ReflectionTestUtils.setField(service, "authoritative", true);
+
+        assertFalse(service.mightExist("stranger@example.com"));
+        assertFalse(service.exists("stranger@example.com"));
+        assertTrue(service.mightExist("Existing@Example.com "));
+    }
+
+    @Test
+    void insertCommittedDuringARebuildIsNotLost() {
+        ReflectionTestUtils.setField(service, "authoritative", true);
+        // committed after the rebuild's snapshot, so only add() can get it into the new filter
+        duringStream = () -> service.add("new@example.com");
+
+        service.rebuild();
+
+        assertTrue(service.mightExist("new@example.com"));
+    }
+
+    @Test
+    void countsFalsePositivesOnlyForFilterHits() {
+        service.recordLookup("stranger@example.com", false);
+        assertEquals(0, meterRegistry.counter("email.filter.false.positives").count());
+
+        service.recordLookup("existing@example.com", true);
+        assertEquals(0, meterRegistry.counter("email.filter.missed").count());
+    }
+
+    private UserRepository userRepository() {
+        return (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { UserRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "count" -> (long) users.size();
+                    case "existsByEmail" -> users.contains(((String) args[0]).trim().toLowerCase());
+                    case "streamAllEmails" -> {
+                        List<String> snapshot = List.copyOf(users);
+                        yield snapshot.stream().peek(email -> duringStream.run());
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.odyssey.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ReviewServiceImplTest {
+
+    @Test
+    void noVotesScoresZero() {
+        assertEquals(0.0, ReviewServiceImpl.wilsonLowerBound(0, 0));
+    }
+
+    @Test
+    void matchesTheWilsonFormula() {
+        // 8 of 10 at 95%: (0.8 + 0.19208 - 1.96 * sqrt(0.016 + 0.00096)) / 1.38416
+        assertEquals(0.4902, ReviewServiceImpl.wilsonLowerBound(8, 2), 1e-4);
+        assertEquals(0.2065, ReviewServiceImpl.wilsonLowerBound(1, 0), 1e-4);
+        assertEquals(0.0, ReviewServiceImpl.wilsonLowerBound(0, 5), 1e-9);
+    }
+
+    @Test
+    void moreEvidenceRanksHigherAtTheSameShare() {
+        assertTrue(ReviewServiceImpl.wilsonLowerBound(8, 2) > ReviewServiceImpl.wilsonLowerBound(1, 0));
+        assertTrue(ReviewServiceImpl.wilsonLowerBound(80, 20) > ReviewServiceImpl.wilsonLowerBound(8, 2));
+    }
+
+    @Test
+    void staysWithinZeroAndOne() {
+        for (int helpful = 0; helpful <= 50; helpful++) {
+            for (int unhelpful = 0; unhelpful <= 50; unhelpful++) {
+                double score = ReviewServiceImpl.wilsonLowerBound(helpful, unhelpful);
+                assertTrue(score >= 0 && score < 1, helpful + "/" + unhelpful + " scored " + score);
+                if (helpful > 0) {
+                    // one more helpful vote never lowers the score
+                    assertTrue(score > ReviewServiceImpl.wilsonLowerBound(helpful - 1, unhelpful));
+                }
+            }
+        }
+    }
+}
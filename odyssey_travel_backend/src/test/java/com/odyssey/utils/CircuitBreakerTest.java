@@ -0,0 +1,116 @@
+package com.odyssey.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    @Test
+    void staysClosedUntilMinCallsAreRecorded() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 5, 0.5, 60_000);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void opensAtTheFailureRate() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 60_000);
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // 2 of 4
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(0.5, breaker.getFailureRate());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.75, 60_000);
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        // the two failures are pushed out by successes
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(0.0, breaker.getFailureRate());
+
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void letsOneTrialThroughAfterTheOpenPeriod() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(50);
+        Thread.sleep(80);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // the trial is still running
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        // closed with a fresh window, the failures that opened it are gone
+        assertEquals(0.0, breaker.getFailureRate());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedTrialReopens() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(50);
+        Thread.sleep(80);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void releasedTrialFreesTheSlot() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(50);
+        Thread.sleep(80);
+
+        assertTrue(breaker.tryAcquire());
+        // e.g. the bulkhead rejected it, the gateway was never asked
+        breaker.release();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0, 1, 0.5, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(10, 11, 0.5, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(10, 5, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(10, 5, 1.5, 1000));
+    }
+
+    private static CircuitBreaker openBreaker(long openMillis) {
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 1.0, openMillis);
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
@@ -0,0 +1,73 @@
+package com.odyssey.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+    @Test
+    void countsExactlyWhileItemsDoNotCollide() {
+        CountMinSketch sketch = new CountMinSketch(1024, 5);
+        sketch.add("goa", 3);
+        sketch.add("manali", 1);
+        assertEquals(5, sketch.add("goa", 2));
+
+        assertEquals(5, sketch.estimate("goa"));
+        assertEquals(1, sketch.estimate("manali"));
+        assertEquals(0, sketch.estimate("never searched"));
+    }
+
+    @Test
+    void neverUnderestimatesAndStaysWithinTheErrorBound() {
+        int width = 256;
+        CountMinSketch sketch = new CountMinSketch(width, 5);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+        long total = 0;
+        for (int i = 0; i < 50_000; i++) {
+            // skewed, like real search terms
+            String term = "term-" + (int) Math.pow(random.nextInt(1000), 2) / 1000;
+            sketch.add(term, 1);
+            exact.merge(term, 1L, Long::sum);
+            total++;
+        }
+
+        long bound = 2 * total / width;
+        int overBound = 0;
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), entry.getKey() + " underestimated");
+            if (estimate - entry.getValue() > bound) {
+                overBound++;
+            }
+        }
+        // the bound holds with probability 1 - (1/2)^depth per item
+        assertTrue(overBound <= exact.size() / 20, overBound + " of " + exact.size() + " over the bound");
+    }
+
+    @Test
+    void rejectsEmptyDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(16, 0));
+    }
+
+    @Test
+    void topKKeepsTheHeaviestItems() {
+        CountMinSketch sketch = new CountMinSketch(1024, 5);
+        TopKTracker top = new TopKTracker(3);
+        String[] terms = { "goa", "goa", "goa", "goa", "kerala", "kerala", "kerala", "ooty", "ooty", "leh", "coorg" };
+        for (String term : terms) {
+            top.offer(term, sketch.add(term, 1));
+        }
+        assertEquals(3, top.items().size());
+        assertTrue(top.items().containsAll(List.of("goa", "kerala", "ooty")), top.items().toString());
+    }
+}
@@ -0,0 +1,45 @@
+package com.odyssey.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTest {
+
+    @Test
+    void putEntriesExpireAfterTheTtl() throws InterruptedException {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(50, 10);
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+
+        Thread.sleep(80);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void computeIfAbsentKeepsEntriesAliveWhileTheyAreUsed() throws InterruptedException {
+        ExpiringCache<String, Object> cache = new ExpiringCache<>(100, 10);
+        Object first = cache.computeIfAbsent("ip", k -> new Object());
+        // used more often than the TTL, for longer than the TTL
+        for (int i = 0; i < 6; i++) {
+            Thread.sleep(40);
+            assertSame(first, cache.computeIfAbsent("ip", k -> new Object()), "touch " + i);
+        }
+
+        Thread.sleep(150);
+        assertNotSame(first, cache.computeIfAbsent("ip", k -> new Object()));
+    }
+
+    @Test
+    void staysWithinItsBound() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(60_000, 100);
+        for (int i = 0; i < 1_000; i++) {
+            cache.computeIfAbsent(i, k -> k);
+        }
+        assertTrue(cache.size() <= 100, "size " + cache.size());
+    }
+}
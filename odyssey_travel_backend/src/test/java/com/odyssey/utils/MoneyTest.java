@@ -0,0 +1,87 @@
+package com.odyssey.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.odyssey.entity.MoneyConverter;
+
+class MoneyTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void parsesDecimalsExactly() {
+        assertEquals(149_950, Money.of(new BigDecimal("1499.50")).getMinorUnits());
+        assertEquals(149_950, Money.of(new BigDecimal("1499.5")).getMinorUnits());
+        assertEquals(100, Money.valueOf(" 1 ").getMinorUnits());
+        assertNull(Money.of(null));
+    }
+
+    @Test
+    void rejectsFractionsOfAPaisa() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class, () -> Money.valueOf("12.345"));
+        assertThrows(IllegalArgumentException.class, () -> Money.valueOf("twelve"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void jsonKeepsThePlainDecimalForm() throws Exception {
+        assertEquals("1499.50", json.writeValueAsString(Money.ofMinor(149_950)));
+        assertEquals(Money.ofMinor(149_950), json.readValue("1499.5", Money.class));
+        assertEquals(Money.ofMinor(149_950), json.readValue("\"1499.50\"", Money.class));
+    }
+
+    @Test
+    void jsonRoundsOffBinaryNoise() throws Exception {
+        // 3 x 1499.99 computed in JavaScript
+        assertEquals(Money.ofMinor(449_997), json.readValue("4499.969999999999", Money.class));
+        assertEquals(Money.ofMinor(30), json.readValue("0.30000000000000004", Money.class));
+    }
+
+    @Test
+    void arithmeticIsExact() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.valueOf("0.10"));
+        }
+        assertEquals(Money.valueOf("1.00"), total);
+        assertEquals(Money.valueOf("4499.97"), Money.valueOf("1499.99").times(3));
+        assertEquals("INR 4499.97", Money.valueOf("1499.99").times(3).toString());
+    }
+
+    @Test
+    void overflowFailsInsteadOfWrapping() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+    }
+
+    @Test
+    void comparesByAmount() {
+        assertTrue(Money.valueOf("10.00").compareTo(Money.valueOf("9.99")) > 0);
+        assertEquals(0, Money.valueOf("10").compareTo(Money.valueOf("10.00")));
+        assertEquals(Money.valueOf("10"), Money.valueOf("10.00"));
+        assertEquals(Money.valueOf("10").hashCode(), Money.valueOf("10.00").hashCode());
+        assertTrue(Money.valueOf("0.01").isPositive());
+        assertFalse(Money.ZERO.isPositive());
+        assertFalse(Money.valueOf("-5").isPositive());
+    }
+
+    @Test
+    void storedAsMinorUnits() {
+        MoneyConverter converter = new MoneyConverter();
+        assertEquals(Long.valueOf(149_950), converter.convertToDatabaseColumn(Money.valueOf("1499.50")));
+        assertEquals(Money.valueOf("1499.50"), converter.convertToEntityAttribute(149_950L));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,117 @@
+package com.odyssey.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SortedCsvFileTest {
+
+    private Path file;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void seeksToTheFirstLineAtOrAfterTheKey() throws IOException {
+        StringBuilder csv = new StringBuilder("payment_id,gateway_reference,amount,status\n");
+        for (int id = 10; id <= 5_000; id += 10) {
+            csv.append(id).append(",ref_").append(id).append(",100.00,SETTLED\n");
+        }
+        try (SortedCsvFile sorted = open(csv.toString())) {
+            assertEquals("10", lineAt(sorted, sorted.seek(0)));
+            assertEquals("10", lineAt(sorted, sorted.seek(10)));
+            assertEquals("20", lineAt(sorted, sorted.seek(11)));
+            assertEquals("2500", lineAt(sorted, sorted.seek(2_500)));
+            assertEquals("2510", lineAt(sorted, sorted.seek(2_501)));
+            assertEquals("5000", lineAt(sorted, sorted.seek(5_000)));
+            assertEquals(sorted.size(), sorted.seek(5_001));
+        }
+    }
+
+    @Test
+    void skipsTheHeader() throws IOException {
+        try (SortedCsvFile sorted = open("payment_id,amount\n7,1.00\n9,2.00\n")) {
+            assertEquals("payment_id,amount\n".length(), sorted.dataStart());
+            assertEquals(Long.valueOf(7), sorted.firstKey());
+            assertEquals(Long.valueOf(9), sorted.lastKey());
+        }
+        try (SortedCsvFile sorted = open("7,1.00\n9,2.00")) {
+            assertEquals(0, sorted.dataStart());
+            assertEquals(Long.valueOf(9), sorted.lastKey());
+        }
+    }
+
+    @Test
+    void landsOnTheFirstOfDuplicateKeys() throws IOException {
+        try (SortedCsvFile sorted = open("1,a\n2,a\n2,b\n2,c\n3,a\n")) {
+            long offset = sorted.seek(2);
+            try (BufferedReader reader = sorted.readerAt(offset)) {
+                assertEquals("2,a", reader.readLine());
+            }
+        }
+    }
+
+    @Test
+    void quotedKeysAreKeys() throws IOException {
+        try (SortedCsvFile sorted = open("\"1\",a\n\"5\",b\n\"9\",c\n")) {
+            assertEquals("\"5\"", lineAt(sorted, sorted.seek(2)));
+        }
+    }
+
+    @Test
+    void unreadableLinesNeverHideAMatch() throws IOException {
+        // an unreadable line may be returned just ahead of the match, never after it
+        try (SortedCsvFile sorted = open("1,a\n2,a\ngarbage\n???\n3,a\n4,a\n")) {
+            try (BufferedReader reader = sorted.readerAt(sorted.seek(3))) {
+                String line;
+                while ((line = reader.readLine()) != null && !line.startsWith("3")) {
+                    assertTrue(line.equals("garbage") || line.equals("???"), line);
+                }
+                assertEquals("3,a", line);
+            }
+            assertEquals("4", lineAt(sorted, sorted.seek(4)));
+        }
+    }
+
+    @Test
+    void emptyFile() throws IOException {
+        try (SortedCsvFile sorted = open("")) {
+            assertNull(sorted.firstKey());
+            assertNull(sorted.lastKey());
+            assertEquals(0, sorted.seek(42));
+        }
+        try (SortedCsvFile sorted = open("payment_id,amount\n")) {
+            assertNull(sorted.firstKey());
+            assertEquals(sorted.size(), sorted.seek(42));
+        }
+    }
+
+    private SortedCsvFile open(String content) throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+        file = Files.createTempFile("settlement", ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return new SortedCsvFile(file);
+    }
+
+    // first column of the line at offset
+    private static String lineAt(SortedCsvFile sorted, long offset) throws IOException {
+        try (BufferedReader reader = sorted.readerAt(offset)) {
+            return reader.readLine().split(",")[0];
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.odyssey.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsABurstOfCapacityThenAsksToWait() {
+        TokenBucket bucket = new TokenBucket(5, 60);
+        long now = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryConsume(now), "request " + i);
+        }
+        long wait = bucket.tryConsume(now);
+        // one token a second
+        assertTrue(wait > 0 && wait <= SECOND, "wait " + wait);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 60);
+        long now = System.nanoTime();
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+        assertTrue(bucket.tryConsume(now) > 0);
+
+        assertEquals(0, bucket.tryConsume(now + SECOND));
+        assertTrue(bucket.tryConsume(now + SECOND) > 0);
+    }
+
+    @Test
+    void idleTimeDoesNotBankMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 60);
+        long later = System.nanoTime() + 3_600 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(later));
+        }
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, 1);
+        long now = System.nanoTime();
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] workers = new Future<?>[8];
+            for (int t = 0; t < workers.length; t++) {
+                workers[t] = pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (bucket.tryConsume(now) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 60));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(5, 0));
+    }
+}